@@ -140,6 +140,22 @@ public abstract class AbstractConnectorHandler implements RequestStreamHandler {
    */
   private boolean embedded = false;
 
+  /**
+   * A flag to inform, if the host is able to receive the response in chunks, so that the connector may stream large responses
+   * directly into the output stream.
+   */
+  private boolean streaming = false;
+
+  /**
+   * The output stream of the current request. Only set, if the host supports streaming.
+   */
+  private OutputStream streamingOutput;
+
+  /**
+   * A flag to inform, if the connector already started to stream the response of the current request into the output stream.
+   */
+  private boolean responseStreamed;
+
   /**
    * {@link EventDecryptor} used for decrypting the parameters.
    */
@@ -185,6 +201,43 @@ public abstract class AbstractConnectorHandler implements RequestStreamHandler {
     this.embedded = embedded;
   }
 
+  /**
+   * Informs the connector that the host is able to receive the response in chunks.
+   *
+   * @param streaming true, if the connector may stream large responses directly into the output stream.
+   */
+  @SuppressWarnings("unused")
+  public void setStreaming(boolean streaming) {
+    this.streaming = streaming;
+  }
+
+  /**
+   * Returns the output stream of the current request, if the connector is allowed to stream the response into it.
+   *
+   * @return the output stream of the current request or null, if the host does not support streaming.
+   */
+  protected OutputStream getStreamingOutput() {
+    return streamingOutput;
+  }
+
+  /**
+   * Must be called by implementations before they write the first bytes of a streamed response into the
+   * {@link #getStreamingOutput() streaming output}. The result of {@link #processEvent(Event)} will not be written anymore
+   * afterwards.
+   */
+  protected void markResponseStreamed() {
+    responseStreamed = true;
+  }
+
+  /**
+   * Returns true, if the response of the current request was (partially) streamed into the output stream already.
+   *
+   * @return true, if the response of the current request was streamed.
+   */
+  protected boolean isResponseStreamed() {
+    return responseStreamed;
+  }
+
   /**
    * The entry point for processing an event.
    *
@@ -202,20 +255,17 @@ public abstract class AbstractConnectorHandler implements RequestStreamHandler {
       start = System.currentTimeMillis();
       Typed dataOut;
       this.context = context;
+      this.streamingOutput = streaming ? output : null;
+      this.responseStreamed = false;
       String ifNoneMatch = null;
       try {
         Event event = readEvent(input);
-
-        String connectorId = null;
-        this.streamId = streamId != null ? streamId : event.getStreamId();
-
-        if (event.getConnectorParams() != null  && event.getConnectorParams().get("connectorId") != null)
-          connectorId = (String) event.getConnectorParams().get("connectorId");
-
-        maxUncompressedResponseSize = getMaxUncompressedResponseSize(event);
-        traceItem = new TraceItem(this.streamId, connectorId);
+        initializeRequest(event, streamId);
 
         ifNoneMatch = event.getIfNoneMatch();
+        //The ETag is calculated on the complete response, so conditional requests are never streamed
+        if (ifNoneMatch != null)
+          this.streamingOutput = null;
 
         if (event instanceof RelocatedEvent) {
           handleRequest(Payload.prepareInputStream(relocationClient.processRelocatedEvent((RelocatedEvent) event)), output, context);
@@ -239,6 +289,12 @@ public abstract class AbstractConnectorHandler implements RequestStreamHandler {
       catch (OutOfMemoryError e) {
        throw e;
       }
+      if (responseStreamed) {
+        //The response was written already, an error at this point can only lead to an incomplete response
+        if (dataOut instanceof ErrorResponse)
+          logger.error("{} Streaming of the response was aborted: {}", traceItem, ((ErrorResponse) dataOut).getErrorMessage());
+        return;
+      }
       writeDataOut(output, dataOut, ifNoneMatch);
     }
     catch (Exception e) {
@@ -249,6 +305,74 @@ public abstract class AbstractConnectorHandler implements RequestStreamHandler {
     }
   }
 
+  /**
+   * The entry point for processing an event which is handed over in-process by an embedding host.
+   * Neither the event nor the response get serialized. The response gets an ETag the same way as if it was written into an output stream.
+   *
+   * @param event The event
+   * @param context The execution environment context object
+   * @return The response
+   */
+  public Typed handleEvent(Event event, Context context) {
+    start = System.currentTimeMillis();
+    this.context = context;
+    this.streamingOutput = null;
+    this.responseStreamed = false;
+    Typed dataOut;
+    try {
+      initializeRequest(event, null);
+      initialize(event);
+      dataOut = processEvent(event);
+    }
+    catch (ErrorResponseException e) {
+      if (e.getErrorResponse().getStreamId() == null)
+        e.getErrorResponse().setStreamId(this.streamId);
+      dataOut = e.getErrorResponse();
+    }
+    catch (Exception e) {
+      logger.error("{} Unexpected exception occurred:", traceItem, e);
+      dataOut = new ErrorResponse()
+          .withStreamId(this.streamId)
+          .withError(XyzError.EXCEPTION)
+          .withErrorMessage("Unexpected exception occurred.");
+    }
+    return prepareDataOut(dataOut, event.getIfNoneMatch());
+  }
+
+  private void initializeRequest(Event event, String streamId) {
+    String connectorId = null;
+    this.streamId = streamId != null ? streamId : event.getStreamId();
+
+    if (event.getConnectorParams() != null  && event.getConnectorParams().get("connectorId") != null)
+      connectorId = (String) event.getConnectorParams().get("connectorId");
+
+    maxUncompressedResponseSize = getMaxUncompressedResponseSize(event);
+    traceItem = new TraceItem(this.streamId, connectorId);
+  }
+
+  /**
+   * Handles the If-None-Match condition for a response which is returned as object, see {@link #writeDataOut(OutputStream, Typed, String)}.
+   * The response is only serialized to calculate its ETag if the event comes with an If-None-Match condition. Otherwise, the response is
+   * returned without ETag, so the hub can calculate it once it actually needs it.
+   * As the response does not leave the process, no size limit is applied.
+   */
+  Typed prepareDataOut(Typed dataOut, String ifNoneMatch) {
+    if (dataOut instanceof BinaryResponse) {
+      //NOTE: BinaryResponses contain an ETag automatically, nothing to calculate here
+      String etag = ((BinaryResponse) dataOut).getEtag();
+      return XyzResponse.etagMatches(ifNoneMatch, etag) ? new NotModifiedResponse().withEtag(etag) : dataOut;
+    }
+    if (ifNoneMatch == null || !(dataOut instanceof XyzResponse) || dataOut instanceof ErrorResponse)
+      return dataOut;
+
+    //The ETag is calculated on the serialized form to be the same as for responses which are written into an output stream
+    String etag = XyzResponse.calculateEtagFor(dataOut.toByteArray());
+    if (XyzResponse.etagMatches(ifNoneMatch, etag))
+      return new NotModifiedResponse().withEtag(etag);
+    ((XyzResponse<?>) dataOut).setEtag(etag);
+    return dataOut;
+  }
+
   /**
    * Read the connector event from the provided input stream
    *
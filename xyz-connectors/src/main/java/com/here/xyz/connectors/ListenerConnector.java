@@ -25,6 +25,7 @@ import com.here.xyz.events.ContentModifiedNotification;
 import com.here.xyz.events.DeleteFeaturesByTagEvent;
 import com.here.xyz.events.Event;
 import com.here.xyz.events.EventNotification;
+import com.here.xyz.events.EventNotificationBatch;
 import com.here.xyz.events.GetFeaturesByBBoxEvent;
 import com.here.xyz.events.GetFeaturesByGeometryEvent;
 import com.here.xyz.events.GetFeaturesByIdEvent;
@@ -53,6 +54,8 @@ public abstract class ListenerConnector extends AbstractConnectorHandler {
       return processHealthCheckEvent((HealthCheckEvent) event);
     } else if (event instanceof EventNotification) {
       processEventNotification((EventNotification) event);
+    } else if (event instanceof EventNotificationBatch) {
+      processEventNotificationBatch((EventNotificationBatch) event);
     } else {
       throw new ErrorResponseException(streamId, XyzError.NOT_IMPLEMENTED,
           "Unknown notification type '" + event.getClass().getSimpleName() + "'");
@@ -65,6 +68,19 @@ public abstract class ListenerConnector extends AbstractConnectorHandler {
   protected void initialize(Event event) throws Exception {
   }
 
+  /**
+   * Processes all notifications of the batch in the order in which they have been collected.
+   * Listener connectors which can process a batch more efficiently, may override this method.
+   *
+   * @param batch the batch of notifications
+   */
+  public void processEventNotificationBatch(EventNotificationBatch batch) throws Exception {
+    if (batch.getNotifications() == null) return;
+    for (EventNotification notification : batch.getNotifications()) {
+      processEventNotification(notification);
+    }
+  }
+
   public void processEventNotification(EventNotification notification) throws Exception {
     if (notification == null) {
       throw new ErrorResponseException(streamId, XyzError.NOT_IMPLEMENTED, "Unknown event type");
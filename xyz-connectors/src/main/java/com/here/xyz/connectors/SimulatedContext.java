@@ -61,6 +61,13 @@ public class SimulatedContext implements Context, LambdaLogger {
     return environmentVariables != null ? environmentVariables.get(name) : System.getenv(name);
   }
 
+  /**
+   * Returns the mocked environment variables or null, if the environment variables of the process are used.
+   */
+  public Map<String, String> getEnvironmentVariables() {
+    return environmentVariables;
+  }
+
   @Override
   public String getAwsRequestId() {
     if (awsRequestId == null) {
@@ -24,13 +24,18 @@ import com.here.xyz.Payload;
 import com.here.xyz.Typed;
 import com.here.xyz.XyzSerializable;
 import com.here.xyz.events.Event;
+import com.here.xyz.events.EventNotification;
+import com.here.xyz.events.EventNotificationBatch;
 import com.here.xyz.events.HealthCheckEvent;
+import com.here.xyz.events.ModifySpaceEvent;
 import com.here.xyz.events.RelocatedEvent;
 import com.here.xyz.models.geojson.coordinates.PointCoordinates;
 import com.here.xyz.models.geojson.implementation.Feature;
 import com.here.xyz.models.geojson.implementation.FeatureCollection;
 import com.here.xyz.models.geojson.implementation.Point;
 import com.here.xyz.models.geojson.implementation.Properties;
+import com.here.xyz.responses.NotModifiedResponse;
+import com.here.xyz.responses.XyzResponse;
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -38,6 +43,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 import java.util.stream.Collectors;
@@ -129,6 +135,115 @@ public class AbstractConnectorHandlerTest {
     assertNotNull(result);
   }
 
+  @Test
+  public void testStreamedResponse() throws IOException {
+    final String streamed = "{\"type\":\"FeatureCollection\",\"features\":[]}";
+    AbstractConnectorHandler streamingConnector = new AbstractConnectorHandler() {
+      @Override
+      protected Typed processEvent(Event event) throws Exception {
+        if (getStreamingOutput() == null)
+          return new FeatureCollection();
+        markResponseStreamed();
+        getStreamingOutput().write(streamed.getBytes());
+        return new FeatureCollection();
+      }
+
+      @Override
+      protected void initialize(Event event) {
+      }
+    };
+    streamingConnector.setEmbedded(true);
+    streamingConnector.setStreaming(true);
+
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    streamingConnector.handleRequest(new ByteArrayInputStream(HealthCheckEventString.getBytes()), os, null);
+
+    //Only the streamed bytes are expected, the returned response must not be written additionally
+    assertEquals(streamed, os.toString());
+  }
+
+  @Test
+  public void testHandleEvent() throws IOException {
+    AbstractConnectorHandler connector = new AbstractConnectorHandler() {
+      @Override
+      protected Typed processEvent(Event event) {
+        return new FeatureCollection().withHandle("HANDLE");
+      }
+
+      @Override
+      protected void initialize(Event event) {
+      }
+    };
+    connector.setEmbedded(true);
+
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    connector.handleRequest(new ByteArrayInputStream(HealthCheckEventString.getBytes()), os, null);
+    FeatureCollection written = XyzSerializable.deserialize(os.toString());
+
+    //The response object is returned as is without ETag, but calculating it later must result in the same ETag as the written one
+    Typed direct = connector.handleEvent(new HealthCheckEvent().withStreamId("STREAM_ID_EXAMPLE"), null);
+    assertTrue(direct instanceof FeatureCollection);
+    assertEquals("HANDLE", ((FeatureCollection) direct).getHandle());
+    assertNull(((FeatureCollection) direct).getEtag());
+    assertEquals(written.getEtag(), XyzResponse.calculateEtagFor(direct.toByteArray()));
+
+    //With an If-None-Match condition the ETag is calculated right away
+    Typed notModified = connector.handleEvent(new HealthCheckEvent().withIfNoneMatch(written.getEtag()), null);
+    assertTrue(notModified instanceof NotModifiedResponse);
+    Typed modified = connector.handleEvent(new HealthCheckEvent().withIfNoneMatch("\"OTHER\""), null);
+    assertEquals(written.getEtag(), ((FeatureCollection) modified).getEtag());
+  }
+
+  @Test
+  public void testEventNotificationBatch() throws Exception {
+    final List<String> notifiedSpaces = new ArrayList<>();
+    ListenerConnector listener = new ListenerConnector() {
+      @Override
+      protected void processModifySpace(ModifySpaceEvent event, NotificationParams notificationParams) {
+        notifiedSpaces.add(event.getSpace());
+      }
+    };
+
+    EventNotificationBatch batch = new EventNotificationBatch().withNotifications(Stream.of("space1", "space2", "space3")
+        .map(space -> new EventNotification()
+            .withEventType("ModifySpaceEvent.request")
+            .withEvent(new ModifySpaceEvent().withSpace(space))
+            .withSpace(space))
+        .collect(Collectors.toList()));
+
+    //The batch must survive the serialization and all notifications must be processed in order
+    Event<?> event = listener.readEvent(new ByteArrayInputStream(batch.serialize().getBytes()));
+    assertTrue(event instanceof EventNotificationBatch);
+    listener.processEvent(event);
+    assertEquals(Arrays.asList("space1", "space2", "space3"), notifiedSpaces);
+  }
+
+  @Test
+  public void testConditionalRequestIsNotStreamed() throws IOException {
+    final boolean[] streamingOffered = {true};
+    AbstractConnectorHandler streamingConnector = new AbstractConnectorHandler() {
+      @Override
+      protected Typed processEvent(Event event) throws Exception {
+        streamingOffered[0] = getStreamingOutput() != null;
+        return new FeatureCollection();
+      }
+
+      @Override
+      protected void initialize(Event event) {
+      }
+    };
+    streamingConnector.setEmbedded(true);
+    streamingConnector.setStreaming(true);
+
+    final String conditionalEvent = "{\"type\":\"HealthCheckEvent\", \"streamId\":\"STREAM_ID_EXAMPLE\", \"ifNoneMatch\":\"\\\"1\\\"\"}";
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    streamingConnector.handleRequest(new ByteArrayInputStream(conditionalEvent.getBytes()), os, null);
+
+    //The ETag can only be calculated on the complete response, so it must not be streamed
+    assertFalse(streamingOffered[0]);
+    assertTrue(XyzSerializable.deserialize(os.toString()) instanceof FeatureCollection);
+  }
+
   //This is a test for the relocation client. To run it, an S3 bucket and valid credentials are required.
   //@Test
   public void testRelocatedEvent() throws Exception {
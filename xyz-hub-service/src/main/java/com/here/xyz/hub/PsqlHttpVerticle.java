@@ -58,6 +58,7 @@ public class PsqlHttpVerticle extends AbstractHttpServerVerticle {
 
   public static Integer DB_CHECKOUT_TIMEOUT;
   public static boolean DB_TEST_CONNECTION_ON_CHECKOUT;
+  public static String DB_POOL_IMPLEMENTATION;
 
   public static int DB_STATEMENT_TIMEOUT_IN_S;
 
@@ -145,6 +146,7 @@ public class PsqlHttpVerticle extends AbstractHttpServerVerticle {
 
       DB_CHECKOUT_TIMEOUT = Integer.parseInt((envMap.get("DB_CHECKOUT_TIMEOUT") == null ? "10" : envMap.get("DB_CHECKOUT_TIMEOUT")));
       DB_TEST_CONNECTION_ON_CHECKOUT = Boolean.parseBoolean((envMap.get("DB_TEST_CONNECTION_ON_CHECKOUT")));
+      DB_POOL_IMPLEMENTATION = envMap.get("DB_POOL_IMPLEMENTATION");
 
       DB_STATEMENT_TIMEOUT_IN_S = Integer.parseInt(
           envMap.get("DB_STATEMENT_TIMEOUT_IN_S") == null ? "10" : envMap.get("DB_STATEMENT_TIMEOUT_IN_S"));
@@ -37,11 +37,16 @@ import com.here.xyz.hub.rest.admin.messages.brokers.Broker;
 import com.here.xyz.hub.rest.admin.messages.brokers.NoopBroker;
 import com.here.xyz.hub.util.ARN;
 import com.here.xyz.hub.util.OTelMetrics;
+import com.here.xyz.hub.util.metrics.CacheMetric;
+import com.here.xyz.hub.util.metrics.CoalescedReadRequests;
 import com.here.xyz.hub.util.metrics.GcDurationMetric;
 import com.here.xyz.hub.util.metrics.GlobalInflightRequestMemory;
 import com.here.xyz.hub.util.metrics.GlobalUsedRfcConnections;
 import com.here.xyz.hub.util.metrics.MajorGcCountMetric;
 import com.here.xyz.hub.util.metrics.MemoryMetric;
+import com.here.xyz.hub.util.metrics.QueuedRequests;
+import com.here.xyz.hub.util.metrics.ShedRequests;
+import com.here.xyz.hub.util.metrics.SpaceCacheMetric;
 import com.here.xyz.hub.util.metrics.base.CWBareValueMetricPublisher;
 import com.here.xyz.hub.util.metrics.base.MetricPublisher;
 import com.here.xyz.hub.util.metrics.net.ConnectionMetrics;
@@ -338,7 +343,12 @@ public class Service extends Core {
       metricPublishers.add(new CWBareValueMetricPublisher(new GcDurationMetric("GcDuration")));
       metricPublishers.add(new CWBareValueMetricPublisher(new GlobalUsedRfcConnections("GlobalUsedRfcConnections")));
       metricPublishers.add(new CWBareValueMetricPublisher(new GlobalInflightRequestMemory("GlobalInflightRequestMemory")));
+      metricPublishers.add(new CWBareValueMetricPublisher(new CoalescedReadRequests("CoalescedReadRequests")));
+      metricPublishers.addAll(SpaceCacheMetric.startSpaceCacheMetricPublishers());
+      metricPublishers.add(new CWBareValueMetricPublisher(new ShedRequests("ShedRequests")));
+      metricPublishers.add(new CWBareValueMetricPublisher(new QueuedRequests("QueuedRequests")));
       metricPublishers.addAll(ConnectionMetrics.startConnectionMetricPublishers());
+      metricPublishers.addAll(CacheMetric.startCacheMetricPublishers());
     }
   }
 
@@ -399,6 +409,71 @@ public class Service extends Core {
      */
     public int OFF_HEAP_CACHE_SIZE_MB;
 
+    /**
+     * If set to true, identical cacheable read requests which arrive while such a request is in-flight on this node are coalesced
+     * with the in-flight request instead of invoking the storage connector again.
+     */
+    public boolean ENABLE_REQUEST_COALESCING;
+
+    /**
+     * If set to true, the coalescing of identical cacheable read requests is also performed across service nodes by using a
+     * distributed lock of the cache. Only has an effect if {@link #ENABLE_REQUEST_COALESCING} is true and Redis is configured.
+     */
+    public boolean ENABLE_DISTRIBUTED_REQUEST_COALESCING;
+
+    /**
+     * The number of threads used to encode vector tiles. If not set, the number of available processors is used.
+     */
+    public int TILE_ENCODING_THREADS;
+
+    /**
+     * The maximum number of vector tiles waiting to be encoded. Further tile requests are rejected with status 429.
+     */
+    public int TILE_ENCODING_QUEUE_SIZE;
+
+    /**
+     * The number of threads used to process the entries of large write requests. If not set, the number of available processors is used.
+     */
+    public int MODIFY_OP_PROCESSING_THREADS;
+
+    /**
+     * The maximum number of chunks of write requests, which may wait for being processed. Further write requests are rejected with
+     * status 429.
+     */
+    public int MODIFY_OP_PROCESSING_QUEUE_SIZE;
+
+    /**
+     * The number of features of a write request, which are processed together. Write requests with more features are processed in
+     * parallel chunks of that size, apart from the event-loop.
+     */
+    public int MODIFY_OP_PROCESSING_CHUNK_SIZE;
+
+    /**
+     * The number of most requested tiles per space, which are pre-warmed after the content of a space with tile pre-warming was modified.
+     */
+    public int TILE_PREWARMING_TILES;
+
+    /**
+     * The maximum number of tiles being pre-warmed per second by this node. 0 disables the tile pre-warming.
+     */
+    public int TILE_PREWARMING_RATE;
+
+    /**
+     * The maximum number of features being written together within one chunk of a streamed feature upload.
+     */
+    public int STREAMING_UPLOAD_CHUNK_SIZE;
+
+    /**
+     * The maximum number of bytes being read into one chunk of a streamed feature upload.
+     */
+    public int STREAMING_UPLOAD_CHUNK_BYTE_SIZE;
+
+    /**
+     * The maximum number of partition requests of feature exports, which are running against one storage at the same time.
+     * This is also the default number of partitions of an export.
+     */
+    public int EXPORT_MAX_PARALLEL_PARTITIONS;
+
     /**
      * The port of the HTTP server.
      */
@@ -574,6 +649,22 @@ public class Service extends Core {
      */
     public String PACKAGES_DYNAMODB_TABLE_ARN;
 
+    /**
+     * The maximum number of spaces being cached by this node. If the cache is full, the spaces which expire next get evicted.
+     */
+    public int SPACE_CACHE_MAX_SIZE;
+
+    /**
+     * The interval (in ms) in which the node-local space index gets refreshed with the spaces which were modified in the meantime.
+     * The index is used to select the spaces for listings in memory. A value of 0 or less disables the index.
+     */
+    public int SPACE_INDEX_REFRESH_INTERVAL_MS;
+
+    /**
+     * The interval (in ms) in which the node-local space index gets rebuilt completely.
+     */
+    public int SPACE_INDEX_FULL_REFRESH_INTERVAL_MS;
+
     /**
      * The default {@link Broker} to use. If not given, Redis is used.
      */
@@ -623,6 +714,12 @@ public class Service extends Core {
      */
     public int GLOBAL_MAX_QUEUE_SIZE; //MB
 
+    /**
+     * The maximum number of calls, which may wait in the queue of one remote function. If the queue is full, the oldest calls are
+     * discarded with status 429.
+     */
+    public int REMOTE_FUNCTION_MAX_QUEUE_SIZE;
+
     /**
      * The default timeout for remote function requests in seconds.
      */
@@ -653,6 +750,11 @@ public class Service extends Core {
      */
     public int GLOBAL_INFLIGHT_REQUEST_MEMORY_SIZE_MB;
 
+    /**
+     * The maximum time (in ms) a request waits for in-flight request memory to become available before it gets rejected with status 429.
+     */
+    public int INFLIGHT_REQUEST_QUEUE_TIMEOUT_MS;
+
     /**
      * A value between 0 and 1 defining a threshold as percentage of utilized RemoteFunction max-connections after which to start
      * prioritizing more important connectors over less important ones.
@@ -678,6 +780,17 @@ public class Service extends Core {
      */
     public String REMOTE_FUNCTION_POOL_ID;
 
+    /**
+     * The maximum number of notifications being sent together within one batch to a listener connector which supports batched
+     * notifications. A value of 1 or less disables the batching.
+     */
+    public int LISTENER_NOTIFICATION_BATCH_SIZE;
+
+    /**
+     * The maximum time (in ms) a notification waits for further notifications to be batched with, before the batch gets sent.
+     */
+    public int LISTENER_NOTIFICATION_BATCH_MAX_DELAY_MS;
+
     /**
      * The web root for serving static resources from the file system.
      */
@@ -27,11 +27,11 @@ import static io.vertx.core.http.HttpHeaders.LOCATION;
 import com.google.common.io.ByteStreams;
 import com.google.common.io.Files;
 import com.here.xyz.hub.auth.ExtendedJWTAuthHandler;
-import com.here.xyz.hub.auth.XyzAuthProvider;
 import com.here.xyz.hub.rest.AdminApi;
 import com.here.xyz.hub.rest.ConnectorApi;
 import com.here.xyz.hub.rest.FeatureApi;
 import com.here.xyz.hub.rest.FeatureQueryApi;
+import com.here.xyz.hub.rest.FeatureStreamApi;
 import com.here.xyz.hub.rest.HistoryQueryApi;
 import com.here.xyz.hub.rest.RevisionApi;
 import com.here.xyz.hub.rest.SpaceApi;
@@ -44,6 +44,7 @@ import io.vertx.core.MultiMap;
 import io.vertx.core.Promise;
 import io.vertx.core.http.HttpServerResponse;
 import io.vertx.ext.auth.PubSecKeyOptions;
+import io.vertx.ext.auth.jwt.JWTAuth;
 import io.vertx.ext.auth.jwt.JWTAuthOptions;
 import io.vertx.ext.web.Router;
 import io.vertx.ext.web.RoutingContext;
@@ -123,6 +124,7 @@ public class XYZHubRESTVerticle extends AbstractHttpServerVerticle {
 
           new HealthApi(vertx, router);
           new AdminApi(vertx, router, jwtHandler);
+          new FeatureStreamApi(router, jwtHandler, createReceiveHandler(), createCorsHandler());
 
           //OpenAPI resources
           router.route("/hub/static/openapi/*").handler(createCorsHandler()).handler((routingContext -> {
@@ -222,7 +224,7 @@ public class XYZHubRESTVerticle extends AbstractHttpServerVerticle {
     }
     assert pubKey != null;
     final JWTAuthOptions authConfig = new JWTAuthOptions().addPubSecKey(new PubSecKeyOptions().setAlgorithm("RS256").setBuffer(pubKey));
-    return new ExtendedJWTAuthHandler(new XyzAuthProvider(vertx, authConfig), null);
+    return new ExtendedJWTAuthHandler(JWTAuth.create(vertx, authConfig), null);
   }
 
   private static class DelegatingHandler<E> implements Handler<E> {
@@ -19,13 +19,17 @@
 
 package com.here.xyz.hub.auth;
 
+import io.vertx.core.json.JsonArray;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 /**
  * A matrix that describes the relationship between actions and attribute maps. This can either be used as access rights matrix or as
@@ -35,6 +39,11 @@ import java.util.Map.Entry;
  */
 public class ActionMatrix extends LinkedHashMap<String, List<AttributeMap>> {
 
+  /**
+   * The compiled form of this matrix when being used as access matrix, see {@link #compile()}.
+   */
+  private transient volatile Map<String, AccessIndex> accessIndex;
+
   /**
    * Adds the given attribute map to the provided action of this action matrix and returns this action matrix again. If no such action
    * exists a new action is created and the attributes map is added to a new list that is created. If the given attributes map or an equal
@@ -53,6 +62,7 @@ public class ActionMatrix extends LinkedHashMap<String, List<AttributeMap>> {
       throw new NullPointerException("attributesMap");
     }
 
+    accessIndex = null;
     List<AttributeMap> list = get(action);
     if (list == null) {
       list = new ArrayList<>();
@@ -77,6 +87,7 @@ public class ActionMatrix extends LinkedHashMap<String, List<AttributeMap>> {
    * already grants access rights to all resources what includes those that have the "tag" attribute set to "restaurant".
    */
   public void compactAccessMatrix() {
+    accessIndex = null;
     final Iterator<Entry<String, List<AttributeMap>>> iterator = entrySet().iterator();
     while (iterator.hasNext()) {
       final Entry<String, List<AttributeMap>> entry = iterator.next();
@@ -129,6 +140,50 @@ public class ActionMatrix extends LinkedHashMap<String, List<AttributeMap>> {
     }
   }
 
+  /**
+   * Assumes that this action matrix is used as access rights matrix and compiles it into an index, which allows to test the most common
+   * attribute maps, those which grant access for exactly one attribute value (e.g. a single space or owner), by a hash lookup instead of
+   * matching each attribute map one by one. All other attribute maps are still matched linearly.
+   * <p>
+   * Modifying the matrix drops the index again, but the attribute maps themselves must not be modified after the matrix was compiled.
+   *
+   * @return this.
+   */
+  public ActionMatrix compile() {
+    final Map<String, AccessIndex> index = new HashMap<>();
+    for (final Entry<String, List<AttributeMap>> entry : entrySet()) {
+      if (entry.getKey() != null && entry.getValue() != null) {
+        index.put(entry.getKey(), new AccessIndex(entry.getValue()));
+      }
+    }
+    accessIndex = index;
+    return this;
+  }
+
+  @Override
+  public List<AttributeMap> put(String action, List<AttributeMap> attributeMaps) {
+    accessIndex = null;
+    return super.put(action, attributeMaps);
+  }
+
+  @Override
+  public void putAll(Map<? extends String, ? extends List<AttributeMap>> m) {
+    accessIndex = null;
+    super.putAll(m);
+  }
+
+  @Override
+  public List<AttributeMap> remove(Object action) {
+    accessIndex = null;
+    return super.remove(action);
+  }
+
+  @Override
+  public void clear() {
+    accessIndex = null;
+    super.clear();
+  }
+
   /**
    * Tests this access matrix against the given request matrix.
    *
@@ -158,6 +213,17 @@ public class ActionMatrix extends LinkedHashMap<String, List<AttributeMap>> {
         return false;
       }
 
+      final Map<String, AccessIndex> index = accessIndex;
+      final AccessIndex actionIndex = index != null ? index.get(action) : null;
+      if (actionIndex != null) {
+        for (final AttributeMap resource : resourceList) {
+          if (resource != null && !actionIndex.matches(resource)) {
+            return false;
+          }
+        }
+        continue;
+      }
+
       // Loop all resources of one action.
       resourceLoop:
       for (final AttributeMap resource : resourceList) {
@@ -182,4 +248,80 @@ public class ActionMatrix extends LinkedHashMap<String, List<AttributeMap>> {
     }
     return true;
   }
+
+  /**
+   * The compiled access attribute maps of one action.
+   */
+  private static final class AccessIndex {
+
+    /**
+     * Whether there is an empty attribute map, which grants access to all resources.
+     */
+    private final boolean grantsAll;
+
+    /**
+     * The values of all attribute maps that only consist of one key with a scalar value, which is not a wildcard, grouped by the key.
+     */
+    private final Map<String, Set<Object>> exactValues = new HashMap<>();
+
+    /**
+     * All other attribute maps, which have to be matched one by one.
+     */
+    private final List<AttributeMap> others = new ArrayList<>();
+
+    private AccessIndex(final List<AttributeMap> accessList) {
+      boolean grantsAll = false;
+      for (final AttributeMap access : accessList) {
+        if (access == null) {
+          continue;
+        }
+        if (access.size() == 0) {
+          grantsAll = true;
+          break;
+        }
+        if (access.size() == 1) {
+          final Entry<String, Object> attribute = access.entrySet().iterator().next();
+          final Object value = attribute.getValue();
+          if ((value instanceof String && !((String) value).endsWith(AttributeMap.WILDCARD)) || value instanceof Number
+              || value instanceof Boolean) {
+            exactValues.computeIfAbsent(attribute.getKey(), k -> new HashSet<>()).add(value);
+            continue;
+          }
+        }
+        others.add(access);
+      }
+      this.grantsAll = grantsAll;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean matches(final AttributeMap resource) {
+      if (grantsAll) {
+        return true;
+      }
+
+      for (final Entry<String, Set<Object>> entry : exactValues.entrySet()) {
+        Object resourceValue = resource.get(entry.getKey());
+        if (resourceValue instanceof JsonArray) {
+          resourceValue = ((JsonArray) resourceValue).getList();
+        }
+        if (resourceValue instanceof List) {
+          for (final Object value : (List<Object>) resourceValue) {
+            if (entry.getValue().contains(value)) {
+              return true;
+            }
+          }
+        }
+        else if (resourceValue != null && entry.getValue().contains(resourceValue)) {
+          return true;
+        }
+      }
+
+      for (final AttributeMap access : others) {
+        if (access.matches(resource)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
 }
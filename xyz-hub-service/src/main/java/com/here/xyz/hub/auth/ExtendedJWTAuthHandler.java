@@ -21,6 +21,8 @@ package com.here.xyz.hub.auth;
 
 import static com.here.xyz.hub.rest.ApiParam.Query.ACCESS_TOKEN;
 
+import com.google.common.hash.Hashing;
+import com.here.xyz.hub.Core;
 import com.here.xyz.hub.Service;
 import com.here.xyz.hub.auth.Authorization.AuthorizationType;
 import com.here.xyz.hub.rest.Api;
@@ -30,13 +32,18 @@ import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.json.jackson.DatabindCodec;
 import io.vertx.ext.auth.User;
 import io.vertx.ext.auth.jwt.JWTAuth;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.HttpException;
 import io.vertx.ext.web.handler.impl.JWTAuthHandlerImpl;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.jodah.expiringmap.ExpirationPolicy;
+import net.jodah.expiringmap.ExpiringMap;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -66,6 +73,20 @@ public class ExtendedJWTAuthHandler extends JWTAuthHandlerImpl {
   private static final String ANONYMOUS_JWT_RESOURCE_FILE = "auth/dummyJwt.json";
   private static final String ANONYMOUS_JWT = JwtGenerator.generateToken(ANONYMOUS_JWT_RESOURCE_FILE);
 
+  /**
+   * The maximum time a verified token is kept in the cache, if it does not expire earlier.
+   */
+  private static final long MAX_VERIFIED_TOKEN_CACHE_TIME_MS = TimeUnit.MINUTES.toMillis(10);
+
+  /**
+   * The tokens, which have been verified already, keyed by the SHA-256 hash of the token as it was received.
+   */
+  private static final ExpiringMap<String, VerifiedToken> verifiedTokens = ExpiringMap.builder()
+      .maxSize(8 * 1024)
+      .expirationPolicy(ExpirationPolicy.CREATED)
+      .variableExpiration()
+      .build();
+
   public ExtendedJWTAuthHandler(JWTAuth authProvider, String realm) {
     super(authProvider, realm);
   }
@@ -88,6 +109,15 @@ public class ExtendedJWTAuthHandler extends JWTAuthHandlerImpl {
       jwt = ANONYMOUS_JWT;
     }
 
+    // If the token was verified already, neither the decompression nor the verification need to be repeated
+    final String tokenHash = jwt != null ? Hashing.sha256().hashString(jwt, StandardCharsets.UTF_8).toString() : null;
+    final VerifiedToken verifiedToken = tokenHash != null ? verifiedTokens.get(tokenHash) : null;
+    if (verifiedToken != null && !verifiedToken.isExpired()) {
+      Api.Context.setJWT(context, verifiedToken.payload);
+      handler.handle(Future.succeededFuture(verifiedToken.user));
+      return;
+    }
+
     // stores the token (raw, as it was received) temporarily in the context
     context.put(RAW_TOKEN, jwt);
 
@@ -113,12 +143,27 @@ public class ExtendedJWTAuthHandler extends JWTAuthHandlerImpl {
         handler.handle(Future.failedFuture(new HttpException(401, authn.cause())));
       }
       else {
-        authn.result().principal().put("jwt", context.remove(RAW_TOKEN));
+        final User user = authn.result();
+        user.principal().put("jwt", context.remove(RAW_TOKEN));
+        final JWTPayload payload = DatabindCodec.mapper().convertValue(user.principal(), JWTPayload.class);
+        // compiles the action matrix once, so that it can be re-used by all requests using the same token
+        payload.getXyzHubMatrix();
+        Api.Context.setJWT(context, payload);
+        cacheVerifiedToken(tokenHash, new VerifiedToken(user, payload));
         handler.handle(authn);
       }
     });
   }
 
+  private void cacheVerifiedToken(String tokenHash, VerifiedToken verifiedToken) {
+    if (tokenHash == null) return;
+    long cacheTime = MAX_VERIFIED_TOKEN_CACHE_TIME_MS;
+    if (verifiedToken.payload.exp != 0)
+      cacheTime = Math.min(cacheTime, verifiedToken.payload.exp * 1000L - Core.currentTimeMillis());
+    if (cacheTime > 0)
+      verifiedTokens.put(tokenHash, verifiedToken, cacheTime, TimeUnit.MILLISECONDS);
+  }
+
   private String getFromAuthHeader(String authHeader) {
     return (authHeader != null && authHeader.startsWith("Bearer ")) ?
         authHeader.substring(7) : null;
@@ -127,4 +172,19 @@ public class ExtendedJWTAuthHandler extends JWTAuthHandlerImpl {
   private boolean isJWT(final String jwt) {
     return StringUtils.countMatches(jwt, ".") == 2;
   }
+
+  private static class VerifiedToken {
+
+    final User user;
+    final JWTPayload payload;
+
+    VerifiedToken(User user, JWTPayload payload) {
+      this.user = user;
+      this.payload = payload;
+    }
+
+    boolean isExpired() {
+      return payload.exp != 0 && payload.exp * 1000L <= Core.currentTimeMillis();
+    }
+  }
 }
@@ -104,6 +104,28 @@ public class FeatureAuthorization extends Authorization {
     evaluateRights(requestRights, tokenRights, task, callback);
   }
 
+  /**
+   * Checks whether the token of the operation holds the right to update the features of the space.
+   */
+  public static boolean canUpdateFeatures(ConditionalOperation task) {
+    return holdsRights(task, new XyzHubActionMatrix()
+        .updateFeatures(XyzHubAttributeMap.forValues(task.space.getOwner(), task.space.getId(), task.space.getPackages())));
+  }
+
+  /**
+   * Checks whether the token of the operation holds the rights to create and to update the features of the space.
+   */
+  public static boolean canCreateAndUpdateFeatures(ConditionalOperation task) {
+    return holdsRights(task, new XyzHubActionMatrix()
+        .createFeatures(XyzHubAttributeMap.forValues(task.space.getOwner(), task.space.getId(), task.space.getPackages()))
+        .updateFeatures(XyzHubAttributeMap.forValues(task.space.getOwner(), task.space.getId(), task.space.getPackages())));
+  }
+
+  private static boolean holdsRights(ConditionalOperation task, ActionMatrix requestRights) {
+    final ActionMatrix tokenRights = Api.Context.getJWT(task.context).getXyzHubMatrix();
+    return tokenRights != null && tokenRights.matches(requestRights);
+  }
+
   /**
    * Authorizes a delete operation.
    */
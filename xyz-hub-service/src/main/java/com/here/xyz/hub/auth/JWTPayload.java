@@ -44,18 +44,25 @@ public class JWTPayload {
 
   public String jwt;
 
+  private volatile XyzHubActionMatrix xyzHubMatrix;
+
   /**
    * Returns the XYZ Hub action matrix, if there is any for this JWT token.
+   * The matrix is converted and compiled only once per payload and must not be modified by the caller.
    * @return the XYZ Hub action matrix or null.
    */
   @JsonIgnore
   public XyzHubActionMatrix getXyzHubMatrix(){
+    if (xyzHubMatrix != null)
+      return xyzHubMatrix;
     if (urm == null)
       return null;
     final ActionMatrix hereActionMatrix = urm.get(URMServiceId.XYZ_HUB);
     if (hereActionMatrix == null)
       return null;
-    return DatabindCodec.mapper().convertValue(hereActionMatrix, XyzHubActionMatrix.class);
+    final XyzHubActionMatrix matrix = DatabindCodec.mapper().convertValue(hereActionMatrix, XyzHubActionMatrix.class);
+    matrix.compile();
+    return xyzHubMatrix = matrix;
   }
 
   /**
@@ -95,7 +95,8 @@ public class SpaceAuthorization extends Authorization {
   }
 
   public static void authorizeModifyOp(ConditionalOperation task, Callback<ConditionalOperation> callback) throws Exception {
-    final XyzHubActionMatrix tokenRights = task.getJwt().getXyzHubMatrix();
+    //The token rights might get restricted for this operation, so a copy is used instead of the matrix being shared by the cached token
+    final XyzHubActionMatrix tokenRights = copyOf(task.getJwt().getXyzHubMatrix());
     final XyzHubActionMatrix requestRights = new XyzHubActionMatrix();
 
     final Entry<Space> entry = task.modifyOp.entries.get(0);
@@ -323,6 +324,16 @@ public class SpaceAuthorization extends Authorization {
     }
   }
 
+  private static XyzHubActionMatrix copyOf(XyzHubActionMatrix matrix) {
+    if (matrix == null) {
+      return null;
+    }
+    final XyzHubActionMatrix copy = new XyzHubActionMatrix();
+    copy.putAll(matrix);
+    copy.compile();
+    return copy;
+  }
+
   private static boolean canReadConnectorProperties(XyzHubActionMatrix tokenRights) {
     if (tokenRights == null) {
       return false;
@@ -20,6 +20,8 @@
 package com.here.xyz.hub.cache;
 
 import io.vertx.core.Future;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.Nonnull;
 
@@ -37,6 +39,25 @@ public interface CacheClient {
 
 	void remove(String key);
 
+	/**
+	 * Returns the remaining live time of the cache-record.
+	 *
+	 * @param key
+	 * @return The remaining live time in seconds or null if the record does not exist or its live time is not known
+	 */
+	default Future<Long> getTtl(String key) {
+		return Future.succeededFuture(null);
+	}
+
+	/**
+	 * Returns the statistics of all cache levels being served by this client.
+	 *
+	 * @return The statistics, one entry per cache level
+	 */
+	default List<CacheStatistics> getStatistics() {
+		return Collections.emptyList();
+	}
+
 	@Nonnull
 	static CacheClient getInstance() {
 		return new MultiLevelCacheClient(OHCacheClient.getInstance(), RedisCacheClient.getInstance());
@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2017-2020 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.xyz.hub.cache;
+
+/**
+ * The cumulative statistics of one cache level since the start of the service.
+ * Values which are not gathered for a cache level are -1.
+ */
+public class CacheStatistics {
+
+  /**
+   * The name of the cache level.
+   */
+  public final String tier;
+  public final long hitCount;
+  public final long missCount;
+  public final long evictionCount;
+  public final long expireCount;
+
+  /**
+   * The number of bytes currently being occupied by the cache level.
+   */
+  public final long byteSize;
+
+  public CacheStatistics(String tier, long hitCount, long missCount, long evictionCount, long expireCount, long byteSize) {
+    this.tier = tier;
+    this.hitCount = hitCount;
+    this.missCount = missCount;
+    this.evictionCount = evictionCount;
+    this.expireCount = expireCount;
+    this.byteSize = byteSize;
+  }
+}
@@ -22,6 +22,9 @@ package com.here.xyz.hub.cache;
 import io.vertx.core.Future;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
 
 class MultiLevelCacheClient implements CacheClient {
 
@@ -45,15 +48,27 @@ class MultiLevelCacheClient implements CacheClient {
           return Future.succeededFuture(null);
       }
       else {
-        int j = i;
-        while (--j >= 0) {
-          clients.get(j).set(key, result, Integer.MAX_VALUE);
-        }
+        if (i > 0)
+          backfill(i, key, result);
         return Future.succeededFuture(result);
       }
     });
   }
 
+  /**
+   * Writes the record which was found at the given level into all lower levels. The record gets the remaining live time of the
+   * found record, so the lower levels do not serve it longer than the level it was taken from.
+   */
+  private void backfill(final int i, final String key, final byte[] value) {
+    clients.get(i).getTtl(key).onSuccess(ttl -> {
+      if (ttl == null) return;
+      int j = i;
+      while (--j >= 0) {
+        clients.get(j).set(key, value, ttl);
+      }
+    });
+  }
+
   @Override
   public void set(String key, byte[] value, long ttl) {
     clients.forEach(c -> c.set(key, value, ttl));
@@ -64,6 +79,31 @@ class MultiLevelCacheClient implements CacheClient {
     clients.forEach(c -> c.remove(key));
   }
 
+  @Override
+  public List<CacheStatistics> getStatistics() {
+    return clients
+        .stream()
+        .flatMap(c -> c.getStatistics().stream())
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Acquires the lock at the first cache level which grants it.
+   */
+  @Override
+  public boolean acquireLock(@Nonnull String key, long ttl, @Nonnull TimeUnit ttlUnit) {
+    for (CacheClient client : clients) {
+      if (client.acquireLock(key, ttl, ttlUnit))
+        return true;
+    }
+    return false;
+  }
+
+  @Override
+  public void releaseLock(@Nonnull String key) {
+    clients.forEach(c -> c.releaseLock(key));
+  }
+
   @Override
   public void shutdown() {
     clients.forEach(CacheClient::shutdown);
@@ -23,8 +23,11 @@ import com.here.xyz.hub.Core;
 import com.here.xyz.hub.Service;
 import io.vertx.core.Future;
 import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.Nonnull;
 import org.apache.logging.log4j.LogManager;
@@ -33,10 +36,12 @@ import org.caffinitas.ohc.CacheSerializer;
 import org.caffinitas.ohc.Eviction;
 import org.caffinitas.ohc.OHCache;
 import org.caffinitas.ohc.OHCacheBuilder;
+import org.caffinitas.ohc.OHCacheStats;
 
 public class OHCacheClient implements CacheClient {
 
   private static final Logger logger = LogManager.getLogger();
+  private static final String TIER = "OH";
   private static OHCacheClient client;
   private static AtomicInteger clientCount = new AtomicInteger();
 
@@ -50,7 +55,7 @@ public class OHCacheClient implements CacheClient {
 
   private OHCacheClient() {
     executors = new ScheduledThreadPoolExecutor(2, Core.newThreadFactory("ohCache" + clientCount.getAndIncrement()));
-    cache = createCache(Service.configuration.OFF_HEAP_CACHE_SIZE_MB, executors, false);
+    cache = createCache(Service.configuration.OFF_HEAP_CACHE_SIZE_MB, executors, true);
   }
 
   @Override
@@ -66,7 +71,7 @@ public class OHCacheClient implements CacheClient {
 
   @Override
   public void set(String key, byte[] value, long ttl) {
-    cache.put(key.getBytes(), value);
+    cache.put(key.getBytes(), value, Core.currentTimeMillis() + TimeUnit.SECONDS.toMillis(ttl));
   }
 
   @Override
@@ -74,6 +79,13 @@ public class OHCacheClient implements CacheClient {
     cache.remove(key.getBytes());
   }
 
+  @Override
+  public List<CacheStatistics> getStatistics() {
+    final OHCacheStats stats = cache.stats();
+    return Collections.singletonList(new CacheStatistics(TIER, stats.getHitCount(), stats.getMissCount(), stats.getEvictionCount(),
+        stats.getExpireCount(), stats.getCapacity() - stats.getFree()));
+  }
+
   @Override
   public void shutdown() {
     executors.shutdown();
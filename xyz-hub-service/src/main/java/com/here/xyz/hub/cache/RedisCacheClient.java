@@ -26,10 +26,13 @@ import io.vertx.redis.client.Command;
 import io.vertx.redis.client.Redis;
 import io.vertx.redis.client.RedisOptions;
 import io.vertx.redis.client.Request;
+import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import javax.annotation.Nonnull;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -47,6 +50,9 @@ class RedisCacheClient implements CacheClient {
           .setIdleTimeout(30)
           .setConnectTimeout(2000));
   private static final String RND = UUID.randomUUID().toString();
+  private static final String TIER = "REDIS";
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
 
   private RedisCacheClient() {
     //Use redis auth token when available
@@ -82,12 +88,38 @@ class RedisCacheClient implements CacheClient {
   public Future<byte[]> get(String key) {
     Request req = Request.cmd(Command.GET).arg(key);
     return getClient().send(req)
-        .compose(response -> Future.succeededFuture(response == null ? null : response.toBytes()), t -> {
+        .compose(response -> {
+          (response == null ? misses : hits).increment();
+          return Future.succeededFuture(response == null ? null : response.toBytes());
+        }, t -> {
+          misses.increment();
           logger.warn("Error when trying to read key " + key + " from redis cache", t);
           return Future.succeededFuture(null);
         });
   }
 
+  @Override
+  public Future<Long> getTtl(String key) {
+    Request req = Request.cmd(Command.TTL).arg(key);
+    return getClient().send(req)
+        .compose(response -> {
+          //TTL returns -2 if the key does not exist and -1 if the key has no expiration
+          long ttl = response == null ? -2 : response.toLong();
+          return Future.succeededFuture(ttl > 0 ? ttl : null);
+        }, t -> {
+          logger.warn("Error when trying to read the TTL of key " + key + " from redis cache", t);
+          return Future.succeededFuture(null);
+        });
+  }
+
+  /**
+   * Evictions and the memory usage are not gathered for Redis, as they are not specific for this service node.
+   */
+  @Override
+  public List<CacheStatistics> getStatistics() {
+    return Collections.singletonList(new CacheStatistics(TIER, hits.longValue(), misses.longValue(), -1, -1, -1));
+  }
+
   @Override
   public void set(String key, byte[] value, long ttl) {
     Request req = Request.cmd(Command.SET).arg(key).arg(value).arg("EX").arg(ttl);
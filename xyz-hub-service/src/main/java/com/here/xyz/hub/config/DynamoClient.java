@@ -109,10 +109,16 @@ class DynamoClient {
       if (indexes != null) {
         final List<GlobalSecondaryIndex> gsiList = new ArrayList<>();
         for (String s : indexes.split(",")) {
+          //An index can have a range key as well, e.g. "hashKey:rangeKey"
+          final String[] indexKeys = s.split(":");
+          final List<KeySchemaElement> indexKeyList = new ArrayList<>();
+          indexKeyList.add(new KeySchemaElement(indexKeys[0], KeyType.HASH));
+          if (indexKeys.length > 1)
+            indexKeyList.add(new KeySchemaElement(indexKeys[1], KeyType.RANGE));
           gsiList.add(
               new GlobalSecondaryIndex()
-                  .withIndexName(s.concat("-index"))
-                  .withKeySchema(new KeySchemaElement(s, KeyType.HASH))
+                  .withIndexName(String.join("-", indexKeys).concat("-index"))
+                  .withKeySchema(indexKeyList)
                   .withProjection(new Projection().withProjectionType(ProjectionType.ALL))
                   .withProvisionedThroughput(new ProvisionedThroughput(5L, 5L))
           );
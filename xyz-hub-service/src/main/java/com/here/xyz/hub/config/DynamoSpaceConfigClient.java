@@ -22,6 +22,7 @@ package com.here.xyz.hub.config;
 import com.amazonaws.handlers.AsyncHandler;
 import com.amazonaws.services.dynamodbv2.document.BatchGetItemOutcome;
 import com.amazonaws.services.dynamodbv2.document.Item;
+import com.amazonaws.services.dynamodbv2.document.RangeKeyCondition;
 import com.amazonaws.services.dynamodbv2.document.Table;
 import com.amazonaws.services.dynamodbv2.document.TableKeysAndAttributes;
 import com.amazonaws.services.dynamodbv2.document.spec.QuerySpec;
@@ -32,6 +33,8 @@ import com.amazonaws.services.dynamodbv2.model.DeleteItemRequest;
 import com.amazonaws.services.dynamodbv2.model.DeleteItemResult;
 import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
 import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.GlobalSecondaryIndexDescription;
+import com.amazonaws.services.dynamodbv2.model.IndexStatus;
 import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
 import com.amazonaws.services.dynamodbv2.model.PutItemResult;
 import com.amazonaws.util.CollectionUtils;
@@ -70,10 +73,16 @@ import org.apache.logging.log4j.Marker;
 public class DynamoSpaceConfigClient extends SpaceConfigClient {
 
   private static final Logger logger = LogManager.getLogger();
+  /**
+   * The latest of the updatedAt and contentUpdatedAt values of a space, it is used as range key of the {@link #MODIFIED_AT_INDEX}.
+   */
+  private static final String MODIFIED_AT = "modifiedAt";
+  private static final String MODIFIED_AT_INDEX = "shared-modifiedAt-index";
 
   private final DynamoClient dynamoClient;
   private Table spaces;
   private Table packages;
+  private boolean modifiedAtIndexAvailable;
 
   public DynamoSpaceConfigClient(final String tableArn) {
     dynamoClient = new DynamoClient(tableArn);
@@ -90,7 +99,8 @@ public class DynamoSpaceConfigClient extends SpaceConfigClient {
       logger.info("DynamoDB running locally, initializing tables.");
 
       try {
-        dynamoClient.createTable(spaces.getTableName(), "id:S,owner:S,shared:N", "id", "owner,shared", "exp");
+        dynamoClient.createTable(spaces.getTableName(), "id:S,owner:S,shared:N," + MODIFIED_AT + ":N", "id",
+            "owner,shared,shared:" + MODIFIED_AT, "exp");
         dynamoClient.createTable(packages.getTableName(), "packageName:S,spaceId:S", "packageName,spaceId", null, null);
       }
       catch (AmazonDynamoDBException e) {
@@ -100,9 +110,26 @@ public class DynamoSpaceConfigClient extends SpaceConfigClient {
       }
     }
 
+    modifiedAtIndexAvailable = isIndexActive(MODIFIED_AT_INDEX);
+    if (!modifiedAtIndexAvailable)
+      logger.warn("Index {} is not available on table {}, the space index will be refreshed by table scans.", MODIFIED_AT_INDEX,
+          spaces.getTableName());
+
     onReady.handle(Future.succeededFuture());
   }
 
+  private boolean isIndexActive(String indexName) {
+    try {
+      final List<GlobalSecondaryIndexDescription> indexes = spaces.describe().getGlobalSecondaryIndexes();
+      return indexes != null && indexes.stream()
+          .anyMatch(index -> indexName.equals(index.getIndexName()) && IndexStatus.ACTIVE.toString().equals(index.getIndexStatus()));
+    }
+    catch (AmazonDynamoDBException e) {
+      logger.warn("Unable to check the status of index {} on table {}", indexName, spaces.getTableName(), e);
+      return false;
+    }
+  }
+
   @Override
   public Future<Space> getSpace(Marker marker, String spaceId) {
     logger.info(marker, "Getting space with ID: {}", spaceId);
@@ -165,6 +192,7 @@ public class DynamoSpaceConfigClient extends SpaceConfigClient {
   private void storeSpaceSync(Space space, Promise p) {
     final Map<String, Object> itemData = XyzSerializable.STATIC_MAPPER.get().convertValue(space, new TypeReference<Map<String, Object>>() {});
     itemData.put("shared", space.isShared() ? 1 : 0); //Shared value must be a number because it's also used as index
+    itemData.put(MODIFIED_AT, Math.max(space.getUpdatedAt(), space.getContentUpdatedAt()));
     sanitize(itemData);
     spaces.putItem(Item.fromMap(itemData));
     p.complete();
@@ -406,21 +434,7 @@ public class DynamoSpaceConfigClient extends SpaceConfigClient {
       //TODO: Implement selection by packages here: selectedCondition.packages
 
       logger.info(marker, "Final number of space IDs to be retrieved from DynamoDB: {}", authorizedSpaces.size());
-      if (!authorizedSpaces.isEmpty()) {
-        int batches = (int) Math.ceil((double) authorizedSpaces.size() / 100);
-        for (int i = 0; i < batches; i++) {
-          final TableKeysAndAttributes keys = new TableKeysAndAttributes(dynamoClient.tableName);
-          authorizedSpaces.stream().skip(i * 100).limit(100).forEach(id -> keys.addHashOnlyPrimaryKey("id", id));
-
-          BatchGetItemOutcome outcome = dynamoClient.db.batchGetItem(keys);
-          processOutcome(outcome, result);
-
-          while (!outcome.getUnprocessedKeys().isEmpty()) {
-            outcome = dynamoClient.db.batchGetItemUnprocessed(outcome.getUnprocessedKeys());
-            processOutcome(outcome, result);
-          }
-        }
-      }
+      getSpacesSync(authorizedSpaces, result);
       p.complete(result);
     }
     catch (Exception e) {
@@ -428,6 +442,93 @@ public class DynamoSpaceConfigClient extends SpaceConfigClient {
     }
   }
 
+  @Override
+  protected Future<List<Space>> getSpaces(Marker marker, Collection<String> spaceIds) {
+    logger.info(marker, "Getting {} spaces by ID", spaceIds.size());
+    return DynamoClient.dynamoWorkers.<List<Space>>executeBlocking(p -> {
+      try {
+        final List<Space> result = new ArrayList<>();
+        getSpacesSync(spaceIds, result);
+        p.complete(result);
+      }
+      catch (Exception e) {
+        p.fail(e);
+      }
+    })
+        .onFailure(t -> logger.error(marker, "Failure getting spaces by ID", t));
+  }
+
+  private void getSpacesSync(Collection<String> spaceIds, List<Space> result) {
+    if (spaceIds.isEmpty()) return;
+    int batches = (int) Math.ceil((double) spaceIds.size() / 100);
+    for (int i = 0; i < batches; i++) {
+      final TableKeysAndAttributes keys = new TableKeysAndAttributes(dynamoClient.tableName);
+      spaceIds.stream().skip(i * 100).limit(100).forEach(id -> keys.addHashOnlyPrimaryKey("id", id));
+
+      BatchGetItemOutcome outcome = dynamoClient.db.batchGetItem(keys);
+      processOutcome(outcome, result);
+
+      while (!outcome.getUnprocessedKeys().isEmpty()) {
+        outcome = dynamoClient.db.batchGetItemUnprocessed(outcome.getUnprocessedKeys());
+        processOutcome(outcome, result);
+      }
+    }
+  }
+
+  @Override
+  protected Future<List<Space>> getSpaceIndexData(Marker marker, long modifiedSince) {
+    return DynamoClient.dynamoWorkers.<List<Space>>executeBlocking(p -> {
+      try {
+        //Only the attributes which are needed for the index are loaded, "owner" is a reserved word in DynamoDB
+        final Map<String, String> names = new HashMap<>();
+        names.put("#owner", "owner");
+        names.put("#updatedAt", "updatedAt");
+        names.put("#contentUpdatedAt", "contentUpdatedAt");
+        final String projection = "id, #owner, shared, packages, createdAt, #updatedAt, #contentUpdatedAt";
+
+        final List<Space> result = new ArrayList<>();
+        if (modifiedSince > 0 && modifiedAtIndexAvailable) {
+          //Page through the modified spaces of both partitions of the index. Spaces which were not stored since the index was introduced
+          //are missing in the index, but they are not modified either and get loaded by the full refreshes.
+          for (int shared : new int[]{0, 1}) {
+            spaces
+                .getIndex(MODIFIED_AT_INDEX)
+                .query(new QuerySpec()
+                    .withHashKey("shared", shared)
+                    .withRangeKeyCondition(new RangeKeyCondition(MODIFIED_AT).gt(modifiedSince))
+                    .withProjectionExpression(projection)
+                    .withNameMap(names))
+                .pages()
+                .forEach(page -> page.forEach(i -> result.add(toIndexData(i))));
+          }
+        }
+        else {
+          final ScanSpec scanSpec = new ScanSpec()
+              .withProjectionExpression(projection)
+              .withNameMap(names);
+          if (modifiedSince > 0) {
+            scanSpec
+                .withFilterExpression("#updatedAt > :modifiedSince OR #contentUpdatedAt > :modifiedSince")
+                .withValueMap(Collections.singletonMap(":modifiedSince", modifiedSince));
+          }
+          spaces.scan(scanSpec).pages().forEach(page -> page.forEach(i -> result.add(toIndexData(i))));
+        }
+        p.complete(result);
+      }
+      catch (Exception e) {
+        p.fail(e);
+      }
+    })
+        .onSuccess(spaces -> logger.info(marker, "Number of spaces retrieved for the space index from DynamoDB: {}", spaces.size()))
+        .onFailure(t -> logger.error(marker, "Failure getting the data for the space index", t));
+  }
+
+  private static Space toIndexData(Item item) {
+    final Map<String, Object> itemData = item.asMap();
+    itemData.put("shared", itemData.get("shared") instanceof Number && ((Number) itemData.get("shared")).intValue() == 1);
+    return DatabindCodec.mapper().convertValue(itemData, Space.class);
+  }
+
   private Set<String> getAuthorizedSpacesSync(Marker marker, SpaceAuthorizationCondition authorizedCondition) throws AmazonDynamoDBException {
     final Set<String> authorizedSpaces = new LinkedHashSet<>();
 
@@ -26,7 +26,9 @@ import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
@@ -101,6 +103,18 @@ public class InMemSpaceConfigClient extends SpaceConfigClient {
     return Future.succeededFuture(spaces);
   }
 
+  @Override
+  protected Future<List<Space>> getSpaces(Marker marker, Collection<String> spaceIds) {
+    return Future.succeededFuture(spaceIds.stream().map(spaceMap::get).filter(Objects::nonNull).collect(Collectors.toList()));
+  }
+
+  @Override
+  protected Future<List<Space>> getSpaceIndexData(Marker marker, long modifiedSince) {
+    return Future.succeededFuture(spaceMap.values().stream()
+        .filter(s -> modifiedSince <= 0 || s.getUpdatedAt() > modifiedSince || s.getContentUpdatedAt() > modifiedSince)
+        .collect(Collectors.toList()));
+  }
+
   private boolean contentUpdatedAtOperation(long contentUpdatedAt, List<String> contentUpdatedAtList, int idx) {
     if(idx > contentUpdatedAtList.size())
       return false;
@@ -27,6 +27,7 @@ import com.here.xyz.events.PropertiesQuery;
 import com.here.xyz.hub.connectors.models.Space;
 import com.here.xyz.psql.SQLQuery;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Promise;
@@ -35,6 +36,8 @@ import io.vertx.core.json.Json;
 import io.vertx.core.json.JsonArray;
 import io.vertx.ext.sql.SQLClient;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -46,6 +49,11 @@ import org.apache.logging.log4j.Marker;
  */
 public class JDBCSpaceConfigClient extends SpaceConfigClient {
 
+  /**
+   * The maximum number of space IDs being used as parameters of one query.
+   */
+  private static final int MAX_IDS_PER_QUERY = 1000;
+
   private static JDBCSpaceConfigClient instance;
   private final SQLClient client;
 
@@ -157,6 +165,31 @@ public class JDBCSpaceConfigClient extends SpaceConfigClient {
     return querySpaces(query);
   }
 
+  @Override
+  protected Future<List<Space>> getSpaces(Marker marker, Collection<String> spaceIds) {
+    if (spaceIds.isEmpty())
+      return Future.succeededFuture(Collections.emptyList());
+
+    final List<String> ids = new ArrayList<>(spaceIds);
+    final List<Future> chunks = new ArrayList<>();
+    for (int i = 0; i < ids.size(); i += MAX_IDS_PER_QUERY) {
+      final List<String> chunk = ids.subList(i, Math.min(i + MAX_IDS_PER_QUERY, ids.size()));
+      chunks.add(querySpaces(new SQLQuery("SELECT config FROM " + SPACE_TABLE + " WHERE id IN ("
+          + StringUtils.join(Collections.nCopies(chunk.size(), "?"), ",") + ")", chunk.toArray())));
+    }
+    return CompositeFuture.all(chunks).map(cf -> cf.<List<Space>>list().stream()
+        .flatMap(List::stream)
+        .collect(Collectors.toList()));
+  }
+
+  @Override
+  protected Future<List<Space>> getSpaceIndexData(Marker marker, long modifiedSince) {
+    if (modifiedSince <= 0)
+      return querySpaces("SELECT config FROM " + SPACE_TABLE);
+    return querySpaces(new SQLQuery("SELECT config FROM " + SPACE_TABLE
+        + " WHERE cast(config->>'updatedAt' AS BIGINT) > ? OR cast(config->>'contentUpdatedAt' AS BIGINT) > ?", modifiedSince, modifiedSince));
+  }
+
   private List<String> generateWhereClausesFor(SpaceAuthorizationCondition condition) {
     List<String> whereClauses = new ArrayList<>();
     if (condition.spaceIds != null && !condition.spaceIds.isEmpty()) {
@@ -176,6 +209,19 @@ public class JDBCSpaceConfigClient extends SpaceConfigClient {
   }
 
 
+  private Future<List<Space>> querySpaces(SQLQuery query) {
+    Promise<List<Space>> p = Promise.promise();
+    client.queryWithParams(query.text(), new JsonArray(query.parameters()), out -> {
+      if (out.succeeded())
+        p.complete(out.result().getRows().stream()
+            .map(r -> Json.decodeValue(r.getString("config"), Space.class))
+            .collect(Collectors.toList()));
+      else
+        p.fail(out.cause());
+    });
+    return p.future();
+  }
+
   private Future<List<Space>> querySpaces(String query) {
     Promise<List<Space>> p = Promise.promise();
     client.query(query, out -> {
@@ -36,14 +36,13 @@ import com.here.xyz.psql.SQLQueryBuilder;
 import com.here.xyz.psql.config.DatabaseSettings;
 import com.here.xyz.psql.config.PSQLConfig;
 import com.here.xyz.psql.factory.MaintenanceSQL;
+import com.here.xyz.psql.pool.ConnectionPool;
+import com.here.xyz.psql.pool.ConnectionPoolSettings;
 import com.here.xyz.responses.maintenance.ConnectorStatus;
+import com.here.xyz.responses.maintenance.ConnectorStatus.PoolStatus;
 import com.here.xyz.responses.maintenance.SpaceStatus;
-import com.mchange.v2.c3p0.AbstractConnectionCustomizer;
-import com.mchange.v2.c3p0.ComboPooledDataSource;
-import com.mchange.v2.c3p0.PooledDataSource;
 import io.vertx.core.json.DecodeException;
 import java.io.IOException;
-import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.List;
@@ -59,7 +58,6 @@ import org.apache.logging.log4j.Logger;
 public class MaintenanceClient {
 
     private static final Map<String, MaintenanceInstance> dbInstanceMap = new HashMap<>();
-    private static final String C3P0EXT_CONFIG_SCHEMA = "config.schema()";
 
     private static final String[] extensionList = new String[]{"postgis","postgis_topology","tsm_system_rows","dblink"};
     private static final String[] localScripts = new String[]{"/xyz_ext.sql", "/h3Core.sql"};
@@ -132,7 +130,7 @@ public class MaintenanceClient {
         return dbStatus;
     }
 
-    public void executeLocalScripts(ComboPooledDataSource source, String[] localPaths) throws IOException, SQLException {
+    public void executeLocalScripts(ConnectionPool source, String[] localPaths) throws IOException, SQLException {
         for (String path : localPaths) {
             String content = DatabaseMaintainer.readResource(path);
             /** Create required Extensions */
@@ -140,7 +138,7 @@ public class MaintenanceClient {
             executeQueryWithoutResults(new SQLQuery(content), source);
         }
         //Clear open Connections to reset searchpath
-        source.resetPoolManager();
+        source.resetConnections();
     }
 
     public void initializeOrUpdateDatabase(String connectorId, String ecps, String passphrase) throws SQLException, NoPermissionException, IOException {
@@ -191,7 +189,7 @@ public class MaintenanceClient {
             /** set searchPath */
             executeQueryWithoutResults(setSearchpath, source);
             /** Install extensions */
-            executeLocalScripts((ComboPooledDataSource)source, localScripts);
+            executeLocalScripts(dbInstance.getSource(), localScripts);
 
             /** Mark db initialization as finished in DBStatus table*/
             logger.info("{}: Mark db as initialized in db-status table..", connectorId);
@@ -306,11 +304,7 @@ public class MaintenanceClient {
 
         /** Init dataSource, readDataSource ..*/
         logger.info("{}: Config is missing -> add new dbInstance to Pool. DbInstanceMap size:{}", connectorId, dbInstanceMap.size());
-        final ComboPooledDataSource source = getComboPooledDataSource(dbSettings, connectorId+"["+(ecps.length() < 10 ? ecps : ecps.substring(0,9))+"]", false);
-
-        Map<String, String> m = new HashMap<>();
-        m.put(C3P0EXT_CONFIG_SCHEMA, dbSettings.getSchema());
-        source.setExtensions(m);
+        final ConnectionPool source = createConnectionPool(dbSettings, connectorId+"["+(ecps.length() < 10 ? ecps : ecps.substring(0,9))+"]", false);
         maintenanceInstance.setSource(source);
         dbInstanceMap.put(connectorId, maintenanceInstance);
         return maintenanceInstance;
@@ -319,55 +313,45 @@ public class MaintenanceClient {
     private void removeDbInstanceFromMap(String connectorId){
         synchronized (dbInstanceMap) {
             try {
-                ((PooledDataSource) (dbInstanceMap.get(connectorId).getSource())).close();
-            } catch (SQLException e) {
+                dbInstanceMap.get(connectorId).getSource().close();
+            } catch (Exception e) {
                 logger.warn("{}: Error while closing connections: {}", connectorId, e);
             }
             dbInstanceMap.remove(connectorId);
         }
     }
 
-    private ComboPooledDataSource getComboPooledDataSource(DatabaseSettings dbSettings, String applicationName, boolean useReplica) {
+    private ConnectionPool createConnectionPool(DatabaseSettings dbSettings, String applicationName, boolean useReplica) {
         // This will initialize the env-map. Theoretically we should use it, rather than the properties below.
         PsqlHttpVerticle.getEnvMap();
-        final ComboPooledDataSource cpds = new ComboPooledDataSource();
-
-        cpds.setJdbcUrl("jdbc:postgresql://" + (useReplica ? dbSettings.getReplicaHost() : dbSettings.getHost()) + ":"
-            + dbSettings.getPort() + "/" + dbSettings.getDb() + "?ApplicationName=" + applicationName + "&tcpKeepAlive=true");
-
-        cpds.setUser(dbSettings.getUser());
-        cpds.setPassword(dbSettings.getPassword());
-
-        cpds.setInitialPoolSize(PsqlHttpVerticle.DB_INITIAL_POOL_SIZE);
-        cpds.setMinPoolSize(PsqlHttpVerticle.DB_MIN_POOL_SIZE);
-        cpds.setMaxPoolSize(PsqlHttpVerticle.DB_MAX_POOL_SIZE);
-
-        cpds.setAcquireRetryAttempts(PsqlHttpVerticle.DB_ACQUIRE_RETRY_ATTEMPTS);
-        cpds.setAcquireIncrement(PsqlHttpVerticle.DB_ACQUIRE_INCREMENT);
-
-        cpds.setCheckoutTimeout(PsqlHttpVerticle.DB_CHECKOUT_TIMEOUT * 1000 );
-        cpds.setTestConnectionOnCheckout(PsqlHttpVerticle.DB_TEST_CONNECTION_ON_CHECKOUT);
 
-        cpds.setConnectionCustomizerClassName(ConnectionCustomizer.class.getName());
-        return cpds;
+        return ConnectionPool.create(new ConnectionPoolSettings()
+            .withImplementation(PsqlHttpVerticle.DB_POOL_IMPLEMENTATION)
+            .withJdbcUrl("jdbc:postgresql://" + (useReplica ? dbSettings.getReplicaHost() : dbSettings.getHost()) + ":"
+                + dbSettings.getPort() + "/" + dbSettings.getDb() + "?ApplicationName=" + applicationName + "&tcpKeepAlive=true")
+            .withUser(dbSettings.getUser())
+            .withPassword(dbSettings.getPassword())
+            .withInitialPoolSize(PsqlHttpVerticle.DB_INITIAL_POOL_SIZE)
+            .withMinPoolSize(PsqlHttpVerticle.DB_MIN_POOL_SIZE)
+            .withMaxPoolSize(PsqlHttpVerticle.DB_MAX_POOL_SIZE)
+            .withAcquireRetryAttempts(PsqlHttpVerticle.DB_ACQUIRE_RETRY_ATTEMPTS)
+            .withAcquireIncrement(PsqlHttpVerticle.DB_ACQUIRE_INCREMENT)
+            .withCheckoutTimeoutMs(PsqlHttpVerticle.DB_CHECKOUT_TIMEOUT * 1000)
+            .withTestConnectionOnCheckout(PsqlHttpVerticle.DB_TEST_CONNECTION_ON_CHECKOUT)
+            .withInitStatement("SET enable_seqscan = off;")
+            .withInitStatement("SET statement_timeout = " + (PsqlHttpVerticle.DB_STATEMENT_TIMEOUT_IN_S * 1000) + " ;")
+            .withInitStatement("SET search_path=" + dbSettings.getSchema() + ",h3,public,topology;"));
     }
 
-    public static class ConnectionCustomizer extends AbstractConnectionCustomizer { // handle initialization per db connection
-        private String getSchema(String parentDataSourceIdentityToken) {
-            return (String) extensionsForToken(parentDataSourceIdentityToken).get(C3P0EXT_CONFIG_SCHEMA);
-        }
-
-        public void onAcquire(Connection c, String pdsIdt) {
-            String schema = getSchema(pdsIdt);  // config.schema();
-            QueryRunner runner = new QueryRunner();
-            try {
-                runner.execute(c, "SET enable_seqscan = off;");
-                runner.execute(c, "SET statement_timeout = " + (PsqlHttpVerticle.DB_STATEMENT_TIMEOUT_IN_S * 1000) + " ;");
-                runner.execute(c, "SET search_path=" + schema + ",h3,public,topology;");
-            } catch (SQLException e) {
-                logger.error("Failed to initialize connection " + c + " [" + pdsIdt + "] : {}", e);
-            }
-        }
+    /**
+     * Returns the status of the connection pool which is used for the maintenance of the given connector.
+     *
+     * @param connectorId The ID of the connector.
+     * @return The pool status or null, if no pool has been created for the connector yet.
+     */
+    public synchronized PoolStatus getPoolStatus(String connectorId) {
+        final MaintenanceInstance dbInstance = dbInstanceMap.get(connectorId);
+        return dbInstance == null || dbInstance.getSource() == null ? null : dbInstance.getSource().getStatus();
     }
 
     public DatabaseSettings readDBSettingsFromECPS(String ecps, String passphrase) throws DecodeException{
@@ -414,18 +398,18 @@ public class MaintenanceClient {
     public class MaintenanceInstance {
         private String connectorId;
         private final DatabaseSettings dbSettings;
-        private ComboPooledDataSource source;
+        private ConnectionPool source;
 
         public MaintenanceInstance(String connectorId, DatabaseSettings dbSettings){
             this.connectorId = connectorId;
             this.dbSettings = dbSettings;
         }
 
-        public ComboPooledDataSource getSource(){
+        public ConnectionPool getSource(){
             return source;
         }
 
-        public void setSource(ComboPooledDataSource source){
+        public void setSource(ConnectionPool source){
             this.source = source;
         }
 
@@ -19,20 +19,22 @@
 
 package com.here.xyz.hub.config;
 
-import com.google.common.util.concurrent.Monitor;
 import com.here.xyz.events.PropertiesQuery;
 import com.here.xyz.hub.Service;
 import com.here.xyz.hub.connectors.models.Space;
 import com.here.xyz.hub.rest.admin.messages.RelayedMessage;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import net.jodah.expiringmap.ExpirationPolicy;
 import net.jodah.expiringmap.ExpiringMap;
 import org.apache.commons.lang3.RandomStringUtils;
@@ -44,14 +46,30 @@ public abstract class SpaceConfigClient implements Initializable {
 
   private static final Logger logger = LogManager.getLogger();
 
+  private static final long CACHE_EXPIRATION_MS = TimeUnit.MINUTES.toMillis(3);
+  /**
+   * Cached spaces which expire within that time get reloaded in the background, while the cached version is still being served.
+   */
+  private static final long CACHE_REFRESH_AHEAD_MS = TimeUnit.SECONDS.toMillis(30);
+  private static final int DEFAULT_CACHE_MAX_SIZE = 10_000;
+
   public static final ExpiringMap<String, Space> cache = ExpiringMap.builder()
       .expirationPolicy(ExpirationPolicy.CREATED)
-      .expiration(3, TimeUnit.MINUTES)
+      .expiration(CACHE_EXPIRATION_MS, TimeUnit.MILLISECONDS)
+      .maxSize(Service.configuration != null && Service.configuration.SPACE_CACHE_MAX_SIZE > 0
+          ? Service.configuration.SPACE_CACHE_MAX_SIZE : DEFAULT_CACHE_MAX_SIZE)
       .build();
 
-  private static final Map<String, ConcurrentLinkedQueue<Promise<Space>>> pendingGetCalls = new ConcurrentHashMap<>();
-  private static final Map<String, Monitor> getSpaceLocks = new ConcurrentHashMap<>();
+  /**
+   * The loads of spaces which are currently in flight. Concurrent requests for the same space share the same load.
+   */
+  private static final Map<String, Promise<Space>> pendingLoads = new ConcurrentHashMap<>();
+  private static final LongAdder cacheHits = new LongAdder();
+  private static final LongAdder cacheMisses = new LongAdder();
+  private static final LongAdder coalescedLoads = new LongAdder();
+  private static final LongAdder refreshAheadLoads = new LongAdder();
   private SpaceSelectionCondition emptySpaceCondition = new SpaceSelectionCondition();
+  private final SpaceIndex spaceIndex = new SpaceIndex(this);
 
   //Property keys for PropertyQuery
   public static final String CONTENT_UPDATED_AT = "contentUpdatedAt";
@@ -68,55 +86,101 @@ public abstract class SpaceConfigClient implements Initializable {
   public Future<Space> get(Marker marker, String spaceId) {
     Space cached = cache.get(spaceId);
     if (cached != null) {
+      cacheHits.increment();
       logger.info(marker, "space[{}]: Loaded space with title \"{}\" from cache", spaceId, cached.getTitle());
+      //Reload the space in the background if it's about to expire, so that it does not expire while it's being used frequently
+      if (isAboutToExpire(spaceId) && !pendingLoads.containsKey(spaceId)) {
+        refreshAheadLoads.increment();
+        load(marker, spaceId);
+      }
       return Future.succeededFuture(cached);
     }
 
-    /*
-    In case we get the query for a space of which a previous request is already in flight we wait for its response and call the callback
-    then. This is a performance optimization for highly parallel requests coming from the user at once.
-     */
-    getSpaceLocks.putIfAbsent(spaceId, new Monitor());
-    Promise<Space> p = Promise.promise();
+    cacheMisses.increment();
+    return load(marker, spaceId);
+  }
+
+  private static boolean isAboutToExpire(String spaceId) {
     try {
-      getSpaceLocks.get(spaceId).enter();
-      boolean isFirstRequest = pendingGetCalls.putIfAbsent(spaceId, new ConcurrentLinkedQueue<>()) == null;
-      pendingGetCalls.get(spaceId).add(p);
-      if (!isFirstRequest) {
-        return p.future();
-      }
+      return cache.getExpectedExpiration(spaceId) < CACHE_REFRESH_AHEAD_MS;
+    }
+    catch (NoSuchElementException e) {
+      //Expired in the meantime
+      return true;
     }
-    finally {
-      getSpaceLocks.get(spaceId).leave();
+  }
+
+  /**
+   * Loads the space from the backend and puts it into the cache.
+   * In case there is already a load in flight for the same space, no new load is started. Instead, the returned future gets completed
+   * with the result of the in-flight load. This is a performance optimization for highly parallel requests coming from the user at once.
+   */
+  private Future<Space> load(Marker marker, String spaceId) {
+    final Promise<Space> newLoad = Promise.promise();
+    final Promise<Space> load = pendingLoads.computeIfAbsent(spaceId, k -> newLoad);
+    if (load != newLoad) {
+      coalescedLoads.increment();
+      return load.future();
     }
 
     getSpace(marker, spaceId).onComplete(ar -> {
-      ConcurrentLinkedQueue<Promise<Space>> handlersToCall;
-      try {
-        getSpaceLocks.get(spaceId).enter();
-        handlersToCall = pendingGetCalls.remove(spaceId);
-      }
-      finally {
-        getSpaceLocks.get(spaceId).leave();
-      }
+      //If the space got invalidated in the meantime, the loaded version must not be cached anymore
+      final boolean valid = pendingLoads.remove(spaceId, newLoad);
       if (ar.succeeded()) {
         Space space = ar.result();
         if (space != null) {
-          cache.put(spaceId, space);
+          if (valid)
+            cache.put(spaceId, space);
           logger.info(marker, "space[{}]: Loaded space with title: \"{}\"", spaceId, space.getTitle());
-        } else {
+        }
+        else {
+          cache.remove(spaceId);
           logger.info(marker, "space[{}]: Space with this ID was not found", spaceId);
         }
-        cache.put(spaceId, space);
-        handlersToCall.forEach(h -> h.complete(ar.result()));
       }
-      else {
+      else
         logger.error(marker, "space[{}]: Failed to load the space, reason: {}", spaceId, ar.cause());
-        handlersToCall.forEach(h -> h.fail(ar.cause()));
-      }
+      newLoad.handle(ar);
     });
 
-    return p.future();
+    return newLoad.future();
+  }
+
+  /**
+   * Returns the number of space requests which have been answered from the cache since the last call and resets the counter.
+   *
+   * @return the number of cache hits
+   */
+  public static long pollCacheHitCount() {
+    return cacheHits.sumThenReset();
+  }
+
+  /**
+   * Returns the number of space requests which could not be answered from the cache since the last call and resets the counter.
+   *
+   * @return the number of cache misses
+   */
+  public static long pollCacheMissCount() {
+    return cacheMisses.sumThenReset();
+  }
+
+  /**
+   * Returns the number of space requests which have been coalesced with an in-flight load of the same space since the last call and
+   * resets the counter.
+   *
+   * @return the number of coalesced loads
+   */
+  public static long pollCoalescedLoadCount() {
+    return coalescedLoads.sumThenReset();
+  }
+
+  /**
+   * Returns the number of background reloads of cached spaces which were about to expire since the last call and resets the counter.
+   *
+   * @return the number of refresh-ahead loads
+   */
+  public static long pollRefreshAheadLoadCount() {
+    return refreshAheadLoads.sumThenReset();
   }
 
   public Future<Void> store(Marker marker, Space space) {
@@ -125,6 +189,7 @@ public abstract class SpaceConfigClient implements Initializable {
     return storeSpace(marker, space)
         .onSuccess(v -> {
           invalidateCache(space.getId());
+          spaceIndex.put(space);
           logger.info(marker, "space[{}]: Stored successfully with title: \"{}\"", space.getId(), space.getTitle());
         })
         .onFailure(t -> logger.error(marker, "space[{}]: Failed storing the space", space.getId(), t));
@@ -134,6 +199,7 @@ public abstract class SpaceConfigClient implements Initializable {
     return deleteSpace(marker, spaceId)
         .onSuccess(space -> {
           invalidateCache(spaceId);
+          spaceIndex.remove(spaceId);
           logger.info(marker, "space[{}]: Deleted space", spaceId);
         })
         .onFailure(t -> logger.error(marker, "space[{}]: Failed deleting the space", spaceId, t));
@@ -141,7 +207,19 @@ public abstract class SpaceConfigClient implements Initializable {
 
   public Future<List<Space>> getSelected(Marker marker, SpaceAuthorizationCondition authorizedCondition,
       SpaceSelectionCondition selectedCondition, PropertiesQuery propsQuery) {
-    return getSelectedSpaces(marker, authorizedCondition, selectedCondition, propsQuery)
+    final Future<List<Space>> selected;
+    if (spaceIndex.isReady() && authorizedCondition != null && selectedCondition != null) {
+      List<String> spaceIds = spaceIndex.select(authorizedCondition, selectedCondition, propsQuery);
+      logger.info(marker, "Selected {} spaces by condition using the space index", spaceIds.size());
+      selected = getSpacesById(marker, spaceIds);
+    }
+    else {
+      //Until the index is ready the conditions are resolved by the backend
+      spaceIndex.start();
+      selected = getSelectedSpaces(marker, authorizedCondition, selectedCondition, propsQuery);
+    }
+
+    return selected
         .onSuccess(spaces -> {
           spaces.forEach(s -> cache.put(s.getId(), s));
           logger.info(marker, "Loaded spaces by condition");
@@ -149,6 +227,25 @@ public abstract class SpaceConfigClient implements Initializable {
         .onFailure(t -> logger.error(marker, "Failed to load spaces by condition", t));
   }
 
+  private Future<List<Space>> getSpacesById(Marker marker, List<String> spaceIds) {
+    final List<Space> spaces = new ArrayList<>(spaceIds.size());
+    final List<String> missingSpaceIds = new ArrayList<>();
+    for (String spaceId : spaceIds) {
+      Space cached = cache.get(spaceId);
+      if (cached != null)
+        spaces.add(cached);
+      else
+        missingSpaceIds.add(spaceId);
+    }
+    if (missingSpaceIds.isEmpty())
+      return Future.succeededFuture(spaces);
+
+    return getSpaces(marker, missingSpaceIds).map(loadedSpaces -> {
+      spaces.addAll(loadedSpaces);
+      return spaces;
+    });
+  }
+
   public Future<List<Space>> getSpacesForOwner(Marker marker, String ownerId) {
     SpaceSelectionCondition selectedCondition = new SpaceSelectionCondition();
     selectedCondition.ownerIds = Collections.singleton(ownerId);
@@ -165,8 +262,22 @@ public abstract class SpaceConfigClient implements Initializable {
   protected abstract Future<List<Space>> getSelectedSpaces(Marker marker, SpaceAuthorizationCondition authorizedCondition,
       SpaceSelectionCondition selectedCondition, PropertiesQuery propsQuery);
 
+  /**
+   * Loads the spaces with the given IDs. IDs of spaces which do not exist are ignored.
+   */
+  protected abstract Future<List<Space>> getSpaces(Marker marker, Collection<String> spaceIds);
+
+  /**
+   * Loads the data of all spaces which is needed to build the {@link SpaceIndex}. At least the attributes id, owner, shared, packages,
+   * createdAt, updatedAt and contentUpdatedAt must be set in the returned spaces.
+   *
+   * @param modifiedSince If > 0 only the spaces of which the updatedAt or contentUpdatedAt value is newer will be returned
+   */
+  protected abstract Future<List<Space>> getSpaceIndexData(Marker marker, long modifiedSince);
+
   public void invalidateCache(String spaceId) {
     cache.remove(spaceId);
+    pendingLoads.remove(spaceId);
     new InvalidateSpaceCacheMessage().withId(spaceId).withGlobalRelay(true).broadcast();
   }
 
@@ -202,6 +313,9 @@ public abstract class SpaceConfigClient implements Initializable {
     @Override
     protected void handleAtDestination() {
       cache.remove(id);
+      pendingLoads.remove(id);
+      if (Service.spaceConfigClient != null)
+        Service.spaceConfigClient.spaceIndex.reload(id);
     }
   }
 }
@@ -0,0 +1,286 @@
+/*
+ * Copyright (C) 2017-2022 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.config;
+
+import com.here.xyz.events.PropertiesQuery;
+import com.here.xyz.events.PropertyQuery;
+import com.here.xyz.events.PropertyQueryList;
+import com.here.xyz.hub.Core;
+import com.here.xyz.hub.Service;
+import com.here.xyz.hub.config.SpaceConfigClient.SpaceAuthorizationCondition;
+import com.here.xyz.hub.config.SpaceConfigClient.SpaceSelectionCondition;
+import com.here.xyz.hub.connectors.models.Space;
+import io.vertx.core.Future;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager.Log4jMarker;
+
+/**
+ * A node-local index of the metadata of all spaces (owner, shared, packages, contentUpdatedAt). It is used to resolve the conditions of
+ * {@link SpaceConfigClient#getSelected(Marker, SpaceAuthorizationCondition, SpaceSelectionCondition, PropertiesQuery)} in memory, so
+ * that only the selected spaces have to be loaded from the backend.
+ *
+ * The index gets updated directly for the spaces which are stored or deleted by this node, through the {@link
+ * SpaceConfigClient.InvalidateSpaceCacheMessage} for the spaces which are stored or deleted by other nodes and by a periodic delta
+ * refresh of all spaces which were modified in the meantime. As deletions can not be detected by a delta refresh, the whole index gets
+ * rebuilt periodically.
+ */
+class SpaceIndex {
+
+  private static final Logger logger = LogManager.getLogger();
+  private static final Marker MARKER = new Log4jMarker("SpaceIndex");
+
+  /**
+   * The time a delta refresh reaches back before the start of the previous refresh, to cover clock differences between the nodes.
+   */
+  private static final long DELTA_OVERLAP_MS = TimeUnit.MINUTES.toMillis(1);
+
+  private final SpaceConfigClient client;
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+  private final Map<String, Long> removedAt = new ConcurrentHashMap<>();
+  private final AtomicBoolean started = new AtomicBoolean();
+  private final AtomicBoolean refreshing = new AtomicBoolean();
+  private volatile boolean ready;
+  private volatile long lastRefreshAt;
+  private volatile long lastFullRefreshAt;
+
+  SpaceIndex(SpaceConfigClient client) {
+    this.client = client;
+  }
+
+  static boolean isEnabled() {
+    return Service.configuration != null && Service.configuration.SPACE_INDEX_REFRESH_INTERVAL_MS > 0;
+  }
+
+  /**
+   * @return Whether the index was built completely at least once and can be used to select spaces.
+   */
+  boolean isReady() {
+    return ready;
+  }
+
+  /**
+   * Starts building the index and schedules the periodic refreshes, if that did not happen yet.
+   */
+  void start() {
+    if (!isEnabled() || !started.compareAndSet(false, true)) return;
+    refresh();
+    Service.vertx.setPeriodic(Service.configuration.SPACE_INDEX_REFRESH_INTERVAL_MS, timerId -> refresh());
+  }
+
+  /**
+   * Loads the spaces which were modified since the last refresh, or all spaces if a full refresh is due.
+   *
+   * @return a future which gets completed once the loaded spaces have been indexed
+   */
+  Future<Void> refresh() {
+    if (!refreshing.compareAndSet(false, true)) return Future.succeededFuture();
+
+    final long refreshStart = Core.currentTimeMillis();
+    final boolean full = !ready || refreshStart - lastFullRefreshAt >= Service.configuration.SPACE_INDEX_FULL_REFRESH_INTERVAL_MS;
+    final long modifiedSince = full ? 0 : lastRefreshAt - DELTA_OVERLAP_MS;
+
+    return client.getSpaceIndexData(MARKER, modifiedSince)
+        .onSuccess(spaces -> {
+          spaces.forEach(space -> put(space, refreshStart));
+          if (full) {
+            final Set<String> loadedIds = spaces.stream().map(Space::getId).collect(Collectors.toSet());
+            entries.values().removeIf(e -> e.indexedAt < refreshStart && !loadedIds.contains(e.id));
+            removedAt.values().removeIf(ts -> ts < refreshStart);
+            lastFullRefreshAt = refreshStart;
+          }
+          lastRefreshAt = refreshStart;
+          ready = true;
+          logger.info(MARKER, "{} refresh of the space index finished. {} spaces loaded, {} spaces indexed.", full ? "Full" : "Delta",
+              spaces.size(), entries.size());
+        })
+        .onFailure(t -> logger.error(MARKER, "Error refreshing the space index.", t))
+        .onComplete(ar -> refreshing.set(false))
+        .mapEmpty();
+  }
+
+  /**
+   * Adds or updates the entry for the given space.
+   *
+   * @param space the space which has been stored
+   */
+  void put(Space space) {
+    if (!started.get() || space == null || space.getId() == null) return;
+    put(space, Core.currentTimeMillis());
+  }
+
+  private void put(Space space, long loadedAt) {
+    final Long spaceRemovedAt = removedAt.get(space.getId());
+    //The space was deleted after it has been loaded
+    if (spaceRemovedAt != null && spaceRemovedAt >= loadedAt) return;
+
+    final Entry entry = new Entry(space, loadedAt);
+    entries.merge(space.getId(), entry, (existing, updated) -> existing.indexedAt > updated.indexedAt ? existing : updated);
+  }
+
+  /**
+   * Removes the entry of the given space.
+   *
+   * @param spaceId the ID of the space which has been deleted
+   */
+  void remove(String spaceId) {
+    if (!started.get()) return;
+    removedAt.put(spaceId, Core.currentTimeMillis());
+    entries.remove(spaceId);
+  }
+
+  /**
+   * Reloads the entry of the given space from the backend, because it was modified by another node.
+   *
+   * @param spaceId the ID of the space which has been modified
+   */
+  void reload(String spaceId) {
+    if (!started.get()) return;
+    final long loadStart = Core.currentTimeMillis();
+    client.get(MARKER, spaceId)
+        .onSuccess(space -> {
+          if (space != null)
+            put(space, loadStart);
+          else
+            remove(spaceId);
+        })
+        .onFailure(t -> logger.warn(MARKER, "Error reloading the space index entry of space {}.", spaceId, t));
+  }
+
+  /**
+   * Selects the IDs of the spaces which match the given conditions.
+   *
+   * The conditions are interpreted as follows: A space is authorized if it is listed in one of the sets of the authorizedCondition, or if
+   * all of them are empty. If the selectedCondition allows shared spaces, all shared spaces are authorized as well. All non-empty sets of
+   * the selectedCondition, as well as the properties query on contentUpdatedAt, further restrict the authorized spaces. As in the backend
+   * implementations a space matches the properties query if one of its conditions matches.
+   *
+   * @return the IDs of all matching spaces
+   */
+  List<String> select(SpaceAuthorizationCondition authorizedCondition, SpaceSelectionCondition selectedCondition,
+      PropertiesQuery propsQuery) {
+    final boolean allAuthorized = isEmpty(authorizedCondition.spaceIds) && isEmpty(authorizedCondition.ownerIds)
+        && isEmpty(authorizedCondition.packages);
+
+    return entries.values().stream()
+        .filter(e -> allAuthorized
+            || contains(authorizedCondition.spaceIds, e.id)
+            || contains(authorizedCondition.ownerIds, e.owner)
+            || intersects(authorizedCondition.packages, e.packages)
+            || selectedCondition.shared && e.shared)
+        .filter(e -> propsQuery == null || matches(propsQuery, e.contentUpdatedAt))
+        .filter(e -> isEmpty(selectedCondition.spaceIds) || selectedCondition.spaceIds.contains(e.id))
+        //HINT: A ^ TRUE == !A (negateOwnerIds: keep or remove the spaces of the selected owners)
+        .filter(e -> isEmpty(selectedCondition.ownerIds) || selectedCondition.negateOwnerIds ^ selectedCondition.ownerIds.contains(e.owner))
+        .filter(e -> isEmpty(selectedCondition.packages) || intersects(selectedCondition.packages, e.packages))
+        .map(e -> e.id)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Checks the contentUpdatedAt value against the properties query. Like {@link DynamoSpaceConfigClient} does, all conditions of the
+   * query are ORed, so the value matches if any of the property queries matches with any of its values.
+   */
+  private static boolean matches(PropertiesQuery propsQuery, long contentUpdatedAt) {
+    if (propsQuery.isEmpty()) return true;
+    for (PropertyQueryList conjunctions : propsQuery) {
+      for (PropertyQuery conj : conjunctions) {
+        if (conj.getValues().stream().anyMatch(v -> matches(conj.getOperation(), contentUpdatedAt, v)))
+          return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean matches(PropertyQuery.QueryOperation operation, long contentUpdatedAt, Object value) {
+    final long v;
+    try {
+      v = value instanceof Number ? ((Number) value).longValue() : Long.parseLong(String.valueOf(value));
+    }
+    catch (NumberFormatException e) {
+      return false;
+    }
+
+    switch (operation) {
+      case EQUALS:
+        return contentUpdatedAt == v;
+      case NOT_EQUALS:
+        return contentUpdatedAt != v;
+      case LESS_THAN:
+        return contentUpdatedAt < v;
+      case GREATER_THAN:
+        return contentUpdatedAt > v;
+      case LESS_THAN_OR_EQUALS:
+        return contentUpdatedAt <= v;
+      case GREATER_THAN_OR_EQUALS:
+        return contentUpdatedAt >= v;
+      default:
+        return false;
+    }
+  }
+
+  private static boolean isEmpty(Collection<String> c) {
+    return c == null || c.isEmpty();
+  }
+
+  private static boolean contains(Collection<String> c, String value) {
+    return c != null && value != null && c.contains(value);
+  }
+
+  private static boolean intersects(Collection<String> c, Set<String> values) {
+    if (isEmpty(c) || values.isEmpty()) return false;
+    for (String value : c) {
+      if (values.contains(value))
+        return true;
+    }
+    return false;
+  }
+
+  private static class Entry {
+
+    final String id;
+    final String owner;
+    final boolean shared;
+    final Set<String> packages;
+    final long contentUpdatedAt;
+    final long indexedAt;
+
+    Entry(Space space, long indexedAt) {
+      this.id = space.getId();
+      this.owner = space.getOwner();
+      this.shared = space.isShared();
+      this.packages = space.getPackages() == null || space.getPackages().isEmpty() ? Collections.emptySet()
+          : Collections.unmodifiableSet(new HashSet<>(space.getPackages()));
+      this.contentUpdatedAt = space.getContentUpdatedAt();
+      this.indexedAt = indexedAt;
+    }
+  }
+}
@@ -22,13 +22,16 @@ package com.here.xyz.hub.connectors;
 import static io.netty.handler.codec.http.HttpResponseStatus.TOO_MANY_REQUESTS;
 
 import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
+import com.here.xyz.Typed;
 import com.here.xyz.connectors.AbstractConnectorHandler;
 import com.here.xyz.connectors.SimulatedContext;
+import com.here.xyz.events.Event;
 import com.here.xyz.hub.Core;
 import com.here.xyz.hub.Service;
 import com.here.xyz.hub.config.MaintenanceClient;
 import com.here.xyz.hub.connectors.models.Connector;
 import com.here.xyz.hub.connectors.models.Connector.RemoteFunctionConfig;
+import com.here.xyz.hub.connectors.models.Connector.RemoteFunctionConfig.Embedded;
 import com.here.xyz.hub.rest.HttpException;
 import com.here.xyz.hub.util.LimitedOffHeapQueue.PayloadVanishedException;
 import com.here.xyz.psql.DatabaseMaintainer;
@@ -41,6 +44,7 @@ import java.io.IOException;
 import java.sql.SQLException;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -57,6 +61,10 @@ public class EmbeddedFunctionClient extends RemoteFunctionClient {
    * The thread pool being used for running calls to embedded connectors asynchronously.
    */
   private ExecutorService embeddedExecutor;
+  /**
+   * The connector handler instances being re-used by the threads of the {@link #embeddedExecutor}.
+   */
+  private ThreadLocal<RequestStreamHandler> handlers;
 
   private static final AtomicReference<MaintenanceClient> maintenanceClientRef = new AtomicReference<>();
 
@@ -98,6 +106,78 @@ public class EmbeddedFunctionClient extends RemoteFunctionClient {
     int maxConnections = getMaxConnections();
     embeddedExecutor = new ThreadPoolExecutor(8, maxConnections, 10, TimeUnit.MINUTES,
         new SynchronousQueue<>(), Core.newThreadFactory("embeddedRfc-" + connectorId));
+    handlers = new ThreadLocal<>();
+  }
+
+  /**
+   * Returns the connector handler of the current thread. Each thread creates its own instance once, as connector handlers are keeping
+   * state while processing a request.
+   */
+  private RequestStreamHandler getHandler(Embedded remoteFunction) throws ReflectiveOperationException {
+    RequestStreamHandler handler = handlers.get();
+    if (handler == null) {
+      handler = (RequestStreamHandler) Class.forName(remoteFunction.className).newInstance();
+      handlers.set(handler);
+    }
+    return handler;
+  }
+
+  /**
+   * @return true, if the events should be passed to the connector as objects rather than in their serialized form.
+   */
+  boolean isDirectMode() {
+    final RemoteFunctionConfig remoteFunction = getConnectorConfig().getRemoteFunction();
+    return remoteFunction instanceof Embedded && ((Embedded) remoteFunction).env != null
+        && Boolean.parseBoolean(((Embedded) remoteFunction).env.get("DIRECT_MODE"));
+  }
+
+  /**
+   * Invokes the connector in-process by handing over the event object and returning the response object without serializing them.
+   * If there is no free connection, nothing will be invoked, so the event can be submitted in its serialized form to be queued.
+   *
+   * @param marker The log marker
+   * @param event The event to be processed
+   * @param hasPriority Whether the call may bypass the connection limit
+   * @param callback The callback which will be called with the response
+   * @return false, if the call was not invoked as there was no free connection
+   */
+  boolean submitDirect(Marker marker, Event event, boolean hasPriority, Handler<AsyncResult<Typed>> callback) {
+    if (!hasPriority && !tryAcquireConnection())
+      return false;
+    invokeStarted();
+
+    final Embedded remoteFunction = (Embedded) getConnectorConfig().getRemoteFunction();
+    final Handler<AsyncResult<Typed>> completionHandler = r -> {
+      invokeCompleted();
+      if (!hasPriority)
+        releaseConnection();
+      callback.handle(r);
+    };
+    logger.info(marker, "Invoke embedded lambda '{}' directly for event of type {}", remoteFunction.id, event.getClass().getSimpleName());
+
+    try {
+      embeddedExecutor.execute(() -> {
+        try {
+          final RequestStreamHandler reqHandler = getHandler(remoteFunction);
+          if (!(reqHandler instanceof AbstractConnectorHandler))
+            throw new IllegalStateException("The direct mode is only supported by connectors extending AbstractConnectorHandler.");
+          final AbstractConnectorHandler connectorHandler = (AbstractConnectorHandler) reqHandler;
+          connectorHandler.setEmbedded(true);
+          connectorHandler.setStreaming(false);
+          final Typed response = connectorHandler.handleEvent(event, new EmbeddedContext(marker, remoteFunction.id, remoteFunction.env));
+          logger.info(marker, "Handling response of embedded lambda call to '{}'.", remoteFunction.id);
+          completionHandler.handle(Future.succeededFuture(response));
+        }
+        catch (Throwable e) {
+          logger.error(marker, "Exception occurred, while trying to execute embedded lambda with id '{}' {}", remoteFunction.id, e);
+          completionHandler.handle(Future.failedFuture(e));
+        }
+      });
+    }
+    catch (RejectedExecutionException e) {
+      completionHandler.handle(Future.failedFuture(new HttpException(TOO_MANY_REQUESTS, "Remote function is busy or cannot be invoked.")));
+    }
+    return true;
   }
 
   @Override
@@ -137,15 +217,16 @@ public class EmbeddedFunctionClient extends RemoteFunctionClient {
       String className = null;
       try {
         className = ((Connector.RemoteFunctionConfig.Embedded) remoteFunction).className;
-        final Class<?> mainClass = Class.forName(className);
-        final RequestStreamHandler reqHandler = (RequestStreamHandler) mainClass.newInstance();
+        final RequestStreamHandler reqHandler = getHandler((Embedded) remoteFunction);
+        final Map<String, String> env = ((Connector.RemoteFunctionConfig.Embedded) remoteFunction).env;
         if (reqHandler instanceof AbstractConnectorHandler) {
           ((AbstractConnectorHandler) reqHandler).setEmbedded(true);
+          //The response is collected in memory, so streaming would only bypass the size limits of the connector without saving memory
+          ((AbstractConnectorHandler) reqHandler).setStreaming(false);
         }
         final ByteArrayOutputStream output = new ByteArrayOutputStream();
         reqHandler.handleRequest(new ByteArrayInputStream(payload), output,
-            new EmbeddedContext(marker, remoteFunction.id,
-                ((Connector.RemoteFunctionConfig.Embedded) remoteFunction).env));
+            new EmbeddedContext(marker, remoteFunction.id, env));
         logger.info(marker, "Handling response of embedded lambda call to '{}'.", remoteFunction.id);
         byte[] responseBytes = output.toByteArray();
         callback.handle(Future.succeededFuture(responseBytes));
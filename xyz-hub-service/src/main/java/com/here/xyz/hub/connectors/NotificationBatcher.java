@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2017-2022 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.connectors;
+
+import com.here.xyz.events.EventNotification;
+import com.here.xyz.events.EventNotificationBatch;
+import com.here.xyz.hub.Service;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.Marker;
+
+/**
+ * Collects the notifications for one listener connector and sends them together as {@link EventNotificationBatch}.
+ * A batch gets sent as soon as it contains {@link Service.Config#LISTENER_NOTIFICATION_BATCH_SIZE} notifications or when
+ * {@link Service.Config#LISTENER_NOTIFICATION_BATCH_MAX_DELAY_MS} elapsed since its first notification was collected, whatever happens
+ * first.
+ */
+class NotificationBatcher {
+
+  private static final Logger logger = LogManager.getLogger();
+
+  private final RpcClient client;
+  private List<EventNotification> pending = new ArrayList<>();
+  private Marker firstMarker;
+  private long timerId = -1;
+
+  NotificationBatcher(RpcClient client) {
+    this.client = client;
+  }
+
+  /**
+   * Adds a notification to the current batch.
+   *
+   * @param marker the log marker of the request which caused the notification
+   * @param notification the notification to be sent
+   */
+  void add(Marker marker, EventNotification notification) {
+    boolean full;
+    synchronized (this) {
+      if (pending.isEmpty()) {
+        firstMarker = marker;
+        timerId = Service.vertx.setTimer(Math.max(1, Service.configuration.LISTENER_NOTIFICATION_BATCH_MAX_DELAY_MS), this::onTimer);
+      }
+      pending.add(notification);
+      full = pending.size() >= Service.configuration.LISTENER_NOTIFICATION_BATCH_SIZE;
+    }
+    if (full)
+      flush();
+  }
+
+  private void onTimer(long firedTimerId) {
+    synchronized (this) {
+      //The batch which started the timer was sent already
+      if (firedTimerId != timerId) return;
+    }
+    flush();
+  }
+
+  /**
+   * Sends all collected notifications immediately.
+   */
+  void flush() {
+    final List<EventNotification> notifications;
+    final Marker marker;
+    synchronized (this) {
+      if (pending.isEmpty()) return;
+      Service.vertx.cancelTimer(timerId);
+      timerId = -1;
+      notifications = pending;
+      marker = firstMarker;
+      pending = new ArrayList<>();
+      firstMarker = null;
+    }
+
+    try {
+      if (notifications.size() == 1)
+        client.send(marker, notifications.get(0));
+      else
+        client.send(marker, new EventNotificationBatch().withNotifications(notifications).withStreamId(marker.getName()));
+    }
+    catch (Exception e) {
+      logger.warn(marker, "Error when sending a batch of {} notifications.", notifications.size(), e);
+    }
+  }
+}
@@ -19,6 +19,7 @@
 
 package com.here.xyz.hub.connectors;
 
+import static io.netty.handler.codec.http.HttpResponseStatus.GATEWAY_TIMEOUT;
 import static io.netty.handler.codec.http.HttpResponseStatus.TOO_MANY_REQUESTS;
 
 import com.google.common.io.ByteStreams;
@@ -57,6 +58,11 @@ public abstract class RemoteFunctionClient {
   private static final Logger logger = LogManager.getLogger();
   private static int MEASUREMENT_INTERVAL = 1000; //1s
   private static final int MIN_CONNECTIONS_PER_NODE = 4;
+  /**
+   * The queue lanes. Queued read calls are invoked before queued write calls.
+   */
+  private static final int READ_LANE = 0;
+  private static final int WRITE_LANE = 1;
 
 //  /**
 //   * Tweaking constant for the percentage that the connection slots relevance should be used. The rest is the rateOfService relevance.
@@ -80,7 +86,7 @@ public abstract class RemoteFunctionClient {
 
   private final LongAdder responsesSinceLastThroughputMeasurement = new LongAdder();
   private final AtomicLong lastThroughputMeasurement = new AtomicLong(Core.currentTimeMillis());
-  private final LimitedQueue<FunctionCall> queue = new LimitedOffHeapQueue<>(0, 0);
+  private final LimitedQueue<FunctionCall> queue = new LimitedOffHeapQueue<>(0, 0, 2);
   private final AtomicInteger usedConnections = new AtomicInteger(0);
 
 //  /**
@@ -111,12 +117,7 @@ public abstract class RemoteFunctionClient {
 
 //    recalculateRateOfService();
 
-   /*
-    For simplicity also here just set the value to maximum long. That means that we don't take the performance of the
-    connector into account for defining the maximum queue length. Doing so this would just be a performance- / cost-
-    optimization.
-     */
-    queue.setMaxSize(Long.MAX_VALUE);
+    queue.setMaxSize(Math.max(Service.configuration.REMOTE_FUNCTION_MAX_QUEUE_SIZE, 1));
 
     initialize();
     //NOTE: This must be done as last construction step of instances of this class
@@ -145,11 +146,12 @@ public abstract class RemoteFunctionClient {
     }
   }
 
-  protected FunctionCall submit(final Marker marker, byte[] bytes, boolean fireAndForget, boolean hasPriority, final Handler<AsyncResult<byte[]>> callback) {
+  protected FunctionCall submit(final Marker marker, byte[] bytes, boolean fireAndForget, boolean hasPriority, boolean isRead,
+      final Handler<AsyncResult<byte[]>> callback) {
     //This is the point where new requests arrive so measure the arrival time
     invokeStarted();
 
-    FunctionCall fc = new FunctionCall(marker, bytes, fireAndForget, hasPriority, r -> {
+    FunctionCall fc = new FunctionCall(marker, bytes, fireAndForget, hasPriority, isRead, r -> {
       //This is the point where the request's response came back so measure the throughput
       invokeCompleted();
 
@@ -348,7 +350,7 @@ public abstract class RemoteFunctionClient {
       //TODO: Activate performance calculation once it's implemented completely
       //recalculatePerformance(end - start, TimeUnit.NANOSECONDS);
       //Look into queue if there is something further to do
-      FunctionCall nextFc = queue.remove();
+      FunctionCall nextFc = nextQueuedCall();
       if (nextFc == null && !fc.hasPriority) {
         if(usedConnections.intValue() > 0) {
           usedConnections.getAndDecrement(); //Free the connection only in case it's not needed for the next invocation
@@ -368,6 +370,42 @@ public abstract class RemoteFunctionClient {
     });
   }
 
+  /**
+   * Tries to take a connection for a call which is not submitted through {@link #submit(Marker, byte[], boolean, boolean, boolean,
+   * Handler)}. The connection must be released using {@link #releaseConnection()} once the call is done.
+   *
+   * @return true, if a connection was taken, false if all available connections are in use
+   */
+  protected boolean tryAcquireConnection() {
+    return compareAndIncrementUpTo(getWeightedMaxConnections(), usedConnections);
+  }
+
+  /**
+   * Hands a connection which was taken using {@link #tryAcquireConnection()} over to the next queued call or frees it.
+   */
+  protected void releaseConnection() {
+    FunctionCall nextFc = nextQueuedCall();
+    if (nextFc != null)
+      _invoke(nextFc);
+    else if (usedConnections.intValue() > 0)
+      usedConnections.getAndDecrement();
+  }
+
+  /**
+   * Removes the next call from the queue which is worth being invoked. Calls which have been cancelled or which exceeded their request
+   * timeout while waiting in the queue are dropped, so they don't take a connection.
+   *
+   * @return The next call to be invoked or null if the queue is empty
+   */
+  private FunctionCall nextQueuedCall() {
+    return queue.remove(fc -> fc.cancelled || Core.currentTimeMillis() > fc.deadline, fc -> {
+      if (fc.cancelled)
+        return;
+      logger.warn(fc.marker, "Dropping queued call to remote function {} as its request timeout was exceeded.", connectorConfig.id);
+      fc.callback.handle(Future.failedFuture(new HttpException(GATEWAY_TIMEOUT, "Remote function did not respond in time.")));
+    });
+  }
+
 //  private void recalculatePerformance(long executionTime, TimeUnit timeUnit) {
 //    recalculateSARET(executionTime, timeUnit);
 //    recalculateRateOfService();
@@ -450,7 +488,7 @@ public abstract class RemoteFunctionClient {
     }*/
 
     //In any case add the element to the queue
-    queue.add(fc)
+    queue.add(fc, fc.isRead ? READ_LANE : WRITE_LANE)
         //Send timeout for discarded (old) calls
         .forEach(timeoutFc ->
             timeoutFc.callback
@@ -462,18 +500,25 @@ public abstract class RemoteFunctionClient {
     final Marker marker;
     final boolean fireAndForget;
     final boolean hasPriority;
+    final boolean isRead;
     final Context context = Service.vertx.getOrCreateContext();
+    /**
+     * The point in time after which the call is not worth being invoked anymore, as its request would be timed out already.
+     */
+    final long deadline = Core.currentTimeMillis() + getConnectorConfig().getRemoteFunction().getTimeout();
 
     private final Handler<AsyncResult<byte[]>> callback;
     private Runnable cancelHandler;
     private volatile boolean cancelled;
 
-    public FunctionCall(Marker marker, byte[] bytes, boolean fireAndForget, boolean hasPriority, Handler<AsyncResult<byte[]>> callback) {
+    public FunctionCall(Marker marker, byte[] bytes, boolean fireAndForget, boolean hasPriority, boolean isRead,
+        Handler<AsyncResult<byte[]>> callback) {
       super(bytes);
       this.marker = marker;
       this.callback = callback;
       this.fireAndForget = fireAndForget;
       this.hasPriority = hasPriority;
+      this.isRead = isRead;
     }
 
     public void setCancelHandler(Runnable cancelHandler) {
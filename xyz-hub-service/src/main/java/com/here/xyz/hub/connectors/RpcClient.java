@@ -40,9 +40,15 @@ import com.here.xyz.Payload;
 import com.here.xyz.Typed;
 import com.here.xyz.XyzSerializable;
 import com.here.xyz.connectors.RelocationClient;
+import com.here.xyz.events.DeleteFeaturesByTagEvent;
 import com.here.xyz.events.Event;
+import com.here.xyz.events.EventNotification;
 import com.here.xyz.events.GetFeaturesByTileEvent;
+import com.here.xyz.events.GetHistoryStatisticsEvent;
+import com.here.xyz.events.GetStatisticsEvent;
+import com.here.xyz.events.LoadFeaturesEvent;
 import com.here.xyz.events.RelocatedEvent;
+import com.here.xyz.events.SelectiveEvent;
 import com.here.xyz.hub.Service;
 import com.here.xyz.hub.connectors.RemoteFunctionClient.FunctionCall;
 import com.here.xyz.hub.connectors.models.Connector;
@@ -79,6 +85,7 @@ public class RpcClient {
   private static final RelocationClient relocationClient = new RelocationClient(Service.configuration.XYZ_HUB_S3_BUCKET);
 
   private RemoteFunctionClient functionClient;
+  private NotificationBatcher notificationBatcher;
 
   /**
    * Creates a new connector client.
@@ -141,6 +148,9 @@ public class RpcClient {
     if (functionClient == null) {
       throw new IllegalStateException("The RpcClient is already destroyed");
     }
+    //Send the notifications which are still waiting to be batched
+    if (notificationBatcher != null)
+      notificationBatcher.flush();
     final Connector connectorConfig = functionClient.getConnectorConfig();
     if (connectorConfig != null) {
       synchronized (connectorIdToClient) {
@@ -173,7 +183,8 @@ public class RpcClient {
     return functionClient;
   }
 
-  private void invokeWithRelocation(final Marker marker, RpcContext context, byte[] bytes, boolean fireAndForget, boolean hasPriority, final Handler<AsyncResult<byte[]>> callback) {
+  private void invokeWithRelocation(final Marker marker, RpcContext context, byte[] bytes, boolean fireAndForget, boolean hasPriority,
+      boolean isRead, final Handler<AsyncResult<byte[]>> callback) {
     try {
       final Connector connector = getConnector();
       if (bytes.length > connector.capabilities.maxPayloadSize) { // If the payload is too large to send directly to the connector
@@ -190,11 +201,11 @@ public class RpcClient {
             callback.handle(Future.failedFuture(ar.cause()));
             return;
           }
-          context.functionCall = functionClient.submit(marker, ar.result(), fireAndForget, hasPriority, callback);
+          context.functionCall = functionClient.submit(marker, ar.result(), fireAndForget, hasPriority, isRead, callback);
         });
       }
       else {
-        context.functionCall = functionClient.submit(marker, bytes, fireAndForget, hasPriority, callback);
+        context.functionCall = functionClient.submit(marker, bytes, fireAndForget, hasPriority, isRead, callback);
       }
     }
     catch (Exception e) {
@@ -249,6 +260,13 @@ public class RpcClient {
   public RpcContext execute(final Marker marker, final Event event, final boolean hasPriority, final Handler<AsyncResult<XyzResponse>> callback) {
     final Connector connector = getConnector();
     event.setConnectorParams(connector.params);
+    if (functionClient instanceof EmbeddedFunctionClient && ((EmbeddedFunctionClient) functionClient).isDirectMode()) {
+      final RpcContext context = new RpcContext().withDirect(true);
+      if (((EmbeddedFunctionClient) functionClient).submitDirect(marker, event, hasPriority, r -> handleDirectResponse(marker, context, r,
+          callback)))
+        return context;
+      //There was no free connection, so fall back to the serialized form which can be queued
+    }
     final boolean expectBinaryResponse = expectBinaryResponse(event);
     final String eventJson = event.serialize();
     final byte[] eventBytes = eventJson.getBytes();
@@ -256,7 +274,7 @@ public class RpcClient {
     logger.info(marker, "Invoking remote function \"{}\". Total uncompressed event size: {}, Event: {}", connector.id, eventBytes.length,
             preview(eventJson, 4092));
 
-    invokeWithRelocation(marker, context, eventBytes, false, hasPriority, bytesResult -> {
+    invokeWithRelocation(marker, context, eventBytes, false, hasPriority, isReadEvent(event), bytesResult -> {
       if (functionClient == null) {
         logger.warn("RpcClient for connector with ID {} was destroyed in the meantime, cancelling handling of response.",
             connector.id);
@@ -295,6 +313,43 @@ public class RpcClient {
     return execute(marker, event, false, callback);
   }
 
+  @SuppressWarnings("rawtypes")
+  private void handleDirectResponse(Marker marker, RpcContext context, AsyncResult<Typed> result,
+      Handler<AsyncResult<XyzResponse>> callback) {
+    if (context.cancelled)
+      return;
+    if (result.failed()) {
+      callback.handle(Future.failedFuture(result.cause()));
+      return;
+    }
+    try {
+      validateResponsePayload(marker, result.result());
+      postProcessResponsePayload(marker, result.result());
+      callback.handle(Future.succeededFuture((XyzResponse) result.result()));
+    }
+    catch (HttpException e) {
+      logger.warn(marker, "Error from connector.", e);
+      callback.handle(Future.failedFuture(e));
+    }
+    catch (NullPointerException e) {
+      logger.warn(marker, "Received empty response from connector \"{}\".", getConnector().id, e);
+      callback.handle(Future.failedFuture(new HttpException(BAD_GATEWAY, "Received an empty response from the connector.")));
+    }
+  }
+
+  /**
+   * Checks whether the event only reads data from the storage. Queued read calls are invoked before queued write calls.
+   *
+   * @param event the event
+   * @return true, if the event is a read event
+   */
+  private static boolean isReadEvent(Event event) {
+    return event instanceof SelectiveEvent && !(event instanceof DeleteFeaturesByTagEvent)
+        || event instanceof LoadFeaturesEvent
+        || event instanceof GetStatisticsEvent
+        || event instanceof GetHistoryStatisticsEvent;
+  }
+
   private String preview(String eventJson, @SuppressWarnings("SameParameterValue") int previewLength) {
     if (eventJson == null || eventJson.length() <= previewLength) {
       return eventJson;
@@ -317,7 +372,7 @@ public class RpcClient {
     event.setConnectorParams(connector.params);
     final byte[] eventBytes = event.toByteArray();
     RpcContext context = new RpcContext().withRequestSize(eventBytes.length);
-    invokeWithRelocation(marker, context, eventBytes, true, false, r -> {
+    invokeWithRelocation(marker, context, eventBytes, true, false, false, r -> {
       if (r.failed()) {
         if (r.cause() instanceof HttpException
             && ((HttpException) r.cause()).status.code() >= 400 && ((HttpException) r.cause()).status.code() <= 499) {
@@ -330,6 +385,35 @@ public class RpcClient {
     return context;
   }
 
+  /**
+   * Sends a notification to a listener connector without waiting for a response. If the connector supports batched notifications, the
+   * notification is collected and sent together with other notifications for the same connector.
+   *
+   * @param marker the log marker
+   * @param notification the notification
+   */
+  public void sendNotification(final Marker marker, final EventNotification notification) throws NullPointerException {
+    final Connector connector = getConnector();
+    if (!connector.capabilities.notificationBatchSupport || Service.configuration.LISTENER_NOTIFICATION_BATCH_SIZE <= 1) {
+      send(marker, notification);
+      return;
+    }
+    notification.setConnectorParams(connector.params);
+    //The payload might still be changed by the request processing, so a snapshot of the notification gets batched
+    final EventNotification snapshot = notification.copy();
+    if (snapshot == null) {
+      send(marker, notification);
+      return;
+    }
+    getNotificationBatcher().add(marker, snapshot);
+  }
+
+  private synchronized NotificationBatcher getNotificationBatcher() {
+    if (notificationBatcher == null)
+      notificationBatcher = new NotificationBatcher(this);
+    return notificationBatcher;
+  }
+
   @SuppressWarnings("rawtypes")
   private void validateResponsePayload(Marker marker, final Typed payload) throws HttpException {
     if (payload == null)
@@ -590,10 +674,12 @@ public class RpcClient {
     private int responseSize = -1;
     private volatile boolean cancelled = false;
     private FunctionCall functionCall;
+    private boolean direct;
 
     public void cancelRequest() {
       cancelled = true;
-      functionCall.cancel();
+      if (functionCall != null)
+        functionCall.cancel();
     }
 
     public int getRequestSize() {
@@ -621,5 +707,18 @@ public class RpcClient {
       setResponseSize(responseSize);
       return this;
     }
+
+    /**
+     * @return true, if the call was invoked in direct mode. Responses of direct calls don't have an ETag, unless the event had an
+     *     If-None-Match condition. The ETag can be calculated on the serialized response once it's needed.
+     */
+    public boolean isDirect() {
+      return direct;
+    }
+
+    public RpcContext withDirect(boolean direct) {
+      this.direct = direct;
+      return this;
+    }
   }
 }
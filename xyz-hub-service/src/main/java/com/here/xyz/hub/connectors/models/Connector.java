@@ -250,6 +250,24 @@ public class Connector {
      */
     public boolean extensionSupport;
 
+    /**
+     * Whether the connector accepts batched notifications ({@link com.here.xyz.events.EventNotificationBatch}) when being used as
+     * listener. (Only applicable for listener connectors)
+     */
+    public boolean notificationBatchSupport;
+
+    /**
+     * Whether the storage connector accepts upserts ({@link com.here.xyz.events.ModifyFeaturesEvent#getUpsertFeatures()}) and reports
+     * which of them got inserted or updated. (Only applicable for storage connectors)
+     */
+    public boolean upsertSupport;
+
+    /**
+     * Whether the storage connector accepts patches ({@link com.here.xyz.events.ModifyFeaturesEvent#getPatchFeatures()}) and applies
+     * them inside the storage. (Only applicable for storage connectors)
+     */
+    public boolean patchSupport;
+
     @Override
     public boolean equals(Object o) {
       if (this == o) return true;
@@ -265,7 +283,10 @@ public class Connector {
           && Objects.equals(clusteringTypes, that.clusteringTypes)
           && storageUtilizationReporting == that.storageUtilizationReporting
           && mvtSupport == that.mvtSupport
-          && extensionSupport == that.extensionSupport;
+          && extensionSupport == that.extensionSupport
+          && notificationBatchSupport == that.notificationBatchSupport
+          && upsertSupport == that.upsertSupport
+          && patchSupport == that.patchSupport;
     }
   }
 
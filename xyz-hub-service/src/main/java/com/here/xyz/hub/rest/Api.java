@@ -40,6 +40,7 @@ import com.here.xyz.hub.XYZHubRESTVerticle;
 import com.here.xyz.hub.auth.JWTPayload;
 import com.here.xyz.hub.connectors.models.Space.CacheProfile;
 import com.here.xyz.hub.rest.ApiParam.Query;
+import com.here.xyz.hub.task.CachedRawResponse;
 import com.here.xyz.hub.task.FeatureTask;
 import com.here.xyz.hub.task.SpaceTask;
 import com.here.xyz.hub.task.Task;
@@ -184,6 +185,13 @@ public abstract class Api {
       return;
     }
 
+    if (response instanceof CachedRawResponse) {
+      //The body was already serialized when it was written to the cache, so it can be sent as is
+      final CachedRawResponse rawResponse = (CachedRawResponse) response;
+      sendResponse(task, OK, rawResponse.getContentType(), rawResponse.getBody());
+      return;
+    }
+
     if (task.responseType.binary && response instanceof BinaryResponse) {
       sendBinaryResponse(task, ((BinaryResponse) response).getMimeType(), ((BinaryResponse) response).getBytes());
       return;
@@ -485,6 +493,10 @@ public abstract class Api {
   }
 
   private void sendResponse(final Task task, HttpResponseStatus status, String contentType, final byte[] response) {
+    sendResponse(task, status, contentType, response == null ? null : Buffer.buffer(response));
+  }
+
+  private void sendResponse(final Task task, HttpResponseStatus status, String contentType, final Buffer response) {
     HttpServerResponse httpResponse = task.context.response().setStatusCode(status.code());
 
     CacheProfile cacheProfile = task.getCacheProfile();
@@ -492,16 +504,16 @@ public abstract class Api {
       httpResponse.putHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=" + (cacheProfile.browserTTL / 1000));
     }
 
-    if (response == null || response.length == 0) {
+    if (response == null || response.length() == 0) {
       if (contentType != null)
         httpResponse.putHeader(CONTENT_TYPE, contentType);
 
       httpResponse.end();
-    } else if (response.length > getMaxResponseLength(task.context)) {
+    } else if (response.length() > getMaxResponseLength(task.context)) {
       sendErrorResponse(task.context, new HttpException(RESPONSE_PAYLOAD_TOO_LARGE, RESPONSE_PAYLOAD_TOO_LARGE_MESSAGE));
     } else {
       httpResponse.putHeader(CONTENT_TYPE, contentType);
-      httpResponse.end(Buffer.buffer(response));
+      httpResponse.end(response);
     }
   }
 
@@ -617,6 +629,16 @@ public abstract class Api {
       return payload;
     }
 
+    /**
+     * Sets the parsed JWT payload of the current request, e.g. if it is known already from a previous request using the same token.
+     *
+     * @param context the routing context.
+     * @param payload the parsed payload of the token, which was used to authenticate the request.
+     */
+    public static void setJWT(RoutingContext context, JWTPayload payload) {
+      context.put(JWT, payload);
+    }
+
     /**
      * Returns the custom parsed query parameters.
      *
@@ -120,6 +120,7 @@ public class ApiParam {
     static final String SELECTION = "selection";
     static final String SORT = "sort";
     static final String PART = "part";
+    static final String PARTITIONS = "partitions";
     static final String IF_EXISTS = "e";
     static final String IF_NOT_EXISTS = "ne";
     static final String TRANSACTIONAL = "transactional";
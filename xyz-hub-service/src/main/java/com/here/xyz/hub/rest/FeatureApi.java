@@ -73,7 +73,7 @@ public class FeatureApi extends SpaceBasedApi {
    * @return either the {@link ApiResponseType#EMPTY} response type, if requested by the client or the given default response type, if the
    * client did not explicitly request an empty response.
    */
-  private ApiResponseType getEmptyResponseTypeOr(final RoutingContext context, ApiResponseType defaultResponseType) {
+  static ApiResponseType getEmptyResponseTypeOr(final RoutingContext context, ApiResponseType defaultResponseType) {
     if ("application/x-empty".equalsIgnoreCase(context.request().headers().get(HttpHeaders.ACCEPT))) {
       return ApiResponseType.EMPTY;
     }
@@ -229,7 +229,7 @@ public class FeatureApi extends SpaceBasedApi {
     task.execute(this::sendResponse, this::sendErrorResponse);
   }
 
-  private static boolean checkModificationOnSuper(RoutingContext context, SpaceContext spaceContext) {
+  static boolean checkModificationOnSuper(RoutingContext context, SpaceContext spaceContext) {
     if (spaceContext != null && spaceContext.equals(SUPER)) {
       context.fail(
           new HttpException(HttpResponseStatus.FORBIDDEN, "It's not permitted to perform modifications through context " + SUPER + "."));
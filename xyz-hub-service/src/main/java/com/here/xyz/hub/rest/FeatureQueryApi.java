@@ -25,9 +25,13 @@ import static com.here.xyz.events.GetFeaturesByTileEvent.ResponseType.MVT_FLATTE
 import static com.here.xyz.hub.rest.Api.HeaderValues.APPLICATION_VND_MAPBOX_VECTOR_TILE;
 import static com.here.xyz.hub.rest.ApiParam.Query.FORCE_2D;
 import static com.here.xyz.hub.rest.ApiParam.Query.SKIP_CACHE;
+import static com.here.xyz.hub.rest.FeatureStreamApi.APPLICATION_X_NDJSON;
 import static io.netty.handler.codec.http.HttpResponseStatus.BAD_REQUEST;
+import static io.netty.handler.codec.http.HttpResponseStatus.OK;
+import static io.vertx.core.http.HttpHeaders.CONTENT_TYPE;
 
 import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.here.xyz.Typed;
 import com.here.xyz.XyzSerializable;
@@ -39,6 +43,7 @@ import com.here.xyz.events.GetStatisticsEvent;
 import com.here.xyz.events.IterateFeaturesEvent;
 import com.here.xyz.events.PropertiesQuery;
 import com.here.xyz.events.SearchForFeaturesEvent;
+import com.here.xyz.hub.AbstractHttpServerVerticle;
 import com.here.xyz.hub.Service;
 import com.here.xyz.hub.rest.ApiParam.Path;
 import com.here.xyz.hub.rest.ApiParam.Query;
@@ -54,17 +59,36 @@ import com.here.xyz.models.geojson.HQuad;
 import com.here.xyz.models.geojson.WebMercatorTile;
 import com.here.xyz.models.geojson.coordinates.BBox;
 import com.here.xyz.models.geojson.exceptions.InvalidGeometryException;
+import com.here.xyz.models.geojson.implementation.Feature;
+import com.here.xyz.models.geojson.implementation.FeatureCollection;
 import com.here.xyz.models.geojson.implementation.Geometry;
+import com.here.xyz.responses.XyzResponse;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerResponse;
 import io.vertx.ext.web.ParsedHeaderValue;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.openapi.RouterBuilder;
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.Marker;
 
 public class FeatureQueryApi extends SpaceBasedApi {
 
+  private static final Logger logger = LogManager.getLogger();
+
+  private static final int MAX_EXPORT_PARTITIONS = 64;
+  private static final byte NEW_LINE = '\n';
+
   public FeatureQueryApi(RouterBuilder rb) {
     rb.operation("getFeaturesBySpatial").handler(this::getFeaturesBySpatial);
     rb.operation("getFeaturesBySpatialPost").handler(this::getFeaturesBySpatial);
@@ -73,6 +97,7 @@ public class FeatureQueryApi extends SpaceBasedApi {
     rb.operation("getFeaturesCount").handler(this::getFeaturesCount);
     rb.operation("getStatistics").handler(this::getStatistics);
     rb.operation("iterateFeatures").handler(this::iterateFeatures);
+    rb.operation("exportFeatures").handler(this::exportFeatures);
     rb.operation("searchForFeatures").handler(this::searchForFeatures);
   }
 
@@ -165,6 +190,24 @@ public class FeatureQueryApi extends SpaceBasedApi {
     }
   }
 
+  /**
+   * Exports all features of the space as newline delimited GeoJSON.
+   * The space gets split into partitions by the storage connector, which are then iterated in parallel.
+   */
+  private void exportFeatures(final RoutingContext context) {
+    try {
+      final int partitions = Query.getInteger(context, Query.PARTITIONS, Math.max(Service.configuration.EXPORT_MAX_PARALLEL_PARTITIONS, 1));
+      if (partitions < 1 || partitions > MAX_EXPORT_PARTITIONS)
+        throw new HttpException(BAD_REQUEST, "The parameter partitions must be between 1 and " + MAX_EXPORT_PARTITIONS + ".");
+
+      new PartitionedExport(context, partitions, getLimit(context), Query.getSelection(context),
+          Query.getBoolean(context, FORCE_2D, false)).start();
+    }
+    catch (HttpException e) {
+      sendErrorResponse(context, e);
+    }
+  }
+
   /**
    *  Retrieves the features by intersecting with the provided geometry.
    */
@@ -509,4 +552,246 @@ public class FeatureQueryApi extends SpaceBasedApi {
       throw new HttpException(BAD_REQUEST, "Geometry isn't valid!");
     }
   }
+
+  /**
+   * The state of one partitioned export.
+   * All methods are called on the event-loop of the request, so no synchronization is needed.
+   */
+  private class PartitionedExport {
+
+    private final RoutingContext context;
+    private final Marker marker;
+    private final int partitions;
+    private final int limit;
+    private final List<String> selection;
+    private final boolean force2D;
+
+    private String storageId;
+    private int runningPartitions;
+    private long exportedFeatures;
+    private boolean finished;
+    private final List<Runnable> pausedPartitions = new ArrayList<>();
+
+    PartitionedExport(RoutingContext context, int partitions, int limit, List<String> selection, boolean force2D) {
+      this.context = context;
+      this.marker = Context.getMarker(context);
+      this.partitions = partitions;
+      this.limit = limit;
+      this.selection = selection;
+      this.force2D = force2D;
+    }
+
+    void start() {
+      if (partitions == 1) {
+        startStreaming(Collections.singletonList(null));
+        return;
+      }
+
+      //Request the partition handles from the storage connector
+      IterateFeaturesEvent event = new IterateFeaturesEvent()
+          .withLimit(limit)
+          .withPart(new Integer[]{-1, partitions});
+      new IterateQuery(event, context, ApiResponseType.FEATURE_COLLECTION, true)
+          .execute(this::onPartitionHandles, (task, e) -> fail(e));
+    }
+
+    private void onPartitionHandles(IterateQuery task) {
+      final XyzResponse response = task.getResponse();
+      if (!(response instanceof FeatureCollection)) {
+        fail(responseToHttpException(response));
+        return;
+      }
+
+      List<String> handles = null;
+      try {
+        //Composite spaces can not be partitioned by the storage of the extending space alone
+        if (task.space.getExtension() == null)
+          handles = readPartitionHandles((FeatureCollection) response);
+      }
+      catch (JsonProcessingException e) {
+        fail(e);
+        return;
+      }
+
+      if (handles == null || handles.isEmpty()) {
+        logger.info(marker, "The storage {} did not provide partitions for space {}, exporting serially.", task.storage.id, task.space.getId());
+        handles = Collections.singletonList(null);
+      }
+      else
+        storageId = task.storage.id;
+      startStreaming(handles);
+    }
+
+    private List<String> readPartitionHandles(FeatureCollection fc) throws JsonProcessingException {
+      if (fc.getFeatures().size() != 1 || fc.getFeatures().get(0).getProperties() == null)
+        return null;
+
+      final Object handles = fc.getFeatures().get(0).getProperties().get("handles");
+      if (!(handles instanceof List))
+        return null;
+
+      final List<String> partitionHandles = new ArrayList<>();
+      for (Object entry : (List<?>) handles) {
+        if (!(entry instanceof List) || ((List<?>) entry).isEmpty() || !(((List<?>) entry).get(0) instanceof String))
+          return null;
+        partitionHandles.add((String) ((List<?>) entry).get(0));
+      }
+      return partitionHandles;
+    }
+
+    private void startStreaming(List<String> handles) {
+      AbstractHttpServerVerticle.addStreamInfo(context, "Partitions", handles.size());
+      context.response()
+          .setStatusCode(OK.code())
+          .setChunked(true)
+          .putHeader(CONTENT_TYPE, APPLICATION_X_NDJSON)
+          .closeHandler(v -> {
+            if (!finished) {
+              logger.info(marker, "The client closed the connection after {} exported features.", exportedFeatures);
+              finished = true;
+            }
+          });
+
+      runningPartitions = handles.size();
+      for (String handle : handles)
+        readPage(handle);
+    }
+
+    private void readPage(String handle) {
+      if (finished) return;
+      if (storageId == null)
+        doReadPage(handle);
+      else
+        ExportThrottle.acquire(storageId, () -> doReadPage(handle));
+    }
+
+    private void doReadPage(String handle) {
+      if (finished) {
+        pageDone();
+        return;
+      }
+
+      IterateFeaturesEvent event = new IterateFeaturesEvent()
+          .withLimit(limit)
+          .withForce2D(force2D)
+          .withSelection(selection)
+          .withHandle(handle)
+          .withContext(SpaceContext.DEFAULT);
+      new IterateQuery(event, context, ApiResponseType.FEATURE_COLLECTION, true)
+          .execute(this::onPage, (task, e) -> {
+            pageDone();
+            fail(e);
+          });
+    }
+
+    private void onPage(IterateQuery task) {
+      pageDone();
+      if (finished) return;
+
+      final XyzResponse response = task.getResponse();
+      if (!(response instanceof FeatureCollection)) {
+        fail(responseToHttpException(response));
+        return;
+      }
+
+      final FeatureCollection fc = (FeatureCollection) response;
+      final Buffer chunk = Buffer.buffer();
+      try {
+        for (Feature feature : fc.getFeatures())
+          chunk.appendString(feature.serialize()).appendByte(NEW_LINE);
+        exportedFeatures += fc.getFeatures().size();
+      }
+      catch (JsonProcessingException e) {
+        fail(e);
+        return;
+      }
+
+      final HttpServerResponse httpResponse = context.response();
+      httpResponse.write(chunk);
+
+      final String nextHandle = fc.getHandle();
+      if (nextHandle == null) {
+        if (--runningPartitions == 0)
+          end();
+      }
+      else if (httpResponse.writeQueueFull()) {
+        //Continue reading the partition only once the client caught up
+        if (pausedPartitions.isEmpty())
+          httpResponse.drainHandler(v -> resumePartitions());
+        pausedPartitions.add(() -> readPage(nextHandle));
+      }
+      else
+        readPage(nextHandle);
+    }
+
+    private void resumePartitions() {
+      final List<Runnable> partitionsToResume = new ArrayList<>(pausedPartitions);
+      pausedPartitions.clear();
+      partitionsToResume.forEach(Runnable::run);
+    }
+
+    private void pageDone() {
+      if (storageId != null)
+        ExportThrottle.release(storageId);
+    }
+
+    private void end() {
+      finished = true;
+      context.response().end();
+    }
+
+    /**
+     * Fails the export. If the streaming already started, the connection gets reset, so that the client is able to recognize the
+     * incomplete response.
+     */
+    private void fail(Throwable e) {
+      if (finished) return;
+      finished = true;
+      if (!context.response().headWritten()) {
+        sendErrorResponse(context, e);
+        return;
+      }
+      logger.error(marker, "Export failed after {} exported features.", exportedFeatures, e);
+      context.response().reset();
+    }
+  }
+
+  /**
+   * Limits the number of concurrent partition requests of all exports, which are running against the same storage.
+   * Requests which can not be started immediately are queued and started on their own event-loop in the order of arrival.
+   */
+  private static class ExportThrottle {
+
+    private static final Map<String, Integer> runningRequests = new HashMap<>();
+    private static final Map<String, Queue<Runnable>> waitingRequests = new HashMap<>();
+
+    static void acquire(String storageId, Runnable request) {
+      final io.vertx.core.Context vertxContext = Vertx.currentContext();
+      synchronized (ExportThrottle.class) {
+        final int running = runningRequests.getOrDefault(storageId, 0);
+        if (running >= Math.max(Service.configuration.EXPORT_MAX_PARALLEL_PARTITIONS, 1)) {
+          waitingRequests.computeIfAbsent(storageId, k -> new ArrayDeque<>())
+              .add(vertxContext == null ? request : () -> vertxContext.runOnContext(v -> request.run()));
+          return;
+        }
+        runningRequests.put(storageId, running + 1);
+      }
+      request.run();
+    }
+
+    static void release(String storageId) {
+      final Runnable next;
+      synchronized (ExportThrottle.class) {
+        final Queue<Runnable> waiting = waitingRequests.get(storageId);
+        next = waiting == null ? null : waiting.poll();
+        if (waiting != null && waiting.isEmpty())
+          waitingRequests.remove(storageId);
+        //The slot is handed over to the next waiting request directly
+        if (next == null && runningRequests.merge(storageId, -1, Integer::sum) <= 0)
+          runningRequests.remove(storageId);
+      }
+      if (next != null)
+        next.run();
+    }
+  }
 }
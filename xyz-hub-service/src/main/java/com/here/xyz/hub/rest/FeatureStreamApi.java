@@ -0,0 +1,428 @@
+/*
+ * Copyright (C) 2017-2022 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.rest;
+
+import static com.here.xyz.hub.rest.Api.HeaderValues.APPLICATION_GEO_JSON;
+import static io.netty.handler.codec.http.HttpResponseStatus.BAD_REQUEST;
+import static io.netty.handler.codec.http.HttpResponseStatus.NO_CONTENT;
+import static io.netty.handler.codec.http.HttpResponseStatus.OK;
+import static io.vertx.core.http.HttpHeaders.CONNECTION;
+import static io.vertx.core.http.HttpHeaders.CONTENT_TYPE;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.here.xyz.events.ContextAwareEvent.SpaceContext;
+import com.here.xyz.events.IfRowLock;
+import com.here.xyz.events.ModifyFeaturesEvent;
+import com.here.xyz.hub.AbstractHttpServerVerticle;
+import com.here.xyz.hub.Service;
+import com.here.xyz.hub.rest.ApiParam.Query;
+import com.here.xyz.hub.task.FeatureTask.ConditionalOperation;
+import com.here.xyz.hub.task.ModifyOp.IfExists;
+import com.here.xyz.hub.task.ModifyOp.IfNotExists;
+import com.here.xyz.hub.util.diff.Patcher.ConflictResolution;
+import com.here.xyz.models.geojson.implementation.FeatureCollection;
+import com.here.xyz.models.geojson.implementation.FeatureCollection.ModificationFailure;
+import com.here.xyz.models.geojson.implementation.XyzNamespace;
+import com.here.xyz.responses.XyzResponse;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.json.jackson.DatabindCodec;
+import io.vertx.ext.web.Route;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.handler.AuthenticationHandler;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Handles streamed feature uploads (GeoJSON text sequences or newline delimited GeoJSON).
+ * The features are parsed incrementally while the request body is being received. They are written in chunks of a bounded size,
+ * each of them being processed by its own {@link ConditionalOperation}. That way the request body never has to be kept in memory as a
+ * whole. That also applies to records which are FeatureCollections, as the elements of their features array are read one by one.
+ */
+public class FeatureStreamApi extends SpaceBasedApi {
+
+  private static final Logger logger = LogManager.getLogger();
+
+  public static final String APPLICATION_GEO_JSON_SEQ = "application/geo+json-seq";
+  public static final String APPLICATION_X_NDJSON = "application/x-ndjson";
+
+  private static final String FEATURES_ENDPOINT = "/hub/spaces/:spaceId/features";
+  private static final int DEFAULT_CHUNK_SIZE = 1000;
+  private static final int DEFAULT_CHUNK_BYTE_SIZE = 16 * 1024 * 1024;
+  private static final byte RECORD_SEPARATOR = 0x1E;
+  private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<Map<String, Object>>() {};
+
+  /**
+   * @param router The router to register the routes at.
+   * @param auth The authentication handler.
+   * @param preHandlers The handlers to be called for each request, before it gets authenticated.
+   */
+  @SafeVarargs
+  public FeatureStreamApi(Router router, AuthenticationHandler auth, Handler<RoutingContext>... preHandlers) {
+    for (HttpMethod method : new HttpMethod[]{HttpMethod.PUT, HttpMethod.POST}) {
+      //The routes have to be matched before the body handler of the router builder, which would read the whole body into memory
+      final Route route = router.route(method, FEATURES_ENDPOINT)
+          .order(-1)
+          .consumes(APPLICATION_GEO_JSON_SEQ)
+          .consumes(APPLICATION_X_NDJSON);
+      for (Handler<RoutingContext> preHandler : preHandlers)
+        route.handler(preHandler);
+      route.handler(auth).handler(this::streamFeatures);
+    }
+  }
+
+  /**
+   * Creates, replaces or patches the features of a streamed request body.
+   * PUT requests behave like putFeatures, POST requests like postFeatures of the {@link FeatureApi}.
+   */
+  private void streamFeatures(final RoutingContext context) {
+    final SpaceContext spaceContext = getSpaceContext(context);
+    if (FeatureApi.checkModificationOnSuper(context, spaceContext))
+      return;
+
+    final boolean isPost = context.request().method() == HttpMethod.POST;
+    try {
+      new StreamedUpload(context, spaceContext,
+          isPost ? IfExists.of(Query.getString(context, Query.IF_EXISTS, "patch")) : IfExists.REPLACE,
+          isPost ? IfNotExists.of(Query.getString(context, Query.IF_NOT_EXISTS, "create")) : IfNotExists.CREATE,
+          !isPost || Query.getBoolean(context, Query.TRANSACTIONAL, true),
+          isPost ? ConflictResolution.of(Query.getString(context, Query.CONFLICT_RESOLUTION, "error")) : ConflictResolution.ERROR)
+          .start();
+    }
+    catch (IOException e) {
+      sendErrorResponse(context, new HttpException(BAD_REQUEST, "Unable to read the request body.", e));
+    }
+  }
+
+  /**
+   * The state of one streamed upload.
+   * All methods are called on the event-loop of the request, so no synchronization is needed.
+   */
+  private class StreamedUpload {
+
+    private final RoutingContext context;
+    private final ApiResponseType responseType;
+    private final SpaceContext spaceContext;
+    private final IfExists ifExists;
+    private final IfNotExists ifNotExists;
+    private final boolean transactional;
+    private final ConflictResolution conflictResolution;
+    private final IfRowLock ifRowLock;
+    private final List<String> addTags;
+    private final List<String> removeTags;
+    private final String prefixId;
+    private final int chunkSize;
+    private final int chunkByteSize;
+
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    /**
+     * The buffer of the current record, without the elements of its features array.
+     */
+    private TokenBuffer recordBuffer;
+    private int depth;
+    private boolean featuresFieldRead;
+    private boolean inFeaturesArray;
+    private boolean featuresStreamed;
+    /**
+     * The buffer of the current element of the features array of a FeatureCollection record.
+     */
+    private TokenBuffer featureBuffer;
+    private int featureDepth;
+
+    private List<Map<String, Object>> chunk = new ArrayList<>();
+    private int bufferedBytes;
+    private int writtenChunks;
+    private boolean writingChunk;
+    private boolean inputEnded;
+    private boolean finished;
+
+    private final List<String> inserted = new ArrayList<>();
+    private final List<String> updated = new ArrayList<>();
+    private final List<String> deleted = new ArrayList<>();
+    private final List<ModificationFailure> failed = new ArrayList<>();
+
+    StreamedUpload(RoutingContext context, SpaceContext spaceContext, IfExists ifExists, IfNotExists ifNotExists, boolean transactional,
+        ConflictResolution conflictResolution) throws IOException {
+      this.context = context;
+      this.responseType = FeatureApi.getEmptyResponseTypeOr(context, ApiResponseType.FEATURE_COLLECTION);
+      this.spaceContext = spaceContext;
+      this.ifExists = ifExists;
+      this.ifNotExists = ifNotExists;
+      this.transactional = transactional;
+      this.conflictResolution = conflictResolution;
+      this.ifRowLock = IfRowLock.of(Query.getString(context, Query.IF_ROW_LOCKED, IfRowLock.WAIT.toString()));
+      this.addTags = XyzNamespace.normalizeTags(Query.queryParam(Query.ADD_TAGS, context));
+      this.removeTags = XyzNamespace.normalizeTags(Query.queryParam(Query.REMOVE_TAGS, context));
+      XyzNamespace.fixNormalizedTags(addTags);
+      XyzNamespace.fixNormalizedTags(removeTags);
+      this.prefixId = Query.getString(context, Query.PREFIX_ID, null);
+      this.chunkSize = Service.configuration.STREAMING_UPLOAD_CHUNK_SIZE > 0
+          ? Service.configuration.STREAMING_UPLOAD_CHUNK_SIZE : DEFAULT_CHUNK_SIZE;
+      this.chunkByteSize = Service.configuration.STREAMING_UPLOAD_CHUNK_BYTE_SIZE > 0
+          ? Service.configuration.STREAMING_UPLOAD_CHUNK_BYTE_SIZE : DEFAULT_CHUNK_BYTE_SIZE;
+
+      parser = DatabindCodec.mapper().getFactory().createNonBlockingByteArrayParser();
+      feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    void start() {
+      final HttpServerRequest request = context.request();
+      request.handler(this::onData);
+      request.endHandler(v -> onEnd());
+      request.exceptionHandler(e -> {
+        logger.warn(Context.getMarker(context), "Error while reading the streamed request body.", e);
+        fail(new HttpException(BAD_REQUEST, "Unable to read the request body.", e));
+      });
+      request.resume();
+    }
+
+    private void onData(Buffer data) {
+      if (finished) return;
+      final byte[] bytes = data.getBytes();
+      //The record separators of GeoJSON text sequences are no valid JSON whitespace
+      for (int i = 0; i < bytes.length; i++)
+        if (bytes[i] == RECORD_SEPARATOR)
+          bytes[i] = ' ';
+      bufferedBytes += bytes.length;
+      try {
+        feeder.feedInput(bytes, 0, bytes.length);
+      }
+      catch (IOException e) {
+        fail(new HttpException(BAD_REQUEST, "Invalid JSON input string: " + e.getMessage()));
+        return;
+      }
+      process();
+    }
+
+    private void onEnd() {
+      if (finished) return;
+      inputEnded = true;
+      feeder.endOfInput();
+      process();
+    }
+
+    /**
+     * Consumes the parsed tokens until either more input is needed or a chunk is full.
+     */
+    private void process() {
+      try {
+        while (!finished && !writingChunk) {
+          if (chunk.size() >= chunkSize || bufferedBytes >= chunkByteSize && !chunk.isEmpty()) {
+            writeChunk();
+            return;
+          }
+
+          final JsonToken token = parser.nextToken();
+          if (token == JsonToken.NOT_AVAILABLE) {
+            context.request().resume();
+            return;
+          }
+          if (token == null) {
+            if (!chunk.isEmpty())
+              writeChunk();
+            else
+              sendReport();
+            return;
+          }
+          readToken(token);
+        }
+      }
+      catch (HttpException e) {
+        fail(e);
+      }
+      catch (IOException e) {
+        fail(new HttpException(BAD_REQUEST, "Invalid JSON input string: " + e.getMessage()));
+      }
+    }
+
+    private void readToken(JsonToken token) throws IOException, HttpException {
+      if (recordBuffer == null) {
+        if (token != JsonToken.START_OBJECT)
+          throw new HttpException(BAD_REQUEST, "Each record of the stream has to be a Feature or a FeatureCollection.");
+        recordBuffer = new TokenBuffer(parser);
+        featuresStreamed = false;
+      }
+
+      if (inFeaturesArray) {
+        readFeatureToken(token);
+        return;
+      }
+
+      //The features array of a record is not buffered, its elements are added to the chunk one by one instead
+      if (depth == 1 && token == JsonToken.FIELD_NAME && "features".equals(parser.getCurrentName())) {
+        featuresFieldRead = true;
+        return;
+      }
+      if (featuresFieldRead) {
+        featuresFieldRead = false;
+        if (token == JsonToken.START_ARRAY) {
+          inFeaturesArray = featuresStreamed = true;
+          return;
+        }
+        recordBuffer.writeFieldName("features");
+      }
+
+      recordBuffer.copyCurrentEvent(parser);
+      if (token.isStructStart())
+        depth++;
+      else if (token.isStructEnd() && --depth == 0) {
+        final Map<String, Object> record = DatabindCodec.mapper().readValue(recordBuffer.asParser(), MAP_TYPE);
+        recordBuffer = null;
+        if (!featuresStreamed)
+          chunk.add(record);
+        else if (!"FeatureCollection".equals(record.get("type")))
+          throw new HttpException(BAD_REQUEST, "Only records of type FeatureCollection may contain a features array.");
+      }
+    }
+
+    private void readFeatureToken(JsonToken token) throws IOException, HttpException {
+      if (featureBuffer == null) {
+        if (token == JsonToken.END_ARRAY) {
+          inFeaturesArray = false;
+          return;
+        }
+        if (token != JsonToken.START_OBJECT)
+          throw new HttpException(BAD_REQUEST, "Each element of the features array has to be a Feature.");
+        featureBuffer = new TokenBuffer(parser);
+      }
+
+      featureBuffer.copyCurrentEvent(parser);
+      if (token.isStructStart())
+        featureDepth++;
+      else if (token.isStructEnd() && --featureDepth == 0) {
+        chunk.add(DatabindCodec.mapper().readValue(featureBuffer.asParser(), MAP_TYPE));
+        featureBuffer = null;
+      }
+    }
+
+    private void writeChunk() {
+      writingChunk = true;
+      context.request().pause();
+
+      final List<Map<String, Object>> features = chunk;
+      final int byteSize = bufferedBytes;
+      chunk = new ArrayList<>();
+      bufferedBytes = 0;
+
+      ModifyFeaturesEvent event = new ModifyFeaturesEvent().withTransaction(transactional).withContext(spaceContext);
+      event.setActionIfRowLocked(ifRowLock);
+      ConditionalOperation task = new ConditionalOperation(event, context, ApiResponseType.FEATURE_COLLECTION, ifNotExists, ifExists,
+          transactional, conflictResolution, false, byteSize);
+      task.inputFeatures = features;
+      task.addTags = addTags;
+      task.removeTags = removeTags;
+      task.prefixId = prefixId;
+      task.execute(this::onChunkWritten, this::onChunkFailed);
+    }
+
+    private void onChunkWritten(ConditionalOperation task) {
+      if (finished) return;
+      final XyzResponse response = task.getResponse();
+      if (!(response instanceof FeatureCollection)) {
+        fail(responseToHttpException(response));
+        return;
+      }
+
+      final FeatureCollection fc = (FeatureCollection) response;
+      addAll(inserted, fc.getInserted());
+      addAll(updated, fc.getUpdated());
+      addAll(deleted, fc.getDeleted());
+      addAll(failed, fc.getFailed());
+      writtenChunks++;
+      writingChunk = false;
+      process();
+    }
+
+    private void onChunkFailed(ConditionalOperation task, Throwable e) {
+      if (finished) return;
+      if (e instanceof HttpException) {
+        fail((HttpException) e);
+        return;
+      }
+      stop();
+      sendErrorResponse(task, e);
+    }
+
+    private <E> void addAll(List<E> target, List<E> source) {
+      if (source != null)
+        target.addAll(source);
+    }
+
+    private void sendReport() {
+      finished = true;
+      AbstractHttpServerVerticle.addStreamInfo(context, "Chunks", writtenChunks);
+      if (responseType == ApiResponseType.EMPTY) {
+        context.response().setStatusCode(NO_CONTENT.code()).end();
+        return;
+      }
+
+      final FeatureCollection report = new FeatureCollection()
+          .withInserted(inserted)
+          .withUpdated(updated)
+          .withDeleted(deleted)
+          .withFailed(failed);
+      context.response()
+          .setStatusCode(OK.code())
+          .putHeader(CONTENT_TYPE, APPLICATION_GEO_JSON)
+          .end(Buffer.buffer(report.serialize()));
+    }
+
+    /**
+     * Stops the upload. As the rest of the request body will not be read anymore, the connection will be closed after the response.
+     */
+    private void stop() {
+      finished = true;
+      AbstractHttpServerVerticle.addStreamInfo(context, "Chunks", writtenChunks);
+      if (!inputEnded)
+        context.response().putHeader(CONNECTION, "close");
+    }
+
+    /**
+     * Fails the upload. The error details contain the number of modifications which have been committed already by the previous chunks.
+     */
+    private void fail(HttpException e) {
+      if (finished) return;
+      stop();
+
+      final Map<String, Object> errorDetails = new HashMap<>();
+      if (e.errorDetails != null)
+        errorDetails.putAll(e.errorDetails);
+      errorDetails.put("writtenChunks", writtenChunks);
+      errorDetails.put("inserted", inserted.size());
+      errorDetails.put("updated", updated.size());
+      errorDetails.put("deleted", deleted.size());
+      errorDetails.put("failed", failed.size());
+      sendErrorResponse(context, new HttpException(e.status, e.getMessage(), errorDetails));
+    }
+  }
+}
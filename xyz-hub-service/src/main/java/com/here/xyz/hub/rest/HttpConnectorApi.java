@@ -28,6 +28,8 @@ import com.here.xyz.hub.task.HttpConnectorTaskHandler;
 import com.here.xyz.hub.util.health.MainHealthCheck;
 import com.here.xyz.hub.util.health.schema.Reporter;
 import com.here.xyz.hub.util.health.schema.Response;
+import com.here.xyz.hub.util.WriteStreamOutputStream;
+import io.vertx.core.http.HttpServerResponse;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.openapi.RouterBuilder;
 import org.apache.logging.log4j.LogManager;
@@ -37,18 +39,30 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
 
 import static com.here.xyz.hub.AbstractHttpServerVerticle.STREAM_INFO_CTX_KEY;
+import static com.here.xyz.hub.rest.Api.HeaderValues.APPLICATION_JSON;
 import static io.netty.handler.codec.http.HttpResponseStatus.*;
+import static io.vertx.core.http.HttpHeaders.CONTENT_TYPE;
 
 public class HttpConnectorApi extends Api {
 
   private static final Logger logger = LogManager.getLogger();
+  private static final int STREAMING_CHUNK_SIZE = 64 * 1024;
   private AbstractConnectorHandler connector;
+  private final boolean streamResponses;
+
+  /**
+   * The connector handlers of the worker threads which are processing streamed events. Each thread creates its own instance once, as
+   * connector handlers are keeping state while processing a request.
+   */
+  private final ThreadLocal<AbstractConnectorHandler> streamingHandlers = new ThreadLocal<>();
 
   public HttpConnectorApi(RouterBuilder rb, AbstractConnectorHandler connector) {
     this.connector = connector;
     this.connector.setEmbedded(true);
+    this.streamResponses = Boolean.parseBoolean(PsqlHttpVerticle.getEnvMap().get("STREAM_RESPONSES"));
     rb.operation("postEvent").handler(this::postEvent);
     rb.operation("getHealthCheck").handler(this::getHealthCheck);
 
@@ -79,12 +93,66 @@ public class HttpConnectorApi extends Api {
     byte[] inputBytes = new byte[context.getBody().length()];
     context.getBody().getBytes(inputBytes);
     InputStream inputStream = new ByteArrayInputStream(inputBytes);
-    ByteArrayOutputStream os = new ByteArrayOutputStream();
     EmbeddedFunctionClient.EmbeddedContext embeddedContext = new EmbeddedFunctionClient.EmbeddedContext(Context.getMarker(context), "psql", PsqlHttpVerticle.getEnvMap());
+
+    if (streamResponses) {
+      streamEvent(context, inputStream, embeddedContext, streamId);
+      return;
+    }
+
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
     connector.handleRequest(inputStream, os, embeddedContext, streamId);
     this.sendResponse(context, OK, os);
   }
 
+  /**
+   * Processes the event on a worker thread and sends the response in chunks, while the connector is writing it.
+   * That way large responses are never held in memory completely.
+   * Conditional requests are not streamed by the connector, so the response contains the NotModifiedResponse in that case.
+   */
+  private void streamEvent(final RoutingContext context, InputStream inputStream, EmbeddedFunctionClient.EmbeddedContext embeddedContext,
+      String streamId) {
+    final HttpServerResponse httpResponse = context.response();
+    httpResponse.setChunked(true);
+    httpResponse.putHeader(CONTENT_TYPE, APPLICATION_JSON);
+
+    final WriteStreamOutputStream os = new WriteStreamOutputStream(httpResponse, STREAMING_CHUNK_SIZE,
+        TimeUnit.SECONDS.toMillis(PsqlHttpVerticle.DB_STATEMENT_TIMEOUT_IN_S));
+    context.vertx().<Void>executeBlocking(promise -> {
+      try {
+        getStreamingHandler().handleRequest(inputStream, os, embeddedContext, streamId);
+        os.close();
+        promise.complete();
+      }
+      catch (Exception e) {
+        promise.fail(e);
+      }
+    }, false, ar -> {
+      if (ar.failed()) {
+        logger.error(Context.getMarker(context), "Error while streaming the response.", ar.cause());
+        httpResponse.reset();
+      }
+      else if (os.getByteSize() == 0)
+        httpResponse.setStatusCode(NO_CONTENT.code()).end();
+      else
+        httpResponse.end();
+    });
+  }
+
+  /**
+   * Returns the connector handler of the current worker thread, so that concurrently streamed events never share a handler instance.
+   */
+  private AbstractConnectorHandler getStreamingHandler() throws ReflectiveOperationException {
+    AbstractConnectorHandler handler = streamingHandlers.get();
+    if (handler == null) {
+      handler = connector.getClass().getDeclaredConstructor().newInstance();
+      handler.setEmbedded(true);
+      handler.setStreaming(true);
+      streamingHandlers.set(handler);
+    }
+    return handler;
+  }
+
   private void postDatabaseInitialization(final RoutingContext context) {
     String[] params = parseMainParams(context);
     final boolean force = Query.getBoolean(context, "force", false);
@@ -0,0 +1,300 @@
+/*
+ * Copyright (C) 2017-2022 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.task;
+
+import static io.netty.handler.codec.http.HttpResponseStatus.TOO_MANY_REQUESTS;
+
+import com.here.xyz.hub.AbstractHttpServerVerticle;
+import com.here.xyz.hub.Core;
+import com.here.xyz.hub.Service;
+import com.here.xyz.hub.rest.HttpException;
+import com.here.xyz.hub.task.TaskPipeline.Callback;
+import io.vertx.core.Context;
+import io.vertx.core.http.HttpHeaders;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Limits the amount of memory which is taken by the bodies of the requests being processed at the same time.
+ *
+ * The global budget is defined by {@link Service.Config#GLOBAL_INFLIGHT_REQUEST_MEMORY_SIZE_MB}. Once the admitted memory exceeds
+ * {@link Service.Config#GLOBAL_INFLIGHT_REQUEST_MEMORY_HIGH_UTILIZATION_THRESHOLD}, each storage may only take its share of the budget,
+ * which is weighted by the priority of its remote function client.
+ * Requests which can not be admitted immediately are queued per storage and admitted in a round-robin manner once memory got released.
+ * Requests which could not be admitted within {@link Service.Config#INFLIGHT_REQUEST_QUEUE_TIMEOUT_MS}, or which would exceed the queue
+ * budget, are rejected with status 429.
+ */
+public class AdmissionController {
+
+  private static final Logger logger = LogManager.getLogger();
+
+  private static final Map<String, StorageQueue> storageQueues = new HashMap<>();
+  private static final ArrayDeque<StorageQueue> waitingStorages = new ArrayDeque<>();
+  private static long globalAdmittedBytes;
+  private static long globalQueuedBytes;
+
+  private static final LongAdder shedRequests = new LongAdder();
+  private static final LongAdder queuedRequests = new LongAdder();
+
+  /**
+   * Admits the task, queues it until there is enough memory available, or rejects it.
+   *
+   * @param task the task to be admitted
+   * @param priority the priority of the task's storage as a value between 0 and 1
+   * @param callback the callback to be called once the task got admitted or rejected
+   */
+  static <X extends FeatureTask> void admit(X task, double priority, Callback<X> callback) {
+    final long byteSize = task.requestBodySize;
+    if (byteSize <= 0) {
+      callback.call(task);
+      return;
+    }
+
+    if (Service.IS_USING_ZGC && Service.getUsedMemoryPercent() / 100f > Service.configuration.SERVICE_MEMORY_HIGH_UTILIZATION_THRESHOLD) {
+      shedRequests.increment();
+      shed(task, callback, "Too many requests for the service node.");
+      return;
+    }
+
+    final Waiter<X> waiter = new Waiter<>(task, task.storage.id, byteSize, priority, callback);
+    final boolean admitted;
+    synchronized (AdmissionController.class) {
+      final StorageQueue storageQueue = storageQueues.computeIfAbsent(waiter.storageId, StorageQueue::new);
+      //Only admit directly if nobody is waiting already, otherwise queue up to keep the order
+      if (globalQueuedBytes == 0 && canAdmit(storageQueue, waiter)) {
+        admitted = true;
+        doAdmit(storageQueue, waiter);
+      }
+      else if (globalQueuedBytes + byteSize > globalBudget()) {
+        admitted = false;
+        shedRequests.increment();
+      }
+      else {
+        queuedRequests.increment();
+        if (storageQueue.waiters.isEmpty())
+          waitingStorages.add(storageQueue);
+        storageQueue.waiters.add(waiter);
+        globalQueuedBytes += byteSize;
+        waiter.timerId = Service.vertx.setTimer(Math.max(Service.configuration.INFLIGHT_REQUEST_QUEUE_TIMEOUT_MS, 1),
+            timerId -> timeout(waiter));
+        task.addCancellingHandler(t -> release(task));
+        return;
+      }
+    }
+
+    if (admitted) {
+      task.addCancellingHandler(t -> release(task));
+      callback.call(task);
+    }
+    else
+      shed(task, callback, "Too many requests for the storage.");
+  }
+
+  /**
+   * Releases the memory which was admitted for the task or removes the task from the queue.
+   * It's safe to call this method multiple times for the same task.
+   *
+   * @param task the task which finished processing
+   */
+  static void release(FeatureTask task) {
+    if (task.storage == null) return;
+    synchronized (AdmissionController.class) {
+      final StorageQueue storageQueue = storageQueues.get(task.storage.id);
+      if (storageQueue == null) return;
+
+      if (task.admittedMemory > 0) {
+        storageQueue.admittedBytes -= task.admittedMemory;
+        globalAdmittedBytes -= task.admittedMemory;
+        task.admittedMemory = 0;
+      }
+      else {
+        for (Iterator<Waiter<?>> it = storageQueue.waiters.iterator(); it.hasNext(); ) {
+          final Waiter<?> waiter = it.next();
+          if (waiter.task == task) {
+            it.remove();
+            dequeued(storageQueue, waiter);
+            break;
+          }
+        }
+      }
+      drain();
+    }
+  }
+
+  private static <X extends FeatureTask> void timeout(Waiter<X> waiter) {
+    synchronized (AdmissionController.class) {
+      final StorageQueue storageQueue = storageQueues.get(waiter.storageId);
+      if (!storageQueue.waiters.remove(waiter)) return; //Was admitted meanwhile
+      dequeued(storageQueue, waiter);
+      shedRequests.increment();
+    }
+    if (!waiter.task.getState().isFinal())
+      shed(waiter.task, waiter.callback, "Too many requests for the storage.");
+  }
+
+  private static void dequeued(StorageQueue storageQueue, Waiter<?> waiter) {
+    globalQueuedBytes -= waiter.byteSize;
+    if (storageQueue.waiters.isEmpty())
+      waitingStorages.remove(storageQueue);
+  }
+
+  /**
+   * Admits waiting tasks in a round-robin manner across the storages as long as there is memory available.
+   * Must be called while holding the lock.
+   */
+  private static void drain() {
+    int blockedStorages = 0;
+    while (!waitingStorages.isEmpty() && blockedStorages < waitingStorages.size()) {
+      final StorageQueue storageQueue = waitingStorages.poll();
+      final Waiter<?> waiter = storageQueue.waiters.peek();
+      if (waiter.task.getState().isFinal()) {
+        storageQueue.waiters.poll();
+        globalQueuedBytes -= waiter.byteSize;
+        Service.vertx.cancelTimer(waiter.timerId);
+      }
+      else if (canAdmit(storageQueue, waiter)) {
+        storageQueue.waiters.poll();
+        globalQueuedBytes -= waiter.byteSize;
+        Service.vertx.cancelTimer(waiter.timerId);
+        doAdmit(storageQueue, waiter);
+        waiter.resume();
+        blockedStorages = 0;
+      }
+      else if (globalAdmittedBytes + waiter.byteSize > globalBudget()) {
+        //There is no global memory left, so nothing else can be admitted
+        waitingStorages.addFirst(storageQueue);
+        return;
+      }
+      else
+        blockedStorages++;
+
+      if (!storageQueue.waiters.isEmpty())
+        waitingStorages.add(storageQueue);
+    }
+  }
+
+  private static boolean canAdmit(StorageQueue storageQueue, Waiter<?> waiter) {
+    return canAdmit(globalAdmittedBytes, storageQueue.admittedBytes, waiter.byteSize, waiter.priority);
+  }
+
+  /**
+   * Decides whether a request may be admitted, given the memory which is admitted already.
+   *
+   * @param globalAdmitted the memory being admitted across all storages
+   * @param storageAdmitted the memory being admitted for the storage of the request
+   * @param byteSize the memory being needed by the request
+   * @param priority the priority of the request's storage as a value between 0 and 1
+   * @return true, if the request may be admitted
+   */
+  static boolean canAdmit(long globalAdmitted, long storageAdmitted, long byteSize, double priority) {
+    //Always let through a request if nothing is admitted to not block requests which are bigger than the budget forever
+    if (globalAdmitted == 0)
+      return true;
+    final long budget = globalBudget();
+    if (globalAdmitted + byteSize > budget)
+      return false;
+    //Always let through one request per storage to not block requests which are bigger than the storage's share forever
+    if (storageAdmitted == 0)
+      return true;
+    //Only start prioritizing storages once the utilization is high
+    return globalAdmitted + byteSize <= budget * Service.configuration.GLOBAL_INFLIGHT_REQUEST_MEMORY_HIGH_UTILIZATION_THRESHOLD
+        || storageAdmitted + byteSize <= priority * budget;
+  }
+
+  private static void doAdmit(StorageQueue storageQueue, Waiter<?> waiter) {
+    storageQueue.admittedBytes += waiter.byteSize;
+    globalAdmittedBytes += waiter.byteSize;
+    waiter.task.admittedMemory = waiter.byteSize;
+  }
+
+  private static long globalBudget() {
+    return (long) Service.configuration.GLOBAL_INFLIGHT_REQUEST_MEMORY_SIZE_MB * 1024 * 1024;
+  }
+
+  private static <X extends FeatureTask> void shed(X task, Callback<X> callback, String message) {
+    AbstractHttpServerVerticle.addStreamInfo(task.context, "THR", "M"); //Reason for throttling is memory
+    final long retryAfter = Math.max(1, (long) Math.ceil(Service.configuration.INFLIGHT_REQUEST_QUEUE_TIMEOUT_MS / 1000d));
+    task.context.response().putHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+    final HttpException e = new HttpException(TOO_MANY_REQUESTS, message);
+    logger.warn(task.getMarker(), e.getMessage(), e);
+    callback.exception(e);
+  }
+
+  /**
+   * Returns the number of requests which have been rejected since the last call.
+   *
+   * @return the number of rejected requests
+   */
+  public static long pollShedRequestCount() {
+    return shedRequests.sumThenReset();
+  }
+
+  /**
+   * Returns the number of requests which had to wait for memory since the last call.
+   *
+   * @return the number of queued requests
+   */
+  public static long pollQueuedRequestCount() {
+    return queuedRequests.sumThenReset();
+  }
+
+  private static class StorageQueue {
+
+    final String storageId;
+    final ArrayDeque<Waiter<?>> waiters = new ArrayDeque<>();
+    long admittedBytes;
+
+    StorageQueue(String storageId) {
+      this.storageId = storageId;
+    }
+  }
+
+  private static class Waiter<X extends FeatureTask> {
+
+    final X task;
+    final String storageId;
+    final long byteSize;
+    final double priority;
+    final Callback<X> callback;
+    final Context context = Service.vertx.getOrCreateContext();
+    final long queuedAt = Core.currentTimeMillis();
+    long timerId;
+
+    Waiter(X task, String storageId, long byteSize, double priority, Callback<X> callback) {
+      this.task = task;
+      this.storageId = storageId;
+      this.byteSize = byteSize;
+      this.priority = priority;
+      this.callback = callback;
+    }
+
+    void resume() {
+      context.runOnContext(v -> {
+        AbstractHttpServerVerticle.addStreamInfo(task.context, "AQTime", Core.currentTimeMillis() - queuedAt);
+        callback.call(task);
+      });
+    }
+  }
+}
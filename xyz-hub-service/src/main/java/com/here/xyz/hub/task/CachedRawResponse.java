@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2017-2022 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.task;
+
+import com.here.xyz.responses.XyzResponse;
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * A response which was read from the cache and already contains the final HTTP body.
+ * It is sent to the client as is, without deserializing and re-serializing the actual response object.
+ */
+public class CachedRawResponse extends XyzResponse<CachedRawResponse> {
+
+  private final String contentType;
+  private final Buffer body;
+
+  public CachedRawResponse(String contentType, Buffer body) {
+    this.contentType = contentType;
+    this.body = body;
+  }
+
+  public String getContentType() {
+    return contentType;
+  }
+
+  public Buffer getBody() {
+    return body;
+  }
+}
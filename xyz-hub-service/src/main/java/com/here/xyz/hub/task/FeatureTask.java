@@ -63,8 +63,10 @@ import com.here.xyz.hub.task.TaskPipeline.Callback;
 import com.here.xyz.hub.util.diff.Patcher.ConflictResolution;
 import com.here.xyz.models.geojson.implementation.Feature;
 import com.here.xyz.models.geojson.implementation.FeatureCollection;
+import com.here.xyz.responses.ErrorResponse;
 import com.here.xyz.responses.XyzResponse;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Promise;
 import io.vertx.ext.web.RoutingContext;
 import java.nio.charset.Charset;
 import java.util.HashMap;
@@ -98,16 +100,37 @@ public abstract class FeatureTask<T extends Event<?>, X extends FeatureTask<T, ?
   @SuppressWarnings("rawtypes")
   private XyzResponse response;
 
+  /**
+   * Whether the ETag of the response was not calculated by the connector and has to be calculated once it's needed.
+   */
+  private boolean lazyEtag;
+
   /**
    * The calculated cache key.
    */
   private String cacheKey;
 
+  /**
+   * The promise of the read request being performed by this task on behalf of all identical read tasks on this node (if any).
+   * It gets completed with the value being written to the cache or with null, if no cacheable response was produced.
+   */
+  Promise<byte[]> inflightRead;
+
+  /**
+   * The key of the distributed lock being held by this task while performing the read request (if any).
+   */
+  String readLockKey;
+
   /**
    * The number of bytes the request body is / was having initially.
    */
   public final int requestBodySize;
 
+  /**
+   * The number of bytes which have been admitted for this task by the {@link AdmissionController}.
+   */
+  long admittedMemory;
+
   public static final class FeatureKey {
 
     public static final String ID = "id";
@@ -150,21 +173,35 @@ public abstract class FeatureTask<T extends Event<?>, X extends FeatureTask<T, ?
       return cacheKey;
     }
     try {
-      //noinspection UnstableApiUsage
-      Hasher hasher = Hashing.murmur3_128().newHasher()
-          .putString(getEvent().getCacheString(), Charset.defaultCharset())
-          .putString(responseType.toString(), Charset.defaultCharset())
-          .putLong(space.contentUpdatedAt);
-
-      if (space.getExtension() != null)
-        extendedSpaces.forEach(extendedSpace -> hasher.putLong(extendedSpace.getContentUpdatedAt()));
-
-      return cacheKey = hasher.hash().toString();
+      return cacheKey = cacheKey(getEvent(), responseType, space, space.getExtension() != null ? extendedSpaces : null);
     } catch (JsonProcessingException e) {
       return null;
     }
   }
 
+  /**
+   * Calculates the key under which the response for the given event gets cached. The key changes whenever the content of the space or of
+   * one of the extended spaces was updated.
+   *
+   * @param event The event before it was sent to the storage connector
+   * @param responseType The type of the response as it will be sent to the client
+   * @param space The space the event is targeting
+   * @param extendedSpaces The spaces extended by the space or null, if the space does not extend another space
+   * @return The cache key
+   */
+  static String cacheKey(Event event, ApiResponseType responseType, Space space, List<Space> extendedSpaces) throws JsonProcessingException {
+    //noinspection UnstableApiUsage
+    Hasher hasher = Hashing.murmur3_128().newHasher();
+    event.putCacheProperties(hasher);
+    hasher.putString(responseType.toString(), Charset.defaultCharset())
+        .putLong(space.contentUpdatedAt);
+
+    if (extendedSpaces != null)
+      extendedSpaces.forEach(extendedSpace -> hasher.putLong(extendedSpace.getContentUpdatedAt()));
+
+    return hasher.hash().toString();
+  }
+
   /**
    * The hook which will be called once all pre-processors have been called. The hook will get the pre-processed event as parameter. The
    * hook will *not* be called if no pre-processors have been defined for the space. The hook may be overridden in sub-classes.
@@ -177,9 +214,21 @@ public abstract class FeatureTask<T extends Event<?>, X extends FeatureTask<T, ?
     if (response == null) {
       return null;
     }
+    if (lazyEtag && response.getEtag() == null && !(response instanceof ErrorResponse)) {
+      response.setEtag(XyzResponse.calculateEtagFor(response.toByteArray()));
+    }
     return response.getEtag();
   }
 
+  /**
+   * Marks the ETag of the current response to be calculated lazily by {@link #getEtag()}.
+   *
+   * @param lazyEtag whether the response was returned without ETag by the connector.
+   */
+  public void setLazyEtag(boolean lazyEtag) {
+    this.lazyEtag = lazyEtag;
+  }
+
   /**
    * Returns the current response.
    *
@@ -418,6 +467,7 @@ public abstract class FeatureTask<T extends Event<?>, X extends FeatureTask<T, ?
           .then(FeatureTaskHandler::resolveSpace)
           .then(FeatureAuthorization::authorize)
           .then(FeatureTaskHandler::validate)
+          .then(TilePrewarmer::countRequest)
           .then(FeatureTaskHandler::readCache)
           .then(FeatureTaskHandler::invoke)
           .then(FeatureTaskHandler::transformResponse)
@@ -640,6 +690,18 @@ public abstract class FeatureTask<T extends Event<?>, X extends FeatureTask<T, ?
     public Map<Object, Integer> positionById;
     public LoadFeaturesEvent loadFeaturesEvent;
     public boolean hasNonModified;
+    /**
+     * Whether the features get written to the storage as upserts without loading their head states before.
+     */
+    public boolean blindWrite;
+    /**
+     * Whether the features get patched inside the storage, so that only the patches are sent instead of the merged features.
+     */
+    public boolean patchPushDown;
+    /**
+     * The input features, if they are not provided by the request body (e.g. for chunks of a streamed upload).
+     */
+    public List<Map<String, Object>> inputFeatures;
 
     public ConditionalOperation(ModifyFeaturesEvent event, RoutingContext context, ApiResponseType apiResponseTypeType,
         ModifyFeatureOp modifyOp, boolean requireResourceExists, int requestBodySize) {
@@ -695,6 +757,7 @@ public abstract class FeatureTask<T extends Event<?>, X extends FeatureTask<T, ?
     private void requestCompleted(FeatureTask task) {
       if (task.storage != null)
         FeatureTaskHandler.deregisterRequestMemory(task.storage.id, task.requestBodySize);
+      AdmissionController.release(task);
     }
 
     @Override
@@ -21,6 +21,7 @@ package com.here.xyz.hub.task;
 
 import static com.here.xyz.events.ContextAwareEvent.SpaceContext.DEFAULT;
 import static com.here.xyz.events.ContextAwareEvent.SpaceContext.SUPER;
+import static com.here.xyz.hub.rest.Api.HeaderValues.APPLICATION_GEO_JSON;
 import static com.here.xyz.hub.rest.Api.HeaderValues.APPLICATION_VND_HERE_FEATURE_MODIFICATION_LIST;
 import static com.here.xyz.hub.rest.Api.HeaderValues.APPLICATION_VND_MAPBOX_VECTOR_TILE;
 import static com.here.xyz.hub.rest.ApiResponseType.MVT;
@@ -28,6 +29,7 @@ import static com.here.xyz.hub.rest.ApiResponseType.MVT_FLATTENED;
 import static com.here.xyz.hub.task.FeatureTask.FeatureKey.BBOX;
 import static com.here.xyz.hub.task.FeatureTask.FeatureKey.ID;
 import static com.here.xyz.hub.task.FeatureTask.FeatureKey.PROPERTIES;
+import static com.here.xyz.hub.task.FeatureTask.FeatureKey.SPACE;
 import static com.here.xyz.hub.task.FeatureTask.FeatureKey.TYPE;
 import static io.netty.handler.codec.http.HttpResponseStatus.BAD_GATEWAY;
 import static io.netty.handler.codec.http.HttpResponseStatus.BAD_REQUEST;
@@ -50,6 +52,7 @@ import com.here.xyz.events.EventNotification;
 import com.here.xyz.events.GetFeaturesByBBoxEvent;
 import com.here.xyz.events.GetHistoryStatisticsEvent;
 import com.here.xyz.events.GetStatisticsEvent;
+import com.here.xyz.events.IfPatchTargetMissing;
 import com.here.xyz.events.IterateFeaturesEvent;
 import com.here.xyz.events.IterateHistoryEvent;
 import com.here.xyz.events.LoadFeaturesEvent;
@@ -59,6 +62,7 @@ import com.here.xyz.events.SelectiveEvent;
 import com.here.xyz.hub.AbstractHttpServerVerticle;
 import com.here.xyz.hub.Core;
 import com.here.xyz.hub.Service;
+import com.here.xyz.hub.auth.FeatureAuthorization;
 import com.here.xyz.hub.auth.JWTPayload;
 import com.here.xyz.hub.connectors.RpcClient;
 import com.here.xyz.hub.connectors.RpcClient.RpcContext;
@@ -80,6 +84,8 @@ import com.here.xyz.hub.task.FeatureTask.TileQuery;
 import com.here.xyz.hub.task.FeatureTask.TileQuery.TransformationContext;
 import com.here.xyz.hub.task.ModifyFeatureOp.FeatureEntry;
 import com.here.xyz.hub.task.ModifyOp.Entry;
+import com.here.xyz.hub.task.ModifyOp.IfExists;
+import com.here.xyz.hub.task.ModifyOp.IfNotExists;
 import com.here.xyz.hub.task.ModifyOp.ModifyOpError;
 import com.here.xyz.hub.task.TaskPipeline.Callback;
 import com.here.xyz.hub.util.geo.MapBoxVectorTileBuilder;
@@ -101,6 +107,7 @@ import com.here.xyz.responses.StatisticsResponse;
 import com.here.xyz.responses.StatisticsResponse.PropertiesStatistics.Searchable;
 import com.here.xyz.responses.SuccessResponse;
 import com.here.xyz.responses.XyzResponse;
+import io.netty.buffer.Unpooled;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
@@ -114,7 +121,10 @@ import io.vertx.core.json.Json;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.RoutingContext;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -123,8 +133,12 @@ import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
@@ -148,6 +162,7 @@ public class FeatureTaskHandler {
       .build();
   private static final byte JSON_VALUE = 1;
   private static final byte BINARY_VALUE = 2;
+  private static final byte RAW_VALUE = 3;
   private static SnsAsyncClient snsClient;
   private static ConcurrentHashMap<String, Long> contentModificationTimers = new ConcurrentHashMap<>();
   private static ConcurrentHashMap<String, Long> contentModificationAdminTimers = new ConcurrentHashMap<>();
@@ -170,6 +185,15 @@ public class FeatureTaskHandler {
   private static ConcurrentHashMap<String, LongAdder> inflightRequestMemory = new ConcurrentHashMap<>();
   private static LongAdder globalInflightRequestMemory = new LongAdder();
 
+  /**
+   * The cacheable read requests which are currently in-flight on this node. The key is the cache key.
+   */
+  private static final ConcurrentHashMap<String, Future<byte[]>> inflightReads = new ConcurrentHashMap<>();
+  private static final LongAdder coalescedReads = new LongAdder();
+  private static final String READ_LOCK_PREFIX = "readLock:";
+  private static final long DISTRIBUTED_READ_POLL_INTERVAL_MS = 100;
+  private static final long DISTRIBUTED_READ_MAX_WAIT_MS = 3_000;
+
   /**
    * Sends the event to the connector client and write the response as the responseCollection of the task.
    *
@@ -261,6 +285,7 @@ public class FeatureTaskHandler {
                 (ModifiedPayloadResponse<? extends ModifiedPayloadResponse>) postProcessingResult.result(),
                 XyzResponse.class, storageResult.result());
             task.setResponse(responseToSend);
+            task.setLazyEtag(responseContext.rpcContext.isDirect());
             //Success! Call the callback to send the response to the client.
             callback.call(task);
             //Send the event's (post-processed) response to potentially registered response-listeners
@@ -314,7 +339,7 @@ public class FeatureTaskHandler {
     if (event instanceof ModifySpaceEvent) sendSpaceModificationNotification(task.getMarker(), event);
   }
 
-  private static RpcClient getRpcClient(Connector refConnector) throws HttpException {
+  static RpcClient getRpcClient(Connector refConnector) throws HttpException {
     try {
       return RpcClient.getInstanceFor(refConnector);
     }
@@ -341,24 +366,70 @@ public class FeatureTaskHandler {
 
   private static XyzResponse transformCacheValue(byte[] value) throws JsonProcessingException {
     byte type = value[0];
-    byte[] byteValue = Buffer.buffer(value).getBytes(1, value.length);
     switch (type) {
       case JSON_VALUE: {
-        return XyzSerializable.deserialize(new String(byteValue));
+        return XyzSerializable.deserialize(new String(value, 1, value.length - 1));
       }
       case BINARY_VALUE: {
-        return BinaryResponse.fromByteArray(byteValue);
+        return BinaryResponse.fromByteArray(Arrays.copyOfRange(value, 1, value.length));
+      }
+      case RAW_VALUE: {
+        final ByteBuffer header = ByteBuffer.wrap(value, 1, value.length - 1);
+        final String contentType = readCacheValueString(header);
+        final String etag = readCacheValueString(header);
+        //Wrap the remaining bytes without copying them, they will be written to the HTTP response as they are
+        final Buffer body = Buffer.buffer(Unpooled.wrappedBuffer(value, header.position(), value.length - header.position()));
+        return new CachedRawResponse(contentType, body).withEtag(etag);
       }
     }
     return null;
   }
 
-  private static byte[] transformCacheValue(XyzResponse value) {
+  static byte[] transformCacheValue(ApiResponseType responseType, XyzResponse value) {
+    //Responses which will be sent to the client as they are, get cached in their final HTTP representation
+    if (responseType == ApiResponseType.FEATURE_COLLECTION && value instanceof FeatureCollection)
+      return rawCacheValue(APPLICATION_GEO_JSON, value.getEtag(), value.serialize().getBytes());
+    if (responseType.binary && value instanceof BinaryResponse)
+      return rawCacheValue(((BinaryResponse) value).getMimeType(), value.getEtag(), ((BinaryResponse) value).getBytes());
+
     byte[] type = {value instanceof BinaryResponse ? BINARY_VALUE : JSON_VALUE};
     Buffer b = Buffer.buffer(type).appendBytes(value.toByteArray());
     return b.getBytes();
   }
 
+  private static byte[] rawCacheValue(String contentType, String etag, byte[] body) {
+    final byte[] contentTypeBytes = contentType == null ? null : contentType.getBytes(StandardCharsets.UTF_8);
+    final byte[] etagBytes = etag == null ? null : etag.getBytes(StandardCharsets.UTF_8);
+    final int bodyLength = body == null ? 0 : body.length;
+    final ByteBuffer b = ByteBuffer.allocate(1 + cacheValueStringLength(contentTypeBytes) + cacheValueStringLength(etagBytes) + bodyLength)
+        .put(RAW_VALUE);
+    writeCacheValueString(b, contentTypeBytes);
+    writeCacheValueString(b, etagBytes);
+    if (body != null)
+      b.put(body);
+    return b.array();
+  }
+
+  private static int cacheValueStringLength(byte[] string) {
+    return Integer.BYTES + (string == null ? 0 : string.length);
+  }
+
+  private static void writeCacheValueString(ByteBuffer b, byte[] string) {
+    if (string == null)
+      b.putInt(-1);
+    else
+      b.putInt(string.length).put(string);
+  }
+
+  private static String readCacheValueString(ByteBuffer b) {
+    final int length = b.getInt();
+    if (length < 0)
+      return null;
+    final String string = new String(b.array(), b.position(), length, StandardCharsets.UTF_8);
+    b.position(b.position() + length);
+    return string;
+  }
+
   public static <T extends FeatureTask> void readCache(T task, Callback<T> callback) {
     if (task.getCacheProfile().serviceTTL > 0) {
       String cacheKey = task.getCacheKey();
@@ -366,27 +437,26 @@ public class FeatureTaskHandler {
       //Check the cache
       final long cacheRequestStart = Core.currentTimeMillis();
       Service.cacheClient.get(cacheKey).onSuccess(cacheResult -> {
+        final boolean cacheHit;
         if (cacheResult == null) {
           //Cache MISS: Just go on in the task pipeline
+          cacheHit = false;
           AbstractHttpServerVerticle.addStreamInfo(task.context, "CH",0);
           logger.info(task.getMarker(), "Cache MISS for cache key {}", cacheKey);
         }
         else {
           //Cache HIT: Set the response for the task to the result from the cache so invoke (in the task pipeline) won't have anything to do
-          try {
-            task.setResponse(transformCacheValue(cacheResult));
-            task.setCacheHit(true);
+          cacheHit = setCachedResponse(task, cacheKey, cacheResult);
+          if (cacheHit) {
             AbstractHttpServerVerticle.addStreamInfo(task.context, "CH", 1);
             logger.info(task.getMarker(), "Cache HIT for cache key {}", cacheKey);
           }
-          catch (JsonProcessingException e) {
-            //Actually, this should never happen as we're controlling how the data is written to the cache, but you never know ;-)
-            //Treating an error as a Cache MISS
-            logger.info(task.getMarker(), "Cache MISS (as of JSON parse exception) for cache key {} {}", cacheKey, e);
-          }
         }
         AbstractHttpServerVerticle.addStreamInfo(task.context, "CTime", Core.currentTimeMillis() - cacheRequestStart);
-        callback.call(task);
+        if (cacheHit)
+          callback.call(task);
+        else
+          coalesceRead(task, cacheKey, callback);
       });
     }
     else {
@@ -395,6 +465,121 @@ public class FeatureTaskHandler {
     }
   }
 
+  private static <T extends FeatureTask> boolean setCachedResponse(T task, String cacheKey, byte[] cacheValue) {
+    try {
+      task.setResponse(transformCacheValue(cacheValue));
+      task.setCacheHit(true);
+      return true;
+    }
+    catch (JsonProcessingException e) {
+      //Actually, this should never happen as we're controlling how the data is written to the cache, but you never know ;-)
+      //Treating an error as a Cache MISS
+      logger.info(task.getMarker(), "Cache MISS (as of JSON parse exception) for cache key {} {}", cacheKey, e);
+      return false;
+    }
+  }
+
+  /**
+   * Coalesces identical read requests on this node. The first task for a cache key performs the actual request, all tasks with the same
+   * cache key arriving while that request is in-flight wait for it and take its response the same way as they would take it from the cache.
+   * If the request does not produce a cacheable response, the waiting tasks perform their requests on their own.
+   */
+  private static <T extends FeatureTask> void coalesceRead(T task, String cacheKey, Callback<T> callback) {
+    if (!Service.configuration.ENABLE_REQUEST_COALESCING || cacheKey == null) {
+      callback.call(task);
+      return;
+    }
+
+    final Promise<byte[]> promise = Promise.promise();
+    final Future<byte[]> inflightRead = inflightReads.putIfAbsent(cacheKey, promise.future());
+    if (inflightRead == null) {
+      //This task performs the request
+      task.inflightRead = promise;
+      task.addCancellingHandler(t -> completeInflightRead(task, null));
+      task.addFailureHandler(t -> completeInflightRead(task, null));
+      acquireReadLock(task, cacheKey, callback);
+      return;
+    }
+
+    coalescedReads.increment();
+    AbstractHttpServerVerticle.addStreamInfo(task.context, "CO", 1);
+    logger.info(task.getMarker(), "Coalescing read with the in-flight request for cache key {}", cacheKey);
+    final io.vertx.core.Context context = Service.vertx.getOrCreateContext();
+    inflightRead.onComplete(ar -> context.runOnContext(v -> {
+      if (task.getState().isFinal()) return;
+      if (ar.succeeded() && ar.result() != null)
+        setCachedResponse(task, cacheKey, ar.result());
+      callback.call(task);
+    }));
+  }
+
+  /**
+   * Tries to acquire a distributed lock for the read request, so that only one service node performs the request for the cache key.
+   * If another node holds the lock already, the cache gets polled for the response of that node for a limited time.
+   */
+  private static <T extends FeatureTask> void acquireReadLock(T task, String cacheKey, Callback<T> callback) {
+    if (!Service.configuration.ENABLE_DISTRIBUTED_REQUEST_COALESCING || Service.configuration.getRedisUri() == null) {
+      callback.call(task);
+      return;
+    }
+
+    final String lockKey = READ_LOCK_PREFIX + cacheKey;
+    final long lockTtl = Math.max(Service.configuration.REMOTE_FUNCTION_REQUEST_TIMEOUT, 1);
+    //Acquiring the lock is a blocking operation
+    Service.vertx.<Boolean>executeBlocking(promise -> promise.complete(Service.cacheClient.acquireLock(lockKey, lockTtl, TimeUnit.SECONDS)),
+        false, ar -> {
+          final boolean locked = ar.succeeded() && ar.result();
+          if (task.getState().isFinal() || task.inflightRead == null) {
+            if (locked)
+              Service.cacheClient.releaseLock(lockKey);
+            return;
+          }
+          if (locked) {
+            task.readLockKey = lockKey;
+            callback.call(task);
+          }
+          else
+            awaitRemoteRead(task, cacheKey, Core.currentTimeMillis() + DISTRIBUTED_READ_MAX_WAIT_MS, callback);
+        });
+  }
+
+  private static <T extends FeatureTask> void awaitRemoteRead(T task, String cacheKey, long deadline, Callback<T> callback) {
+    Service.vertx.setTimer(DISTRIBUTED_READ_POLL_INTERVAL_MS, timerId -> Service.cacheClient.get(cacheKey).onComplete(ar -> {
+      if (task.getState().isFinal()) return;
+      if (ar.succeeded() && ar.result() != null && setCachedResponse(task, cacheKey, ar.result())) {
+        AbstractHttpServerVerticle.addStreamInfo(task.context, "CO", 1);
+        logger.info(task.getMarker(), "Took the response of another node for cache key {}", cacheKey);
+        completeInflightRead(task, ar.result());
+        callback.call(task);
+      }
+      else if (Core.currentTimeMillis() < deadline)
+        awaitRemoteRead(task, cacheKey, deadline, callback);
+      else
+        callback.call(task);
+    }));
+  }
+
+  private static <T extends FeatureTask> void completeInflightRead(T task, byte[] cacheValue) {
+    final Promise<byte[]> promise = task.inflightRead;
+    if (promise == null) return;
+    task.inflightRead = null;
+    inflightReads.remove(task.getCacheKey(), promise.future());
+    if (task.readLockKey != null) {
+      Service.cacheClient.releaseLock(task.readLockKey);
+      task.readLockKey = null;
+    }
+    promise.tryComplete(cacheValue);
+  }
+
+  /**
+   * Returns the number of read requests which have been coalesced with an in-flight request since the last call and resets the counter.
+   *
+   * @return the number of coalesced read requests
+   */
+  public static long pollCoalescedReadCount() {
+    return coalescedReads.sumThenReset();
+  }
+
   public static <T extends FeatureTask> void writeCache(T task, Callback<T> callback) {
     callback.call(task);
     //From here everything is done asynchronous
@@ -405,13 +590,20 @@ public class FeatureTaskHandler {
         && !(response instanceof NotModifiedResponse) && !(response instanceof ErrorResponse)) {
       String cacheKey = task.getCacheKey();
       if (cacheKey == null) {
+        completeInflightRead(task, null);
         String npe = "cacheKey is null. Couldn't write cache.";
         logger.error(task.getMarker(), npe);
         throw new NullPointerException(npe);
       }
       logger.debug(task.getMarker(), "Writing entry with cache key {} to cache", cacheKey);
-      Service.cacheClient.set(cacheKey, transformCacheValue(response), cacheProfile.serviceTTL);
+      //Make sure a lazily calculated ETag is part of the cached response
+      task.getEtag();
+      final byte[] cacheValue = transformCacheValue(task.responseType, response);
+      Service.cacheClient.set(cacheKey, cacheValue, cacheProfile.serviceTTL);
+      completeInflightRead(task, cacheValue);
     }
+    else
+      completeInflightRead(task, null);
   }
 
   /**
@@ -529,6 +721,7 @@ public class FeatureTaskHandler {
     NotificationContext nc = new NotificationContext(task, false);
     scheduleContentModificationNotificationIfAbsent(nc, contentModificationTimers, CONTENT_MODIFICATION_INTERVAL, false);
     scheduleContentModificationNotificationIfAbsent(nc, contentModificationAdminTimers, CONTENT_MODIFICATION_ADMIN_INTERVAL, true);
+    TilePrewarmer.schedulePrewarming(task.getMarker(), task.space);
   }
 
   private static void scheduleContentModificationNotificationIfAbsent(NotificationContext nc, ConcurrentHashMap<String, Long> timerMap,
@@ -609,8 +802,8 @@ public class FeatureTaskHandler {
         logger.warn(nc.marker, "Error when trying to get client for remote function (listener) {}.", l.getId(), e);
         return;
       }
-      //Send the event (notify the listener)
-      client.send(nc.marker, createNotification(nc, payload, notificationEventType, l));
+      //Send the event (notify the listener), it might be batched with other notifications for the same listener connector
+      client.sendNotification(nc.marker, createNotification(nc, payload, notificationEventType, l));
     });
   }
 
@@ -623,7 +816,7 @@ public class FeatureTaskHandler {
     CompletableFuture<XyzResponse> initialFuture = CompletableFuture.completedFuture(initialResponse);
     final List<FeatureCollection.ModificationFailure> failed = new LinkedList<>();
 
-    CompletableFuture<XyzResponse> processedResult = processors.stream().reduce(initialFuture, (prevFuture, processor) -> {
+    CompletableFuture<XyzResponse> processedResult = groupProcessors(processors).stream().reduce(initialFuture, (prevFuture, group) -> {
       CompletableFuture<XyzResponse> nextFuture = new CompletableFuture<>();
 
       prevFuture
@@ -661,8 +854,8 @@ public class FeatureTaskHandler {
               payloadToSend = ((ModifiedResponseResponse) result).getResponse();
             }
 
-            //Execute the processor with the event / response payload (do pre-processing / post-processing)
-            executeProcessor(nc, processor, notificationEventType, payloadToSend)
+            //Execute the processor(s) with the event / response payload (do pre-processing / post-processing)
+            executeProcessors(nc, group, notificationEventType, payloadToSend, failed)
                 .exceptionally(ex -> {
                   nextFuture.completeExceptionally(ex);
                   return null;
@@ -674,7 +867,7 @@ public class FeatureTaskHandler {
                 });
           });
 
-      //Return the future for the next processor
+      //Return the future for the next processor(s)
       return nextFuture;
     }, (result1, result2) -> result1 == null ? result2 : result1);
 
@@ -700,6 +893,55 @@ public class FeatureTaskHandler {
         });
   }
 
+  /**
+   * Groups the processors into the stages of the processing chain. Adjacent processors which are flagged as commutative are
+   * grouped into one stage, all other processors form a stage on their own.
+   */
+  private static List<List<ResolvableListenerConnectorRef>> groupProcessors(List<ResolvableListenerConnectorRef> processors) {
+    final List<List<ResolvableListenerConnectorRef>> groups = new ArrayList<>();
+    List<ResolvableListenerConnectorRef> currentGroup = null;
+    for (ResolvableListenerConnectorRef processor : processors) {
+      if (currentGroup == null || !processor.isCommutative() || !currentGroup.get(0).isCommutative()) {
+        currentGroup = new ArrayList<>();
+        groups.add(currentGroup);
+      }
+      currentGroup.add(processor);
+    }
+    return groups;
+  }
+
+  /**
+   * Executes all processors of one stage concurrently with the same payload. If one of them responds with an error, that error is the
+   * result of the stage. Otherwise the result of the last processor is the result of the stage. The modification failures reported by
+   * the other processors are collected into the provided list.
+   */
+  private static CompletableFuture<XyzResponse> executeProcessors(NotificationContext nc, List<ResolvableListenerConnectorRef> group,
+      String notificationEventType, Payload payload, List<FeatureCollection.ModificationFailure> failed) {
+    if (group.size() == 1)
+      return executeProcessor(nc, group.get(0), notificationEventType, payload);
+
+    final List<CompletableFuture<XyzResponse>> futures = group.stream()
+        .map(p -> executeProcessor(nc, p, notificationEventType, payload))
+        .collect(Collectors.toList());
+
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(v -> {
+      final List<XyzResponse> results = futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+      for (XyzResponse result : results) {
+        if (result instanceof ErrorResponse)
+          return result;
+      }
+      for (XyzResponse result : results.subList(0, results.size() - 1)) {
+        if (result instanceof ModifiedEventResponse && ((ModifiedEventResponse) result).getEvent() instanceof ModifyFeaturesEvent) {
+          List<FeatureCollection.ModificationFailure> processorFailures =
+              ((ModifyFeaturesEvent) ((ModifiedEventResponse) result).getEvent()).getFailed();
+          if (processorFailures != null)
+            failed.addAll(processorFailures);
+        }
+      }
+      return results.get(results.size() - 1);
+    });
+  }
+
   private static <T extends FeatureTask> CompletableFuture<XyzResponse> executeProcessor(NotificationContext nc,
       ResolvableListenerConnectorRef p, String notificationEventType, Payload payload) {
     CompletableFuture<XyzResponse> f = new CompletableFuture<>();
@@ -900,6 +1142,7 @@ public class FeatureTaskHandler {
             rCR.setId(entry.getKey());
             rCR.setParams(cR.getParams());
             rCR.setOrder(cR.getOrder());
+            rCR.setCommutative(cR.isCommutative());
             rCR.setEventTypes(cR.getEventTypes());
             rCR.resolvedConnector = c;
             //If no event types have been defined in the connectorRef we use the defaultEventTypes from the resolved connector config
@@ -951,42 +1194,16 @@ public class FeatureTaskHandler {
   }
 
   static <X extends FeatureTask> void throttle(final X task, final Callback<X> callback) {
-    /*
-    Connector storage = task.storage;
-    final long GLOBAL_INFLIGHT_REQUEST_MEMORY_SIZE = (long) Service.configuration.GLOBAL_INFLIGHT_REQUEST_MEMORY_SIZE_MB * 1024 * 1024;
-    float usedMemoryPercent = Service.getUsedMemoryPercent() / 100f;
+    final double priority;
     try {
-      //When ZGC is in use, only throttle requests if the service memory filled up over the specified service memory threshold
-      if (Service.IS_USING_ZGC) {
-        if (usedMemoryPercent > Service.configuration.SERVICE_MEMORY_HIGH_UTILIZATION_THRESHOLD) {
-          AbstractHttpServerVerticle.addStreamInfo(task.context, "THR", "M"); //Reason for throttling is memory
-          throw new HttpException(TOO_MANY_REQUESTS, "Too many requests for the service node.");
-        }
-      }
-      //For other GCs, only throttle requests if the request memory filled up over the specified request memory threshold
-      else if (globalInflightRequestMemory.sum() >
-          GLOBAL_INFLIGHT_REQUEST_MEMORY_SIZE * Service.configuration.GLOBAL_INFLIGHT_REQUEST_MEMORY_HIGH_UTILIZATION_THRESHOLD) {
-        LongAdder storageInflightRequestMemory = inflightRequestMemory.get(storage.id);
-        long storageInflightRequestMemorySum = 0;
-        if (storageInflightRequestMemory == null || (storageInflightRequestMemorySum = storageInflightRequestMemory.sum()) == 0) {
-          callback.call(task); //Nothing to throttle for that storage
-          return;
-        }
-
-        RpcClient rpcClient = getRpcClient(storage);
-        if (storageInflightRequestMemorySum > rpcClient.getFunctionClient().getPriority() * GLOBAL_INFLIGHT_REQUEST_MEMORY_SIZE) {
-          AbstractHttpServerVerticle.addStreamInfo(task.context, "THR", "M"); //Reason for throttling is memory
-          throw new HttpException(TOO_MANY_REQUESTS, "Too many requests for the storage.");
-        }
-      }
+      priority = getRpcClient(task.storage).getFunctionClient().getPriority();
     }
     catch (HttpException e) {
       logger.warn(task.getMarker(), e.getMessage(), e);
       callback.exception(e);
       return;
     }
-    */
-    callback.call(task);
+    AdmissionController.admit(task, priority, callback);
   }
 
   public static void prepareModifyFeatureOp(ConditionalOperation task, Callback<ConditionalOperation> callback) {
@@ -1008,6 +1225,10 @@ public class FeatureTaskHandler {
   }
 
   private static List<Map<String, Object>> getFeatureModifications(ConditionalOperation task) throws Exception {
+    if (task.inputFeatures != null) {
+      return Collections.singletonList(Collections.singletonMap("featureData", Collections.singletonMap("features", task.inputFeatures)));
+    }
+
     if (APPLICATION_VND_HERE_FEATURE_MODIFICATION_LIST.equals(task.context.parsedHeaders().contentType().rawValue())) {
       return getObjectsAsList(task.context);
     }
@@ -1164,87 +1385,194 @@ public class FeatureTaskHandler {
   }
 
   static void processConditionalOp(ConditionalOperation task, Callback<ConditionalOperation> callback) throws Exception {
+    if (task.patchPushDown) {
+      preparePatches(task, callback);
+      return;
+    }
+
+    final int chunkSize = ModifyOpProcessing.chunkSize();
+    if (task.modifyOp.entries.size() <= chunkSize) {
+      final long processingStart = Core.currentTimeMillis();
+      try {
+        task.modifyOp.process();
+      }
+      catch (ModifyOpError e) {
+        logger.info(task.getMarker(), "ConditionalOperationError: {}", e.getMessage(), e);
+        throw new HttpException(CONFLICT, e.getMessage());
+      }
+      finally {
+        AbstractHttpServerVerticle.addStreamInfo(task.context, "MTime", Core.currentTimeMillis() - processingStart);
+      }
+      applyConditionalOp(task, callback);
+      return;
+    }
+
+    //Large batches are processed in chunks on the modify op processing pool, to not block the event-loop
+    final io.vertx.core.Context context = Service.vertx.getOrCreateContext();
+    final long processingStart = Core.currentTimeMillis();
+    final CompletableFuture<Void> processing;
     try {
-      task.modifyOp.process();
-      final List<Feature> insert = new ArrayList<>();
-      final List<Feature> update = new ArrayList<>();
-      final Map<String, String> delete = new HashMap<>();
-      List<FeatureCollection.ModificationFailure> fails = new ArrayList<>();
-
-      Iterator<FeatureEntry> it = task.modifyOp.entries.iterator();
-      int i=-1;
-      while( it.hasNext() ){
-        FeatureEntry entry = it.next();
-        i++;
-
-        if(entry.exception != null){
-          ModificationFailure failure = new ModificationFailure()
-              .withMessage(entry.exception.getMessage())
-              .withPosition((long) i);
-          if (entry.input.get("id") instanceof String) {
-            failure.setId((String) entry.input.get("id"));
-          }
-          fails.add(failure);
-          continue;
-        }
+      processing = task.modifyOp.process(ModifyOpProcessing.executor, chunkSize);
+    }
+    catch (RejectedExecutionException e) {
+      AbstractHttpServerVerticle.addStreamInfo(task.context, "THR", "W"); //Reason for throttling is the modify op processing pool
+      throw new HttpException(TOO_MANY_REQUESTS, "Too many write requests for the service node.");
+    }
 
-        if (!entry.isModified) {
-          task.hasNonModified = true;
-          /** Entry does not exist - remove it to prevent null references */
-          if(entry.head == null && entry.base == null)
-            it.remove();
-          continue;
-        }
+    processing.whenComplete((v, t) -> context.runOnContext(v2 -> {
+      AbstractHttpServerVerticle.addStreamInfo(task.context, "MTime", Core.currentTimeMillis() - processingStart);
+      AbstractHttpServerVerticle.addStreamInfo(task.context, "MChunks", (task.modifyOp.entries.size() + chunkSize - 1) / chunkSize);
+      if (task.getState().isFinal()) return;
 
-        final Feature result = entry.result;
+      final Throwable cause = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+      if (cause instanceof ModifyOpError) {
+        logger.info(task.getMarker(), "ConditionalOperationError: {}", cause.getMessage(), cause);
+        callback.exception(new HttpException(CONFLICT, cause.getMessage()));
+        return;
+      }
+      if (cause != null) {
+        callback.exception(cause);
+        return;
+      }
 
-        // Insert or update
-        if (result != null) {
+      try {
+        applyConditionalOp(task, callback);
+      }
+      catch (Exception e) {
+        callback.exception(e);
+      }
+    }));
+  }
 
-          try {
-            result.validateGeometry();
-          } catch (InvalidGeometryException e) {
-            logger.info(task.getMarker(), "Invalid geometry found in feature: {}", result, e);
-            throw new HttpException(BAD_REQUEST, e.getMessage() + ". Feature: \n" + Json.encode(entry.input));
-          }
+  /**
+   * Puts the validated inputs as patches into the event, so that the storage merges them into the features.
+   */
+  @SuppressWarnings("unchecked")
+  private static void preparePatches(ConditionalOperation task, Callback<ConditionalOperation> callback) throws Exception {
+    final boolean spaceIsOptional = Service.configuration.containsFeatureNamespaceOptionalField("space");
+    final List<Map<String, Object>> patches = new ArrayList<>();
 
-          boolean isInsert = entry.head == null;
-          processNamespace(task, entry, result.getProperties().getXyzNamespace(), isInsert, i);
-          (isInsert ? insert : update).add(result);
-        }
+    for (FeatureEntry entry : task.modifyOp.entries) {
+      try {
+        entry.fromMap(entry.input).validateGeometry();
+      }
+      catch (InvalidGeometryException e) {
+        logger.info(task.getMarker(), "Invalid geometry found in feature: {}", entry.input, e);
+        throw new HttpException(BAD_REQUEST, e.getMessage() + ". Feature: \n" + Json.encode(entry.input));
+      }
 
-        // DELETE
-        else if (entry.head != null) {
-          delete.put(entry.head.getId(), entry.inputUUID);
+      //Only the namespace fields which are not maintained by the storage are part of the patch
+      final Object properties = entry.input.get(PROPERTIES);
+      if (properties instanceof Map && ((Map<String, Object>) properties).get(XyzNamespace.XYZ_NAMESPACE) instanceof Map) {
+        final Map<String, Object> nsXyz = (Map<String, Object>) ((Map<String, Object>) properties).get(XyzNamespace.XYZ_NAMESPACE);
+        if (nsXyz.get("tags") instanceof List)
+          XyzNamespace.normalizeTags((List<String>) nsXyz.get("tags"));
+        if (!spaceIsOptional)
+          nsXyz.put(SPACE, task.space.getId());
+        //The storage only applies the patch, if the feature still has the provided UUID
+        if (entry.inputUUID != null)
+          nsXyz.put(FeatureTask.FeatureKey.UUID, entry.inputUUID);
+      }
+      patches.add(entry.input);
+    }
+
+    task.getEvent().setInsertFeatures(new ArrayList<>());
+    task.getEvent().setUpdateFeatures(new ArrayList<>());
+    task.getEvent().setPatchFeatures(patches);
+    task.getEvent().setIfPatchTargetMissing(IfPatchTargetMissing.of(task.modifyOp.entries.get(0).ifNotExists.name()));
+    task.getEvent().setDeleteFeatures(new HashMap<>());
+    task.getEvent().setFailed(new ArrayList<>());
+    callback.call(task);
+  }
+
+  /**
+   * Collects the results of the processed modify operation into the event.
+   */
+  private static void applyConditionalOp(ConditionalOperation task, Callback<ConditionalOperation> callback) throws Exception {
+    final List<Feature> insert = new ArrayList<>();
+    final List<Feature> update = new ArrayList<>();
+    final List<Feature> upsert = new ArrayList<>();
+    final Map<String, String> delete = new HashMap<>();
+    List<FeatureCollection.ModificationFailure> fails = new ArrayList<>();
+
+    Iterator<FeatureEntry> it = task.modifyOp.entries.iterator();
+    int i=-1;
+    while( it.hasNext() ){
+      FeatureEntry entry = it.next();
+      i++;
+
+      if(entry.exception != null){
+        ModificationFailure failure = new ModificationFailure()
+            .withMessage(entry.exception.getMessage())
+            .withPosition((long) i);
+        if (entry.input.get("id") instanceof String) {
+          failure.setId((String) entry.input.get("id"));
         }
+        fails.add(failure);
+        continue;
       }
 
-      task.getEvent().setInsertFeatures(insert);
-      task.getEvent().setUpdateFeatures(update);
-      task.getEvent().setDeleteFeatures(delete);
-      task.getEvent().setFailed(fails);
-
-      // In case nothing was changed, set the response directly to skip calling the storage connector.
-      if (insert.size() == 0 && update.size() == 0 && delete.size() == 0) {
-        FeatureCollection fc = new FeatureCollection();
-        if( task.hasNonModified ){
-          task.modifyOp.entries.stream().filter(e -> !e.isModified).forEach(e -> {
-            try {
-              if(e.result != null)
-                fc.getFeatures().add(e.result);
-            } catch (JsonProcessingException ignored) {}
-          });
+      if (!entry.isModified) {
+        task.hasNonModified = true;
+        /** Entry does not exist - remove it to prevent null references */
+        if(entry.head == null && entry.base == null)
+          it.remove();
+        continue;
+      }
+
+      final Feature result = entry.result;
+
+      // Insert or update
+      if (result != null) {
+
+        try {
+          result.validateGeometry();
+        } catch (InvalidGeometryException e) {
+          logger.info(task.getMarker(), "Invalid geometry found in feature: {}", result, e);
+          throw new HttpException(BAD_REQUEST, e.getMessage() + ". Feature: \n" + Json.encode(entry.input));
         }
-        if(fails.size() > 0)
-          fc.setFailed(fails);
-        task.setResponse(fc);
+
+        boolean isInsert = entry.head == null;
+        processNamespace(task, entry, result.getProperties().getXyzNamespace(), isInsert, i);
+        if (!isInsert)
+          update.add(result);
+        //For blind writes the storage decides whether a feature with an ID gets inserted or updated
+        else if (task.blindWrite && result.getId() != null)
+          upsert.add(result);
+        else
+          insert.add(result);
       }
 
-      callback.call(task);
-    } catch (ModifyOpError e) {
-      logger.info(task.getMarker(), "ConditionalOperationError: {}", e.getMessage(), e);
-      throw new HttpException(CONFLICT, e.getMessage());
+      // DELETE
+      else if (entry.head != null) {
+        delete.put(entry.head.getId(), entry.inputUUID);
+      }
+    }
+
+    task.getEvent().setInsertFeatures(insert);
+    task.getEvent().setUpdateFeatures(update);
+    if (!upsert.isEmpty())
+      task.getEvent().setUpsertFeatures(upsert);
+    task.getEvent().setDeleteFeatures(delete);
+    task.getEvent().setFailed(fails);
+
+    // In case nothing was changed, set the response directly to skip calling the storage connector.
+    if (insert.size() == 0 && update.size() == 0 && upsert.size() == 0 && delete.size() == 0) {
+      FeatureCollection fc = new FeatureCollection();
+      if( task.hasNonModified ){
+        task.modifyOp.entries.stream().filter(e -> !e.isModified).forEach(e -> {
+          try {
+            if(e.result != null)
+              fc.getFeatures().add(e.result);
+          } catch (JsonProcessingException ignored) {}
+        });
+      }
+      if(fails.size() > 0)
+        fc.setFailed(fails);
+      task.setResponse(fc);
     }
+
+    callback.call(task);
   }
 
   static void processNamespace(ConditionalOperation task, FeatureEntry entry, XyzNamespace nsXyz, boolean isInsert, long inputPosition) {
@@ -1417,29 +1745,93 @@ public class FeatureTaskHandler {
       return;
     }
 
-    TransformationContext tc = task.transformationContext;
+    //The encoding is CPU intensive, so it's done on the tile encoding pool instead of the event-loop
+    final io.vertx.core.Context context = Service.vertx.getOrCreateContext();
+    final long queuedAt = Core.currentTimeMillis();
     try {
-      byte[] mvt;
-      if (MVT == task.responseType) {
-        mvt = new MapBoxVectorTileBuilder()
-            .build(WebMercatorTile.forWeb(tc.level, tc.x, tc.y), tc.margin, task.space.getId(),
-                ((FeatureCollection) task.getResponse()).getFeatures());
-      }
-      else {
-        mvt = new MapBoxVectorTileFlattenedBuilder()
-            .build(WebMercatorTile.forWeb(tc.level, tc.x, tc.y), tc.margin, task.space.getId(),
-                ((FeatureCollection) task.getResponse()).getFeatures());
-      }
-      task.setResponse(new BinaryResponse()
-              .withMimeType(APPLICATION_VND_MAPBOX_VECTOR_TILE)
-              .withBytes(mvt)
-              .withEtag(task.getResponse().getEtag()));
-      callback.call(task);
+      TileEncoding.executor.execute(() -> {
+        final long encodingStart = Core.currentTimeMillis();
+        try {
+          final BinaryResponse mvtResponse = encodeTile(task.responseType, task.transformationContext, task.space.getId(),
+              (FeatureCollection) task.getResponse());
+          context.runOnContext(v -> {
+            addTileEncodingInfo(task, queuedAt, encodingStart);
+            if (task.getState().isFinal()) return;
+            task.setResponse(mvtResponse);
+            callback.call(task);
+          });
+        }
+        catch (Exception e) {
+          logger.warn(task.getMarker(), "Exception while transforming the response.", e);
+          context.runOnContext(v -> {
+            addTileEncodingInfo(task, queuedAt, encodingStart);
+            if (task.getState().isFinal()) return;
+            callback.exception(new HttpException(INTERNAL_SERVER_ERROR, "Error while transforming the response."));
+          });
+        }
+      });
     }
-    catch (Exception e) {
-      logger.warn(task.getMarker(), "Exception while transforming the response.", e);
-      callback.exception(new HttpException(INTERNAL_SERVER_ERROR, "Error while transforming the response."));
-      return;
+    catch (RejectedExecutionException e) {
+      AbstractHttpServerVerticle.addStreamInfo(task.context, "THR", "E"); //Reason for throttling is the tile encoding pool
+      callback.exception(new HttpException(TOO_MANY_REQUESTS, "Too many tile encoding requests for the service node."));
+    }
+  }
+
+  static BinaryResponse encodeTile(ApiResponseType responseType, TransformationContext tc, String spaceId, FeatureCollection fc) {
+    byte[] mvt;
+    if (MVT == responseType) {
+      mvt = new MapBoxVectorTileBuilder()
+          .build(WebMercatorTile.forWeb(tc.level, tc.x, tc.y), tc.margin, spaceId, fc.getFeatures());
+    }
+    else {
+      mvt = new MapBoxVectorTileFlattenedBuilder()
+          .build(WebMercatorTile.forWeb(tc.level, tc.x, tc.y), tc.margin, spaceId, fc.getFeatures());
+    }
+    return new BinaryResponse()
+        .withMimeType(APPLICATION_VND_MAPBOX_VECTOR_TILE)
+        .withBytes(mvt)
+        .withEtag(fc.getEtag());
+  }
+
+  private static void addTileEncodingInfo(TileQuery task, long queuedAt, long encodingStart) {
+    AbstractHttpServerVerticle.addStreamInfo(task.context, "EQTime", encodingStart - queuedAt);
+    AbstractHttpServerVerticle.addStreamInfo(task.context, "ETime", Core.currentTimeMillis() - encodingStart);
+  }
+
+  /**
+   * The bounded worker pool which is used to encode vector tiles. Tasks which can not be queued anymore are rejected.
+   */
+  static class TileEncoding {
+
+    static final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads(), threads(), 1, TimeUnit.MINUTES,
+        new ArrayBlockingQueue<>(Math.max(Service.configuration.TILE_ENCODING_QUEUE_SIZE, 1)), Core.newThreadFactory("tileEncoding"));
+
+    private static int threads() {
+      return Service.configuration.TILE_ENCODING_THREADS > 0 ? Service.configuration.TILE_ENCODING_THREADS
+          : Runtime.getRuntime().availableProcessors();
+    }
+  }
+
+  /**
+   * The bounded worker pool which is used to process the entries of large modify operations. Tasks which can not be queued anymore are
+   * rejected.
+   */
+  static class ModifyOpProcessing {
+
+    private static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    static final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads(), threads(), 1, TimeUnit.MINUTES,
+        new ArrayBlockingQueue<>(Math.max(Service.configuration.MODIFY_OP_PROCESSING_QUEUE_SIZE, 1)),
+        Core.newThreadFactory("modifyOpProcessing"));
+
+    private static int threads() {
+      return Service.configuration.MODIFY_OP_PROCESSING_THREADS > 0 ? Service.configuration.MODIFY_OP_PROCESSING_THREADS
+          : Runtime.getRuntime().availableProcessors();
+    }
+
+    static int chunkSize() {
+      return Service.configuration.MODIFY_OP_PROCESSING_CHUNK_SIZE > 0 ? Service.configuration.MODIFY_OP_PROCESSING_CHUNK_SIZE
+          : DEFAULT_CHUNK_SIZE;
     }
   }
 
@@ -1568,6 +1960,18 @@ public class FeatureTaskHandler {
   }
 
   static void loadObjects(final ConditionalOperation task, final Callback<ConditionalOperation> callback) {
+    if (isBlindWrite(task)) {
+      //The head states would only be used to tell inserts from updates, so leave that to the storage
+      task.blindWrite = true;
+      callback.call(task);
+      return;
+    }
+    if (isPatchPushDown(task)) {
+      //The patches get merged inside the storage, so the head states are not needed
+      task.patchPushDown = true;
+      callback.call(task);
+      return;
+    }
     final LoadFeaturesEvent event = toLoadFeaturesEvent(task);
     if (event == null) {
       callback.call(task);
@@ -1589,6 +1993,69 @@ public class FeatureTaskHandler {
     }
   }
 
+  /**
+   * Checks whether the features of the operation can be written without loading their head states first.
+   * That is the case if all features get replaced or created (without any UUID / revision being provided) and nothing else depends on
+   * the head states. The storage has to support upserts and reports which features got inserted or updated.
+   * As the features might get updated, the token must hold the right to update features of the space. Otherwise, the head states get
+   * loaded, so that only the actually required rights get checked.
+   */
+  private static boolean isBlindWrite(final ConditionalOperation task) {
+    if (task.modifyOp.entries.isEmpty()
+        || !task.storage.capabilities.upsertSupport
+        || task.requireResourceExists
+        || task.space.isEnableUUID()
+        || task.space.getExtension() != null
+        || task.addTags != null && !task.addTags.isEmpty()
+        || task.removeTags != null && !task.removeTags.isEmpty()
+        //The features per space quota can only be checked for known inserts
+        || task.getJwt().limits != null && task.getJwt().limits.maxFeaturesPerSpace > 0
+        //Blind writes might update existing features, so they're only used if the token is allowed to do so anyways
+        || !FeatureAuthorization.canUpdateFeatures(task))
+      return false;
+
+    for (FeatureEntry entry : task.modifyOp.entries) {
+      if (entry.ifExists != IfExists.REPLACE || entry.ifNotExists != IfNotExists.CREATE || entry.inputUUID != null
+          || entry.inputRevision != 0)
+        return false;
+    }
+    return true;
+  }
+
+  /**
+   * Checks whether the patches of the operation can be applied inside the storage, instead of loading the head states and merging them
+   * here. That is the case if all features get patched with the same behavior for not existing features and the result does not depend on
+   * a base state. A provided UUID is only accepted if the space keeps no history, because then it has to match the head state anyways.
+   * If the token isn't allowed to create and update features of the space, the head states get loaded, so that only the actually required
+   * rights get checked.
+   */
+  private static boolean isPatchPushDown(final ConditionalOperation task) {
+    if (task.modifyOp.entries.isEmpty()
+        || !task.storage.capabilities.patchSupport
+        || task.requireResourceExists
+        || task.space.getExtension() != null
+        || task.space.isEnableGlobalVersioning()
+        //Processors and listeners expect the full features
+        || task.space.getProcessors() != null && !task.space.getProcessors().isEmpty()
+        || task.space.getListeners() != null && !task.space.getListeners().isEmpty()
+        || task.addTags != null && !task.addTags.isEmpty()
+        || task.removeTags != null && !task.removeTags.isEmpty()
+        || task.getJwt().limits != null && task.getJwt().limits.maxFeaturesPerSpace > 0
+        //Without the head states it is not known whether a feature gets created or updated, so the token must be allowed to do both
+        || !FeatureAuthorization.canCreateAndUpdateFeatures(task))
+      return false;
+
+    final IfNotExists ifNotExists = task.modifyOp.entries.get(0).ifNotExists;
+    for (FeatureEntry entry : task.modifyOp.entries) {
+      if (entry.ifExists != IfExists.PATCH || entry.ifNotExists != ifNotExists || !(entry.input.get(ID) instanceof String)
+          || entry.inputRevision != 0)
+        return false;
+      if (entry.inputUUID != null && (task.space.isEnableHistory() || ifNotExists == IfNotExists.CREATE))
+        return false;
+    }
+    return true;
+  }
+
   private static LoadFeaturesEvent toLoadFeaturesEvent(final ConditionalOperation task) {
     if (task.loadFeaturesEvent != null)
       return task.loadFeaturesEvent;
@@ -24,10 +24,12 @@ import com.here.xyz.hub.HttpConnector;
 import com.here.xyz.hub.PsqlHttpVerticle;
 import com.here.xyz.hub.rest.HttpException;
 
+import com.here.xyz.psql.DatabaseHandler;
 import com.here.xyz.psql.DatabaseMaintainer;
 import com.here.xyz.responses.XyzResponse;
 import com.here.xyz.responses.SuccessResponse;
 import com.here.xyz.responses.maintenance.ConnectorStatus;
+import com.here.xyz.responses.maintenance.ConnectorStatus.PoolStatus;
 import com.here.xyz.responses.maintenance.SpaceStatus;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
@@ -39,6 +41,8 @@ import org.apache.logging.log4j.Logger;
 import javax.naming.NoPermissionException;
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
 
 import static io.netty.handler.codec.http.HttpResponseStatus.*;
 
@@ -54,12 +58,27 @@ public class HttpConnectorTaskHandler {
         handler.handle(Future.failedFuture(new HttpException(NOT_FOUND, "Cant get status for connector: "+connectorId)));
         return;
       }
-      handler.handle(Future.succeededFuture(connectorStatus));
+      handler.handle(Future.succeededFuture(connectorStatus.withPools(getPoolStatus(connectorId))));
     }catch (Exception e) {
       checkException(e, handler, connectorId);
     }
   }
 
+  /**
+   * Collects the status of the connection pools of the connector and of the maintenance client.
+   */
+  private static Map<String, PoolStatus> getPoolStatus(String connectorId) {
+    final Map<String, PoolStatus> pools = new HashMap<>();
+    final Map<String, PoolStatus> connectorPools = DatabaseHandler.getPoolStatus(connectorId);
+    if (connectorPools != null)
+      pools.putAll(connectorPools);
+
+    final PoolStatus maintenanceClientPool = HttpConnector.maintenanceClient.getPoolStatus(connectorId);
+    if (maintenanceClientPool != null)
+      pools.put("maintenanceClient", maintenanceClientPool);
+    return pools;
+  }
+
   public static void initializeDatabase(String connectorId, String ecps, String passphrase, boolean force, Handler<AsyncResult<XyzResponse>> handler) {
     try {
       ConnectorStatus dbStatus = force ? null : HttpConnector.maintenanceClient.getConnectorStatus(connectorId, ecps, passphrase);
@@ -31,6 +31,7 @@ import com.here.xyz.hub.util.diff.Difference;
 import com.here.xyz.hub.util.diff.Patcher;
 import com.here.xyz.hub.util.diff.Patcher.ConflictResolution;
 import io.vertx.core.json.JsonObject;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
@@ -38,6 +39,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A modify operation
@@ -111,55 +117,111 @@ public abstract class ModifyOp<T, K extends Entry<T>> {
    */
   public void process() throws ModifyOpError, HttpException {
     for (K entry : entries) {
-      try {
-        //IF NOT EXISTS
-        if (entry.head == null) {
-          switch (entry.ifNotExists) {
-            case RETAIN:
-              entry.result = null;
-              break;
-            case CREATE: {
-              validateCreate(entry);
-              entry.result = entry.create();
-              break;
+      processEntry(entry);
+    }
+  }
+
+  /**
+   * Does the same as {@link #process()}, but splits the entries into chunks of the given size, which are processed in parallel on the
+   * provided executor.
+   * The error semantics are the same as for the sequential processing. If processing gets aborted (e.g. in transactional mode), the
+   * returned future fails with the error of the first entry (in the order of the entries) which caused the abort.
+   *
+   * @param executor the executor to run the chunks on
+   * @param chunkSize the maximum number of entries to be processed together
+   * @return a future which completes once all entries have been processed
+   * @throws RejectedExecutionException when the executor does not accept the chunks
+   */
+  public CompletableFuture<Void> process(Executor executor, int chunkSize) {
+    final int size = entries.size();
+    final AtomicInteger abortedAt = new AtomicInteger(Integer.MAX_VALUE);
+    final Map<Integer, Exception> errors = new ConcurrentHashMap<>();
+
+    final List<CompletableFuture<Void>> chunks = new ArrayList<>();
+    try {
+      for (int from = 0; from < size; from += chunkSize) {
+        final int chunkStart = from;
+        final int chunkEnd = Math.min(from + chunkSize, size);
+        chunks.add(CompletableFuture.runAsync(() -> {
+          //Entries behind an abort don't need to be processed, but those before it still might contain an earlier error
+          for (int i = chunkStart; i < chunkEnd && i < abortedAt.get(); i++) {
+            try {
+              processEntry(entries.get(i));
+            }
+            catch (Exception e) {
+              errors.put(i, e);
+              abortedAt.accumulateAndGet(i, Math::min);
+              return;
             }
-            case ERROR:
-              throw new ModifyOpError("The record does not exist.");
           }
-        }
-        //IF EXISTS
-        else {
-          switch (entry.ifExists) {
-            case RETAIN:
-              entry.result = entry.transform();
-              break;
-            case MERGE:
-              entry.result = entry.merge();
-              break;
-            case PATCH:
-              entry.result = entry.patch();
-              break;
-            case REPLACE:
-              entry.result = entry.replace();
-              break;
-            case DELETE:
-              entry.result = entry.delete();
-              break;
-            case ERROR:
-              throw new ModifyOpError("The record {" + entry.getId(entry.head) + "} exists.");
+        }, executor));
+      }
+    }
+    catch (RejectedExecutionException e) {
+      //Stop the chunks which have been submitted already
+      abortedAt.set(-1);
+      throw e;
+    }
+
+    return CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0])).thenCompose(v -> {
+      final CompletableFuture<Void> result = new CompletableFuture<>();
+      if (abortedAt.get() == Integer.MAX_VALUE)
+        result.complete(null);
+      else
+        result.completeExceptionally(errors.get(abortedAt.get()));
+      return result;
+    });
+  }
+
+  private void processEntry(K entry) throws ModifyOpError, HttpException {
+    try {
+      //IF NOT EXISTS
+      if (entry.head == null) {
+        switch (entry.ifNotExists) {
+          case RETAIN:
+            entry.result = null;
+            break;
+          case CREATE: {
+            validateCreate(entry);
+            entry.result = entry.create();
+            break;
           }
+          case ERROR:
+            throw new ModifyOpError("The record does not exist.");
         }
-
-        //Check if the isModified flag is not already set. Compare the objects in case it is not set yet.
-        entry.isModified = entry.isModified || entry.isModified();
       }
-      catch (ModifyOpError e) {
-        if (isTransactional) {
-          throw e;
+      //IF EXISTS
+      else {
+        switch (entry.ifExists) {
+          case RETAIN:
+            entry.result = entry.transform();
+            break;
+          case MERGE:
+            entry.result = entry.merge();
+            break;
+          case PATCH:
+            entry.result = entry.patch();
+            break;
+          case REPLACE:
+            entry.result = entry.replace();
+            break;
+          case DELETE:
+            entry.result = entry.delete();
+            break;
+          case ERROR:
+            throw new ModifyOpError("The record {" + entry.getId(entry.head) + "} exists.");
         }
-        //TODO: Check if this is included in the failed array
-        entry.exception = e;
       }
+
+      //Check if the isModified flag is not already set. Compare the objects in case it is not set yet.
+      entry.isModified = entry.isModified || entry.isModified();
+    }
+    catch (ModifyOpError e) {
+      if (isTransactional) {
+        throw e;
+      }
+      //TODO: Check if this is included in the failed array
+      entry.exception = e;
     }
   }
 
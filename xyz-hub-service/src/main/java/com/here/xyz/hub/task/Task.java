@@ -111,6 +111,8 @@ public abstract class Task<T extends Event, X extends Task<T, ?>> {
 
   private ConcurrentSet<Consumer<Task<T, X>>> cancellingHandlers = new ConcurrentSet<>();
 
+  private ConcurrentSet<Consumer<Task<T, X>>> failureHandlers = new ConcurrentSet<>();
+
   /**
    * @throws NullPointerException if the given context or responseType are null.
    */
@@ -176,6 +178,7 @@ public abstract class Task<T extends Event, X extends Task<T, ?>> {
                 if (state.isFinal()) return;
                 state = ERROR;
                 onException.call(a, b);
+                callFailureHandlers();
               }
           )
           .execute();
@@ -254,6 +257,15 @@ public abstract class Task<T extends Event, X extends Task<T, ?>> {
     cancellingHandlers.add(cancellingHandler);
   }
 
+  /**
+   * Adds a handler which gets called once the execution of this task has failed.
+   * In contrast to the cancelling handlers, the failure handlers are called after the error response has been sent.
+   */
+  public void addFailureHandler(Consumer<Task<T, X>> failureHandler) {
+    Objects.requireNonNull(failureHandler);
+    failureHandlers.add(failureHandler);
+  }
+
   /**
    * The state can be read to know whether an action should still be performed or may be cancelled.
    * E.g. when the task is in a final state already, it doesn't make sense to send a(nother) response or fail with another exception.
@@ -326,4 +338,15 @@ public abstract class Task<T extends Event, X extends Task<T, ?>> {
   private void callCancellingHandlers() {
     cancellingHandlers.forEach(cH -> cH.accept(this));
   }
+
+  private void callFailureHandlers() {
+    failureHandlers.forEach(fH -> {
+      try {
+        fH.accept(this);
+      }
+      catch (Exception e) {
+        logger.error(getMarker(), "Error calling the failure handler of the task.", e);
+      }
+    });
+  }
 }
@@ -0,0 +1,312 @@
+/*
+ * Copyright (C) 2017-2022 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.task;
+
+import static com.here.xyz.hub.rest.ApiResponseType.FEATURE_COLLECTION;
+import static com.here.xyz.hub.rest.ApiResponseType.MVT;
+import static com.here.xyz.hub.rest.ApiResponseType.MVT_FLATTENED;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.here.xyz.events.GetFeaturesByTileEvent;
+import com.here.xyz.hub.Core;
+import com.here.xyz.hub.Service;
+import com.here.xyz.hub.connectors.models.Connector;
+import com.here.xyz.hub.connectors.models.Space;
+import com.here.xyz.hub.connectors.models.Space.CacheProfile;
+import com.here.xyz.hub.rest.ApiResponseType;
+import com.here.xyz.hub.task.FeatureTask.TileQuery;
+import com.here.xyz.hub.task.FeatureTask.TileQuery.TransformationContext;
+import com.here.xyz.hub.task.FeatureTaskHandler.TileEncoding;
+import com.here.xyz.hub.task.TaskPipeline.Callback;
+import com.here.xyz.hub.util.HeavyHitters;
+import com.here.xyz.models.geojson.implementation.FeatureCollection;
+import com.here.xyz.responses.BinaryResponse;
+import com.here.xyz.responses.ErrorResponse;
+import com.here.xyz.responses.NotModifiedResponse;
+import com.here.xyz.responses.XyzResponse;
+import io.vertx.core.Context;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import net.jodah.expiringmap.ExpirationPolicy;
+import net.jodah.expiringmap.ExpiringMap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.Marker;
+
+/**
+ * Pre-warms the cache with the most frequently requested tiles of the spaces which have the tile pre-warming activated.
+ *
+ * The tile requests of such spaces are counted in a {@link HeavyHitters} sketch per space. Once the content of a space gets modified, its
+ * contentUpdatedAt changes and with it the cache keys of all its tiles. Shortly after the modification the hottest tiles are loaded from
+ * the storage again and written into the cache, so that the first clients requesting them don't have to wait for the storage.
+ * The storage requests of all spaces are spread over time using a global rate limit ({@link Service.Config#TILE_PREWARMING_RATE}), so
+ * the pre-warming never competes with the actual requests in bursts.
+ *
+ * Only spaces without extension, without processors and with a non-trusted storage connector are pre-warmed, because the responses for
+ * all other spaces can not be reproduced without the original request. The pre-warming requests are sent without the metadata of any
+ * requester's token.
+ */
+class TilePrewarmer {
+
+  private static final Logger logger = LogManager.getLogger();
+
+  /**
+   * The time to wait after a content modification before the pre-warming starts, so that subsequent modifications are batched.
+   */
+  private static final long PREWARMING_DELAY = TimeUnit.SECONDS.toMillis(10);
+  /**
+   * The maximum time a tile may be scheduled ahead for being pre-warmed. Tiles which would be scheduled later are dropped.
+   */
+  private static final long MAX_SCHEDULING_AHEAD = TimeUnit.MINUTES.toMillis(1);
+  /**
+   * The number of tiles which are tracked per space, as multiple of the number of tiles to be pre-warmed.
+   */
+  private static final int TRACKED_TILES_FACTOR = 10;
+
+  private static final ExpiringMap<String, SpaceTiles> spaceTiles = ExpiringMap.builder()
+      .expirationPolicy(ExpirationPolicy.ACCESSED)
+      .expiration(1, TimeUnit.HOURS)
+      .maxSize(1024)
+      .build();
+  private static final ConcurrentHashMap<String, Long> prewarmingTimers = new ConcurrentHashMap<>();
+  private static final AtomicLong nextSlot = new AtomicLong();
+
+  /**
+   * Counts the requested tile, if the tile pre-warming is activated for the space.
+   */
+  static void countRequest(TileQuery task, Callback<TileQuery> callback) {
+    try {
+      if (isActive(task.space) && !task.skipCache && isSupported(task.responseType)) {
+        final SpaceTiles tiles = spaceTiles.computeIfAbsent(task.space.getId(), spaceId -> new SpaceTiles());
+        final String tileKey = tileKey(task.getEvent(), task.responseType);
+        //The template is only created for tiles which were requested repeatedly, so that the long tail of tiles does not cause copying
+        if (tiles.hitters.offer(tileKey)) {
+          final GetFeaturesByTileEvent event = task.getEvent().copy();
+          if (event != null)
+            tiles.hitters.setValue(tileKey, new TileTemplate(event, task.responseType, task.transformationContext));
+        }
+      }
+    }
+    catch (Exception e) {
+      //Counting is best effort only, it must never fail the request
+      logger.warn(task.getMarker(), "Unable to count the tile request for pre-warming.", e);
+    }
+    callback.call(task);
+  }
+
+  /**
+   * Schedules the pre-warming of the most frequently requested tiles of the space after its content was modified.
+   * If a pre-warming is already scheduled for the space, no further one will be scheduled.
+   */
+  static void schedulePrewarming(Marker marker, Space space) {
+    if (!isActive(space) || !spaceTiles.containsKey(space.getId()))
+      return;
+    schedulePrewarming(marker, space.getId(), PREWARMING_DELAY);
+  }
+
+  private static void schedulePrewarming(Marker marker, String spaceId, long delay) {
+    if (prewarmingTimers.containsKey(spaceId))
+      return;
+
+    long timerId = Service.vertx.setTimer(delay, tId -> {
+      prewarmingTimers.remove(spaceId);
+      prewarm(marker, spaceId);
+    });
+    //Check whether some other thread also just scheduled a new timer
+    if (prewarmingTimers.putIfAbsent(spaceId, timerId) != null)
+      Service.vertx.cancelTimer(timerId);
+  }
+
+  private static void prewarm(Marker marker, String spaceId) {
+    final SpaceTiles tiles = spaceTiles.get(spaceId);
+    if (tiles == null)
+      return;
+
+    Service.spaceConfigClient.get(marker, spaceId)
+        .onFailure(t -> logger.warn(marker, "space[{}]: Unable to load the space for pre-warming its tiles.", spaceId, t))
+        .onSuccess(space -> {
+          if (space == null || !isActive(space) || space.getExtension() != null
+              || space.getProcessors() != null && !space.getProcessors().isEmpty())
+            return;
+
+          Service.connectorConfigClient.get(marker, space.getStorage().getId(), ar -> {
+            if (ar.failed()) {
+              logger.warn(marker, "space[{}]: Unable to load the storage connector for pre-warming the tiles.", spaceId, ar.cause());
+              return;
+            }
+            final Connector storage = ar.result();
+            if (!storage.active || storage.trusted)
+              return;
+
+            final CacheProfile cacheProfile = space.getCacheProfile(false, storage.capabilities.enableAutoCache, false);
+            if (cacheProfile.serviceTTL <= 0) {
+              //With the automatic cache configuration, the caching is deactivated for a while after each modification
+              long cachingStart = space.getContentUpdatedAt() + Space.NO_CACHE_INTERVAL_MILLIS;
+              if (space.getCacheTTL() < 0 && storage.capabilities.enableAutoCache && cachingStart > Core.currentTimeMillis())
+                schedulePrewarming(marker, spaceId, cachingStart - Core.currentTimeMillis() + PREWARMING_DELAY);
+              return;
+            }
+
+            long contentUpdatedAt = space.getContentUpdatedAt();
+            if (tiles.prewarmedContentUpdatedAt == contentUpdatedAt)
+              return;
+            tiles.prewarmedContentUpdatedAt = contentUpdatedAt;
+
+            final List<TileTemplate> templates = tiles.hitters.top(Service.configuration.TILE_PREWARMING_TILES);
+            //Let tiles which are not requested anymore fade out of the sketch
+            tiles.hitters.decay();
+            int scheduled = 0;
+            for (TileTemplate template : templates) {
+              long delay = reserveSlot();
+              if (delay < 0)
+                break;
+              Service.vertx.setTimer(Math.max(delay, 1), tId -> prewarmTile(marker, space, storage, cacheProfile.serviceTTL, template));
+              scheduled++;
+            }
+            logger.info(marker, "space[{}]: Scheduled the pre-warming of {} of {} tiles.", spaceId, scheduled, templates.size());
+          });
+        });
+  }
+
+  private static void prewarmTile(Marker marker, Space space, Connector storage, long serviceTTL, TileTemplate template) {
+    final String cacheKey;
+    try {
+      cacheKey = FeatureTask.cacheKey(template.event, template.responseType, space, null);
+    }
+    catch (JsonProcessingException e) {
+      logger.warn(marker, "space[{}]: Unable to calculate the cache key for pre-warming a tile.", space.getId(), e);
+      return;
+    }
+
+    Service.cacheClient.get(cacheKey).onSuccess(cachedValue -> {
+      if (cachedValue != null)
+        return;
+
+      final GetFeaturesByTileEvent event = template.event.copy();
+      if (event == null)
+        return;
+      try {
+        FeatureTaskHandler.getRpcClient(storage).execute(marker, event, ar -> {
+          if (ar.failed()) {
+            logger.warn(marker, "space[{}]: Error while pre-warming a tile.", space.getId(), ar.cause());
+            return;
+          }
+          final XyzResponse response = ar.result();
+          if (response == null || response instanceof ErrorResponse || response instanceof NotModifiedResponse)
+            return;
+
+          if ((template.responseType == MVT || template.responseType == MVT_FLATTENED) && response instanceof FeatureCollection)
+            encodeAndWrite(marker, space.getId(), cacheKey, serviceTTL, template, (FeatureCollection) response);
+          else {
+            //Responses of connectors in direct mode don't come with an ETag
+            if (response.getEtag() == null)
+              response.setEtag(XyzResponse.calculateEtagFor(response.toByteArray()));
+            Service.cacheClient.set(cacheKey, FeatureTaskHandler.transformCacheValue(template.responseType, response), serviceTTL);
+          }
+        });
+      }
+      catch (Exception e) {
+        logger.warn(marker, "space[{}]: Unable to pre-warm a tile.", space.getId(), e);
+      }
+    });
+  }
+
+  private static void encodeAndWrite(Marker marker, String spaceId, String cacheKey, long serviceTTL, TileTemplate template,
+      FeatureCollection fc) {
+    final Context context = Service.vertx.getOrCreateContext();
+    try {
+      TileEncoding.executor.execute(() -> {
+        try {
+          final BinaryResponse mvt = FeatureTaskHandler.encodeTile(template.responseType, template.transformationContext, spaceId, fc);
+          final byte[] cacheValue = FeatureTaskHandler.transformCacheValue(template.responseType, mvt);
+          context.runOnContext(v -> Service.cacheClient.set(cacheKey, cacheValue, serviceTTL));
+        }
+        catch (Exception e) {
+          logger.warn(marker, "space[{}]: Error while encoding a pre-warmed tile.", spaceId, e);
+        }
+      });
+    }
+    catch (RejectedExecutionException e) {
+      //The tile encoding pool is busy with actual requests, the tile will be cached by the next request instead
+    }
+  }
+
+  /**
+   * Reserves the next free slot of the global pre-warming rate.
+   *
+   * @return The time in milliseconds until the reserved slot starts or -1, if no slot is available in the scheduling window
+   */
+  private static long reserveSlot() {
+    final long interval = Math.max(1000 / Service.configuration.TILE_PREWARMING_RATE, 1);
+    final long now = Core.currentTimeMillis();
+    while (true) {
+      long slot = nextSlot.get();
+      long start = Math.max(slot, now);
+      if (start - now > MAX_SCHEDULING_AHEAD)
+        return -1;
+      if (nextSlot.compareAndSet(slot, start + interval))
+        return start - now;
+    }
+  }
+
+  private static boolean isActive(Space space) {
+    return Service.configuration.TILE_PREWARMING_RATE > 0 && Service.configuration.TILE_PREWARMING_TILES > 0 && space.isPrewarmTiles();
+  }
+
+  private static boolean isSupported(ApiResponseType responseType) {
+    return responseType == FEATURE_COLLECTION || responseType == MVT || responseType == MVT_FLATTENED;
+  }
+
+  /**
+   * Identifies a tile independently of the content version of the space, so that it can be counted across modifications.
+   */
+  private static String tileKey(GetFeaturesByTileEvent event, ApiResponseType responseType) throws JsonProcessingException {
+    //noinspection UnstableApiUsage
+    Hasher hasher = Hashing.murmur3_128().newHasher();
+    event.putCacheProperties(hasher);
+    return hasher.putString(responseType.toString(), StandardCharsets.UTF_8).hash().toString();
+  }
+
+  private static class SpaceTiles {
+
+    final HeavyHitters<String, TileTemplate> hitters = new HeavyHitters<>(
+        Service.configuration.TILE_PREWARMING_TILES * TRACKED_TILES_FACTOR);
+    volatile long prewarmedContentUpdatedAt;
+  }
+
+  private static class TileTemplate {
+
+    final GetFeaturesByTileEvent event;
+    final ApiResponseType responseType;
+    final TransformationContext transformationContext;
+
+    TileTemplate(GetFeaturesByTileEvent event, ApiResponseType responseType, TransformationContext transformationContext) {
+      this.event = event;
+      this.responseType = responseType;
+      this.transformationContext = transformationContext;
+    }
+  }
+}
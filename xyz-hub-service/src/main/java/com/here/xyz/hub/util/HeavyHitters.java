@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2017-2022 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * An approximate counter of the most frequent keys of a stream, which uses the Space-Saving algorithm.
+ * At most {@code capacity} keys are tracked at the same time. A key which is not tracked yet replaces the least frequent tracked key and
+ * inherits its count, so the memory consumption is bounded, while frequent keys are guaranteed to stay tracked. To get reliable results
+ * for the top k keys, the capacity should be a multiple of k.
+ * Each tracked key can carry a value, which should only be attached once the key was actually seen repeatedly (see {@link #offer(Object)}).
+ * The counters are kept ordered by their count, so that counting a key takes logarithmic time in the capacity.
+ * This class is thread-safe.
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the values attached to the keys
+ */
+public class HeavyHitters<K, V> {
+
+  private static final Comparator<Counter<?, ?>> BY_COUNT = Comparator.<Counter<?, ?>>comparingLong(counter -> counter.count)
+      .thenComparingLong(counter -> counter.seq);
+
+  private final int capacity;
+  private final Map<K, Counter<K, V>> counters = new HashMap<>();
+  private final TreeSet<Counter<K, V>> ordered = new TreeSet<>(BY_COUNT);
+  private long nextSeq;
+
+  public HeavyHitters(int capacity) {
+    if (capacity <= 0)
+      throw new IllegalArgumentException("The capacity must be positive.");
+    this.capacity = capacity;
+  }
+
+  /**
+   * Counts one occurrence of the provided key.
+   *
+   * @param key The key to be counted
+   * @return true, if the key was seen at least twice since it's being tracked and has no value attached yet
+   */
+  public synchronized boolean offer(K key) {
+    Counter<K, V> counter = counters.get(key);
+    if (counter == null) {
+      long error = 0;
+      if (counters.size() >= capacity) {
+        final Counter<K, V> min = ordered.pollFirst();
+        counters.remove(min.key);
+        error = min.count;
+      }
+      counter = new Counter<>(key, error);
+      counters.put(key, counter);
+    }
+    else
+      ordered.remove(counter);
+    counter.count++;
+    counter.seq = nextSeq++;
+    ordered.add(counter);
+    return counter.value == null && counter.count - counter.error >= 2;
+  }
+
+  /**
+   * Attaches a value to the provided key, if it's still being tracked.
+   *
+   * @param key The key
+   * @param value The value to attach
+   */
+  public synchronized void setValue(K key, V value) {
+    Counter<K, V> counter = counters.get(key);
+    if (counter != null)
+      counter.value = value;
+  }
+
+  /**
+   * Returns the values of the most frequent keys, ordered by their frequency. Keys without a value are not taken into account.
+   *
+   * @param limit The maximum number of values to return
+   * @return The values of the most frequent keys
+   */
+  public synchronized List<V> top(int limit) {
+    final List<V> top = new ArrayList<>(Math.min(limit, counters.size()));
+    for (Iterator<Counter<K, V>> it = ordered.descendingIterator(); it.hasNext() && top.size() < limit; ) {
+      Counter<K, V> counter = it.next();
+      if (counter.value != null)
+        top.add(counter.value);
+    }
+    return top;
+  }
+
+  /**
+   * Halves all counts, so that keys which were frequent in the past but are not anymore, can be replaced over time.
+   * Keys which end up with a count of 0 are not tracked anymore.
+   */
+  public synchronized void decay() {
+    //Halving can make counts equal, which changes their order, so the ordered set has to be rebuilt
+    ordered.clear();
+    for (Iterator<Counter<K, V>> it = counters.values().iterator(); it.hasNext(); ) {
+      Counter<K, V> counter = it.next();
+      counter.count >>= 1;
+      counter.error >>= 1;
+      if (counter.count == 0)
+        it.remove();
+      else
+        ordered.add(counter);
+    }
+  }
+
+  public synchronized int size() {
+    return counters.size();
+  }
+
+  private static class Counter<K, V> {
+
+    final K key;
+    long count;
+    long error;
+    /**
+     * The order in which the counter was last incremented, which orders counters of the same count.
+     */
+    long seq;
+    V value;
+
+    Counter(K key, long error) {
+      this.key = key;
+      this.count = error;
+      this.error = error;
+    }
+  }
+}
@@ -10,6 +10,8 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import org.caffinitas.ohc.OHCache;
 
 /**
@@ -33,15 +35,28 @@ public class LimitedOffHeapQueue<E extends OffHeapBuffer> extends LimitedQueue<E
     super(maxSize, maxByteSize);
   }
 
+  public LimitedOffHeapQueue(long maxSize, long maxByteSize, int laneCount) {
+    super(maxSize, maxByteSize, laneCount);
+  }
+
   @Override
-  public List<E> add(OffHeapBuffer element) {
+  public List<E> add(E element, int lane) {
     moveOffHeap(element);
-    List<E> discarded = super.add((E) element);
+    List<E> discarded = super.add(element, lane);
     //Also discard the according off-heap elements explicitly. Otherwise the OHC would pick the elements to be discarded.
     discarded.forEach(e -> discardOHElement(e));
     return discarded;
   }
 
+  @Override
+  public E remove(Predicate<? super E> dropIf, Consumer<? super E> dropHandler) {
+    return super.remove(dropIf, e -> {
+      //The payload of a dropped element won't be consumed anymore
+      discardOHElement(e);
+      dropHandler.accept(e);
+    });
+  }
+
   private void moveOffHeap(OffHeapBuffer element) {
     element.stash();
   }
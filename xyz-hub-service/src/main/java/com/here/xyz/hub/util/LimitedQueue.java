@@ -23,41 +23,108 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * A queue with limits on the number of elements and the their size.
+ *
+ * The elements are held in one or more lanes. Lanes with a lower index have a higher priority, so elements of a lane are only removed
+ * once all lanes with a lower index are empty. If elements have to be discarded to accommodate a new element, the oldest elements of the
+ * lane with the lowest priority are discarded first. Elements of lanes with a higher priority than the one of the new element are never
+ * discarded.
+ *
+ * The space for an element is reserved before the element gets added, so the limits are never exceeded.
  */
 public class LimitedQueue<E extends ByteSizeAware> implements ByteSizeAware {
 
   public LimitedQueue(long maxSize, long maxByteSize) {
+    this(maxSize, maxByteSize, 1);
+  }
+
+  @SuppressWarnings("unchecked")
+  public LimitedQueue(long maxSize, long maxByteSize, int laneCount) {
+    if (laneCount < 1) {
+      throw new IllegalArgumentException("A queue needs at least one lane.");
+    }
     this.maxSize = maxSize;
     this.maxByteSize = maxByteSize;
+    lanes = new ConcurrentLinkedQueue[laneCount];
+    for (int i = 0; i < laneCount; i++)
+      lanes[i] = new ConcurrentLinkedQueue<>();
   }
 
-  private final ConcurrentLinkedQueue<E> _queue = new ConcurrentLinkedQueue<>();
-  private final LongAdder byteSize = new LongAdder();
-  private long maxByteSize;
-  private long maxSize;
+  private final ConcurrentLinkedQueue<E>[] lanes;
+  private final AtomicLong size = new AtomicLong();
+  private final AtomicLong byteSize = new AtomicLong();
+  private volatile long maxByteSize;
+  private volatile long maxSize;
 
   /**
-   * Adds an element and optionally returns the elements, which had to be discarded to accommodate the new one.
+   * Adds an element to the first lane and optionally returns the elements, which had to be discarded to accommodate the new one.
    *
    * @return The elements, which had to be discarded to accommodate the new one.
    */
   public List<E> add(E element) {
+    return add(element, 0);
+  }
+
+  /**
+   * Adds an element to the specified lane and optionally returns the elements, which had to be discarded to accommodate the new one.
+   * If the new element can not be accommodated, the new element itself is returned as discarded element.
+   *
+   * @param element The element to add
+   * @param lane The lane to add the element to
+   * @return The elements, which had to be discarded to accommodate the new one.
+   */
+  public List<E> add(E element, int lane) {
     // If the maximum queue size is not large enough to fit the element, then the new element needs to be discarded.
     if (element.getByteSize() > maxByteSize) {
       return Collections.singletonList(element);
     }
 
-    // Add the element and update the size
-    byteSize.add(element.getByteSize());
-    // Note: When a context switch happens exactly at this point, then we have a disconnection between the
-    //       added element and the byte size!
-    _queue.add(element);
+    List<E> discardedElements = Collections.emptyList();
+    // Check if older elements need to be discarded to make space for the new one.
+    while (!reserve(element.getByteSize())) {
+      E discarded = removeFromLanes(lanes.length - 1, lane);
+      if (discarded == null) {
+        // The space is taken by elements with a higher priority, so the new element needs to be discarded.
+        discarded = element;
+      }
+      if (discardedElements.isEmpty()) {
+        discardedElements = new ArrayList<>();
+      }
+      discardedElements.add(discarded);
+      if (discarded == element) {
+        return discardedElements;
+      }
+    }
 
-    return discard();
+    lanes[lane].add(element);
+    return discardedElements;
+  }
+
+  private boolean reserve(long elementByteSize) {
+    long currentByteSize;
+    do {
+      currentByteSize = byteSize.get();
+      if (currentByteSize + elementByteSize > maxByteSize) {
+        return false;
+      }
+    }
+    while (!byteSize.compareAndSet(currentByteSize, currentByteSize + elementByteSize));
+
+    long currentSize;
+    do {
+      currentSize = size.get();
+      if (currentSize + 1 > maxSize) {
+        byteSize.addAndGet(-elementByteSize);
+        return false;
+      }
+    }
+    while (!size.compareAndSet(currentSize, currentSize + 1));
+    return true;
   }
 
   /**
@@ -66,22 +133,50 @@ public class LimitedQueue<E extends ByteSizeAware> implements ByteSizeAware {
    * @return The head of the queue or null if the queue is empty
    */
   public E remove() {
-    E removed = _queue.poll();
-    if (removed != null) {
-      byteSize.add(-removed.getByteSize());
+    return removeFromLanes(0, lanes.length - 1);
+  }
+
+  /**
+   * Removes the head of the queue and returns it. Elements in front of it, which are not worth being processed anymore (e.g. because
+   * their deadline has passed), are dropped on the way.
+   *
+   * @param dropIf Decides whether a removed element gets dropped rather than returned
+   * @param dropHandler Gets called for each element which was dropped
+   * @return The first element which was not dropped or null if the queue is empty
+   */
+  public E remove(Predicate<? super E> dropIf, Consumer<? super E> dropHandler) {
+    E element;
+    while ((element = remove()) != null && dropIf.test(element))
+      dropHandler.accept(element);
+    return element;
+  }
+
+  /**
+   * Removes the head of the first non-empty lane in the range from the first lane (inclusive) towards the last lane (inclusive).
+   */
+  private E removeFromLanes(int firstLane, int lastLane) {
+    final int step = firstLane <= lastLane ? 1 : -1;
+    for (int i = firstLane; i != lastLane + step; i += step) {
+      E removed = lanes[i].poll();
+      if (removed != null) {
+        byteSize.addAndGet(-removed.getByteSize());
+        size.decrementAndGet();
+        return removed;
+      }
     }
-    return removed;
+    return null;
   }
 
   private List<E> discard() {
     List<E> discardedElements = new ArrayList<>();
 
-    // Check if older elements need to be discarded to make space for the new one.
-    while (byteSize.longValue() > maxByteSize || _queue.size() > maxSize) {
-      E discarded = remove();
-      if (discarded != null) {
-        discardedElements.add(discarded);
+    // Check if elements need to be discarded to comply to the (new) limits.
+    while (byteSize.get() > maxByteSize || size.get() > maxSize) {
+      E discarded = removeFromLanes(lanes.length - 1, 0);
+      if (discarded == null) {
+        break;
       }
+      discardedElements.add(discarded);
     }
 
     return discardedElements;
@@ -112,16 +207,16 @@ public class LimitedQueue<E extends ByteSizeAware> implements ByteSizeAware {
   }
 
   public long getSize() {
-    return _queue.size();
+    return size.get();
   }
 
   /**
-   * Returns the estimated size of the queue in byte. Be aware that the value can be wrong, dependent on context switched happening
+   * Returns the size of the queue in byte, including the space which is reserved for elements being added concurrently.
    *
-   * @return
+   * @return The byte size of the queue
    */
   @Override
   public long getByteSize() {
-    return byteSize.longValue();
+    return byteSize.get();
   }
 }
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2017-2022 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.util;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.WriteStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A blocking {@link OutputStream} which writes into a Vert.x {@link WriteStream} in chunks.
+ * If the write queue of the target is full, the writing thread waits until the target got drained.
+ * Must not be used on an event-loop thread.
+ */
+public class WriteStreamOutputStream extends OutputStream {
+
+  private final WriteStream<Buffer> target;
+  private final int chunkSize;
+  private final long drainTimeoutMs;
+  private Buffer chunk;
+  private long byteSize;
+
+  /**
+   * @param target The stream to write into. It will not be ended when this stream gets closed.
+   * @param chunkSize The amount of bytes being buffered before they get written to the target.
+   * @param drainTimeoutMs The maximum time to wait for the target to accept more data.
+   */
+  public WriteStreamOutputStream(WriteStream<Buffer> target, int chunkSize, long drainTimeoutMs) {
+    this.target = target;
+    this.chunkSize = chunkSize;
+    this.drainTimeoutMs = drainTimeoutMs;
+    this.chunk = Buffer.buffer(chunkSize);
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    chunk.appendByte((byte) b);
+    byteSize++;
+    if (chunk.length() >= chunkSize)
+      flush();
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    chunk.appendBytes(b, off, len);
+    byteSize += len;
+    if (chunk.length() >= chunkSize)
+      flush();
+  }
+
+  @Override
+  public void flush() throws IOException {
+    if (chunk.length() == 0) return;
+    awaitDrain();
+    try {
+      target.write(chunk);
+    }
+    catch (IllegalStateException e) {
+      throw new IOException("The target stream was closed already.", e);
+    }
+    chunk = Buffer.buffer(chunkSize);
+  }
+
+  private void awaitDrain() throws IOException {
+    if (!target.writeQueueFull()) return;
+
+    final CountDownLatch drained = new CountDownLatch(1);
+    target.drainHandler(v -> drained.countDown());
+    try {
+      if (target.writeQueueFull() && !drained.await(drainTimeoutMs, TimeUnit.MILLISECONDS))
+        throw new IOException("Timeout while waiting for the target stream to be drained.");
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for the target stream to be drained.", e);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    flush();
+  }
+
+  /**
+   * Returns the number of bytes written into this stream so far.
+   *
+   * @return The number of bytes written into this stream.
+   */
+  public long getByteSize() {
+    return byteSize;
+  }
+}
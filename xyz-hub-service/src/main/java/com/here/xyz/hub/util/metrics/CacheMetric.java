@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2017-2020 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.xyz.hub.util.metrics;
+
+import static com.here.xyz.hub.util.metrics.base.Metric.MetricUnit.BYTES;
+import static com.here.xyz.hub.util.metrics.base.Metric.MetricUnit.COUNT;
+
+import com.here.xyz.hub.Service;
+import com.here.xyz.hub.cache.CacheStatistics;
+import com.here.xyz.hub.util.metrics.base.AttributedMetricCollection.Attribute;
+import com.here.xyz.hub.util.metrics.base.AttributedMetricCollector;
+import com.here.xyz.hub.util.metrics.base.CWAttributedMetricCollectionPublisher;
+import com.here.xyz.hub.util.metrics.base.MetricPublisher;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * A metric of the service cache, attributed by the cache level.
+ * Counting metrics publish the increase since the last gathering, all others publish the current value.
+ */
+public class CacheMetric extends AttributedMetricCollector<Collection<Double>> {
+
+  static final String TIER = "tier";
+
+  private final ToLongFunction<CacheStatistics> valueExtractor;
+  private final boolean counting;
+  private final Map<String, Long> previousValues = new ConcurrentHashMap<>();
+
+  public CacheMetric(String metricName, MetricUnit unit, ToLongFunction<CacheStatistics> valueExtractor) {
+    super(metricName, unit);
+    this.valueExtractor = valueExtractor;
+    this.counting = unit == COUNT;
+  }
+
+  @Override
+  protected Map<Collection<Attribute>, Collection<Double>> gatherValues() {
+    Map<Collection<Attribute>, Collection<Double>> values = new HashMap<>();
+    for (CacheStatistics statistics : Service.cacheClient.getStatistics()) {
+      long value = valueExtractor.applyAsLong(statistics);
+      //Not gathered for that cache level
+      if (value < 0) continue;
+      if (counting) {
+        Long previousValue = previousValues.put(statistics.tier, value);
+        value -= previousValue == null ? 0 : previousValue;
+      }
+      values.put(Collections.singleton(new Attribute<>(TIER, statistics.tier)), Collections.singleton((double) value));
+    }
+    return values;
+  }
+
+  public static List<MetricPublisher<?>> startCacheMetricPublishers() {
+    return Arrays.asList(
+        new CWAttributedMetricCollectionPublisher<>(new CacheMetric("CacheHits", COUNT, s -> s.hitCount)),
+        new CWAttributedMetricCollectionPublisher<>(new CacheMetric("CacheMisses", COUNT, s -> s.missCount)),
+        new CWAttributedMetricCollectionPublisher<>(new CacheMetric("CacheEvictions", COUNT, s -> s.evictionCount)),
+        new CWAttributedMetricCollectionPublisher<>(new CacheMetric("CacheExpirations", COUNT, s -> s.expireCount)),
+        new CWAttributedMetricCollectionPublisher<>(new CacheMetric("CacheByteSize", BYTES, s -> s.byteSize))
+    );
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2017-2021 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.util.metrics;
+
+import static com.here.xyz.hub.util.metrics.base.Metric.MetricUnit.COUNT;
+
+import com.here.xyz.hub.config.SpaceConfigClient;
+import com.here.xyz.hub.util.metrics.base.BareValuesMetric;
+import com.here.xyz.hub.util.metrics.base.CWBareValueMetricPublisher;
+import com.here.xyz.hub.util.metrics.base.MetricPublisher;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * A counting metric of the space cache of the {@link SpaceConfigClient}. It publishes the increase since the last gathering.
+ */
+public class SpaceCacheMetric extends BareValuesMetric {
+
+  private final LongSupplier counter;
+
+  public SpaceCacheMetric(String metricName, LongSupplier counter) {
+    super(metricName, COUNT);
+    this.counter = counter;
+  }
+
+  @Override
+  protected Collection<Double> gatherValues() {
+    return Collections.singleton((double) counter.getAsLong());
+  }
+
+  public static List<MetricPublisher<?>> startSpaceCacheMetricPublishers() {
+    return Arrays.asList(
+        new CWBareValueMetricPublisher(new SpaceCacheMetric("SpaceCacheHits", SpaceConfigClient::pollCacheHitCount)),
+        new CWBareValueMetricPublisher(new SpaceCacheMetric("SpaceCacheMisses", SpaceConfigClient::pollCacheMissCount)),
+        new CWBareValueMetricPublisher(new SpaceCacheMetric("SpaceCacheCoalescedLoads", SpaceConfigClient::pollCoalescedLoadCount)),
+        new CWBareValueMetricPublisher(new SpaceCacheMetric("SpaceCacheRefreshAheadLoads", SpaceConfigClient::pollRefreshAheadLoadCount))
+    );
+  }
+}
@@ -19,10 +19,16 @@
 
 package com.here.xyz.hub.auth;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 import org.junit.Test;
 
 public class XyzHubActionMatrixTest {
@@ -220,4 +226,103 @@ public class XyzHubActionMatrixTest {
     ActionMatrix filterMatrix = Json.decodeValue(filter, ActionMatrix.class);
     assertTrue(rightsMatrix.matches(filterMatrix));
   }
+
+  private static final String[][] EQUIVALENCE_CASES = {
+      {"{'readFeatures': [{'owner': 'O1'}, {'owner': 'O2', 'space': 'S2'}], 'manageSpaces': [{}]}",
+          "{'readFeatures': [{'owner': 'O1', 'space': 'S1'}, {'owner': 'O2', 'space': 'S2'}], 'manageSpaces': [{'owner': 'O1', 'space': 'S1'}]}"},
+      {"{'readFeatures': [{'space': 'S1'}, {'space': 'S2'}]}", "{'readFeatures': [{'owner': 'O1', 'space': 'S2'}]}"},
+      {"{'readFeatures': [{'space': 'S1'}, {'space': 'S2'}]}", "{'readFeatures': [{'owner': 'O1', 'space': 'S3'}]}"},
+      {"{'readFeatures': [{'space': 'S1'}, {'owner': 'O1'}]}", "{'readFeatures': [{'space': 'S1'}, {'owner': 'O1', 'space': 'S3'}]}"},
+      {"{'readFeatures': [{'space': 'S1'}]}", "{'readFeatures': [{'owner': 'O1'}]}"},
+      {"{'readFeatures': [{'owner': 'O*'}]}", "{'readFeatures': [{'owner': 'O1', 'space': 'S1'}]}"},
+      {"{'readFeatures': [{'owner': 'O1*'}, {'space': 'S1'}]}", "{'readFeatures': [{'owner': 'O2'}]}"},
+      {"{'readFeatures': [{'packages': 'HERE'}]}", "{'readFeatures': [{'packages': ['OSM', 'HERE']}]}"},
+      {"{'readFeatures': [{'packages': 'HERE'}]}", "{'readFeatures': [{'packages': []}]}"},
+      {"{'readFeatures': [{'tags': ['restaurant', 'open24hrs']}, {'tags': 'xxl'}]}", "{'readFeatures': [{'tags': ['restaurant', 'xxl']}]}"},
+      {"{'readFeatures': [{'level': 1}, {'public': true}]}", "{'readFeatures': [{'level': 1}, {'public': true, 'level': 2}]}"},
+      {"{'readFeatures': [{'level': 1}]}", "{'readFeatures': [{'level': 1.0}]}"},
+      {"{'readFeatures': [{'space': 'S1'}], 'createFeatures': [{'space': 'S1'}]}", "{'readFeatures': [{'space': 'S1'}], 'createFeatures': []}"},
+      {"{'readFeatures': [{'space': 'S1'}]}", "{'readFeatures': [{'space': 'S1'}], 'createFeatures': [{'space': 'S1'}]}"},
+      {"{'readFeatures': [{'space': 'S1'}], 'createFeatures': [{'space': 'S1'}]}", "{'updateFeatures': [{'space': 'S1'}]}"},
+      {"{}", "{}"},
+      {"{}", "{'readFeatures': [{'space': 'S1'}]}"},
+  };
+
+  private static boolean matchesCompiled(String rights, String filter) {
+    ActionMatrix rightsMatrix = Json.decodeValue(rights.replace('\'', '"'), ActionMatrix.class).compile();
+    return rightsMatrix.matches(Json.decodeValue(filter.replace('\'', '"'), ActionMatrix.class));
+  }
+
+  private static boolean matchesLinear(String rights, String filter) {
+    ActionMatrix rightsMatrix = Json.decodeValue(rights.replace('\'', '"'), ActionMatrix.class);
+    return rightsMatrix.matches(Json.decodeValue(filter.replace('\'', '"'), ActionMatrix.class));
+  }
+
+  @Test
+  public void testCompiledMatchesLinear() {
+    for (String[] testCase : EQUIVALENCE_CASES) {
+      assertEquals(testCase[0] + " vs. " + testCase[1], matchesLinear(testCase[0], testCase[1]), matchesCompiled(testCase[0], testCase[1]));
+      assertEquals(testCase[1] + " vs. " + testCase[0], matchesLinear(testCase[1], testCase[0]), matchesCompiled(testCase[1], testCase[0]));
+    }
+  }
+
+  @Test
+  public void testCompiledMatchesLinearAfterModification() {
+    ActionMatrix rightsMatrix = Json.decodeValue("{\"readFeatures\": [{\"space\": \"S1\"}]}", ActionMatrix.class).compile();
+    ActionMatrix filterMatrix = Json.decodeValue("{\"readFeatures\": [{\"space\": \"S2\"}]}", ActionMatrix.class);
+    assertFalse(rightsMatrix.matches(filterMatrix));
+
+    rightsMatrix.addAction("readFeatures", new AttributeMap() {{ put("space", "S2"); }});
+    assertTrue(rightsMatrix.matches(filterMatrix));
+
+    rightsMatrix.compile();
+    assertTrue(rightsMatrix.matches(filterMatrix));
+    rightsMatrix.remove("readFeatures");
+    assertFalse(rightsMatrix.matches(filterMatrix));
+  }
+
+  private static final List<String> KEYS = Arrays.asList("owner", "space", "packages", "tags");
+  private static final List<Object> VALUES = Arrays.asList("A", "B", "C", "A*", "*", 1, 1L, 2, true);
+
+  private static Object randomValue(Random random, boolean allowList) {
+    if (allowList && random.nextInt(4) == 0) {
+      final List<Object> values = new ArrayList<>();
+      for (int i = random.nextInt(3); i >= 0; i--)
+        values.add(VALUES.get(random.nextInt(VALUES.size())));
+      return random.nextBoolean() ? values : new JsonArray(values);
+    }
+    return VALUES.get(random.nextInt(VALUES.size()));
+  }
+
+  private static AttributeMap randomAttributeMap(Random random, int maxSize) {
+    final AttributeMap attributeMap = new AttributeMap();
+    for (int i = random.nextInt(maxSize + 1); i > 0; i--)
+      attributeMap.put(KEYS.get(random.nextInt(KEYS.size())), randomValue(random, true));
+    return attributeMap;
+  }
+
+  private static ActionMatrix randomMatrix(Random random, int maxSize) {
+    final ActionMatrix matrix = new ActionMatrix();
+    for (String action : Arrays.asList("readFeatures", "updateFeatures")) {
+      if (random.nextInt(4) == 0) continue;
+      final List<AttributeMap> attributeMaps = new ArrayList<>();
+      for (int i = random.nextInt(4); i >= 0; i--)
+        attributeMaps.add(randomAttributeMap(random, maxSize));
+      matrix.put(action, attributeMaps);
+    }
+    return matrix;
+  }
+
+  @Test
+  public void testCompiledMatchesLinearRandomized() {
+    final Random random = new Random(4711);
+    for (int i = 0; i < 20_000; i++) {
+      //Rights mostly consist of maps with one attribute, so that they get indexed
+      final ActionMatrix rightsMatrix = randomMatrix(random, random.nextInt(3) == 0 ? 2 : 1);
+      final ActionMatrix filterMatrix = randomMatrix(random, 3);
+
+      final boolean linear = rightsMatrix.matches(filterMatrix);
+      assertEquals(rightsMatrix + " vs. " + filterMatrix, linear, rightsMatrix.compile().matches(filterMatrix));
+    }
+  }
 }
@@ -0,0 +1,250 @@
+/*
+ * Copyright (C) 2017-2022 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.here.xyz.events.PropertiesQuery;
+import com.here.xyz.events.PropertyQuery;
+import com.here.xyz.events.PropertyQuery.QueryOperation;
+import com.here.xyz.events.PropertyQueryList;
+import com.here.xyz.hub.Service;
+import com.here.xyz.hub.Service.Config;
+import com.here.xyz.hub.config.SpaceConfigClient.SpaceAuthorizationCondition;
+import com.here.xyz.hub.config.SpaceConfigClient.SpaceSelectionCondition;
+import com.here.xyz.hub.connectors.models.Space;
+import io.vertx.core.Future;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.apache.logging.log4j.Marker;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class SpaceIndexTest {
+
+  private static final List<String> OWNERS = Arrays.asList("owner1", "owner2", "owner3");
+  private static final List<String> PACKAGES = Arrays.asList("package1", "package2");
+  private static final List<QueryOperation> OPERATIONS = Arrays.asList(QueryOperation.EQUALS, QueryOperation.NOT_EQUALS,
+      QueryOperation.LESS_THAN, QueryOperation.GREATER_THAN, QueryOperation.LESS_THAN_OR_EQUALS, QueryOperation.GREATER_THAN_OR_EQUALS);
+
+  private DynamoSemanticsClient client;
+  private SpaceIndex index;
+
+  @BeforeClass
+  public static void setupClass() {
+    Service.configuration = new Config();
+    Service.configuration.SPACE_INDEX_REFRESH_INTERVAL_MS = 60_000;
+    Service.configuration.SPACE_INDEX_FULL_REFRESH_INTERVAL_MS = 600_000;
+  }
+
+  @Before
+  public void setup() {
+    client = new DynamoSemanticsClient();
+    index = new SpaceIndex(client);
+  }
+
+  private void storeSpace(String id, String owner, boolean shared, List<String> packages, long contentUpdatedAt) {
+    final Space space = new Space();
+    space.setId(id);
+    space.setOwner(owner);
+    space.setShared(shared);
+    space.setPackages(packages);
+    space.setCreatedAt(1);
+    space.setUpdatedAt(1);
+    space.setContentUpdatedAt(contentUpdatedAt);
+    client.storeSpace(null, space);
+  }
+
+  private static PropertiesQuery contentUpdatedAtQuery(PropertyQuery... conditions) {
+    final PropertyQueryList conjunctions = new PropertyQueryList();
+    conjunctions.addAll(Arrays.asList(conditions));
+    final PropertiesQuery propsQuery = new PropertiesQuery();
+    propsQuery.add(conjunctions);
+    return propsQuery;
+  }
+
+  private static PropertyQuery condition(QueryOperation operation, Object... values) {
+    return new PropertyQuery()
+        .withKey(SpaceConfigClient.CONTENT_UPDATED_AT)
+        .withOperation(operation)
+        .withValues(Arrays.asList(values));
+  }
+
+  private Set<String> selectFromIndex(SpaceAuthorizationCondition authorizedCondition, SpaceSelectionCondition selectedCondition,
+      PropertiesQuery propsQuery) {
+    return new HashSet<>(index.select(authorizedCondition, selectedCondition, propsQuery));
+  }
+
+  private Set<String> selectFromClient(SpaceAuthorizationCondition authorizedCondition, SpaceSelectionCondition selectedCondition,
+      PropertiesQuery propsQuery) {
+    return client.getSelectedSpaces(null, authorizedCondition, selectedCondition, propsQuery).result().stream()
+        .map(Space::getId)
+        .collect(Collectors.toSet());
+  }
+
+  @Test
+  public void contentUpdatedAtConditionsAreOred() {
+    storeSpace("space100", "owner1", false, null, 100);
+    storeSpace("space200", "owner1", false, null, 200);
+    storeSpace("space300", "owner1", false, null, 300);
+    assertTrue(index.refresh().succeeded());
+
+    final SpaceAuthorizationCondition authorizedCondition = new SpaceAuthorizationCondition();
+    final SpaceSelectionCondition selectedCondition = new SpaceSelectionCondition();
+    final PropertiesQuery propsQuery = contentUpdatedAtQuery(condition(QueryOperation.LESS_THAN, 150),
+        condition(QueryOperation.GREATER_THAN, 250));
+
+    final Set<String> expected = new HashSet<>(Arrays.asList("space100", "space300"));
+    assertEquals(expected, selectFromClient(authorizedCondition, selectedCondition, propsQuery));
+    assertEquals(expected, selectFromIndex(authorizedCondition, selectedCondition, propsQuery));
+
+    final PropertiesQuery multiValueQuery = contentUpdatedAtQuery(condition(QueryOperation.EQUALS, 100, "200"));
+    assertEquals(new HashSet<>(Arrays.asList("space100", "space200")), selectFromIndex(authorizedCondition, selectedCondition,
+        multiValueQuery));
+  }
+
+  @Test
+  public void selectionMatchesConfigClient() {
+    final Random random = new Random(42);
+    for (int i = 0; i < 40; i++) {
+      storeSpace("space" + i, OWNERS.get(random.nextInt(OWNERS.size())), random.nextBoolean(),
+          random.nextBoolean() ? null : Collections.singletonList(PACKAGES.get(random.nextInt(PACKAGES.size()))),
+          100 * (1 + random.nextInt(5)));
+    }
+    assertTrue(index.refresh().succeeded());
+
+    for (int i = 0; i < 500; i++) {
+      final SpaceAuthorizationCondition authorizedCondition = new SpaceAuthorizationCondition();
+      authorizedCondition.spaceIds = randomSubset(random, 40, "space");
+      authorizedCondition.ownerIds = randomSubset(random, OWNERS);
+      authorizedCondition.packages = randomSubset(random, PACKAGES);
+
+      //The selection by packages is not supported by DynamoSpaceConfigClient, so it is not compared here
+      final SpaceSelectionCondition selectedCondition = new SpaceSelectionCondition();
+      selectedCondition.spaceIds = randomSubset(random, 40, "space");
+      selectedCondition.ownerIds = randomSubset(random, OWNERS);
+      selectedCondition.shared = random.nextBoolean();
+      selectedCondition.negateOwnerIds = random.nextBoolean();
+
+      PropertiesQuery propsQuery = null;
+      if (random.nextBoolean()) {
+        final PropertyQuery[] conditions = new PropertyQuery[1 + random.nextInt(2)];
+        for (int c = 0; c < conditions.length; c++)
+          conditions[c] = condition(OPERATIONS.get(random.nextInt(OPERATIONS.size())), 100 * (1 + random.nextInt(5)));
+        propsQuery = contentUpdatedAtQuery(conditions);
+      }
+
+      assertEquals("Selection " + i + " differs", selectFromClient(authorizedCondition, selectedCondition, propsQuery),
+          selectFromIndex(authorizedCondition, selectedCondition, propsQuery));
+    }
+  }
+
+  private static Set<String> randomSubset(Random random, List<String> values) {
+    if (random.nextInt(3) == 0) return null;
+    return values.stream().filter(v -> random.nextInt(3) == 0).collect(Collectors.toSet());
+  }
+
+  private static Set<String> randomSubset(Random random, int count, String prefix) {
+    if (random.nextInt(3) == 0) return null;
+    final Set<String> subset = new HashSet<>();
+    for (int i = 0; i < count; i++) {
+      if (random.nextInt(8) == 0)
+        subset.add(prefix + i);
+    }
+    return subset;
+  }
+
+  /**
+   * Resolves the conditions the same way as {@link DynamoSpaceConfigClient} does, but on the spaces held in memory.
+   */
+  private static class DynamoSemanticsClient extends InMemSpaceConfigClient {
+
+    @Override
+    protected Future<List<Space>> getSelectedSpaces(Marker marker, SpaceAuthorizationCondition authorizedCondition,
+        SpaceSelectionCondition selectedCondition, PropertiesQuery propsQuery) {
+      final List<Space> allSpaces = getSpaceIndexData(marker, 0).result();
+      final Set<String> authorizedSpaces = new HashSet<>();
+
+      if (authorizedCondition.spaceIds != null)
+        authorizedSpaces.addAll(authorizedCondition.spaceIds);
+      if (authorizedCondition.ownerIds != null)
+        allSpaces.stream().filter(s -> authorizedCondition.ownerIds.contains(s.getOwner())).forEach(s -> authorizedSpaces.add(s.getId()));
+      if (authorizedCondition.packages != null)
+        allSpaces.stream().filter(s -> s.getPackages() != null && s.getPackages().stream().anyMatch(authorizedCondition.packages::contains))
+            .forEach(s -> authorizedSpaces.add(s.getId()));
+      if (isEmpty(authorizedCondition.spaceIds) && isEmpty(authorizedCondition.ownerIds) && isEmpty(authorizedCondition.packages))
+        allSpaces.forEach(s -> authorizedSpaces.add(s.getId()));
+
+      if (selectedCondition.shared)
+        allSpaces.stream().filter(Space::isShared).forEach(s -> authorizedSpaces.add(s.getId()));
+
+      if (propsQuery != null) {
+        //All conditions of a conjunction list are ORed in the filter expression of the scan, the results of the lists get merged
+        final Set<String> contentUpdatedSpaces = new HashSet<>();
+        propsQuery.forEach(conjunctions -> allSpaces.stream()
+            .filter(s -> conjunctions.stream().anyMatch(conj -> conj.getValues().stream()
+                .anyMatch(v -> compare(conj.getOperation(), s.getContentUpdatedAt(), Long.parseLong(String.valueOf(v))))))
+            .forEach(s -> contentUpdatedSpaces.add(s.getId())));
+        authorizedSpaces.retainAll(contentUpdatedSpaces);
+      }
+
+      if (!isEmpty(selectedCondition.spaceIds))
+        authorizedSpaces.retainAll(selectedCondition.spaceIds);
+
+      if (!isEmpty(selectedCondition.ownerIds)) {
+        final Set<String> ownersSpaces = allSpaces.stream().filter(s -> selectedCondition.ownerIds.contains(s.getOwner()))
+            .map(Space::getId).collect(Collectors.toSet());
+        authorizedSpaces.removeIf(id -> !selectedCondition.negateOwnerIds ^ ownersSpaces.contains(id));
+      }
+
+      return getSpaces(marker, authorizedSpaces);
+    }
+
+    private static boolean isEmpty(Set<String> set) {
+      return set == null || set.isEmpty();
+    }
+
+    private static boolean compare(QueryOperation operation, long contentUpdatedAt, long value) {
+      switch (operation) {
+        case EQUALS:
+          return contentUpdatedAt == value;
+        case NOT_EQUALS:
+          return contentUpdatedAt != value;
+        case LESS_THAN:
+          return contentUpdatedAt < value;
+        case GREATER_THAN:
+          return contentUpdatedAt > value;
+        case LESS_THAN_OR_EQUALS:
+          return contentUpdatedAt <= value;
+        case GREATER_THAN_OR_EQUALS:
+          return contentUpdatedAt >= value;
+        default:
+          return false;
+      }
+    }
+  }
+}
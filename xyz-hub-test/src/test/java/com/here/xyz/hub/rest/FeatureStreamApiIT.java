@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2017-2022 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.rest;
+
+import static com.here.xyz.hub.rest.Api.HeaderValues.APPLICATION_GEO_JSON;
+import static com.jayway.restassured.RestAssured.given;
+import static io.netty.handler.codec.http.HttpResponseStatus.BAD_REQUEST;
+import static io.netty.handler.codec.http.HttpResponseStatus.OK;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.hasSize;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runners.MethodSorters;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+@Category(RestTests.class)
+public class FeatureStreamApiIT extends TestSpaceWithFeature {
+
+  private static final String APPLICATION_GEO_JSON_SEQ = "application/geo+json-seq";
+  private static final String APPLICATION_X_NDJSON = "application/x-ndjson";
+  private static final char RS = 0x1E;
+
+  @BeforeClass
+  public static void setupClass() {
+    remove();
+  }
+
+  @Before
+  public void setup() {
+    remove();
+    createSpace();
+  }
+
+  @After
+  public void tearDown() {
+    remove();
+  }
+
+  private static String feature(String id) {
+    return "{\"type\":\"Feature\",\"id\":\"" + id + "\",\"geometry\":{\"type\":\"Point\",\"coordinates\":[-2.96,53.43]},"
+        + "\"properties\":{\"name\":\"" + id + "\"}}";
+  }
+
+  @Test
+  public void putNewlineDelimitedFeatures() {
+    given().
+        contentType(APPLICATION_X_NDJSON).
+        accept(APPLICATION_GEO_JSON).
+        headers(getAuthHeaders(AuthProfile.ACCESS_OWNER_1_ADMIN)).
+        body(feature("F1") + "\n" + feature("F2") + "\n" + feature("F3") + "\n").
+        when().
+        put(getSpacesPath() + "/x-psql-test/features").
+        then().
+        statusCode(OK.code()).
+        body("inserted", hasSize(3)).
+        body("inserted", hasItems("F1", "F2", "F3"));
+
+    countFeatures(3);
+  }
+
+  @Test
+  public void putFeatureCollectionSequence() {
+    final String featureCollection = "{\"features\":[" + feature("F1") + "," + feature("F2") + "],\"type\":\"FeatureCollection\"}";
+
+    given().
+        contentType(APPLICATION_GEO_JSON_SEQ).
+        accept(APPLICATION_GEO_JSON).
+        headers(getAuthHeaders(AuthProfile.ACCESS_OWNER_1_ADMIN)).
+        body(RS + featureCollection + "\n" + RS + feature("F3") + "\n").
+        when().
+        put(getSpacesPath() + "/x-psql-test/features").
+        then().
+        statusCode(OK.code()).
+        body("inserted", hasSize(3)).
+        body("inserted", hasItems("F1", "F2", "F3"));
+
+    countFeatures(3);
+  }
+
+  @Test
+  public void putInvalidRecord() {
+    given().
+        contentType(APPLICATION_X_NDJSON).
+        accept(APPLICATION_GEO_JSON).
+        headers(getAuthHeaders(AuthProfile.ACCESS_OWNER_1_ADMIN)).
+        body("[" + feature("F1") + "]\n").
+        when().
+        put(getSpacesPath() + "/x-psql-test/features").
+        then().
+        statusCode(BAD_REQUEST.code());
+  }
+
+  @Test
+  public void putInvalidFeaturesArrayElement() {
+    given().
+        contentType(APPLICATION_X_NDJSON).
+        accept(APPLICATION_GEO_JSON).
+        headers(getAuthHeaders(AuthProfile.ACCESS_OWNER_1_ADMIN)).
+        body("{\"type\":\"FeatureCollection\",\"features\":[1]}\n").
+        when().
+        put(getSpacesPath() + "/x-psql-test/features").
+        then().
+        statusCode(BAD_REQUEST.code());
+  }
+
+  @Test
+  public void putMalformedJson() {
+    given().
+        contentType(APPLICATION_X_NDJSON).
+        accept(APPLICATION_GEO_JSON).
+        headers(getAuthHeaders(AuthProfile.ACCESS_OWNER_1_ADMIN)).
+        body(feature("F1") + "\n{\"type\":\"Feature\",\n").
+        when().
+        put(getSpacesPath() + "/x-psql-test/features").
+        then().
+        statusCode(BAD_REQUEST.code());
+  }
+}
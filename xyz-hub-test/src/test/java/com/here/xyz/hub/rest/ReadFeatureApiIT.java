@@ -39,6 +39,7 @@ import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 import com.jayway.restassured.response.Response;
 import com.vividsolutions.jts.geom.Coordinate;
@@ -52,7 +53,10 @@ import io.vertx.core.json.JsonObject;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
@@ -298,6 +302,71 @@ public class ReadFeatureApiIT extends TestSpaceWithFeature {
         body("features.size()", equalTo(52));
   }
 
+  @Test
+  public void testIterateSpaceWithoutDuplicates() {
+    Set<String> ids = new HashSet<>();
+    String handle = null;
+    do {
+      Response response = given().
+          accept(APPLICATION_GEO_JSON).
+          headers(getAuthHeaders(AuthProfile.ACCESS_OWNER_1_ADMIN)).
+          when().
+          get(getSpacesPath() + "/x-psql-test/iterate?limit=30" + (handle == null ? "" : "&handle=" + handle)).
+          then().
+          statusCode(OK.code()).
+          extract().
+          response();
+
+      List<String> pageIds = response.path("features.id");
+      pageIds.forEach(id -> assertTrue("Feature " + id + " was returned twice", ids.add(id)));
+      handle = response.path("handle");
+    }
+    while (handle != null);
+
+    assertEquals(252, ids.size());
+  }
+
+  @Test
+  public void testExportSpaceInPartitions() {
+    String body = given().
+        headers(getAuthHeaders(AuthProfile.ACCESS_OWNER_1_ADMIN)).
+        when().
+        get(getSpacesPath() + "/x-psql-test/export?partitions=3&limit=20").
+        then().
+        statusCode(OK.code()).
+        extract().
+        asString();
+
+    Set<String> ids = new HashSet<>();
+    for (String line : body.split("\n"))
+      assertTrue("Feature was exported twice", ids.add(new JsonObject(line).getString("id")));
+    assertEquals(252, ids.size());
+  }
+
+  @Test
+  public void testIterateSpaceWithLegacyHandle() {
+    //Plain numeric handles (as created by older versions) are still interpreted as an offset
+    given().
+        accept(APPLICATION_GEO_JSON).
+        headers(getAuthHeaders(AuthProfile.ACCESS_OWNER_1_ADMIN)).
+        when().
+        get(getSpacesPath() + "/x-psql-test/iterate?limit=100&handle=200").
+        then().
+        statusCode(OK.code()).
+        body("handle", nullValue()).
+        body("features.size()", equalTo(52));
+
+    given().
+        accept(APPLICATION_GEO_JSON).
+        headers(getAuthHeaders(AuthProfile.ACCESS_OWNER_1_ADMIN)).
+        when().
+        get(getSpacesPath() + "/x-psql-test/iterate?limit=100&handle=100").
+        then().
+        statusCode(OK.code()).
+        body("handle", equalTo("200")).
+        body("features.size()", equalTo(100));
+  }
+
   @Test
   public void testIterateSpaceWithEtag() {
     String etag =
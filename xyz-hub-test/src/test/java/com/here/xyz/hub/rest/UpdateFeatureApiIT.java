@@ -22,10 +22,12 @@ package com.here.xyz.hub.rest;
 import static com.here.xyz.hub.rest.Api.HeaderValues.APPLICATION_GEO_JSON;
 import static com.jayway.restassured.RestAssured.given;
 import static io.netty.handler.codec.http.HttpResponseStatus.BAD_REQUEST;
+import static io.netty.handler.codec.http.HttpResponseStatus.CONFLICT;
 import static io.netty.handler.codec.http.HttpResponseStatus.NOT_FOUND;
 import static io.netty.handler.codec.http.HttpResponseStatus.OK;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.nullValue;
 
 import com.here.xyz.XyzSerializable;
 import com.here.xyz.models.geojson.coordinates.LineStringCoordinates;
@@ -35,6 +37,8 @@ import com.here.xyz.models.geojson.implementation.Feature;
 import com.here.xyz.models.geojson.implementation.FeatureCollection;
 import com.here.xyz.models.geojson.implementation.LineString;
 import com.here.xyz.models.geojson.implementation.Point;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.UUID;
 import org.junit.After;
 import org.junit.Before;
@@ -152,6 +156,112 @@ public class UpdateFeatureApiIT extends TestSpaceWithFeature {
         body("properties.'@ns:com:here:xyz'.tags", hasItems("stadium", "baseball"));
   }
 
+  @Test
+  public void replaceOrCreateFeatures_put() throws Exception {
+    Feature existing = XyzSerializable.deserialize(content("/xyz/hub/updateFeature.json"));
+    existing.setId("Q2838923");
+    Feature created = XyzSerializable.deserialize(content("/xyz/hub/updateFeature.json"));
+    created.setId("Q2838926");
+
+    given().
+        accept(APPLICATION_GEO_JSON).
+        contentType(APPLICATION_GEO_JSON).
+        headers(getAuthHeaders(AuthProfile.ACCESS_OWNER_1_ADMIN)).
+        body(XyzSerializable.serialize(new FeatureCollection().withFeatures(Arrays.asList(existing, created)))).
+        when().
+        put(getSpacesPath() + "/x-psql-test/features?e=replace&ne=create").
+        then().
+        statusCode(OK.code()).
+        body("inserted", equalTo(Collections.singletonList("Q2838926"))).
+        body("updated", equalTo(Collections.singletonList("Q2838923")));
+  }
+
+  @Test
+  public void mergePatchFeatures_post() {
+    given().
+        accept(APPLICATION_GEO_JSON).
+        contentType(APPLICATION_GEO_JSON).
+        headers(getAuthHeaders(AuthProfile.ACCESS_OWNER_1_ADMIN)).
+        body("{\"type\":\"FeatureCollection\",\"features\":[{\"type\":\"Feature\",\"id\":\"Q2838923\","
+            + "\"properties\":{\"occupant\":null,\"capacity\":1}}]}").
+        when().
+        post(getSpacesPath() + "/x-psql-test/features?e=patch&ne=retain").
+        then().
+        statusCode(OK.code()).
+        body("features[0].properties.capacity", equalTo(1)).
+        body("features[0].properties.occupant", nullValue()).
+        body("features[0].properties.name", equalTo("Estadio Universidad San Marcos"));
+  }
+
+  @Test
+  public void mergePatchFeatures_uuidConflict_post() {
+    given().
+        accept(APPLICATION_GEO_JSON).
+        contentType(APPLICATION_GEO_JSON).
+        headers(getAuthHeaders(AuthProfile.ACCESS_OWNER_1_ADMIN)).
+        body("{\"type\":\"FeatureCollection\",\"features\":[{\"type\":\"Feature\",\"id\":\"Q2838923\","
+            + "\"properties\":{\"capacity\":1,\"@ns:com:here:xyz\":{\"uuid\":\"" + UUID.randomUUID() + "\"}}}]}").
+        when().
+        post(getSpacesPath() + "/x-psql-test/features?e=patch&ne=retain").
+        then().
+        statusCode(CONFLICT.code());
+
+    assertCapacityUnchanged();
+  }
+
+  @Test
+  public void mergePatchFeatures_missingError_post() {
+    given().
+        accept(APPLICATION_GEO_JSON).
+        contentType(APPLICATION_GEO_JSON).
+        headers(getAuthHeaders(AuthProfile.ACCESS_OWNER_1_ADMIN)).
+        body("{\"type\":\"FeatureCollection\",\"features\":["
+            + "{\"type\":\"Feature\",\"id\":\"Q2838923\",\"properties\":{\"capacity\":1}},"
+            + "{\"type\":\"Feature\",\"id\":\"Q0000001\",\"properties\":{\"capacity\":1}}]}").
+        when().
+        post(getSpacesPath() + "/x-psql-test/features?e=patch&ne=error").
+        then().
+        statusCode(CONFLICT.code());
+
+    //The patch of the existing feature got rolled back
+    assertCapacityUnchanged();
+  }
+
+  @Test
+  public void mergePatchFeatures_missingCreate_post() {
+    given().
+        accept(APPLICATION_GEO_JSON).
+        contentType(APPLICATION_GEO_JSON).
+        headers(getAuthHeaders(AuthProfile.ACCESS_OWNER_1_ADMIN)).
+        body("{\"type\":\"FeatureCollection\",\"features\":[{\"type\":\"Feature\",\"id\":\"Q0000001\","
+            + "\"geometry\":{\"type\":\"Point\",\"coordinates\":[-77.075,-12.057]},\"properties\":{\"capacity\":1}}]}").
+        when().
+        post(getSpacesPath() + "/x-psql-test/features?e=patch&ne=create").
+        then().
+        statusCode(OK.code()).
+        body("inserted", equalTo(Collections.singletonList("Q0000001")));
+
+    given().
+        accept(APPLICATION_GEO_JSON).
+        headers(getAuthHeaders(AuthProfile.ACCESS_OWNER_1_ADMIN)).
+        when().
+        get(getSpacesPath() + "/x-psql-test/features/Q0000001").
+        then().
+        statusCode(OK.code()).
+        body("properties.capacity", equalTo(1));
+  }
+
+  private void assertCapacityUnchanged() {
+    given().
+        accept(APPLICATION_GEO_JSON).
+        headers(getAuthHeaders(AuthProfile.ACCESS_OWNER_1_ADMIN)).
+        when().
+        get(getSpacesPath() + "/x-psql-test/features/Q2838923").
+        then().
+        statusCode(OK.code()).
+        body("properties.capacity", equalTo(67469));
+  }
+
   @Test
   public void updateNonExistingSpace_put() {
     given().
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2017-2022 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.task;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.here.xyz.hub.Service;
+import com.here.xyz.hub.Service.Config;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class AdmissionControllerTest {
+
+  private static final long MB = 1024 * 1024;
+
+  @BeforeClass
+  public static void setupClass() {
+    Service.configuration = new Config();
+    Service.configuration.GLOBAL_INFLIGHT_REQUEST_MEMORY_SIZE_MB = 10;
+    Service.configuration.GLOBAL_INFLIGHT_REQUEST_MEMORY_HIGH_UTILIZATION_THRESHOLD = 0.5f;
+  }
+
+  @Test
+  public void admitsRequestBiggerThanBudgetIfNothingIsAdmitted() {
+    assertTrue(AdmissionController.canAdmit(0, 0, 20 * MB, 0.1));
+    assertFalse(AdmissionController.canAdmit(1 * MB, 0, 20 * MB, 0.1));
+  }
+
+  @Test
+  public void admitsRequestBelowUtilizationThreshold() {
+    assertTrue(AdmissionController.canAdmit(2 * MB, 2 * MB, 1 * MB, 0.1));
+  }
+
+  @Test
+  public void admitsOneOverShareRequestPerStorage() {
+    //Another storage takes 6MB, the request exceeds the share of 1MB of its own storage, which has nothing admitted yet
+    assertTrue(AdmissionController.canAdmit(6 * MB, 0, 3 * MB, 0.1));
+    //Once the storage has something admitted, it's limited to its share again
+    assertFalse(AdmissionController.canAdmit(7 * MB, 1 * MB, 2 * MB, 0.1));
+    assertTrue(AdmissionController.canAdmit(7 * MB, 1 * MB, 2 * MB, 0.5));
+  }
+
+  @Test
+  public void rejectsOverShareRequestExceedingGlobalBudget() {
+    assertFalse(AdmissionController.canAdmit(8 * MB, 0, 3 * MB, 0.1));
+  }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2017-2020 HERE Europe B.V.
+ * Copyright (C) 2017-2022 HERE Europe B.V.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,7 @@ package com.here.xyz.hub.task;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
@@ -35,14 +36,22 @@ import com.here.xyz.models.geojson.implementation.Feature;
 import io.vertx.core.json.JsonObject;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.junit.Test;
 
 public class ModifyFeatureOpTest {
 
+  private static final int PARALLEL_ENTRY_COUNT = 50;
+  private static final List<Integer> FAILING_ENTRIES = Arrays.asList(13, 31);
+
   @Test
   public void patch() {
   }
@@ -147,4 +156,84 @@ public class ModifyFeatureOpTest {
       e.printStackTrace();
     }
   }
+
+  @Test
+  public void processInParallelMatchesSequential() throws Exception {
+    final ModifyFeatureOp sequentialOp = parallelTestOp(false);
+    sequentialOp.process();
+
+    final ModifyFeatureOp parallelOp = parallelTestOp(false);
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      parallelOp.process(executor, 7).get();
+    }
+    finally {
+      executor.shutdown();
+    }
+
+    for (int i = 0; i < PARALLEL_ENTRY_COUNT; i++) {
+      final Entry<Feature> expected = sequentialOp.entries.get(i);
+      final Entry<Feature> actual = parallelOp.entries.get(i);
+      assertEquals("Result of entry " + i, toJson(expected.result), toJson(actual.result));
+      assertEquals("isModified of entry " + i, expected.isModified, actual.isModified);
+      assertEquals("Exception of entry " + i, message(expected.exception), message(actual.exception));
+    }
+    for (int i : FAILING_ENTRIES)
+      assertNotNull(parallelOp.entries.get(i).exception);
+  }
+
+  @Test
+  public void processInParallelFailsWithEarliestError() throws Exception {
+    final ModifyFeatureOp sequentialOp = parallelTestOp(true);
+    final ModifyOpError sequentialError = assertThrows(ModifyOpError.class, sequentialOp::process);
+
+    //Run the chunks in reverse order, so that the later failing entry gets processed first
+    final List<Runnable> chunks = new ArrayList<>();
+    final CompletableFuture<Void> result = parallelTestOp(true).process(chunks::add, 5);
+    Collections.reverse(chunks);
+    chunks.forEach(Runnable::run);
+
+    final Throwable parallelError = assertThrows(ExecutionException.class, result::get).getCause();
+    assertTrue(parallelError instanceof ModifyOpError);
+    assertEquals(sequentialError.getMessage(), parallelError.getMessage());
+    assertTrue(parallelError.getMessage().contains("F" + FAILING_ENTRIES.get(0)));
+  }
+
+  /**
+   * Creates an operation with entries which get created, replaced or stay unmodified. The entries of FAILING_ENTRIES provide a UUID which
+   * doesn't match the one of their head state.
+   */
+  private static ModifyFeatureOp parallelTestOp(boolean isTransactional) throws IOException {
+    final List<Map<String, Object>> features = new ArrayList<>();
+    for (int i = 0; i < PARALLEL_ENTRY_COUNT; i++) {
+      final String uuid = FAILING_ENTRIES.contains(i) ? "wrong-uuid" : null;
+      final String name = i % 3 == 2 ? "name" + i : "changed" + i;
+      features.add(JsonObject.mapFrom(feature("F" + i, name, uuid)).getMap());
+    }
+    Map<String, Object> featureCollection = Collections.singletonMap("features", features);
+
+    ModifyFeatureOp op = new ModifyFeatureOp(Collections.singletonList(Collections.singletonMap("featureData", featureCollection)),
+        IfNotExists.CREATE, IfExists.MERGE, isTransactional, ConflictResolution.ERROR);
+    for (int i = 0; i < PARALLEL_ENTRY_COUNT; i++) {
+      final Entry<Feature> entry = op.entries.get(i);
+      if (i % 3 != 0) {
+        entry.head = feature("F" + i, "name" + i, "uuid" + i);
+        entry.base = entry.head;
+      }
+    }
+    return op;
+  }
+
+  private static Feature feature(String id, String name, String uuid) throws IOException {
+    final String ns = uuid == null ? "" : ",\"@ns:com:here:xyz\":{\"uuid\":\"" + uuid + "\"}";
+    return XyzSerializable.deserialize("{\"type\":\"Feature\",\"id\":\"" + id + "\",\"properties\":{\"name\":\"" + name + "\"" + ns + "}}");
+  }
+
+  private static JsonObject toJson(Feature feature) {
+    return feature == null ? null : JsonObject.mapFrom(feature);
+  }
+
+  private static String message(Exception e) {
+    return e == null ? null : e.getMessage();
+  }
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2017-2022 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+import org.junit.Test;
+
+public class HeavyHittersTest {
+
+  @Test
+  public void invalidCapacity() {
+    assertThrows(IllegalArgumentException.class, () -> new HeavyHitters<String, String>(0));
+  }
+
+  @Test
+  public void offerSignalsRepeatedKeys() {
+    HeavyHitters<String, String> hitters = new HeavyHitters<>(10);
+    assertFalse(hitters.offer("a"));
+    assertTrue(hitters.offer("a"));
+    hitters.setValue("a", "A");
+    assertFalse(hitters.offer("a"));
+    assertEquals(Collections.singletonList("A"), hitters.top(10));
+  }
+
+  @Test
+  public void topIsOrderedByCount() {
+    HeavyHitters<String, String> hitters = new HeavyHitters<>(10);
+    offer(hitters, "a", 3);
+    offer(hitters, "b", 5);
+    offer(hitters, "c", 4);
+    offer(hitters, "d", 2);
+    //Keys without a value are not returned
+    hitters.setValue("a", "A");
+    hitters.setValue("b", "B");
+    hitters.setValue("c", "C");
+
+    assertEquals(Arrays.asList("B", "C", "A"), hitters.top(10));
+    assertEquals(Arrays.asList("B", "C"), hitters.top(2));
+  }
+
+  @Test
+  public void capacityIsBounded() {
+    HeavyHitters<String, String> hitters = new HeavyHitters<>(3);
+    offer(hitters, "a", 10);
+    offer(hitters, "b", 5);
+    offer(hitters, "c", 1);
+    assertEquals(3, hitters.size());
+
+    //The least frequent key gets replaced and its count is inherited
+    assertFalse(hitters.offer("d"));
+    assertEquals(3, hitters.size());
+    hitters.setValue("a", "A");
+    hitters.setValue("b", "B");
+    hitters.setValue("c", "C");
+    hitters.setValue("d", "D");
+    assertEquals(Arrays.asList("A", "B", "D"), hitters.top(10));
+  }
+
+  @Test
+  public void decayRemovesRareKeys() {
+    HeavyHitters<String, String> hitters = new HeavyHitters<>(10);
+    offer(hitters, "a", 4);
+    offer(hitters, "b", 1);
+    offer(hitters, "c", 3);
+    hitters.setValue("a", "A");
+    hitters.setValue("c", "C");
+
+    hitters.decay();
+    assertEquals(2, hitters.size());
+    assertEquals(Arrays.asList("A", "C"), hitters.top(10));
+
+    //After the decay "c" overtakes "a"
+    offer(hitters, "c", 2);
+    assertEquals(Arrays.asList("C", "A"), hitters.top(10));
+  }
+
+  @Test
+  public void findsHeavyHittersInSkewedStream() {
+    final int k = 10;
+    HeavyHitters<Integer, Integer> hitters = new HeavyHitters<>(10 * k);
+    Random random = new Random(1);
+    for (int i = 0; i < 100_000; i++) {
+      //Half of the requests go to the 10 hot keys, the rest is spread over 10000 keys
+      int key = random.nextBoolean() ? random.nextInt(k) : k + random.nextInt(10_000);
+      if (hitters.offer(key))
+        hitters.setValue(key, key);
+    }
+
+    assertEquals(10 * k, hitters.size());
+    for (int key : hitters.top(k))
+      assertTrue("Unexpected key " + key, key < k);
+  }
+
+  private static void offer(HeavyHitters<String, String> hitters, String key, int times) {
+    for (int i = 0; i < times; i++)
+      hitters.offer(key);
+  }
+}
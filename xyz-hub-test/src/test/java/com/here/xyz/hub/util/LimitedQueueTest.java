@@ -28,6 +28,7 @@ import com.here.xyz.hub.Service.Config;
 import com.here.xyz.hub.util.LimitedOffHeapQueue.OffHeapBuffer;
 import com.here.xyz.hub.util.LimitedOffHeapQueue.PayloadVanishedException;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.List;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -46,10 +47,16 @@ public class LimitedQueueTest {
 
   public class TestElement extends OffHeapBuffer {
 
+    long deadline = Long.MAX_VALUE;
+
     TestElement(int byteSize) {
       super(new byte[byteSize]);
     }
 
+    TestElement(int byteSize, long deadline) {
+      this(byteSize);
+      this.deadline = deadline;
+    }
   }
 
   private <E extends ByteSizeAware> LimitedQueue<E> getQueueInstance(long maxSize,
@@ -63,6 +70,17 @@ public class LimitedQueueTest {
     }
   }
 
+  private <E extends ByteSizeAware> LimitedQueue<E> getQueueInstance(long maxSize,
+      long maxByteSize, int laneCount) {
+    try {
+      return getQueueClass().getConstructor(Long.TYPE, Long.TYPE, Integer.TYPE).newInstance(maxSize, maxByteSize, laneCount);
+    }
+    catch (NoSuchMethodException | InstantiationException | IllegalAccessException | InvocationTargetException e) {
+      e.printStackTrace();
+      return null;
+    }
+  }
+
   @Test
   public void addTooLargeElement() {
     LimitedQueue<TestElement> queue = getQueueInstance(3, 100);
@@ -211,6 +229,77 @@ public class LimitedQueueTest {
     assertEquals("Expected was that element 2 was discarded second.", element2, discarded.get(1));
   }
 
+  @Test
+  public void removeByLanePriority() {
+    LimitedQueue<TestElement> queue = getQueueInstance(10, 100, 2);
+    TestElement lowPriority1 = new TestElement(1);
+    TestElement lowPriority2 = new TestElement(1);
+    TestElement highPriority = new TestElement(1);
+
+    queue.add(lowPriority1, 1);
+    queue.add(lowPriority2, 1);
+    queue.add(highPriority, 0);
+
+    assertEquals("Expected was that the element of the first lane is removed first.", highPriority, queue.remove());
+    assertEquals("Expected was that the oldest element of the second lane is removed next.", lowPriority1, queue.remove());
+    assertEquals(lowPriority2, queue.remove());
+    assertNull(queue.remove());
+  }
+
+  @Test
+  public void discardLowestPriorityLaneFirst() {
+    LimitedQueue<TestElement> queue = getQueueInstance(2, 100, 2);
+    TestElement highPriority = new TestElement(1);
+    TestElement lowPriority = new TestElement(1);
+
+    queue.add(highPriority, 0);
+    queue.add(lowPriority, 1);
+
+    TestElement newHighPriority = new TestElement(1);
+    List<TestElement> discarded = queue.add(newHighPriority, 0);
+    assertEquals("Expected was that one element is discarded.", 1, discarded.size());
+    assertEquals("Expected was that the element of the lower priority lane is discarded.", lowPriority, discarded.get(0));
+    assertEquals("Expected were 2 elements.", 2, queue.getSize());
+
+    TestElement newLowPriority = new TestElement(1);
+    discarded = queue.add(newLowPriority, 1);
+    assertEquals("Expected was that only the new element is discarded.", 1, discarded.size());
+    assertEquals("Elements with a higher priority must not be discarded for the new element.", newLowPriority, discarded.get(0));
+    assertEquals(highPriority, queue.remove());
+    assertEquals(newHighPriority, queue.remove());
+  }
+
+  @Test
+  public void removeDropsExpiredElements() {
+    LimitedQueue<TestElement> queue = getQueueInstance(10, 100);
+    long now = System.currentTimeMillis();
+    TestElement expired1 = new TestElement(1, now - 2000);
+    TestElement expired2 = new TestElement(1, now - 1000);
+    TestElement valid = new TestElement(1, now + 60000);
+    TestElement expired3 = new TestElement(1, now - 1000);
+
+    queue.add(expired1);
+    queue.add(expired2);
+    queue.add(valid);
+    queue.add(expired3);
+
+    List<TestElement> dropped = new ArrayList<>();
+    TestElement removed = queue.remove(e -> e.deadline < now, dropped::add);
+    assertEquals("Expected was that the first element within its deadline is returned.", valid, removed);
+    assertEquals("Expected was that the expired elements in front of it are dropped.", 2, dropped.size());
+    assertEquals(expired1, dropped.get(0));
+    assertEquals(expired2, dropped.get(1));
+    assertEquals("Expected was 1 element.", 1, queue.getSize());
+    assertEquals("Expected was 1 byte.", 1, queue.getByteSize());
+
+    removed = queue.remove(e -> e.deadline < now, dropped::add);
+    assertNull("Expected was that no element is returned, if all remaining elements are expired.", removed);
+    assertEquals(3, dropped.size());
+    assertEquals(expired3, dropped.get(2));
+    assertEquals("Expected were 0 elements.", 0, queue.getSize());
+    assertEquals("Expected were 0 bytes.", 0, queue.getByteSize());
+  }
+
   @Test
   public void consumePayload() throws PayloadVanishedException {
     LimitedQueue<TestElement> queue = getQueueInstance(3, 100);
@@ -2,6 +2,8 @@ package com.here.xyz.events;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.here.xyz.util.StructuralHasher;
 
 @JsonInclude(Include.NON_DEFAULT)
 public abstract class ContextAwareEvent<T extends ContextAwareEvent> extends Event<T> {
@@ -46,4 +48,9 @@ public abstract class ContextAwareEvent<T extends ContextAwareEvent> extends Eve
     return (T) this;
   }
 
+  @Override
+  protected void hashCacheProperties(StructuralHasher hasher) throws JsonProcessingException {
+    super.hashCacheProperties(hasher);
+    hasher.put(context);
+  }
 }
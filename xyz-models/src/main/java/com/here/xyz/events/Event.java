@@ -24,9 +24,16 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonView;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.common.hash.Hasher;
 import com.here.xyz.Payload;
+import com.here.xyz.util.StructuralHasher;
+import java.nio.charset.Charset;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * The base class of all events that are sent by the XYZ Hub to a "procedure". All events extend this event. All "procedures" can be sure to
@@ -50,6 +57,7 @@ import java.util.Map;
     @JsonSubTypes.Type(value = TransformEvent.class, name = "TransformEvent"),
     @JsonSubTypes.Type(value = RelocatedEvent.class, name = "RelocatedEvent"),
     @JsonSubTypes.Type(value = EventNotification.class, name = "EventNotification"),
+    @JsonSubTypes.Type(value = EventNotificationBatch.class, name = "EventNotificationBatch"),
     @JsonSubTypes.Type(value = DeleteFeaturesByTagEvent.class, name = "DeleteFeaturesByTagEvent"),
     @JsonSubTypes.Type(value = SearchForFeaturesEvent.class, name = "SearchForFeaturesEvent"),
     @JsonSubTypes.Type(value = IterateFeaturesEvent.class, name = "IterateFeaturesEvent"),
@@ -69,6 +77,13 @@ import java.util.Map;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public abstract class Event<T extends Event> extends Payload {
 
+  /**
+   * The event types, which are sent frequently for reading and therefore feed their cache relevant properties directly into the hasher.
+   */
+  private static final Set<Class<?>> STRUCTURALLY_HASHED_EVENTS = new HashSet<>(Arrays.asList(GetFeaturesByTileEvent.class,
+      GetFeaturesByBBoxEvent.class, GetFeaturesByGeometryEvent.class, SearchForFeaturesEvent.class, IterateFeaturesEvent.class,
+      GetFeaturesByIdEvent.class));
+
   @JsonView(ExcludeFromHash.class)
   private Map<String, Object> connectorParams;
   @JsonView(ExcludeFromHash.class)
@@ -343,6 +358,33 @@ public abstract class Event<T extends Event> extends Payload {
     return (T) this;
   }
 
+  /**
+   * Feeds all properties of this event, which have an influence on the response, into the given hasher.
+   * The frequently sent read events feed their properties directly, all other events fall back to the {@link #getCacheString() cache
+   * string}. Both ways result in different hashes, but in both cases two events result in the same hash, if their cache strings are
+   * equal. The directly fed properties are hashed independently of the order of map entries.
+   *
+   * @param hasher the hasher to feed.
+   */
+  public void putCacheProperties(Hasher hasher) throws JsonProcessingException {
+    if (!STRUCTURALLY_HASHED_EVENTS.contains(getClass())) {
+      hasher.putString(getCacheString(), Charset.defaultCharset());
+      return;
+    }
+    final StructuralHasher structuralHasher = new StructuralHasher(hasher).put(getClass().getName());
+    hashCacheProperties(structuralHasher);
+  }
+
+  /**
+   * Feeds the cache relevant properties of this event into the given hasher. Sub-classes of the structurally hashed events, which add
+   * properties that are not annotated with {@link ExcludeFromHash}, must override this method and call the super implementation first.
+   *
+   * @param hasher the hasher to feed.
+   */
+  protected void hashCacheProperties(StructuralHasher hasher) throws JsonProcessingException {
+    hasher.put(trustedParams).put(space).put(metadata);
+  }
+
   public static class TrustedParams extends HashMap<String, Object> {
     public static final String COOKIES = "cookies";
     public static final String HEADERS = "headers";
@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2017-2022 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.events;
+
+import java.util.List;
+
+/**
+ * Will be sent by the XYZ Hub to listener connectors which declared the capability to receive batched notifications.
+ * Instead of sending one {@link EventNotification} per listener and event, the notifications of several requests for the same
+ * listener connector are collected and sent together.
+ * The contained notifications are ordered by the time they have been collected, but they might belong to different spaces.
+ */
+public class EventNotificationBatch extends Event<EventNotificationBatch> {
+
+  private List<EventNotification> notifications;
+
+  public List<EventNotification> getNotifications() {
+    return notifications;
+  }
+
+  @SuppressWarnings("unused")
+  public void setNotifications(List<EventNotification> notifications) {
+    this.notifications = notifications;
+  }
+
+  @SuppressWarnings("unused")
+  public EventNotificationBatch withNotifications(List<EventNotification> notifications) {
+    setNotifications(notifications);
+    return this;
+  }
+}
@@ -21,7 +21,9 @@ package com.here.xyz.events;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonTypeName;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.here.xyz.models.geojson.coordinates.BBox;
+import com.here.xyz.util.StructuralHasher;
 import java.util.Map;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
@@ -148,4 +150,10 @@ public class GetFeaturesByBBoxEvent<T extends GetFeaturesByBBoxEvent> extends Sp
     //noinspection unchecked
     return (T) this;
   }
+
+  @Override
+  protected void hashCacheProperties(StructuralHasher hasher) throws JsonProcessingException {
+    super.hashCacheProperties(hasher);
+    hasher.put(bbox).put(clusteringType).put(clusteringParams).put(tweakType).put(tweakParams).put(optimizationMode).put(vizSampling);
+  }
 }
@@ -21,7 +21,9 @@ package com.here.xyz.events;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonTypeName;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.here.xyz.models.geojson.implementation.Geometry;
+import com.here.xyz.util.StructuralHasher;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 @JsonTypeName(value = "GetFeaturesByGeometryEvent")
@@ -74,4 +76,9 @@ public class GetFeaturesByGeometryEvent extends SpatialQueryEvent<GetFeaturesByG
     return this;
   }
 
+  @Override
+  protected void hashCacheProperties(StructuralHasher hasher) throws JsonProcessingException {
+    super.hashCacheProperties(hasher);
+    hasher.put(radius).put(geometry).put(h3Index);
+  }
 }
@@ -21,6 +21,8 @@ package com.here.xyz.events;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonTypeName;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.here.xyz.util.StructuralHasher;
 import java.util.List;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
@@ -42,4 +44,10 @@ public final class GetFeaturesByIdEvent extends SelectiveEvent<GetFeaturesByIdEv
     setIds(ids);
     return this;
   }
+
+  @Override
+  protected void hashCacheProperties(StructuralHasher hasher) throws JsonProcessingException {
+    super.hashCacheProperties(hasher);
+    hasher.put(ids);
+  }
 }
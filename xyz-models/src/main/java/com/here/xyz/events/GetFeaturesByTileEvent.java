@@ -23,6 +23,8 @@ import static com.here.xyz.events.GetFeaturesByTileEvent.ResponseType.GEO_JSON;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonTypeName;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.here.xyz.util.StructuralHasher;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 @JsonTypeName(value = "GetFeaturesByTileEvent")
@@ -148,6 +150,12 @@ public final class GetFeaturesByTileEvent extends GetFeaturesByBBoxEvent<GetFeat
     return this;
   }
 
+  @Override
+  protected void hashCacheProperties(StructuralHasher hasher) throws JsonProcessingException {
+    super.hashCacheProperties(hasher);
+    hasher.put(level).put(x).put(y).put(quadkey).put(margin).put(responseType).put(hereTileFlag);
+  }
+
   @SuppressWarnings("unused")
   public enum ResponseType {
     GEO_JSON, MVT, MVT_FLATTENED
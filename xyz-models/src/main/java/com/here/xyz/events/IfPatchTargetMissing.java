@@ -0,0 +1,22 @@
+package com.here.xyz.events;
+
+
+/**
+ * Defines what the storage should do, if the feature to be patched does not exist.
+ */
+public enum IfPatchTargetMissing {
+    RETAIN,
+    ERROR,
+    CREATE;
+
+    public static IfPatchTargetMissing of(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
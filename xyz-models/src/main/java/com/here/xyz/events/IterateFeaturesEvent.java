@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2017-2019 HERE Europe B.V.
+ * Copyright (C) 2017-2022 HERE Europe B.V.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,8 @@ package com.here.xyz.events;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonTypeName;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.here.xyz.util.StructuralHasher;
 import java.util.List;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
@@ -105,4 +107,10 @@ public final class IterateFeaturesEvent extends SearchForFeaturesEvent<IterateFe
   public void setOffset(long offset) {
     this.offset = offset;
   }
+
+  @Override
+  protected void hashCacheProperties(StructuralHasher hasher) throws JsonProcessingException {
+    super.hashCacheProperties(hasher);
+    hasher.put(handle).put(v).put(sort).put(part).put(offset);
+  }
 }
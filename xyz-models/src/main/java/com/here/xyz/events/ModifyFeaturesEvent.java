@@ -50,6 +50,9 @@ public final class ModifyFeaturesEvent extends ContextAwareEvent<ModifyFeaturesE
   private List<Feature> insertFeatures;
   private List<Feature> updateFeatures;
   private List<Feature> upsertFeatures;
+  @JsonInclude(content = Include.ALWAYS)
+  private List<Map<String, Object>> patchFeatures;
+  private IfPatchTargetMissing ifPatchTargetMissing;
   @JsonInclude(Include.ALWAYS)
   private Map<String, String> deleteFeatures;
   private Boolean transaction;
@@ -128,6 +131,50 @@ public final class ModifyFeaturesEvent extends ContextAwareEvent<ModifyFeaturesE
     return this;
   }
 
+  /**
+   * Returns the list of all patches to be applied by the storage. Each patch is a JSON merge patch (RFC 7386) which contains the ID of the
+   * feature to be patched. A member with a null value removes the respective member of the feature. If the XYZ namespace of a patch
+   * contains a UUID, the patch must only be applied if the feature still has that UUID.
+   *
+   * @return the list of all patches to be applied.
+   */
+  @SuppressWarnings("unused")
+  public List<Map<String, Object>> getPatchFeatures() {
+    return this.patchFeatures;
+  }
+
+  @SuppressWarnings("WeakerAccess")
+  public void setPatchFeatures(List<Map<String, Object>> patchFeatures) {
+    this.patchFeatures = patchFeatures;
+  }
+
+  @SuppressWarnings("unused")
+  public ModifyFeaturesEvent withPatchFeatures(List<Map<String, Object>> patchFeatures) {
+    setPatchFeatures(patchFeatures);
+    return this;
+  }
+
+  /**
+   * Returns what the storage should do with patches for features which do not exist.
+   *
+   * @return what the storage should do with patches for features which do not exist.
+   */
+  @SuppressWarnings("unused")
+  public IfPatchTargetMissing getIfPatchTargetMissing() {
+    return this.ifPatchTargetMissing;
+  }
+
+  @SuppressWarnings("WeakerAccess")
+  public void setIfPatchTargetMissing(IfPatchTargetMissing ifPatchTargetMissing) {
+    this.ifPatchTargetMissing = ifPatchTargetMissing;
+  }
+
+  @SuppressWarnings("unused")
+  public ModifyFeaturesEvent withIfPatchTargetMissing(IfPatchTargetMissing ifPatchTargetMissing) {
+    setIfPatchTargetMissing(ifPatchTargetMissing);
+    return this;
+  }
+
   /**
    * Returns the IDs map of the features to be deleted. That is a map where the key contains the unique ID of the feature to be deleted. The
    * value is the state hash or null, if the HEAD state should be deleted.
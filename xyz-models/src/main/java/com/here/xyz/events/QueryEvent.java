@@ -19,6 +19,9 @@
 
 package com.here.xyz.events;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.here.xyz.util.StructuralHasher;
+
 public abstract class QueryEvent<T extends QueryEvent> extends SelectiveEvent<T> {
 
   private TagsQuery tags;
@@ -53,4 +56,10 @@ public abstract class QueryEvent<T extends QueryEvent> extends SelectiveEvent<T>
     setPropertiesQuery(propertiesQuery);
     return (T)this;
   }
+
+  @Override
+  protected void hashCacheProperties(StructuralHasher hasher) throws JsonProcessingException {
+    super.hashCacheProperties(hasher);
+    hasher.put(tags).put(propertiesQuery);
+  }
 }
@@ -19,6 +19,8 @@
 
 package com.here.xyz.events;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.here.xyz.util.StructuralHasher;
 import java.util.List;
 
 public class SelectiveEvent<T extends SelectiveEvent> extends ContextAwareEvent<T> {
@@ -88,4 +90,10 @@ public class SelectiveEvent<T extends SelectiveEvent> extends ContextAwareEvent<
     //noinspection unchecked
     return (T) this;
   }
+
+  @Override
+  protected void hashCacheProperties(StructuralHasher hasher) throws JsonProcessingException {
+    super.hashCacheProperties(hasher);
+    hasher.put(selection).put(force2D).put(ref).put(author);
+  }
 }
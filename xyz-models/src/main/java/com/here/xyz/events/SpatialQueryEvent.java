@@ -20,6 +20,8 @@
 package com.here.xyz.events;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.here.xyz.util.StructuralHasher;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 public abstract class SpatialQueryEvent<T extends SpatialQueryEvent> extends SearchForFeaturesEvent<T> {
@@ -42,4 +44,10 @@ public abstract class SpatialQueryEvent<T extends SpatialQueryEvent> extends Sea
     //noinspection unchecked
     return (T) this;
   }
+
+  @Override
+  protected void hashCacheProperties(StructuralHasher hasher) throws JsonProcessingException {
+    super.hashCacheProperties(hasher);
+    hasher.put(clip);
+  }
 }
@@ -130,6 +130,13 @@ public class Space {
   @JsonView({Internal.class, Static.class})
   private int cacheTTL = -1;
 
+  /**
+   * Whether the most requested tiles of this space should be written into the cache in the background, after its content was modified.
+   */
+  @JsonInclude(Include.NON_DEFAULT)
+  @JsonView({Internal.class, Static.class})
+  private boolean prewarmTiles;
+
   /**
    * An arbitrary client configuration with hints or settings for the client, for example rendering instructions.
    */
@@ -401,6 +408,19 @@ public class Space {
     return this;
   }
 
+  public boolean isPrewarmTiles() {
+    return prewarmTiles;
+  }
+
+  public void setPrewarmTiles(final boolean prewarmTiles) {
+    this.prewarmTiles = prewarmTiles;
+  }
+
+  public Space withPrewarmTiles(final boolean prewarmTiles) {
+    setPrewarmTiles(prewarmTiles);
+    return this;
+  }
+
   public Map<String, Object> getClient() {
     return client;
   }
@@ -703,6 +723,14 @@ public class Space {
     @JsonInclude(Include.NON_NULL)
     private Integer order;
 
+    /**
+     * Only applicable for processors. Whether the processor is independent of the other commutative processors being called next to it.
+     * Adjacent commutative processors are called concurrently with the same payload and only the result of the last one of them is passed
+     * on. So only processors which do not modify the payload (e.g. validating or auditing processors) should be flagged as commutative.
+     */
+    @JsonInclude(Include.NON_DEFAULT)
+    private boolean commutative;
+
     @SuppressWarnings("WeakerAccess")
     public List<String> getEventTypes() {
       return eventTypes;
@@ -732,6 +760,21 @@ public class Space {
       setOrder(order);
       return this;
     }
+
+    public boolean isCommutative() {
+      return commutative;
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    public void setCommutative(final boolean commutative) {
+      this.commutative = commutative;
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    public ListenerConnectorRef withCommutative(final boolean commutative) {
+      setCommutative(commutative);
+      return this;
+    }
   }
 
   /**
@@ -48,6 +48,8 @@ public class ConnectorStatus extends XyzResponse<ConnectorStatus> {
 
   private Map<String,MaintenanceStatus> maintenanceStatus;
 
+  private Map<String,PoolStatus> pools;
+
   public void setInitialized(boolean initialized) {
     this.initialized = initialized;
   }
@@ -100,6 +102,19 @@ public class ConnectorStatus extends XyzResponse<ConnectorStatus> {
     return this;
   }
 
+  public Map<String, PoolStatus> getPools() {
+    return pools;
+  }
+
+  public void setPools(Map<String, PoolStatus> pools) {
+    this.pools = pools;
+  }
+
+  public ConnectorStatus withPools(Map<String, PoolStatus> pools) {
+    setPools(pools);
+    return this;
+  }
+
   public static class MaintenanceStatus{
     private long maintainedAt;
     private Set<String> maintenanceRunning;
@@ -120,4 +135,139 @@ public class ConnectorStatus extends XyzResponse<ConnectorStatus> {
       this.maintenanceRunning = maintenanceRunning;
     }
   }
+
+  /**
+   * The status of one connection pool of a connector.
+   * The acquisition values are counted since the pool was created, except the maximum acquire time, which is measured since the
+   * previous status request.
+   */
+  @JsonInclude(JsonInclude.Include.ALWAYS)
+  public static class PoolStatus {
+    private String implementation;
+    private int maxSize;
+    private int active;
+    private int idle;
+    private int waiting;
+    private long acquisitions;
+    private long timeouts;
+    private double avgAcquireTimeMs;
+    private double maxAcquireTimeMs;
+
+    public String getImplementation() {
+      return implementation;
+    }
+
+    public void setImplementation(String implementation) {
+      this.implementation = implementation;
+    }
+
+    public PoolStatus withImplementation(String implementation) {
+      setImplementation(implementation);
+      return this;
+    }
+
+    public int getMaxSize() {
+      return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+      this.maxSize = maxSize;
+    }
+
+    public PoolStatus withMaxSize(int maxSize) {
+      setMaxSize(maxSize);
+      return this;
+    }
+
+    public int getActive() {
+      return active;
+    }
+
+    public void setActive(int active) {
+      this.active = active;
+    }
+
+    public PoolStatus withActive(int active) {
+      setActive(active);
+      return this;
+    }
+
+    public int getIdle() {
+      return idle;
+    }
+
+    public void setIdle(int idle) {
+      this.idle = idle;
+    }
+
+    public PoolStatus withIdle(int idle) {
+      setIdle(idle);
+      return this;
+    }
+
+    public int getWaiting() {
+      return waiting;
+    }
+
+    public void setWaiting(int waiting) {
+      this.waiting = waiting;
+    }
+
+    public PoolStatus withWaiting(int waiting) {
+      setWaiting(waiting);
+      return this;
+    }
+
+    public long getAcquisitions() {
+      return acquisitions;
+    }
+
+    public void setAcquisitions(long acquisitions) {
+      this.acquisitions = acquisitions;
+    }
+
+    public PoolStatus withAcquisitions(long acquisitions) {
+      setAcquisitions(acquisitions);
+      return this;
+    }
+
+    public long getTimeouts() {
+      return timeouts;
+    }
+
+    public void setTimeouts(long timeouts) {
+      this.timeouts = timeouts;
+    }
+
+    public PoolStatus withTimeouts(long timeouts) {
+      setTimeouts(timeouts);
+      return this;
+    }
+
+    public double getAvgAcquireTimeMs() {
+      return avgAcquireTimeMs;
+    }
+
+    public void setAvgAcquireTimeMs(double avgAcquireTimeMs) {
+      this.avgAcquireTimeMs = avgAcquireTimeMs;
+    }
+
+    public PoolStatus withAvgAcquireTimeMs(double avgAcquireTimeMs) {
+      setAvgAcquireTimeMs(avgAcquireTimeMs);
+      return this;
+    }
+
+    public double getMaxAcquireTimeMs() {
+      return maxAcquireTimeMs;
+    }
+
+    public void setMaxAcquireTimeMs(double maxAcquireTimeMs) {
+      this.maxAcquireTimeMs = maxAcquireTimeMs;
+    }
+
+    public PoolStatus withMaxAcquireTimeMs(double maxAcquireTimeMs) {
+      setMaxAcquireTimeMs(maxAcquireTimeMs);
+      return this;
+    }
+  }
 }
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2017-2022 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.common.hash.Hasher;
+import com.here.xyz.XyzSerializable;
+import com.here.xyz.events.PropertyQuery;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Feeds values into a {@link Hasher} according to their structure, so that no intermediate serialization is needed to calculate a hash.
+ * Each value is prefixed by a marker of its type and strings, maps and collections are prefixed by their size, so that different
+ * structures never result in the same sequence of bytes. The entries of maps are hashed in the order of their keys, so that equal maps
+ * result in the same hash regardless of their iteration order.
+ * Values of types, which are not known to this class, are hashed by their sorted JSON serialization.
+ */
+public class StructuralHasher {
+
+  private static final byte NULL = 0;
+  private static final byte STRING = 1;
+  private static final byte BOOLEAN = 2;
+  private static final byte INTEGRAL = 3;
+  private static final byte DECIMAL = 4;
+  private static final byte BIG_NUMBER = 5;
+  private static final byte ENUM = 6;
+  private static final byte MAP = 7;
+  private static final byte COLLECTION = 8;
+  private static final byte PROPERTY_QUERY = 9;
+  private static final byte SERIALIZED = 10;
+
+  private final Hasher hasher;
+
+  public StructuralHasher(Hasher hasher) {
+    this.hasher = hasher;
+  }
+
+  public StructuralHasher put(Object value) throws JsonProcessingException {
+    if (value == null) {
+      hasher.putByte(NULL);
+    }
+    else if (value instanceof String) {
+      putString(STRING, (String) value);
+    }
+    else if (value instanceof Boolean) {
+      hasher.putByte(BOOLEAN).putBoolean((Boolean) value);
+    }
+    else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+      hasher.putByte(INTEGRAL).putLong(((Number) value).longValue());
+    }
+    else if (value instanceof Double || value instanceof Float) {
+      hasher.putByte(DECIMAL).putDouble(((Number) value).doubleValue());
+    }
+    else if (value instanceof BigDecimal || value instanceof BigInteger) {
+      putString(BIG_NUMBER, value.toString());
+    }
+    else if (value instanceof Enum) {
+      putString(ENUM, ((Enum<?>) value).name());
+    }
+    else if (value instanceof Map) {
+      final Map<?, ?> map = (Map<?, ?>) value;
+      hasher.putByte(MAP).putInt(map.size());
+      final List<Entry<?, ?>> entries = new ArrayList<>(map.entrySet());
+      entries.sort((e1, e2) -> String.valueOf(e1.getKey()).compareTo(String.valueOf(e2.getKey())));
+      for (Entry<?, ?> entry : entries) {
+        put(entry.getKey());
+        put(entry.getValue());
+      }
+    }
+    else if (value instanceof Collection) {
+      final Collection<?> collection = (Collection<?>) value;
+      hasher.putByte(COLLECTION).putInt(collection.size());
+      for (Object element : collection)
+        put(element);
+    }
+    else if (value instanceof Object[]) {
+      final Object[] array = (Object[]) value;
+      hasher.putByte(COLLECTION).putInt(array.length);
+      for (Object element : array)
+        put(element);
+    }
+    else if (value instanceof PropertyQuery) {
+      final PropertyQuery propertyQuery = (PropertyQuery) value;
+      hasher.putByte(PROPERTY_QUERY);
+      put(propertyQuery.getKey()).put(propertyQuery.getOperation()).put(propertyQuery.getValues());
+    }
+    else {
+      putString(SERIALIZED, value.getClass().getName());
+      putString(SERIALIZED, XyzSerializable.SORTED_MAPPER.get().writeValueAsString(value));
+    }
+    return this;
+  }
+
+  private void putString(byte type, String value) {
+    hasher.putByte(type).putInt(value.length()).putUnencodedChars(value);
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2017-2022 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.events;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.here.xyz.XyzSerializable;
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the calculation of cache keys by hashing the sorted serialization of an event with feeding its properties directly into the
+ * hasher.
+ * Run it from the IDE or with the test classpath, e.g.: java -cp ... com.here.xyz.events.CacheKeyBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheKeyBenchmark {
+
+  private GetFeaturesByTileEvent tileEvent;
+  private IterateFeaturesEvent iterateEvent;
+
+  @Setup
+  public void setup() throws Exception {
+    tileEvent = XyzSerializable.deserialize(CacheKeyBenchmark.class.getResourceAsStream("/com/here/xyz/test/GetFeaturesByTileEvent.json"));
+    iterateEvent = new IterateFeaturesEvent().withSpace("my-space").withLimit(1000).withHandle("1000");
+  }
+
+  @Benchmark
+  public String tileEventCacheString() throws Exception {
+    return cacheStringKey(tileEvent);
+  }
+
+  @Benchmark
+  public String tileEventStructural() throws Exception {
+    return structuralKey(tileEvent);
+  }
+
+  @Benchmark
+  public String iterateEventCacheString() throws Exception {
+    return cacheStringKey(iterateEvent);
+  }
+
+  @Benchmark
+  public String iterateEventStructural() throws Exception {
+    return structuralKey(iterateEvent);
+  }
+
+  private static String cacheStringKey(Event<?> event) throws Exception {
+    //noinspection UnstableApiUsage
+    return Hashing.murmur3_128().newHasher().putString(event.getCacheString(), Charset.defaultCharset()).hash().toString();
+  }
+
+  private static String structuralKey(Event<?> event) throws Exception {
+    //noinspection UnstableApiUsage
+    final Hasher hasher = Hashing.murmur3_128().newHasher();
+    event.putCacheProperties(hasher);
+    return hasher.hash().toString();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(CacheKeyBenchmark.class.getSimpleName()).build()).run();
+  }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2017-2019 HERE Europe B.V.
+ * Copyright (C) 2017-2022 HERE Europe B.V.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -29,12 +29,24 @@ import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import com.here.xyz.XyzSerializable;
+import com.here.xyz.events.ContextAwareEvent.SpaceContext;
 import com.here.xyz.events.Event.TrustedParams;
+import com.here.xyz.events.GetFeaturesByTileEvent.ResponseType;
+import com.here.xyz.events.PropertyQuery.QueryOperation;
+import com.here.xyz.models.geojson.coordinates.BBox;
 import com.here.xyz.models.geojson.implementation.LazyParsedFeatureCollectionTest;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.nio.charset.Charset;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 import org.junit.Test;
 
 public class EventTest {
@@ -115,4 +127,141 @@ public class EventTest {
     assertFalse(event.getTrustedParams().isEmpty());
     assertTrue(event.getTrustedParams().keySet().containsAll(Arrays.asList("cookies", "headers", "queryParams", "customKey")));
   }
+
+  @Test
+  public void checkStructuralCacheKey() throws Exception {
+    GetFeaturesByTileEvent event1 = XyzSerializable
+        .deserialize(LazyParsedFeatureCollectionTest.class.getResourceAsStream("/com/here/xyz/test/GetFeaturesByTileEvent.json"));
+    GetFeaturesByTileEvent event2 = XyzSerializable
+        .deserialize(LazyParsedFeatureCollectionTest.class.getResourceAsStream("/com/here/xyz/test/GetFeaturesByTileEvent2.json"));
+    GetFeaturesByTileEvent event3 = XyzSerializable
+        .deserialize(LazyParsedFeatureCollectionTest.class.getResourceAsStream("/com/here/xyz/test/GetFeaturesByTileEvent3.json"));
+
+    assertEquals(cacheKey(event1), cacheKey(event2));
+    assertNotEquals(cacheKey(event1), cacheKey(event3));
+    assertEquals(cacheKey(event1), cacheKey(XyzSerializable.copy(event1)));
+    assertEquals(cacheKey(event1), cacheKey(event1.withStreamId("another-stream").withParams(Collections.singletonMap("a", 1))));
+  }
+
+  @Test
+  public void checkStructuralCacheKeyOfTileEvent() throws Exception {
+    final Supplier<GetFeaturesByTileEvent> base = () -> new GetFeaturesByTileEvent()
+        .withSpace("my-space")
+        .withBbox(new BBox(13.0, 52.0, 13.5, 52.5))
+        .withLevel(12).withX(2200).withY(1343).withQuadkey("120210233222")
+        .withTags(TagsQuery.fromQueryParameter(Collections.singletonList("a,b")))
+        .withPropertiesQuery(propertiesQuery("p.name", QueryOperation.EQUALS, "x"))
+        .withLimit(100);
+
+    assertCacheKeysConsistent(base, Arrays.asList(
+        () -> base.get().withSpace("other-space"),
+        () -> base.get().withMetadata(Collections.singletonMap("a", 1)),
+        () -> base.get().withContext(SpaceContext.EXTENSION),
+        () -> base.get().withSelection(Collections.singletonList("p.name")),
+        () -> base.get().withForce2D(true),
+        () -> base.get().withRef("1"),
+        () -> base.get().withAuthor("someone"),
+        () -> base.get().withTags(TagsQuery.fromQueryParameter(Collections.singletonList("a+b"))),
+        () -> base.get().withPropertiesQuery(propertiesQuery("p.name", QueryOperation.NOT_EQUALS, "x")),
+        () -> base.get().withPropertiesQuery(propertiesQuery("p.name", QueryOperation.EQUALS, 1)),
+        () -> base.get().withLimit(101),
+        () -> base.get().withClip(true),
+        () -> base.get().withBbox(new BBox(13.0, 52.0, 13.5, 52.6)),
+        () -> base.get().withClusteringType("hexbin"),
+        () -> base.get().withClusteringParams(Collections.singletonMap("resolution", 5)),
+        () -> base.get().withTweakType("sampling"),
+        () -> base.get().withTweakParams(Collections.singletonMap("strength", "low")),
+        () -> base.get().withOptimizationMode("viz"),
+        () -> base.get().withVizSampling("high"),
+        () -> base.get().withLevel(13),
+        () -> base.get().withX(2201),
+        () -> base.get().withY(1344),
+        () -> base.get().withQuadkey("120210233223"),
+        () -> base.get().withMargin(20),
+        () -> base.get().withResponseType(ResponseType.MVT),
+        () -> base.get().withHereTileFlag(true)
+    ));
+  }
+
+  @Test
+  public void checkStructuralCacheKeyOfIterateAndIdEvents() throws Exception {
+    final Supplier<IterateFeaturesEvent> iterate = () -> new IterateFeaturesEvent().withSpace("my-space").withLimit(10);
+    assertCacheKeysConsistent(iterate, Arrays.asList(
+        () -> iterate.get().withHandle("abc"),
+        () -> iterate.get().withV(2),
+        () -> iterate.get().withSort(Collections.singletonList("p.name")),
+        () -> iterate.get().withPart(new Integer[]{1, 2}),
+        () -> {
+          IterateFeaturesEvent event = iterate.get();
+          event.setOffset(5);
+          return event;
+        }
+    ));
+
+    final Supplier<GetFeaturesByIdEvent> byId = () -> new GetFeaturesByIdEvent().withSpace("my-space").withIds(Arrays.asList("a", "b"));
+    assertCacheKeysConsistent(byId, Arrays.asList(
+        () -> byId.get().withIds(Arrays.asList("b", "a")),
+        () -> byId.get().withIds(Collections.singletonList("ab")),
+        () -> byId.get().withTrustedParams(new TrustedParams())
+    ));
+  }
+
+  @Test
+  public void checkStructuralCacheKeyIsIndependentOfMapOrder() throws Exception {
+    final Map<String, Object> params1 = new LinkedHashMap<>();
+    params1.put("resolution", 5);
+    params1.put("property", "p.name");
+    params1.put("nested", Collections.singletonMap("a", 1));
+    final Map<String, Object> params2 = new LinkedHashMap<>();
+    params2.put("nested", Collections.singletonMap("a", 1));
+    params2.put("property", "p.name");
+    params2.put("resolution", 5);
+
+    final Supplier<GetFeaturesByTileEvent> base = () -> new GetFeaturesByTileEvent().withSpace("my-space").withLevel(12);
+    final GetFeaturesByTileEvent event1 = base.get().withClusteringParams(params1).withMetadata(params1);
+    final GetFeaturesByTileEvent event2 = base.get().withClusteringParams(params2).withMetadata(params2);
+
+    //The cache strings differ, as the sorted mapper keeps the insertion order of the map entries
+    assertEquals(cacheKey(event1), cacheKey(event2));
+    assertNotEquals(cacheKey(event1), cacheKey(base.get().withClusteringParams(Collections.singletonMap("resolution", 5))
+        .withMetadata(params1)));
+  }
+
+  @Test
+  public void checkCacheKeyFallback() throws Exception {
+    final GetStatisticsEvent event = new GetStatisticsEvent().withSpace("my-space");
+    //noinspection UnstableApiUsage
+    final String expected = Hashing.murmur3_128().newHasher().putString(event.getCacheString(), Charset.defaultCharset()).hash().toString();
+    assertEquals(expected, cacheKey(event));
+  }
+
+  private static PropertiesQuery propertiesQuery(String key, QueryOperation operation, Object value) {
+    final PropertyQueryList propertyQueryList = new PropertyQueryList();
+    propertyQueryList.add(new PropertyQuery().withKey(key).withOperation(operation).withValues(Collections.singletonList(value)));
+    final PropertiesQuery propertiesQuery = new PropertiesQuery();
+    propertiesQuery.add(propertyQueryList);
+    return propertiesQuery;
+  }
+
+  /**
+   * Asserts that the structural cache key of each variant differs from the one of the base event exactly if their cache strings differ.
+   * Also asserts that the cache keys of two separately created base events are equal.
+   */
+  private static <E extends Event<?>> void assertCacheKeysConsistent(Supplier<E> base, List<Supplier<E>> variants) throws Exception {
+    final E baseEvent = base.get();
+    assertEquals(cacheKey(baseEvent), cacheKey(base.get()));
+    for (Supplier<E> variant : variants) {
+      final E variantEvent = variant.get();
+      final boolean sameCacheString = baseEvent.getCacheString().equals(variantEvent.getCacheString());
+      assertEquals("Inconsistent cache key for " + variantEvent.getCacheString(), sameCacheString,
+          cacheKey(baseEvent).equals(cacheKey(variantEvent)));
+    }
+  }
+
+  private static String cacheKey(Event<?> event) throws Exception {
+    //noinspection UnstableApiUsage
+    final Hasher hasher = Hashing.murmur3_128().newHasher();
+    event.putCacheProperties(hasher);
+    return hasher.hash().toString();
+  }
 }
@@ -40,6 +40,8 @@ import com.here.xyz.models.geojson.implementation.XyzNamespace;
 import com.here.xyz.psql.config.ConnectorParameters;
 import com.here.xyz.psql.config.DatabaseSettings;
 import com.here.xyz.psql.config.PSQLConfig;
+import com.here.xyz.psql.pool.ConnectionPool;
+import com.here.xyz.psql.pool.ConnectionPoolSettings;
 import com.here.xyz.psql.query.ExtendedSpace;
 import com.here.xyz.psql.query.ModifySpace;
 import com.here.xyz.psql.query.helpers.FetchExistingIds;
@@ -56,15 +58,15 @@ import com.here.xyz.responses.XyzResponse;
 import com.here.xyz.responses.changesets.Changeset;
 import com.here.xyz.responses.changesets.ChangesetCollection;
 import com.here.xyz.responses.changesets.CompactChangeset;
-import com.mchange.v2.c3p0.AbstractConnectionCustomizer;
-import com.mchange.v2.c3p0.ComboPooledDataSource;
-import com.mchange.v2.c3p0.PooledDataSource;
+import com.here.xyz.responses.maintenance.ConnectorStatus.PoolStatus;
+import java.io.IOException;
 import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -82,7 +84,6 @@ public abstract class DatabaseHandler extends StorageConnector {
     private static final Logger logger = LogManager.getLogger();
 
     private static final Pattern pattern = Pattern.compile("^BOX\\(([-\\d\\.]*)\\s([-\\d\\.]*),([-\\d\\.]*)\\s([-\\d\\.]*)\\)$");
-    private static final String C3P0EXT_CONFIG_SCHEMA = "config.schema()";
     public static final String HISTORY_TABLE_SUFFIX = "_hst";
 
     public static final String APPLICATION_VND_MAPBOX_VECTOR_TILE = "application/vnd.mapbox-vector-tile";
@@ -98,9 +99,18 @@ public abstract class DatabaseHandler extends StorageConnector {
     private static final String INCLUDE_OLD_STATES = "includeOldStates"; // read from event params
 
     /**
-     * The data source connections factory.
+     * The number of rows being fetched per round trip, when the result of a query gets streamed.
      */
-    private static final Map<String, PSQLConfig> dbInstanceMap = new HashMap<>();
+    private static final int STREAMING_FETCH_SIZE = 1000;
+    /**
+     * The size of the chunks in which a streamed result gets written into the output stream.
+     */
+    private static final int STREAMING_CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * The data source connections factory. The configs are cached by connector and only re-created if the connector params change.
+     */
+    private static final Map<String, DbInstance> dbInstanceMap = new ConcurrentHashMap<>();
 
     /**
      * Current event.
@@ -123,10 +133,15 @@ public abstract class DatabaseHandler extends StorageConnector {
      */
     protected DatabaseMaintainer dbMaintainer;
 
-    private final Map<String, String> replacements = new HashMap<>();
+    private Map<String, String> replacements;
 
     private boolean retryAttempted;
 
+    /**
+     * The writer for the result of the current query, if it gets streamed.
+     */
+    private FeatureStreamWriter featureStreamWriter;
+
     private static final AtomicBoolean simulatedContextInitialized = new AtomicBoolean();
 
     protected XyzResponse processHealthCheckEventImpl(HealthCheckEvent event) throws SQLException {
@@ -169,60 +184,106 @@ public abstract class DatabaseHandler extends StorageConnector {
     }
 
     @Override
-    protected synchronized void initialize(@Nonnull Event event) {
+    protected void initialize(@Nonnull Event event) {
         this.event = event;
-        this.config= new PSQLConfig(event, context, traceItem);
+        final Map<String, Object> connectorParams = event.getConnectorParams();
+        final String functionName = context.getFunctionName();
+        /** The env of a simulated context is part of the connector config of the host and may change as well */
+        final Map<String, String> env = context instanceof SimulatedContext ? ((SimulatedContext) context).getEnvironmentVariables() : null;
         String connectorId = traceItem.getConnectorId();
+        if (connectorId == null)
+            connectorId = String.valueOf(connectorParams);
 
-        if(connectorId == null) {
-            logger.warn("{} ConnectorId is missing as param in the Connector-Config! {} / {}@{}", traceItem, config.getDatabaseSettings().getDb(), config.getDatabaseSettings().getUser(), config.getDatabaseSettings().getHost());
-            connectorId =config.getConfigValuesAsString();
-        }
+        /** Lock-free lookup, the config only gets re-created if the connector params or the env have changed */
+        DbInstance dbInstance = dbInstanceMap.get(connectorId);
+        if (dbInstance == null || !dbInstance.matches(connectorParams, functionName, env))
+            dbInstance = createDbInstance(connectorId, event, connectorParams, functionName, env);
 
-        if(dbInstanceMap.get(connectorId) != null){
-            /** Check if db-params has changed*/
-            if(!dbInstanceMap.get(connectorId).getConfigValuesAsString().equalsIgnoreCase(config.getConfigValuesAsString())) {
-                logger.info("{} Config has changed -> remove dbInstance from Pool. DbInstanceMap size:{}", traceItem, dbInstanceMap.size());
-                removeDbInstanceFromMap(connectorId);
-            }else{
-                logger.debug("{} Config already loaded -> load dbInstance from Pool. DbInstanceMap size:{}", traceItem, dbInstanceMap.size());
-            }
+        this.config = dbInstance.config;
+        this.retryAttempted = false;
+        this.dataSource = config.getDataSource();
+        this.readDataSource = config.getReadDataSource();
+        if (usesScanPool(event))
+            this.readDataSource = config.getScanDataSource();
+        this.dbMaintainer = config.getDatabaseMaintainer();
+        this.replacements = null;
+
+        if (event.getPreferPrimaryDataSource() != null && event.getPreferPrimaryDataSource() == Boolean.TRUE) {
+            this.readDataSource = this.dataSource;
         }
+    }
 
-        if (dbInstanceMap.get(connectorId) == null) {
+    /**
+     * Searches and iterations can take long, so they use their own pool to not starve the short requests like id lookups.
+     * Spatial queries (bbox, tile, geometry) are short reads as well, so they stay on the read pool.
+     */
+    static boolean usesScanPool(Event event) {
+        return event instanceof SearchForFeaturesEvent && !(event instanceof SpatialQueryEvent);
+    }
+
+    private DbInstance createDbInstance(String connectorId, Event event, Map<String, Object> connectorParams, String functionName,
+        Map<String, String> env) {
+        synchronized (dbInstanceMap) {
+            DbInstance dbInstance = dbInstanceMap.get(connectorId);
+            //Another thread could have created the config in the meantime
+            if (dbInstance != null && dbInstance.matches(connectorParams, functionName, env))
+                return dbInstance;
+
+            final PSQLConfig config = new PSQLConfig(event, context, traceItem);
+            if (traceItem.getConnectorId() == null)
+                logger.warn("{} ConnectorId is missing as param in the Connector-Config! {} / {}@{}", traceItem, config.getDatabaseSettings().getDb(), config.getDatabaseSettings().getUser(), config.getDatabaseSettings().getHost());
+
+            if (dbInstance != null) {
+                /** Check if db-params has changed*/
+                if (!dbInstance.config.getConfigValuesAsString().equalsIgnoreCase(config.getConfigValuesAsString())) {
+                    logger.info("{} Config has changed -> remove dbInstance from Pool. DbInstanceMap size:{}", traceItem, dbInstanceMap.size());
+                    removeDbInstanceFromMap(connectorId);
+                }
+                else {
+                    logger.info("{} Connector params have changed -> reuse dbInstance from Pool. DbInstanceMap size:{}", traceItem, dbInstanceMap.size());
+                    config.addDataSource(dbInstance.config.getDataSource());
+                    config.addReadDataSource(dbInstance.config.getReadDataSource());
+                    config.addMaintenanceDataSource(dbInstance.config.getMaintenanceDataSource());
+                    config.addScanDataSource(dbInstance.config.getScanDataSource());
+                    config.addDatabaseMaintainer(dbInstance.config.getDatabaseMaintainer());
+                    dbInstance = new DbInstance(connectorParams, functionName, env, config);
+                    dbInstanceMap.put(connectorId, dbInstance);
+                    return dbInstance;
+                }
+            }
 
             /** Init dataSource, readDataSource ..*/
             logger.info("{} Config is missing -> add new dbInstance to Pool. DbInstanceMap size:{}", traceItem, dbInstanceMap.size());
-            final ComboPooledDataSource source = getComboPooledDataSource(config.getDatabaseSettings(), config.getConnectorParams(), config.applicationName() , false);
+            final ConnectionPool source = createConnectionPool(config, false, null);
+            final ConnectionPool maintenanceSource = createConnectionPool(config, false, config.getConnectorParams().getDbMaintenancePoolSize());
 
-            Map<String, String> m = new HashMap<>();
-            m.put(C3P0EXT_CONFIG_SCHEMA, config.getDatabaseSettings().getSchema());
-            source.setExtensions(m);
-
-            final DatabaseMaintainer dbMaintainer = new DatabaseMaintainer(source, config);
+            final DatabaseMaintainer dbMaintainer = new DatabaseMaintainer(maintenanceSource, config);
             config.addDataSource(source);
+            config.addMaintenanceDataSource(maintenanceSource);
             config.addDatabaseMaintainer(dbMaintainer);
 
-            if (config.getDatabaseSettings().getReplicaHost() != null) {
-                final ComboPooledDataSource replicaDataSource = getComboPooledDataSource(config.getDatabaseSettings(), config.getConnectorParams(),  config.applicationName() , true);
-                replicaDataSource.setExtensions(m);
-                config.addReadDataSource(replicaDataSource);
-            }
-            dbInstanceMap.put(connectorId, config);
+            if (config.getDatabaseSettings().getReplicaHost() != null)
+                config.addReadDataSource(createConnectionPool(config, true, null));
+            config.addScanDataSource(createConnectionPool(config, config.getDatabaseSettings().getReplicaHost() != null,
+                config.getConnectorParams().getDbScanPoolSize()));
+            dbInstance = new DbInstance(connectorParams, functionName, env, config);
+            dbInstanceMap.put(connectorId, dbInstance);
+            return dbInstance;
         }
+    }
 
-        this.retryAttempted = false;
-        this.dataSource = dbInstanceMap.get(connectorId).getDataSource();
-        this.readDataSource = dbInstanceMap.get(connectorId).getReadDataSource();
-        this.dbMaintainer = dbInstanceMap.get(connectorId).getDatabaseMaintainer();
-
-        if (event.getPreferPrimaryDataSource() != null && event.getPreferPrimaryDataSource() == Boolean.TRUE) {
-            this.readDataSource = this.dataSource;
-        }
+    /**
+     * Returns the replacements of the index names for the table of the current event.
+     * They are only needed for maintenance queries, so they get created lazily.
+     */
+    private Map<String, String> getIndexReplacements() {
+        if (replacements != null)
+            return replacements;
 
         String table = config.readTableFromEvent(event);
         String hstTable = table+HISTORY_TABLE_SUFFIX;
 
+        replacements = new HashMap<>();
         replacements.put("idx_deleted", "idx_" + table + "_deleted");
         replacements.put("idx_serial", "idx_" + table + "_serial");
         replacements.put("idx_id", "idx_" + table + "_id");
@@ -240,46 +301,105 @@ public abstract class DatabaseHandler extends StorageConnector {
         replacements.put("idx_hst_lastVersion", "idx_" + hstTable + "_lastVersion");
         replacements.put("idx_hst_idvsort", "idx_" + hstTable + "_idvsort");
         replacements.put("idx_hst_vidsort", "idx_" + hstTable + "_vidsort");
+        return replacements;
     }
 
     private void removeDbInstanceFromMap(String connectorId){
         synchronized (dbInstanceMap) {
-            try {
-                ((PooledDataSource) (dbInstanceMap.get(connectorId).getDataSource())).close();
-            } catch (SQLException e) {
-                logger.warn("Error while closing connections: ", e);
-            }
+            final PSQLConfig config = dbInstanceMap.get(connectorId).config;
+            closePool(config.getDataSource());
+            if (config.getReadDataSource() != config.getDataSource())
+                closePool(config.getReadDataSource());
+            if (config.getMaintenanceDataSource() != config.getDataSource())
+                closePool(config.getMaintenanceDataSource());
+            if (config.getScanDataSource() != config.getReadDataSource())
+                closePool(config.getScanDataSource());
             dbInstanceMap.remove(connectorId);
         }
     }
 
-    private ComboPooledDataSource getComboPooledDataSource(DatabaseSettings dbSettings, ConnectorParameters connectorParameters, String applicationName, boolean useReplica) {
-        final ComboPooledDataSource cpds = new ComboPooledDataSource();
-
-        cpds.setJdbcUrl(
-                DhString.format("jdbc:postgresql://%1$s:%2$d/%3$s?ApplicationName=%4$s&tcpKeepAlive=true",
-                        useReplica ? dbSettings.getReplicaHost() : dbSettings.getHost(), dbSettings.getPort(), dbSettings.getDb(), applicationName));
-
-        cpds.setUser(dbSettings.getUser());
-        cpds.setPassword(dbSettings.getPassword());
-
-        cpds.setInitialPoolSize(connectorParameters.getDbInitialPoolSize());
-        cpds.setMinPoolSize(connectorParameters.getDbMinPoolSize());
-        cpds.setMaxPoolSize(connectorParameters.getDbMaxPoolSize());
-
-        cpds.setAcquireRetryAttempts(connectorParameters.getDbAcquireRetryAttempts());
-        cpds.setAcquireIncrement(connectorParameters.getDbAcquireIncrement());
+    private static void closePool(DataSource dataSource) {
+        try {
+            ((ConnectionPool) dataSource).close();
+        } catch (Exception e) {
+            logger.warn("Error while closing connections: ", e);
+        }
+    }
 
-        cpds.setCheckoutTimeout( connectorParameters.getDbCheckoutTimeout() * 1000 );
+    /**
+     * Returns the status of the connection pools of the given connector.
+     *
+     * @param connectorId The ID of the connector.
+     * @return The status by pool ("write", "read", "maintenance", "scan") or null, if no pools have been created for the connector in this process.
+     */
+    public static Map<String, PoolStatus> getPoolStatus(String connectorId) {
+        final DbInstance dbInstance = dbInstanceMap.get(connectorId);
+        if (dbInstance == null)
+            return null;
+
+        final PSQLConfig config = dbInstance.config;
+        final Map<String, PoolStatus> poolStatus = new HashMap<>();
+        poolStatus.put("write", ((ConnectionPool) config.getDataSource()).getStatus());
+        if (config.getReadDataSource() != config.getDataSource())
+            poolStatus.put("read", ((ConnectionPool) config.getReadDataSource()).getStatus());
+        if (config.getMaintenanceDataSource() != config.getDataSource())
+            poolStatus.put("maintenance", ((ConnectionPool) config.getMaintenanceDataSource()).getStatus());
+        if (config.getScanDataSource() != config.getReadDataSource())
+            poolStatus.put("scan", ((ConnectionPool) config.getScanDataSource()).getStatus());
+        return poolStatus;
+    }
 
-        if(connectorParameters.getDbMaxIdleTime() != null)
-            cpds.setMaxIdleTime(connectorParameters.getDbMaxIdleTime());
+    /**
+     * A cached config together with the fingerprint of the connector params and the env it has been created from.
+     */
+    private static class DbInstance {
+        private final Map<String, Object> connectorParams;
+        private final String functionName;
+        private final Map<String, String> env;
+        private final PSQLConfig config;
+
+        DbInstance(Map<String, Object> connectorParams, String functionName, Map<String, String> env, PSQLConfig config) {
+            this.connectorParams = connectorParams == null ? null : new HashMap<>(connectorParams);
+            this.functionName = functionName;
+            this.env = env == null ? null : new HashMap<>(env);
+            this.config = config;
+        }
 
-        if(connectorParameters.isDbTestConnectionOnCheckout())
-            cpds.setTestConnectionOnCheckout(true);
+        boolean matches(Map<String, Object> connectorParams, String functionName, Map<String, String> env) {
+            return Objects.equals(this.connectorParams, connectorParams) && Objects.equals(this.functionName, functionName)
+                && Objects.equals(this.env, env);
+        }
+    }
 
-        cpds.setConnectionCustomizerClassName(DatabaseHandler.XyzConnectionCustomizer.class.getName());
-        return cpds;
+    /**
+     * Creates a connection pool for the connector.
+     *
+     * @param useReplica Whether the pool should connect to the replica host.
+     * @param separatePoolSize The maximum size of a pool which is used for a separate workload (e.g. maintenance queries or searches).
+     *  Such a pool is sized independently and only opens connections on demand, so that long-running queries can not starve the other
+     *  requests. If null, the pool is sized as the request pool.
+     */
+    private static ConnectionPool createConnectionPool(PSQLConfig config, boolean useReplica, Integer separatePoolSize) {
+        final DatabaseSettings dbSettings = config.getDatabaseSettings();
+        final ConnectorParameters connectorParameters = config.getConnectorParams();
+
+        return ConnectionPool.create(new ConnectionPoolSettings()
+            .withImplementation(connectorParameters.getDbPoolImplementation())
+            .withJdbcUrl(DhString.format("jdbc:postgresql://%1$s:%2$d/%3$s?ApplicationName=%4$s&tcpKeepAlive=true",
+                useReplica ? dbSettings.getReplicaHost() : dbSettings.getHost(), dbSettings.getPort(), dbSettings.getDb(), config.applicationName()))
+            .withUser(dbSettings.getUser())
+            .withPassword(dbSettings.getPassword())
+            .withInitialPoolSize(separatePoolSize != null ? 0 : connectorParameters.getDbInitialPoolSize())
+            .withMinPoolSize(separatePoolSize != null ? 0 : connectorParameters.getDbMinPoolSize())
+            .withMaxPoolSize(separatePoolSize != null ? separatePoolSize : connectorParameters.getDbMaxPoolSize())
+            .withAcquireRetryAttempts(connectorParameters.getDbAcquireRetryAttempts())
+            .withAcquireIncrement(connectorParameters.getDbAcquireIncrement())
+            .withCheckoutTimeoutMs(connectorParameters.getDbCheckoutTimeout() * 1000)
+            .withMaxIdleTime(connectorParameters.getDbMaxIdleTime())
+            .withTestConnectionOnCheckout(connectorParameters.isDbTestConnectionOnCheckout())
+            .withInitStatement("SET enable_seqscan = off;")
+            .withInitStatement("SET statement_timeout = " + (STATEMENT_TIMEOUT_SECONDS * 1000) + " ;")
+            .withInitStatement("SET search_path=" + dbSettings.getSchema() + ",h3,public,topology;"));
     }
 
     /**
@@ -309,6 +429,27 @@ public abstract class DatabaseHandler extends StorageConnector {
         return executeBinQueryWithRetry(query, true);
     }
 
+    /**
+     * Executes the query and streams the resulting features into the output stream of the request, if the host supports streaming.
+     * In that case the rows are fetched through a cursor and written in chunks, so neither the result set nor the response
+     * are held in memory completely. Otherwise, the query is executed like using {@link #executeQueryWithRetry(SQLQuery, ResultSetHandler, boolean)}.
+     *
+     * The handler must use {@link #defaultFeatureResultSetHandler(ResultSet)} to process the rows. The returned FeatureCollection
+     * of a streamed query contains no features, but only the paging information.
+     */
+    public <T> T executeStreamingQueryWithRetry(SQLQuery query, ResultSetHandler<T> handler, boolean useReadReplica) throws SQLException {
+        if (getStreamingOutput() == null)
+            return executeQueryWithRetry(query, handler, useReadReplica);
+
+        featureStreamWriter = new FeatureStreamWriter(getStreamingOutput(), STREAMING_CHUNK_SIZE, this::markResponseStreamed);
+        try {
+            return executeQueryWithRetry(query, handler, useReadReplica);
+        }
+        finally {
+            featureStreamWriter = null;
+        }
+    }
+
     /**
      *
      * Executes the query and reattempt to execute the query, after
@@ -320,6 +461,9 @@ public abstract class DatabaseHandler extends StorageConnector {
             query.replaceNamedParameters();
             return executeQuery(query, handler, useReadReplica ? readDataSource : dataSource);
         } catch (Exception e) {
+            //A partially streamed response can not be retried
+            if (isResponseStreamed())
+                throw e;
             try {
                 if (retryCausedOnServerlessDB(e) || canRetryAttempt()) {
                     logger.info("{} Retry Query permitted.", traceItem);
@@ -397,6 +541,8 @@ public abstract class DatabaseHandler extends StorageConnector {
             final String queryText = query.text();
             final List<Object> queryParameters = query.parameters();
             logger.debug("{} executeQuery: {} - Parameter: {}", traceItem, queryText, queryParameters);
+            if (featureStreamWriter != null)
+                return executeCursorQuery(queryText, queryParameters, handler, dataSource);
             return run.query(queryText, handler, queryParameters.toArray());
         } finally {
             final long end = System.currentTimeMillis();
@@ -404,6 +550,32 @@ public abstract class DatabaseHandler extends StorageConnector {
         }
     }
 
+    /**
+     * Executes the given query inside a transaction, so that the rows are fetched through a cursor in chunks of
+     * {@link #STREAMING_FETCH_SIZE} instead of loading the whole result set at once.
+     */
+    private <T> T executeCursorQuery(String queryText, List<Object> queryParameters, ResultSetHandler<T> handler, DataSource dataSource) throws SQLException {
+        final QueryRunner run = new QueryRunner(new StatementConfiguration(null, STREAMING_FETCH_SIZE, null, null, calculateTimeout()));
+
+        try (final Connection connection = dataSource.getConnection()) {
+            boolean previousAutoCommitState = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                T result = run.query(connection, queryText, handler, queryParameters.toArray());
+                if (result instanceof FeatureCollection)
+                    featureStreamWriter.finish((FeatureCollection) result);
+                return result;
+            }
+            catch (IOException e) {
+                throw new SQLException("Error while streaming the result.", e);
+            }
+            finally {
+                connection.rollback();
+                connection.setAutoCommit(previousAutoCommitState);
+            }
+        }
+    }
+
     /**
      * Executes the given update or delete query and returns the number of deleted or updated records.
      *
@@ -519,15 +691,19 @@ public abstract class DatabaseHandler extends StorageConnector {
         final FeatureCollection collection = new FeatureCollection();
         collection.setFeatures(new ArrayList<>());
 
-        List<Feature> inserts = Optional.ofNullable(event.getInsertFeatures()).orElse(new ArrayList<>());
-        List<Feature> updates = Optional.ofNullable(event.getUpdateFeatures()).orElse(new ArrayList<>());
-        List<Feature> upserts = Optional.ofNullable(event.getUpsertFeatures()).orElse(new ArrayList<>());
+        //Copies, as the upserts get distributed into inserts and updates, which must not be repeated on a retry
+        List<Feature> inserts = new ArrayList<>(Optional.ofNullable(event.getInsertFeatures()).orElse(Collections.emptyList()));
+        List<Feature> updates = new ArrayList<>(Optional.ofNullable(event.getUpdateFeatures()).orElse(Collections.emptyList()));
+        List<Feature> upserts = new ArrayList<>(Optional.ofNullable(event.getUpsertFeatures()).orElse(Collections.emptyList()));
+        List<Map<String, Object>> patches = Optional.ofNullable(event.getPatchFeatures()).orElse(Collections.emptyList());
         Map<String, String> deletes = Optional.ofNullable(event.getDeleteFeatures()).orElse(new HashMap<>());
         List<FeatureCollection.ModificationFailure> fails = Optional.ofNullable(event.getFailed()).orElse(new ArrayList<>());
         boolean forExtendingSpace = isForExtendingSpace(event);
 
         List<String> originalUpdates = updates.stream().map(f -> f.getId()).collect(Collectors.toList());
         List<String> originalDeletes = new ArrayList<>(deletes.keySet());
+        List<String> upsertedUpdates = new ArrayList<>();
+        List<String> patchedIds = new ArrayList<>();
         //Handle deletes / updates on extended spaces
         if (forExtendingSpace && event.getContext() == DEFAULT) {
             if (!deletes.isEmpty()) {
@@ -566,7 +742,14 @@ public abstract class DatabaseHandler extends StorageConnector {
             List<String> upsertIds = upserts.stream().map(Feature::getId).filter(Objects::nonNull).collect(Collectors.toList());
             List<String> existingIds = new FetchExistingIds(new FetchIdsInput(config.readTableFromEvent(event),
                 upsertIds), this).run();
-            upserts.forEach(f -> (existingIds.contains(f.getId()) ? updates : inserts).add(f));
+            upserts.forEach(f -> {
+              if (existingIds.contains(f.getId())) {
+                updates.add(f);
+                upsertedUpdates.add(f.getId());
+              }
+              else
+                inserts.add(f);
+            });
           }
 
           /** get next Version */
@@ -596,6 +779,14 @@ public abstract class DatabaseHandler extends StorageConnector {
                 if (deletes.size() > 0) {
                     DatabaseWriter.deleteFeatures(this, schema, table, traceItem, fails, deletes, connection, transactional, handleUUID, version);
                 }
+                if (patches.size() > 0) {
+                    final List<Map<String, Object>> missing = DatabaseWriter.patchFeatures(this, schema, table, traceItem, collection, fails,
+                        patches, patchedIds, connection, transactional);
+                    handleMissingPatchTargets(event.getIfPatchTargetMissing(), missing, inserts, fails);
+                    //Missing targets, which are required to exist, let the whole transaction fail as well
+                    if (transactional && fails.size() > 0)
+                        throw new SQLException(DatabaseWriter.PATCH_ERROR_GENERAL);
+                }
                 if (inserts.size() > 0) {
                     DatabaseWriter.insertFeatures(this, schema, table, traceItem, collection, fails, inserts, connection, transactional, version, forExtendingSpace);
                 }
@@ -695,7 +886,7 @@ public abstract class DatabaseHandler extends StorageConnector {
                 .filter(Objects::nonNull).collect(Collectors.toList());
             final List<String> insertIds = inserts.stream().map(Feature::getId)
                 .filter(x -> !failedIds.contains(x) && !originalUpdates.contains(x) && !originalDeletes.contains(x)).collect(Collectors.toList());
-            final List<String> updateIds = originalUpdates.stream()
+            final List<String> updateIds = Stream.of(originalUpdates, upsertedUpdates, patchedIds).flatMap(Collection::stream).distinct()
                 .filter(x -> !failedIds.contains(x) && !originalDeletes.contains(x)).collect(Collectors.toList());
             final List<String> deleteIds = originalDeletes.stream()
                 .filter(x -> !failedIds.contains(x)).collect(Collectors.toList());
@@ -729,6 +920,27 @@ public abstract class DatabaseHandler extends StorageConnector {
         }
     }
 
+    /**
+     * Handles the patches for features which don't exist, the same way as the service does for patches of not existing features.
+     */
+    private void handleMissingPatchTargets(IfPatchTargetMissing ifPatchTargetMissing, List<Map<String, Object>> missing,
+        List<Feature> inserts, List<FeatureCollection.ModificationFailure> fails) {
+        for (Map<String, Object> patch : missing) {
+            if (ifPatchTargetMissing == IfPatchTargetMissing.CREATE) {
+                try {
+                    inserts.add(XyzSerializable.fromMap(patch, Feature.class));
+                }
+                catch (Exception e) {
+                    fails.add(new FeatureCollection.ModificationFailure().withId((String) patch.get("id"))
+                        .withMessage(DatabaseWriter.INSERT_ERROR_GENERAL));
+                }
+            }
+            else if (ifPatchTargetMissing == IfPatchTargetMissing.ERROR)
+                fails.add(new FeatureCollection.ModificationFailure().withId((String) patch.get("id"))
+                    .withMessage("The record does not exist."));
+        }
+    }
+
     private List<String> getAllIds(List<Feature> inserts, List<Feature> updates, List<Feature> upserts, Map<String, ?> deletes) {
       List<String> ids = Stream.of(inserts, updates, upserts).flatMap(Collection::stream).map(Feature::getId).collect(Collectors.toList());
       ids.addAll(deletes.keySet());
@@ -886,36 +1098,36 @@ public abstract class DatabaseHandler extends StorageConnector {
 
         if (withDeletedColumn) {
             query = "CREATE INDEX IF NOT EXISTS ${idx_deleted} ON ${schema}.${table} USING btree (deleted ASC NULLS LAST) WHERE deleted = TRUE";
-            query = SQLQuery.replaceVars(query, replacements, config.getDatabaseSettings().getSchema(), tableName);
+            query = SQLQuery.replaceVars(query, getIndexReplacements(), config.getDatabaseSettings().getSchema(), tableName);
             stmt.addBatch(query);
         }
 
         query = "CREATE UNIQUE INDEX IF NOT EXISTS ${idx_id} ON ${schema}.${table} ((jsondata->>'id'))";
-        query = SQLQuery.replaceVars(query, replacements, config.getDatabaseSettings().getSchema(), tableName);
+        query = SQLQuery.replaceVars(query, getIndexReplacements(), config.getDatabaseSettings().getSchema(), tableName);
         stmt.addBatch(query);
 
         query = "CREATE INDEX IF NOT EXISTS ${idx_tags} ON ${schema}.${table} USING gin ((jsondata->'properties'->'@ns:com:here:xyz'->'tags') jsonb_ops)";
-        query = SQLQuery.replaceVars(query, replacements, config.getDatabaseSettings().getSchema(), tableName);
+        query = SQLQuery.replaceVars(query, getIndexReplacements(), config.getDatabaseSettings().getSchema(), tableName);
         stmt.addBatch(query);
 
         query = "CREATE INDEX IF NOT EXISTS ${idx_geo} ON ${schema}.${table} USING gist ((geo))";
-        query = SQLQuery.replaceVars(query, replacements, config.getDatabaseSettings().getSchema(), tableName);
+        query = SQLQuery.replaceVars(query, getIndexReplacements(), config.getDatabaseSettings().getSchema(), tableName);
         stmt.addBatch(query);
 
         query = "CREATE INDEX IF NOT EXISTS ${idx_serial} ON ${schema}.${table}  USING btree ((i))";
-        query = SQLQuery.replaceVars(query, replacements, config.getDatabaseSettings().getSchema(), tableName);
+        query = SQLQuery.replaceVars(query, getIndexReplacements(), config.getDatabaseSettings().getSchema(), tableName);
         stmt.addBatch(query);
 
         query = "CREATE INDEX IF NOT EXISTS ${idx_updatedAt} ON ${schema}.${table} USING btree ((jsondata->'properties'->'@ns:com:here:xyz'->'updatedAt'), (jsondata->>'id'))";
-        query = SQLQuery.replaceVars(query, replacements, config.getDatabaseSettings().getSchema(), tableName);
+        query = SQLQuery.replaceVars(query, getIndexReplacements(), config.getDatabaseSettings().getSchema(), tableName);
         stmt.addBatch(query);
 
         query = "CREATE INDEX IF NOT EXISTS ${idx_createdAt} ON ${schema}.${table} USING btree ((jsondata->'properties'->'@ns:com:here:xyz'->'createdAt'), (jsondata->>'id'))";
-        query = SQLQuery.replaceVars(query, replacements, config.getDatabaseSettings().getSchema(), tableName);
+        query = SQLQuery.replaceVars(query, getIndexReplacements(), config.getDatabaseSettings().getSchema(), tableName);
         stmt.addBatch(query);
 
         query = "CREATE INDEX IF NOT EXISTS ${idx_viz} ON ${schema}.${table} USING btree (left( md5(''||i),5))";
-        query = SQLQuery.replaceVars(query, replacements, config.getDatabaseSettings().getSchema(), tableName);
+        query = SQLQuery.replaceVars(query, getIndexReplacements(), config.getDatabaseSettings().getSchema(), tableName);
         stmt.addBatch(query);
 
         stmt.setQueryTimeout(calculateTimeout());
@@ -947,40 +1159,40 @@ public abstract class DatabaseHandler extends StorageConnector {
                     stmt.addBatch(query);
 
                     query = "CREATE INDEX IF NOT EXISTS ${idx_hst_uuid} ON ${schema}.${hsttable} USING btree (uuid)";
-                    query = SQLQuery.replaceVars(query, replacements, config.getDatabaseSettings().getSchema(), tableName);
+                    query = SQLQuery.replaceVars(query, getIndexReplacements(), config.getDatabaseSettings().getSchema(), tableName);
                     stmt.addBatch(query);
 
                     query = "CREATE INDEX IF NOT EXISTS ${idx_hst_id} ON ${schema}.${hsttable} ((jsondata->>'id'))";
-                    query = SQLQuery.replaceVars(query, replacements, config.getDatabaseSettings().getSchema(), tableName);
+                    query = SQLQuery.replaceVars(query, getIndexReplacements(), config.getDatabaseSettings().getSchema(), tableName);
                     stmt.addBatch(query);
 
                     query = "CREATE INDEX IF NOT EXISTS ${idx_hst_updatedAt} ON ${schema}.${hsttable} USING btree ((jsondata->'properties'->'@ns:com:here:xyz'->'updatedAt'))";
-                    query = SQLQuery.replaceVars(query, replacements, config.getDatabaseSettings().getSchema(), tableName);
+                    query = SQLQuery.replaceVars(query, getIndexReplacements(), config.getDatabaseSettings().getSchema(), tableName);
                     stmt.addBatch(query);
 
                     if(isEnableGlobalVersioning) {
                         query = "CREATE INDEX IF NOT EXISTS ${idx_hst_deleted} ON ${schema}.${hsttable} USING btree (((jsondata->'properties'->'@ns:com:here:xyz'->'deleted')::jsonb))";
-                        query = SQLQuery.replaceVars(query, replacements, config.getDatabaseSettings().getSchema(), tableName);
+                        query = SQLQuery.replaceVars(query, getIndexReplacements(), config.getDatabaseSettings().getSchema(), tableName);
                         stmt.addBatch(query);
 
                         query = "CREATE INDEX IF NOT EXISTS ${idx_hst_version} ON ${schema}.${hsttable} USING btree (((jsondata->'properties'->'@ns:com:here:xyz'->'version')::jsonb))";
-                        query = SQLQuery.replaceVars(query, replacements, config.getDatabaseSettings().getSchema(), tableName);
+                        query = SQLQuery.replaceVars(query, getIndexReplacements(), config.getDatabaseSettings().getSchema(), tableName);
                         stmt.addBatch(query);
 
                         query = "CREATE INDEX IF NOT EXISTS ${idx_hst_lastVersion} ON ${schema}.${hsttable} USING btree (((jsondata->'properties'->'@ns:com:here:xyz'->'lastVersion')::jsonb))";
-                        query = SQLQuery.replaceVars(query, replacements, config.getDatabaseSettings().getSchema(), tableName);
+                        query = SQLQuery.replaceVars(query, getIndexReplacements(), config.getDatabaseSettings().getSchema(), tableName);
                         stmt.addBatch(query);
 
                         query = "CREATE INDEX IF NOT EXISTS ${idx_hst_idvsort} ON ${schema}.${hsttable} USING btree ((jsondata ->> 'id'::text), ((jsondata->'properties'->'@ns:com:here:xyz'->'version')::jsonb) DESC )";
-                        query = SQLQuery.replaceVars(query, replacements, config.getDatabaseSettings().getSchema(), tableName);
+                        query = SQLQuery.replaceVars(query, getIndexReplacements(), config.getDatabaseSettings().getSchema(), tableName);
                         stmt.addBatch(query);
 
                         query = "CREATE INDEX IF NOT EXISTS ${idx_hst_vidsort} ON ${schema}.${hsttable} USING btree (((jsondata->'properties'->'@ns:com:here:xyz'->'version')::jsonb) , (jsondata ->> 'id'::text))";
-                        query = SQLQuery.replaceVars(query, replacements, config.getDatabaseSettings().getSchema(), tableName);
+                        query = SQLQuery.replaceVars(query, getIndexReplacements(), config.getDatabaseSettings().getSchema(), tableName);
                         stmt.addBatch(query);
 
                         query = "CREATE SEQUENCE  IF NOT EXISTS " + config.getDatabaseSettings().getSchema() + ".\"" + tableName.replaceAll("-", "_") + "_hst_seq\"";
-                        query = SQLQuery.replaceVars(query, replacements, config.getDatabaseSettings().getSchema(), tableName);
+                        query = SQLQuery.replaceVars(query, getIndexReplacements(), config.getDatabaseSettings().getSchema(), tableName);
                         stmt.addBatch(query);
                     }
 
@@ -1102,6 +1314,9 @@ public abstract class DatabaseHandler extends StorageConnector {
     private final long MAX_RESULT_CHARS = 100 * 1024 *1024;
 
     protected FeatureCollection _defaultFeatureResultSetHandler(ResultSet rs, boolean skipNullGeom) throws SQLException {
+        if (featureStreamWriter != null)
+            return streamingFeatureResultSetHandler(rs, skipNullGeom);
+
         String nextIOffset = "";
         String nextDataset = null;
 
@@ -1147,6 +1362,44 @@ public abstract class DatabaseHandler extends StorageConnector {
         return featureCollection;
     }
 
+    /**
+     * Writes the features directly into the output stream, instead of collecting them.
+     * There is no limit for the size of the result in that case.
+     */
+    private FeatureCollection streamingFeatureResultSetHandler(ResultSet rs, boolean skipNullGeom) throws SQLException {
+        String nextIOffset = "";
+        String nextDataset = null;
+        int numFeatures = 0;
+
+        try {
+            while (rs.next()) {
+                String geom = rs.getString(2);
+                if (skipNullGeom && (geom == null)) continue;
+                featureStreamWriter.writeFeature(rs.getString(1), geom);
+
+                if (event instanceof IterateFeaturesEvent) {
+                    numFeatures++;
+                    nextIOffset = rs.getString(3);
+                    if (rs.getMetaData().getColumnCount() >= 4)
+                        nextDataset = rs.getString(4);
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new SQLException("Error while streaming the result.", e);
+        }
+
+        final FeatureCollection featureCollection = new FeatureCollection();
+
+        if (event instanceof IterateFeaturesEvent && numFeatures > 0 && numFeatures == ((SearchForFeaturesEvent) event).getLimit() ) {
+            String nextHandle = (nextDataset != null ? nextDataset + "_" : "") + nextIOffset;
+            featureCollection.setHandle(nextHandle);
+            featureCollection.setNextPageToken(nextHandle);
+        }
+
+        return featureCollection;
+    }
+
     public FeatureCollection defaultFeatureResultSetHandler(ResultSet rs) throws SQLException
     { return _defaultFeatureResultSetHandler(rs,false); }
 
@@ -1495,22 +1748,4 @@ public abstract class DatabaseHandler extends StorageConnector {
     public String getStreamId() {
         return streamId;
     }
-
-    public static class XyzConnectionCustomizer extends AbstractConnectionCustomizer { // handle initialization per db connection
-        private String getSchema(String parentDataSourceIdentityToken) {
-            return (String) extensionsForToken(parentDataSourceIdentityToken).get(C3P0EXT_CONFIG_SCHEMA);
-        }
-
-        public void onAcquire(Connection c, String pdsIdt) {
-            String schema = getSchema(pdsIdt);  // config.schema();
-            QueryRunner runner = new QueryRunner();
-            try {
-                runner.execute(c, "SET enable_seqscan = off;");
-                runner.execute(c, "SET statement_timeout = " + (STATEMENT_TIMEOUT_SECONDS * 1000) + " ;");
-                runner.execute(c, "SET search_path=" + schema + ",h3,public,topology;");
-            } catch (SQLException e) {
-                logger.error("Failed to initialize connection " + c + " [" + pdsIdt + "] : {}", e);
-            }
-        }
-    }
 }
@@ -28,14 +28,23 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.postgresql.util.PGobject;
 
+import java.lang.reflect.Array;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+/**
+ * Writes features without a surrounding transaction.
+ * The features are sent to the database in sub-batches of {@link com.here.xyz.psql.config.ConnectorParameters#getWriteBatchSize()}
+ * features per statement. The bulk functions report the result of each feature separately, so a failing feature does not affect
+ * the other features of its batch.
+ */
 public class DatabaseStreamWriter extends DatabaseWriter{
     private static final Logger logger = LogManager.getLogger();
 
@@ -50,71 +59,51 @@ public class DatabaseStreamWriter extends DatabaseWriter{
 
         final PreparedStatement insertStmt = createInsertStatement(connection, schema, table, forExtendedSpace);
         final PreparedStatement insertWithoutGeometryStmt = createInsertWithoutGeometryStatement(connection, schema, table, forExtendedSpace);
+        final int batchSize = dbh.config.getConnectorParams().getWriteBatchSize();
+        final Batch batch = new Batch();
+        final Batch batchWithoutGeometry = new Batch();
+        final WKBWriter wkbWriter = new WKBWriter(3);
         final long startTS = System.currentTimeMillis();
 
-        for (int i = 0; i < inserts.size(); i++) {
-
-            String fId = "";
-            try {
-                boolean success = false;
-                ResultSet rs = null;
+        try {
+            for (int i = 0; i < inserts.size(); i++) {
                 final Feature feature = inserts.get(i);
-                fId = feature.getId();
-
-                final PGobject jsonbObject= featureToPGobject(feature,null);
-                final List<PGobject> jsonbObjectList = new ArrayList<>();
-                final List<byte[]> geometryList = new ArrayList<>();
-                final WKBWriter wkbWriter = new WKBWriter(3);
-
-                jsonbObjectList.add(jsonbObject);
-                if (feature.getGeometry() == null) {
-                    insertWithoutGeometryStmt.setArray(1, connection.createArrayOf("jsonb", jsonbObjectList.toArray()));
-                    /*if (forExtendedSpace)
-                        insertWithoutGeometryStmt.setBoolean(2, getDeletedFlagFromFeature(feature));*/
-                    insertWithoutGeometryStmt.setQueryTimeout(dbh.calculateTimeout());
-                    success = insertWithoutGeometryStmt.execute();
-                    if (success) {
-                        rs = insertWithoutGeometryStmt.getResultSet();
+                final String fId = feature.getId();
+
+                try {
+                    final PGobject jsonbObject = featureToPGobject(feature, null);
+
+                    if (feature.getGeometry() == null) {
+                        batchWithoutGeometry.add(feature, fId, null, jsonbObject, null);
+                        if (batchWithoutGeometry.size() >= batchSize)
+                            executeInsertBatch(dbh, insertWithoutGeometryStmt, batchWithoutGeometry, connection, collection, fails, traceItem, table);
+                    } else {
+                        final Geometry jtsGeometry = feature.getGeometry().getJTSGeometry();
+                        //Avoid NAN values
+                        assure3d(jtsGeometry.getCoordinates());
+                        batch.add(feature, fId, null, jsonbObject, wkbWriter.write(jtsGeometry));
+                        if (batch.size() >= batchSize)
+                            executeInsertBatch(dbh, insertStmt, batch, connection, collection, fails, traceItem, table);
                     }
-                } else {
-                    insertStmt.setArray(1, connection.createArrayOf("jsonb", jsonbObjectList.toArray()));
-                    Geometry jtsGeometry = feature.getGeometry().getJTSGeometry();
-                    //Avoid NAN values
-                    assure3d(jtsGeometry.getCoordinates());
-                    geometryList.add(wkbWriter.write(jtsGeometry));
-                    insertStmt.setArray(2, connection.createArrayOf("bytea", twoDimensionalByteArray(geometryList)));
-                    /*if (forExtendedSpace)
-                        insertStmt.setBoolean(3, getDeletedFlagFromFeature(feature));*/
-                    insertStmt.setQueryTimeout(dbh.calculateTimeout());
-                    success = insertStmt.execute();
-                    if (success) {
-                        rs = insertStmt.getResultSet();
-                    }
-                }
-
-                if(success && rs!=null && rs.next() && ((boolean[])rs.getArray("success").getArray())[0] ) {
-                    saveXyzNamespaceInFeature(feature, ((String[])rs.getArray("xyz_ns").getArray())[0] );
-                    rs.close();
-                    collection.getFeatures().add(feature);
-                }else {
+                } catch (SQLException e) {
+                    if (isTableMissing(e))
+                        throw e;
                     fails.add(new FeatureCollection.ModificationFailure().withId(fId).withMessage(INSERT_ERROR_GENERAL));
+                    logException(e, traceItem, LOG_EXCEPTION_INSERT, table);
+                } catch (Exception e) {
+                    fails.add(new FeatureCollection.ModificationFailure().withId(fId).withMessage(INSERT_ERROR_GENERAL));
+                    logException(e, traceItem, LOG_EXCEPTION_INSERT, table);
                 }
-
-            } catch (Exception e) {
-                if((e instanceof SQLException && ((SQLException)e).getSQLState() != null
-                        && ((SQLException)e).getSQLState().equalsIgnoreCase("42P01"))){
-                    insertStmt.close();
-                    insertWithoutGeometryStmt.close();
-                    throw new SQLException(e);
-                }
-
-                fails.add(new FeatureCollection.ModificationFailure().withId(fId).withMessage(INSERT_ERROR_GENERAL));
-                logException(e, traceItem, LOG_EXCEPTION_INSERT, table);
             }
+
+            executeInsertBatch(dbh, insertStmt, batch, connection, collection, fails, traceItem, table);
+            executeInsertBatch(dbh, insertWithoutGeometryStmt, batchWithoutGeometry, connection, collection, fails, traceItem, table);
+        }
+        finally {
+            insertStmt.close();
+            insertWithoutGeometryStmt.close();
         }
 
-        insertStmt.close();
-        insertWithoutGeometryStmt.close();
         final long duration = System.currentTimeMillis() - startTS;
         logger.info("{} NonTransactional DB Operation Stats [format => eventType,table,opType,timeTakenMs] - {} {} {} {}",
                 traceItem, "DBOperationStats", table, TYPE_INSERT, duration);
@@ -130,92 +119,63 @@ public class DatabaseStreamWriter extends DatabaseWriter{
 
         final PreparedStatement updateStmt = createUpdateStatement(connection, schema, table, handleUUID, forExtendedSpace);
         final PreparedStatement updateWithoutGeometryStmt = createUpdateWithoutGeometryStatement(connection,schema,table,handleUUID, forExtendedSpace);
+        final int batchSize = dbh.config.getConnectorParams().getWriteBatchSize();
+        final Batch batch = new Batch();
+        final Batch batchWithoutGeometry = new Batch();
+        final WKBWriter wkbWriter = new WKBWriter(3);
         final long startTS = System.currentTimeMillis();
 
-        for (int i = 0; i < updates.size(); i++) {
-            String fId = "";
-            try {
+        try {
+            for (int i = 0; i < updates.size(); i++) {
                 final Feature feature = updates.get(i);
                 final String puuid = feature.getProperties().getXyzNamespace().getPuuid();
-                boolean success = false;
-                ResultSet rs = null;
+                final String fId = feature.getId();
 
-                if (feature.getId() == null) {
-                    fails.add(new FeatureCollection.ModificationFailure().withId(fId).withMessage(UPDATE_ERROR_ID_MISSING));
+                if (fId == null) {
+                    fails.add(new FeatureCollection.ModificationFailure().withId("").withMessage(UPDATE_ERROR_ID_MISSING));
                     continue;
                 }
 
-                fId = feature.getId();
-
                 if (handleUUID && puuid == null){
                     fails.add(new FeatureCollection.ModificationFailure().withId(fId).withMessage(UPDATE_ERROR_PUUID_MISSING));
                     continue;
                 }
 
-                final PGobject jsonbObject= featureToPGobject(feature,null);
-                final List<String> fIdList = new ArrayList<>();
-                final List<String> uuidList = new ArrayList<>();
-                final List<PGobject> jsonbObjectList = new ArrayList<>();
-                final List<byte[]> geometryList = new ArrayList<>();
-                final WKBWriter wkbWriter = new WKBWriter(3);
-
-                fIdList.add(fId);
-                if (handleUUID) {
-                    uuidList.add(puuid);
-                }
-                else {
-                    uuidList.add(null);
-                }
-                jsonbObjectList.add(jsonbObject);
-                int paramIdx = 0;
-                if (feature.getGeometry() == null) {
-                    updateWithoutGeometryStmt.setArray(++paramIdx, connection.createArrayOf("text", fIdList.toArray()));
-                    updateWithoutGeometryStmt.setArray(++paramIdx, connection.createArrayOf("text", uuidList.toArray()));
-                    updateWithoutGeometryStmt.setArray(++paramIdx, connection.createArrayOf("jsonb", jsonbObjectList.toArray()));
-                    updateWithoutGeometryStmt.setBoolean(++paramIdx, enableNowait);
-                    /*if (forExtendedSpace)
-                        updateWithoutGeometryStmt.setBoolean(++paramIdx, getDeletedFlagFromFeature(feature));*/
-
-                    updateWithoutGeometryStmt.setQueryTimeout(dbh.calculateTimeout());
-                    success = updateWithoutGeometryStmt.execute();
-                    if (success) {
-                        rs = updateWithoutGeometryStmt.getResultSet();
-                    }
-                } else {
-                    updateStmt.setArray(++paramIdx, connection.createArrayOf("text", fIdList.toArray()));
-                    updateStmt.setArray(++paramIdx, connection.createArrayOf("text", uuidList.toArray()));
-                    updateStmt.setArray(++paramIdx, connection.createArrayOf("jsonb", jsonbObjectList.toArray()));
-                    Geometry jtsGeometry = feature.getGeometry().getJTSGeometry();
-                    //Avoid NAN values
-                    assure3d(jtsGeometry.getCoordinates());
-                    geometryList.add(wkbWriter.write(jtsGeometry));
-                    updateStmt.setArray(++paramIdx, connection.createArrayOf("bytea", twoDimensionalByteArray(geometryList)));
-                    updateStmt.setBoolean(++paramIdx, enableNowait);;
-                    /*if (forExtendedSpace)
-                        updateStmt.setBoolean(++paramIdx, getDeletedFlagFromFeature(feature));*/
-                    updateStmt.setQueryTimeout(dbh.calculateTimeout());
-                    success = updateStmt.execute();
-                    if (success) {
-                        rs = updateStmt.getResultSet();
+                try {
+                    final PGobject jsonbObject = featureToPGobject(feature, null);
+                    final String uuid = handleUUID ? puuid : null;
+
+                    if (feature.getGeometry() == null) {
+                        //The bulk update function processes each id only once per call
+                        if (batchWithoutGeometry.contains(fId))
+                            executeUpdateBatch(dbh, updateWithoutGeometryStmt, batchWithoutGeometry, connection, collection, fails, handleUUID, enableNowait, false, traceItem, table);
+                        batchWithoutGeometry.add(feature, fId, uuid, jsonbObject, null);
+                        if (batchWithoutGeometry.size() >= batchSize)
+                            executeUpdateBatch(dbh, updateWithoutGeometryStmt, batchWithoutGeometry, connection, collection, fails, handleUUID, enableNowait, false, traceItem, table);
+                    } else {
+                        final Geometry jtsGeometry = feature.getGeometry().getJTSGeometry();
+                        //Avoid NAN values
+                        assure3d(jtsGeometry.getCoordinates());
+                        if (batch.contains(fId))
+                            executeUpdateBatch(dbh, updateStmt, batch, connection, collection, fails, handleUUID, enableNowait, true, traceItem, table);
+                        batch.add(feature, fId, uuid, jsonbObject, wkbWriter.write(jtsGeometry));
+                        if (batch.size() >= batchSize)
+                            executeUpdateBatch(dbh, updateStmt, batch, connection, collection, fails, handleUUID, enableNowait, true, traceItem, table);
                     }
+                } catch (Exception e) {
+                    fails.add(new FeatureCollection.ModificationFailure().withId(fId).withMessage(UPDATE_ERROR_GENERAL));
+                    logException(e, traceItem, LOG_EXCEPTION_UPDATE, table);
                 }
-
-                if(success && rs!=null && rs.next() && ((boolean[])rs.getArray("success").getArray())[0] ) {
-                    saveXyzNamespaceInFeature(feature, ((String[])rs.getArray("xyz_ns").getArray())[0] );
-                    rs.close();
-                    collection.getFeatures().add(feature);
-                }else {
-                    fails.add(new FeatureCollection.ModificationFailure().withId(fId).withMessage((handleUUID ? UPDATE_ERROR_UUID : UPDATE_ERROR_NOT_EXISTS)));
-                }
-
-            } catch (Exception e) {
-                fails.add(new FeatureCollection.ModificationFailure().withId(fId).withMessage(UPDATE_ERROR_GENERAL));
-                logException(e, traceItem, LOG_EXCEPTION_UPDATE, table);
             }
+
+            executeUpdateBatch(dbh, updateStmt, batch, connection, collection, fails, handleUUID, enableNowait, true, traceItem, table);
+            executeUpdateBatch(dbh, updateWithoutGeometryStmt, batchWithoutGeometry, connection, collection, fails, handleUUID, enableNowait, false, traceItem, table);
+        }
+        finally {
+            updateStmt.close();
+            updateWithoutGeometryStmt.close();
         }
 
-        updateStmt.close();
-        updateWithoutGeometryStmt.close();
         final long duration = System.currentTimeMillis() - startTS;
         logger.info("{} NonTransactional DB Operation Stats [format => eventType,table,opType,timeTakenMs] - {} {} {} {}",
                 traceItem, "DBOperationStats", table, TYPE_UPDATE, duration);
@@ -230,52 +190,214 @@ public class DatabaseStreamWriter extends DatabaseWriter{
 
         final PreparedStatement deleteStmt = deleteStmtSQLStatement(connection,schema,table,handleUUID);
         final PreparedStatement deleteStmtWithoutUUID = deleteStmtSQLStatement(connection,schema,table,false);
+        final int batchSize = dbh.config.getConnectorParams().getWriteBatchSize();
+        final Batch batch = new Batch();
+        final Batch batchWithoutUUID = new Batch();
         final long startTS = System.currentTimeMillis();
 
-        for (String deleteId : deletes.keySet()) {
-            try {
+        try {
+            for (String deleteId : deletes.keySet()) {
                 final String puuid = deletes.get(deleteId);
-                boolean success = false;
-                ResultSet rs = null;
-                final List<String> fIdList = new ArrayList<>();
-                final List<String> uuidList = new ArrayList<>();
-
-                fIdList.add(deleteId);
-                if(handleUUID && puuid == null){
-                    deleteStmtWithoutUUID.setArray(1, connection.createArrayOf("text", fIdList.toArray()));
-                    deleteStmtWithoutUUID.setQueryTimeout(dbh.calculateTimeout());
-                    success = deleteStmtWithoutUUID.execute();
-                    if (success) {
-                        rs = deleteStmtWithoutUUID.getResultSet();
-                    }
-                }else{
-                    deleteStmt.setArray(1, connection.createArrayOf("text", fIdList.toArray()));
-                    if(handleUUID) {
-                        uuidList.add(puuid);
-                        deleteStmt.setArray(2, connection.createArrayOf("text", uuidList.toArray()));
-                    }
-                    deleteStmt.setQueryTimeout(dbh.calculateTimeout());
-                    success = deleteStmt.execute();
-                    if (success) {
-                        rs = deleteStmt.getResultSet();
-                    }
-                }
 
-                if(!success || (rs.next() && !((boolean[])rs.getArray("success").getArray())[0] ) ) {
-                    fails.add(new FeatureCollection.ModificationFailure().withId(deleteId).withMessage((handleUUID ? DELETE_ERROR_UUID : DELETE_ERROR_NOT_EXISTS)));
+                if (handleUUID && puuid == null) {
+                    batchWithoutUUID.add(null, deleteId, null, null, null);
+                    if (batchWithoutUUID.size() >= batchSize)
+                        executeDeleteBatch(dbh, deleteStmtWithoutUUID, batchWithoutUUID, connection, fails, false, handleUUID, traceItem, table);
+                } else {
+                    batch.add(null, deleteId, puuid, null, null);
+                    if (batch.size() >= batchSize)
+                        executeDeleteBatch(dbh, deleteStmt, batch, connection, fails, handleUUID, handleUUID, traceItem, table);
                 }
-                if (rs!=null) rs.close();
-
-            } catch (Exception e) {
-                fails.add(new FeatureCollection.ModificationFailure().withId(deleteId).withMessage(DELETE_ERROR_GENERAL));
-                logException(e, traceItem, LOG_EXCEPTION_DELETE, table);
             }
+
+            executeDeleteBatch(dbh, deleteStmt, batch, connection, fails, handleUUID, handleUUID, traceItem, table);
+            executeDeleteBatch(dbh, deleteStmtWithoutUUID, batchWithoutUUID, connection, fails, false, handleUUID, traceItem, table);
+        }
+        finally {
+            deleteStmt.close();
+            deleteStmtWithoutUUID.close();
         }
 
-        deleteStmt.close();
-        deleteStmtWithoutUUID.close();
         final long duration = System.currentTimeMillis() - startTS;
         logger.info("{} NonTransactional DB Operation Stats [format => eventType,table,opType,timeTakenMs] - {} {} {} {}",
                 traceItem, "DBOperationStats", table, TYPE_DELETE, duration);
     }
+
+    private static void executeInsertBatch(DatabaseHandler dbh, PreparedStatement stmt, Batch batch, Connection connection,
+                                           FeatureCollection collection, List<FeatureCollection.ModificationFailure> fails,
+                                           TraceItem traceItem, String table) throws SQLException {
+        if (batch.size() == 0) return;
+
+        try {
+            stmt.setArray(1, connection.createArrayOf("jsonb", batch.jsonbObjects.toArray()));
+            if (!batch.geometries.isEmpty())
+                stmt.setArray(2, connection.createArrayOf("bytea", twoDimensionalByteArray(batch.geometries)));
+            executeBatch(dbh, stmt, batch, collection, fails, INSERT_ERROR_GENERAL, TYPE_INSERT, traceItem);
+        } catch (Exception e) {
+            if (isTableMissing(e))
+                throw (SQLException) e;
+            batch.failAll(fails, INSERT_ERROR_GENERAL);
+            logException(e, traceItem, LOG_EXCEPTION_INSERT, table);
+        } finally {
+            batch.clear();
+        }
+    }
+
+    private static void executeUpdateBatch(DatabaseHandler dbh, PreparedStatement stmt, Batch batch, Connection connection,
+                                           FeatureCollection collection, List<FeatureCollection.ModificationFailure> fails,
+                                           boolean handleUUID, boolean enableNowait, boolean withGeometry, TraceItem traceItem, String table) {
+        if (batch.size() == 0) return;
+
+        try {
+            bindAndExecuteUpdateBatch(dbh, stmt, batch, connection, collection, fails, handleUUID, enableNowait, withGeometry, traceItem);
+        } catch (Exception e) {
+            if (batch.size() == 1) {
+                batch.failAll(fails, UPDATE_ERROR_GENERAL);
+                logException(e, traceItem, LOG_EXCEPTION_UPDATE, table);
+            }
+            else {
+                /*
+                The bulk update function aborts the whole statement, if a row is locked (IfRowLock.ABORT) or if a feature was not
+                found for locking. Nothing of the batch was written in that case, so the features are retried one by one to keep the
+                failure limited to the affected features.
+                */
+                logger.info("{} Batch update of {} features failed, retrying them one by one: {}", traceItem, batch.size(), e.getMessage());
+                final Batch single = new Batch();
+                for (int i = 0; i < batch.size(); i++) {
+                    single.add(batch.features.get(i), batch.ids.get(i), batch.uuids.get(i), batch.jsonbObjects.get(i),
+                            withGeometry ? batch.geometries.get(i) : null);
+                    executeUpdateBatch(dbh, stmt, single, connection, collection, fails, handleUUID, enableNowait, withGeometry, traceItem, table);
+                }
+            }
+        } finally {
+            batch.clear();
+        }
+    }
+
+    private static void bindAndExecuteUpdateBatch(DatabaseHandler dbh, PreparedStatement stmt, Batch batch, Connection connection,
+                                                  FeatureCollection collection, List<FeatureCollection.ModificationFailure> fails,
+                                                  boolean handleUUID, boolean enableNowait, boolean withGeometry, TraceItem traceItem)
+            throws SQLException {
+        int paramIdx = 0;
+        stmt.setArray(++paramIdx, connection.createArrayOf("text", batch.ids.toArray()));
+        stmt.setArray(++paramIdx, handleUUID ? connection.createArrayOf("text", batch.uuids.toArray()) : null);
+        stmt.setArray(++paramIdx, connection.createArrayOf("jsonb", batch.jsonbObjects.toArray()));
+        if (withGeometry)
+            stmt.setArray(++paramIdx, connection.createArrayOf("bytea", twoDimensionalByteArray(batch.geometries)));
+        stmt.setBoolean(++paramIdx, enableNowait);
+        executeBatch(dbh, stmt, batch, collection, fails, handleUUID ? UPDATE_ERROR_UUID : UPDATE_ERROR_NOT_EXISTS, TYPE_UPDATE, traceItem);
+    }
+
+    private static void executeDeleteBatch(DatabaseHandler dbh, PreparedStatement stmt, Batch batch, Connection connection,
+                                           List<FeatureCollection.ModificationFailure> fails, boolean withUUID, boolean handleUUID,
+                                           TraceItem traceItem, String table) {
+        if (batch.size() == 0) return;
+
+        try {
+            stmt.setArray(1, connection.createArrayOf("text", batch.ids.toArray()));
+            if (withUUID)
+                stmt.setArray(2, connection.createArrayOf("text", batch.uuids.toArray()));
+            executeBatch(dbh, stmt, batch, null, fails, handleUUID ? DELETE_ERROR_UUID : DELETE_ERROR_NOT_EXISTS, TYPE_DELETE, traceItem);
+        } catch (Exception e) {
+            batch.failAll(fails, DELETE_ERROR_GENERAL);
+            logException(e, traceItem, LOG_EXCEPTION_DELETE, table);
+        } finally {
+            batch.clear();
+        }
+    }
+
+    /**
+     * Executes the statement for the whole batch and assigns the results of the bulk function to the features of the batch.
+     * Successfully written features are added to the collection, if one is provided, all others are added to the fails.
+     */
+    private static void executeBatch(DatabaseHandler dbh, PreparedStatement stmt, Batch batch, FeatureCollection collection,
+                                     List<FeatureCollection.ModificationFailure> fails, String failMessage, int type,
+                                     TraceItem traceItem) throws SQLException {
+        stmt.setQueryTimeout(dbh.calculateTimeout());
+        final Object successArr;
+        final String[] xyzNsArr;
+        final String[] errMsgArr;
+
+        try (ResultSet rs = stmt.execute() ? stmt.getResultSet() : null) {
+            if (rs == null || !rs.next())
+                throw new SQLException("No result out of batch operation.");
+            //Depending on the driver settings the success flags are returned as boolean[] or Boolean[]
+            successArr = rs.getArray("success").getArray();
+            xyzNsArr = (String[]) rs.getArray("xyz_ns").getArray();
+            errMsgArr = (String[]) rs.getArray("err_msg").getArray();
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            final String fId = batch.ids.get(i);
+            boolean success = i < Array.getLength(successArr) && Boolean.TRUE.equals(Array.get(successArr, i));
+
+            if (success && collection != null) {
+                try {
+                    final Feature feature = batch.features.get(i);
+                    saveXyzNamespaceInFeature(feature, xyzNsArr[i]);
+                    collection.getFeatures().add(feature);
+                }
+                catch (Exception e) {
+                    logger.warn("{} Unable to read the result of DB operation type [{}] for id [{}]", traceItem, type, fId, e);
+                    success = false;
+                }
+            }
+
+            if (!success) {
+                logger.debug("{} DB operation type [{}] failed for id [{}], with error [{}]", traceItem, type, fId,
+                        i < errMsgArr.length ? errMsgArr[i] : null);
+                fails.add(new FeatureCollection.ModificationFailure().withId(fId).withMessage(failMessage));
+            }
+        }
+    }
+
+    private static boolean isTableMissing(Exception e) {
+        return e instanceof SQLException && ((SQLException) e).getSQLState() != null
+                && ((SQLException) e).getSQLState().equalsIgnoreCase("42P01");
+    }
+
+    /**
+     * The parameters of the features which are sent to the database within one statement.
+     */
+    private static class Batch {
+        private final List<Feature> features = new ArrayList<>();
+        private final List<String> ids = new ArrayList<>();
+        private final Set<String> idSet = new HashSet<>();
+        private final List<String> uuids = new ArrayList<>();
+        private final List<PGobject> jsonbObjects = new ArrayList<>();
+        private final List<byte[]> geometries = new ArrayList<>();
+
+        private void add(Feature feature, String id, String uuid, PGobject jsonbObject, byte[] geometry) {
+            features.add(feature);
+            ids.add(id);
+            idSet.add(id);
+            uuids.add(uuid);
+            if (jsonbObject != null)
+                jsonbObjects.add(jsonbObject);
+            if (geometry != null)
+                geometries.add(geometry);
+        }
+
+        private boolean contains(String id) {
+            return idSet.contains(id);
+        }
+
+        private int size() {
+            return ids.size();
+        }
+
+        private void failAll(List<FeatureCollection.ModificationFailure> fails, String message) {
+            for (String id : ids)
+                fails.add(new FeatureCollection.ModificationFailure().withId(id).withMessage(message));
+        }
+
+        private void clear() {
+            features.clear();
+            ids.clear();
+            idSet.clear();
+            uuids.clear();
+            jsonbObjects.clear();
+            geometries.clear();
+        }
+    }
 }
@@ -19,6 +19,7 @@
 
 package com.here.xyz.psql;
 
+import com.here.xyz.XyzSerializable;
 import com.here.xyz.connectors.AbstractConnectorHandler.TraceItem;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.here.xyz.models.geojson.implementation.Feature;
@@ -31,9 +32,12 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.postgresql.util.PGobject;
 
+import java.lang.reflect.Array;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -52,11 +56,17 @@ public class DatabaseWriter {
 
     public static final String INSERT_ERROR_GENERAL = "Insert has failed";
 
+    public static final String PATCH_ERROR_GENERAL = "Patch has failed";
+
     protected static final String TRANSACTION_ERROR_GENERAL = "Transaction has failed";
 
     public static final String LOG_EXCEPTION_INSERT = "insert";
     public static final String LOG_EXCEPTION_UPDATE = "update";
     public static final String LOG_EXCEPTION_DELETE = "delete";
+    public static final String LOG_EXCEPTION_PATCH = "patch";
+
+    private static final String SQL_STATE_NO_DATA_FOUND = "P0002";
+    private static final String SQL_STATE_RAISE_EXCEPTION = "P0001";
 
     protected static PGobject featureToPGobject(final Feature feature, Integer version) throws SQLException {
         final Geometry geometry = feature.getGeometry();
@@ -164,6 +174,114 @@ public class DatabaseWriter {
         DatabaseStreamWriter.deleteFeatures(dbh, schema, table, traceItem, fails, deletes, connection, handleUUID);
     }
 
+    /**
+     * Applies the patches inside the database, so that only the patches (and not the whole features) have to be transferred.
+     * The resulting features are added to the collection and the IDs of the actually modified ones to the patchedIds.
+     * The patches for features which don't exist are returned, all other failures are added to the fails.
+     */
+    protected static List<Map<String, Object>> patchFeatures(DatabaseHandler dbh, String schema, String table, TraceItem traceItem,
+                                                             FeatureCollection collection, List<FeatureCollection.ModificationFailure> fails,
+                                                             List<Map<String, Object>> patches, List<String> patchedIds,
+                                                             Connection connection, boolean transactional) throws SQLException {
+        setAutocommit(connection, !transactional);
+        final List<Map<String, Object>> missing = new ArrayList<>();
+        final int batchSize = dbh.config.getConnectorParams().getWriteBatchSize();
+        final long startTS = System.currentTimeMillis();
+
+        try (final PreparedStatement stmt = createStatement(connection, SQLQueryBuilder.patchStmtSQL(schema, table))) {
+            for (int from = 0; from < patches.size(); from += batchSize) {
+                final List<Map<String, Object>> batch = patches.subList(from, Math.min(from + batchSize, patches.size()));
+                final List<String> ids = new ArrayList<>();
+                final List<String> uuids = new ArrayList<>();
+                final List<PGobject> jsonbObjects = new ArrayList<>();
+                final int failsBefore = fails.size();
+
+                try {
+                    for (final Map<String, Object> patch : batch) {
+                        final PGobject jsonbObject = new PGobject();
+                        jsonbObject.setType("jsonb");
+                        //Encode with the null values, as these remove the respective members
+                        jsonbObject.setValue(new JsonObject(patch).encode());
+                        ids.add((String) patch.get("id"));
+                        uuids.add(getPatchUuid(patch));
+                        jsonbObjects.add(jsonbObject);
+                    }
+
+                    stmt.setArray(1, connection.createArrayOf("text", ids.toArray()));
+                    stmt.setArray(2, connection.createArrayOf("text", uuids.toArray()));
+                    stmt.setArray(3, connection.createArrayOf("jsonb", jsonbObjects.toArray()));
+                    stmt.setQueryTimeout(dbh.calculateTimeout());
+
+                    final Object successArr;
+                    final Object modifiedArr;
+                    final String[] featureArr;
+                    final String[] errCodeArr;
+                    final String[] errMsgArr;
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (!rs.next())
+                            throw new SQLException("No result out of batch operation.");
+                        successArr = rs.getArray("success").getArray();
+                        modifiedArr = rs.getArray("modified").getArray();
+                        featureArr = (String[]) rs.getArray("feature").getArray();
+                        errCodeArr = (String[]) rs.getArray("err_code").getArray();
+                        errMsgArr = (String[]) rs.getArray("err_msg").getArray();
+                    }
+
+                    for (int i = 0; i < batch.size(); i++) {
+                        final String fId = ids.get(i);
+                        if (Boolean.TRUE.equals(Array.get(successArr, i))) {
+                            try {
+                                collection.getFeatures().add(XyzSerializable.deserialize(featureArr[i], Feature.class));
+                                if (Boolean.TRUE.equals(Array.get(modifiedArr, i)))
+                                    patchedIds.add(fId);
+                            }
+                            catch (Exception e) {
+                                logger.warn("{} Unable to read the result of the patch for id [{}]", traceItem, fId, e);
+                                fails.add(new FeatureCollection.ModificationFailure().withId(fId).withMessage(PATCH_ERROR_GENERAL));
+                            }
+                        }
+                        else if (SQL_STATE_NO_DATA_FOUND.equals(errCodeArr[i]))
+                            missing.add(batch.get(i));
+                        //The UUID conflict is reported with a message for the client
+                        else if (SQL_STATE_RAISE_EXCEPTION.equals(errCodeArr[i]))
+                            fails.add(new FeatureCollection.ModificationFailure().withId(fId).withMessage(errMsgArr[i]));
+                        else {
+                            logger.info("{} Failed to perform {} for id [{}] on table {} - {} {}", traceItem, LOG_EXCEPTION_PATCH, fId, table,
+                                errCodeArr[i], errMsgArr[i]);
+                            fails.add(new FeatureCollection.ModificationFailure().withId(fId).withMessage(PATCH_ERROR_GENERAL));
+                        }
+                    }
+                }
+                catch (Exception e) {
+                    batch.forEach(patch -> fails.add(new FeatureCollection.ModificationFailure().withId((String) patch.get("id"))
+                        .withMessage(PATCH_ERROR_GENERAL)));
+                    logException(e, traceItem, LOG_EXCEPTION_PATCH, table);
+                    if (transactional && e instanceof SQLException)
+                        throw (SQLException) e;
+                }
+
+                //In transactional mode, the first failing patch lets the whole transaction fail
+                if (transactional && fails.size() > failsBefore) {
+                    logException(null, traceItem, LOG_EXCEPTION_PATCH, table);
+                    throw new SQLException(PATCH_ERROR_GENERAL);
+                }
+            }
+        }
+
+        final long duration = System.currentTimeMillis() - startTS;
+        logger.info("{} DB Operation Stats [format => eventType,table,opType,timeTakenMs] - {} {} {} {}",
+                traceItem, "DBOperationStats", table, LOG_EXCEPTION_PATCH, duration);
+        return missing;
+    }
+
+    private static String getPatchUuid(Map<String, Object> patch) {
+        try {
+            return new JsonObject(patch).getJsonObject("properties").getJsonObject(XyzNamespace.XYZ_NAMESPACE).getString("uuid");
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     protected static void assure3d(Coordinate[] coords){
         for (Coordinate coord : coords){
             if(Double.valueOf(coord.z).isNaN())
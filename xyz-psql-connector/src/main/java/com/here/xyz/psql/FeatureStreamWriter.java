@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2017-2022 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.psql;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.here.xyz.models.geojson.implementation.FeatureCollection;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes the rows of a feature result set as a FeatureCollection directly into an output stream.
+ * The features are flushed in chunks of a fixed size, so the memory consumption does not depend on the size of the result.
+ */
+class FeatureStreamWriter {
+
+  private static final String PREFIX = "{\"type\":\"FeatureCollection\",\"features\":[";
+
+  private final Writer writer;
+  private final Runnable onStart;
+  private boolean started;
+  private boolean empty = true;
+
+  /**
+   * @param output The output stream to write the FeatureCollection into.
+   * @param chunkSize The amount of bytes being buffered before they get flushed into the output stream.
+   * @param onStart Gets called right before the first bytes are written into the output stream.
+   */
+  FeatureStreamWriter(OutputStream output, int chunkSize, Runnable onStart) {
+    this.writer = new OutputStreamWriter(new BufferedOutputStream(output, chunkSize), StandardCharsets.UTF_8);
+    this.onStart = onStart;
+  }
+
+  private void start() throws IOException {
+    if (started) return;
+    started = true;
+    onStart.run();
+    writer.write(PREFIX);
+  }
+
+  /**
+   * Writes one feature. The geometry is injected into the jsondata, the same way as it is done for non-streamed results.
+   *
+   * @param jsondata The feature without geometry.
+   * @param geo The GeoJSON geometry or null.
+   */
+  void writeFeature(String jsondata, String geo) throws IOException {
+    start();
+    if (!empty)
+      writer.write(',');
+    empty = false;
+    writer.write(jsondata, 0, jsondata.length() - 1);
+    writer.write(",\"geometry\":");
+    writer.write(geo == null ? "null" : geo);
+    writer.write('}');
+  }
+
+  /**
+   * Closes the features array and writes the remaining (paging) attributes of the provided collection.
+   * The underlying output stream is flushed, but not closed.
+   *
+   * @param fc The collection which contains the attributes to be written after the features.
+   */
+  void finish(FeatureCollection fc) throws IOException {
+    start();
+    writer.write(']');
+    writeAttribute("handle", fc.getHandle());
+    writeAttribute("nextPageToken", fc.getNextPageToken());
+    writer.write('}');
+    writer.flush();
+  }
+
+  private void writeAttribute(String name, String value) throws IOException {
+    if (value == null) return;
+    writer.write(",\"" + name + "\":\"");
+    writer.write(JsonStringEncoder.getInstance().quoteAsString(value));
+    writer.write('"');
+  }
+
+  boolean isStarted() {
+    return started;
+  }
+}
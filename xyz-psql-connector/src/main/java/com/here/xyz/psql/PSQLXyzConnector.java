@@ -370,10 +370,10 @@ public class PSQLXyzConnector extends DatabaseHandler {
         checkCanSearchFor(event);
 
       if (event.getParams() != null && event.getParams().containsKey("extends") && event.getContext() == DEFAULT)
-        return new GetFeaturesByBBox<>(event, this).run();
+        return new GetFeaturesByBBox<>(event, this).stream();
 
       if( !bMvtRequested )
-       return executeQueryWithRetry(SQLQueryBuilder.buildGetFeaturesByBBoxQuery(event));
+       return executeStreamingQueryWithRetry(SQLQueryBuilder.buildGetFeaturesByBBoxQuery(event), this::defaultFeatureResultSetHandler, true);
       else
        return executeBinQueryWithRetry( SQLQueryBuilder.buildMvtEncapsuledQuery(event.getSpace(), SQLQueryBuilder.buildGetFeaturesByBBoxQuery(event), mercatorTile, hereTile, bbox, mvtMargin, bMvtFlattend ) );
 
@@ -422,7 +422,7 @@ public class PSQLXyzConnector extends DatabaseHandler {
       if (event.getV() != null)
         return iterateVersions(event);
 
-      return new IterateFeatures(event, this).run();
+      return new IterateFeatures(event, this).stream();
     }
     catch (SQLException e) {
       return checkSQLException(e, config.readTableFromEvent(event));
@@ -452,7 +452,7 @@ public class PSQLXyzConnector extends DatabaseHandler {
         return new ErrorResponse().withStreamId(streamId).withError(XyzError.ILLEGAL_ARGUMENT)
             .withErrorMessage("Invalid request parameters.");
 
-      return new SearchForFeatures<>(event, this).run();
+      return new SearchForFeatures<>(event, this).stream();
     }
     catch (SQLException e) {
       return checkSQLException(e, config.readTableFromEvent(event));
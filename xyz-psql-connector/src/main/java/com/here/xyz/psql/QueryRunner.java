@@ -52,6 +52,15 @@ public abstract class QueryRunner<E extends Object, R extends Object> implements
     return dbHandler.executeQueryWithRetry(query, this, useReadReplica);
   }
 
+  /**
+   * Runs the query and streams the resulting features into the output stream of the request, if the host supports streaming.
+   * @see DatabaseHandler#executeStreamingQueryWithRetry(SQLQuery, ResultSetHandler, boolean)
+   */
+  public R stream() throws SQLException {
+    prepareQuery();
+    return dbHandler.executeStreamingQueryWithRetry(query, this, useReadReplica);
+  }
+
   public void write() throws SQLException {
     prepareQuery();
     dbHandler.executeUpdateWithRetry(query);
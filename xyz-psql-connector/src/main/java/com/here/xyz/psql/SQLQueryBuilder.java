@@ -758,6 +758,12 @@ public class SQLQueryBuilder {
         return SQLQuery.replaceVars(updateWithoutGeometryStmtSQL, schema, table);
     }
 
+    protected static String patchStmtSQL(final String schema, final String table) {
+        String patchStmtSQL = "SELECT success, modified, feature, err_code, err_msg "
+                + "FROM xyz_config.naksha_bulk_patch( '"+schema+"', '"+table+"', ?, ?, ? ) ";
+        return SQLQuery.replaceVars(patchStmtSQL, schema, table);
+    }
+
     protected static String deleteStmtSQL(final String schema, final String table, final boolean handleUUID){
         String deleteStmtSQL = "SELECT success, xyz_ns, err_code, err_msg "
                 + "FROM xyz_config.naksha_bulk_delete( '"+schema+"', '"+table+"', ?, "+ (handleUUID ? "?" : "null") +" ) ";
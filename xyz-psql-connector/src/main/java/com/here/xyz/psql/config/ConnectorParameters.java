@@ -39,6 +39,7 @@ public class ConnectorParameters {
     public final static String ON_DEMAND_IDX_LIMIT = "onDemandIdxLimit";
     public final static String HRN_SHORTENING = "hrnShortening";
     public final static String IGNORE_CREATE_MSE = "ignoreCreateMse";
+    public final static String WRITE_BATCH_SIZE = "writeBatchSize";
 
     public final static String DB_INITIAL_POOL_SIZE = "dbInitialPoolSize";
     public final static String DB_MIN_POOL_SIZE = "dbMinPoolSize";
@@ -48,6 +49,9 @@ public class ConnectorParameters {
     public final static String DB_CHECKOUT_TIMEOUT = "dbCheckoutTimeout";
     public final static String DB_TEST_CONNECTION_ON_CHECKOUT = "dbTestConnectionOnCheckout";
     public final static String DB_MAX_IDLE_TIME = "dbMaxIdleTime";
+    public final static String DB_POOL_IMPLEMENTATION = "dbPoolImplementation";
+    public final static String DB_MAINTENANCE_POOL_SIZE = "dbMaintenancePoolSize";
+    public final static String DB_SCAN_POOL_SIZE = "dbScanPoolSize";
 
     /**
      * Connector Settings defaults
@@ -61,6 +65,7 @@ public class ConnectorParameters {
     private int onDemandIdxLimit = 4;
     private boolean hrnShortening = false;
     private boolean ignoreCreateMse = false;
+    private int writeBatchSize = 1000;
     private String ecps;
 
     /**
@@ -74,6 +79,9 @@ public class ConnectorParameters {
     private int dbCheckoutTimeout = 7;
     private boolean dbTestConnectionOnCheckout = true;
     private Integer dbMaxIdleTime = null;
+    private String dbPoolImplementation = "c3p0";
+    private int dbMaintenancePoolSize = 1;
+    private int dbScanPoolSize = 0;
 
     private TraceItem TraceItem;
 
@@ -90,6 +98,7 @@ public class ConnectorParameters {
             this.onDemandIdxLimit = parseValue(connectorParams, Integer.class, onDemandIdxLimit, ON_DEMAND_IDX_LIMIT);
             hrnShortening = parseValue(connectorParams, Boolean.class, hrnShortening, HRN_SHORTENING);
             ignoreCreateMse = parseValue(connectorParams, Boolean.class, ignoreCreateMse, IGNORE_CREATE_MSE);
+            writeBatchSize = parseValue(connectorParams, Integer.class, writeBatchSize, WRITE_BATCH_SIZE);
 
             this.dbInitialPoolSize = parseValue(connectorParams, Integer.class, dbInitialPoolSize, DB_INITIAL_POOL_SIZE);
             this.dbMinPoolSize = parseValue(connectorParams, Integer.class, dbMinPoolSize, DB_MIN_POOL_SIZE);
@@ -99,6 +108,9 @@ public class ConnectorParameters {
             this.dbCheckoutTimeout = parseValue(connectorParams, Integer.class, dbCheckoutTimeout, DB_CHECKOUT_TIMEOUT);
             this.dbTestConnectionOnCheckout = parseValue(connectorParams, Boolean.class, dbTestConnectionOnCheckout, DB_TEST_CONNECTION_ON_CHECKOUT);
             this.dbMaxIdleTime = parseValue(connectorParams, Integer.class, dbMaxIdleTime, DB_MAX_IDLE_TIME);
+            this.dbPoolImplementation = parseValue(connectorParams, String.class, dbPoolImplementation, DB_POOL_IMPLEMENTATION);
+            this.dbMaintenancePoolSize = parseValue(connectorParams, Integer.class, dbMaintenancePoolSize, DB_MAINTENANCE_POOL_SIZE);
+            this.dbScanPoolSize = parseValue(connectorParams, Integer.class, dbScanPoolSize, DB_SCAN_POOL_SIZE);
 
             this.ecps = parseValue(connectorParams, String.class, null, "ecps");
         }
@@ -166,6 +178,13 @@ public class ConnectorParameters {
         return ignoreCreateMse;
     }
 
+    /**
+     * The maximum number of features which are sent to the database within one statement when writing non-transactionally.
+     */
+    public int getWriteBatchSize() {
+        return Math.max(writeBatchSize, 1);
+    }
+
     public int getDbInitialPoolSize() {
         return dbInitialPoolSize;
     }
@@ -196,6 +215,28 @@ public class ConnectorParameters {
         return dbMaxIdleTime;
     }
 
+    /**
+     * The implementation of the connection pools, either "c3p0" or "hikari".
+     */
+    public String getDbPoolImplementation() {
+        return dbPoolImplementation;
+    }
+
+    /**
+     * The maximum size of the separate pool which is used for maintenance queries.
+     */
+    public int getDbMaintenancePoolSize() {
+        return Math.max(dbMaintenancePoolSize, 1);
+    }
+
+    /**
+     * The maximum size of the separate pool which is used for searches and iterations. If not set, half of the maximum size of the
+     * request pool is used.
+     */
+    public int getDbScanPoolSize() {
+        return dbScanPoolSize > 0 ? dbScanPoolSize : Math.max(dbMaxPoolSize / 2, 1);
+    }
+
     public String getEcps() {
         return ecps;
     }
@@ -213,6 +254,7 @@ public class ConnectorParameters {
                 ", enableHashedSpaceId=" + enableHashedSpaceId +
                 ", compactHistory=" + compactHistory +
                 ", onDemandIdxLimit=" + onDemandIdxLimit +
+                ", writeBatchSize=" + writeBatchSize +
                 ", dbInitialPoolSize=" + dbInitialPoolSize +
                 ", dbMinPoolSize=" + dbMinPoolSize +
                 ", dbMaxPoolSize=" + dbMaxPoolSize +
@@ -33,8 +33,8 @@ import com.here.xyz.psql.tools.DhString;
 import java.security.GeneralSecurityException;
 import java.util.Arrays;
 import java.util.Base64;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -46,9 +46,12 @@ public class PSQLConfig {
   private static final Logger logger = LogManager.getLogger();
   public static final String ECPS_PHRASE = "ECPS_PHRASE";
   public static final String MAINTENANCE_ENDPOINT = "MAINTENANCE_SERVICE_ENDPOINT";
+  private static final ObjectMapper mapper = new ObjectMapper();
 
   private DataSource dataSource;
   private DataSource readDataSource;
+  private DataSource maintenanceDataSource;
+  private DataSource scanDataSource;
   private DatabaseMaintainer databaseMaintainer;
   private String maintenanceServiceEndpoint;
 
@@ -59,6 +62,14 @@ public class PSQLConfig {
     this.readDataSource = readDataSource;
   }
 
+  public void addMaintenanceDataSource(DataSource maintenanceDataSource){
+    this.maintenanceDataSource = maintenanceDataSource;
+  }
+
+  public void addScanDataSource(DataSource scanDataSource){
+    this.scanDataSource = scanDataSource;
+  }
+
   public void addDatabaseMaintainer(DatabaseMaintainer databaseMaintainer){
     this.databaseMaintainer = databaseMaintainer;
   }
@@ -77,6 +88,18 @@ public class PSQLConfig {
     return this.readDataSource;
   }
 
+  public DataSource getMaintenanceDataSource() {
+    if(maintenanceDataSource == null)
+      return this.dataSource;
+    return this.maintenanceDataSource;
+  }
+
+  public DataSource getScanDataSource() {
+    if(scanDataSource == null)
+      return getReadDataSource();
+    return this.scanDataSource;
+  }
+
   private final ConnectorParameters connectorParams;
   private final DatabaseSettings databaseSettings;
   private final String ecps;
@@ -159,7 +182,10 @@ public class PSQLConfig {
             connectorParams.isCompactHistory()+
             connectorParams.isPropertySearch()+
             connectorParams.isMvtSupport()+
-            connectorParams.isAutoIndexing();
+            connectorParams.isAutoIndexing()+
+            connectorParams.getDbPoolImplementation()+
+            connectorParams.getDbMaintenancePoolSize()+
+            connectorParams.getDbScanPoolSize();
   }
 
   public String applicationName() {
@@ -225,7 +251,7 @@ public class PSQLConfig {
   @SuppressWarnings("unchecked")
   public static Map<String, Object> decryptECPS(String ecps, String phrase) {
     try {
-      return new ObjectMapper().readValue(AESGCMHelper.getInstance(phrase).decrypt(ecps), Map.class);
+      return mapper.readValue(AESGCMHelper.getInstance(phrase).decrypt(ecps), Map.class);
     } catch (Exception e) {
       logger.error("Unable to read the encrypted connector parameter settings.");
       throw new RuntimeException(e);
@@ -236,7 +262,7 @@ public class PSQLConfig {
    * Encrypt and decrypt ECPS Strings by using AesGcm
    */
   public static class AESGCMHelper {
-    private static Map<String, AESGCMHelper> helpers = new HashMap<>();
+    private static Map<String, AESGCMHelper> helpers = new ConcurrentHashMap<>();
     private AesGcmJce key;
 
     {
@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2017-2022 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.psql.pool;
+
+import com.mchange.v2.c3p0.AbstractConnectionCustomizer;
+import com.mchange.v2.c3p0.ComboPooledDataSource;
+import com.mchange.v2.resourcepool.TimeoutException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.List;
+import javax.sql.DataSource;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A {@link ConnectionPool} which is backed by c3p0.
+ */
+class C3p0ConnectionPool extends ConnectionPool {
+
+  private static final Logger logger = LogManager.getLogger();
+  private static final String EXT_INIT_STATEMENTS = "config.initStatements()";
+
+  private final ComboPooledDataSource cpds;
+
+  C3p0ConnectionPool(ConnectionPoolSettings settings) {
+    cpds = new ComboPooledDataSource();
+    cpds.setJdbcUrl(settings.getJdbcUrl());
+    cpds.setUser(settings.getUser());
+    cpds.setPassword(settings.getPassword());
+
+    cpds.setInitialPoolSize(settings.getInitialPoolSize());
+    cpds.setMinPoolSize(settings.getMinPoolSize());
+    cpds.setMaxPoolSize(settings.getMaxPoolSize());
+
+    cpds.setAcquireRetryAttempts(settings.getAcquireRetryAttempts());
+    cpds.setAcquireIncrement(settings.getAcquireIncrement());
+    cpds.setCheckoutTimeout(settings.getCheckoutTimeoutMs());
+
+    if (settings.getMaxIdleTime() != null)
+      cpds.setMaxIdleTime(settings.getMaxIdleTime());
+
+    if (settings.isTestConnectionOnCheckout())
+      cpds.setTestConnectionOnCheckout(true);
+
+    cpds.setExtensions(Collections.singletonMap(EXT_INIT_STATEMENTS, settings.getInitStatements()));
+    cpds.setConnectionCustomizerClassName(InitStatementsCustomizer.class.getName());
+  }
+
+  @Override
+  protected DataSource pooledDataSource() {
+    return cpds;
+  }
+
+  @Override
+  protected boolean isTimeout(SQLException e) {
+    return e.getCause() instanceof TimeoutException;
+  }
+
+  @Override
+  protected String getImplementation() {
+    return C3P0;
+  }
+
+  @Override
+  protected int getMaxPoolSize() {
+    return cpds.getMaxPoolSize();
+  }
+
+  @Override
+  protected int getActiveConnections() {
+    try {
+      return cpds.getNumBusyConnectionsDefaultUser();
+    }
+    catch (SQLException e) {
+      return -1;
+    }
+  }
+
+  @Override
+  protected int getIdleConnections() {
+    try {
+      return cpds.getNumIdleConnectionsDefaultUser();
+    }
+    catch (SQLException e) {
+      return -1;
+    }
+  }
+
+  @Override
+  protected int getWaitingThreads() {
+    try {
+      return cpds.getNumThreadsAwaitingCheckoutDefaultUser();
+    }
+    catch (SQLException e) {
+      return -1;
+    }
+  }
+
+  @Override
+  public void resetConnections() {
+    cpds.resetPoolManager();
+  }
+
+  @Override
+  public void close() {
+    cpds.close();
+  }
+
+  /**
+   * Executes the init statements of the pool on each newly acquired connection.
+   */
+  public static class InitStatementsCustomizer extends AbstractConnectionCustomizer {
+
+    @SuppressWarnings("unchecked")
+    private List<String> getInitStatements(String parentDataSourceIdentityToken) {
+      return (List<String>) extensionsForToken(parentDataSourceIdentityToken).get(EXT_INIT_STATEMENTS);
+    }
+
+    @Override
+    public void onAcquire(Connection c, String pdsIdt) {
+      try (Statement stmt = c.createStatement()) {
+        for (String initStatement : getInitStatements(pdsIdt))
+          stmt.execute(initStatement);
+      }
+      catch (SQLException e) {
+        logger.error("Failed to initialize connection " + c + " [" + pdsIdt + "] : {}", e);
+      }
+    }
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2017-2022 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.psql.pool;
+
+import com.here.xyz.responses.maintenance.ConnectorStatus.PoolStatus;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+/**
+ * A pooled {@link DataSource} which measures the time needed to acquire connections.
+ * The actual pooling is done by one of the supported pool implementations, see {@link #create(ConnectionPoolSettings)}.
+ */
+public abstract class ConnectionPool implements DataSource, AutoCloseable {
+
+  public static final String C3P0 = "c3p0";
+  public static final String HIKARI = "hikari";
+
+  private final LongAdder acquisitions = new LongAdder();
+  private final LongAdder acquireNanos = new LongAdder();
+  private final AtomicLong maxAcquireNanos = new AtomicLong();
+  private final LongAdder timeouts = new LongAdder();
+
+  /**
+   * Creates a new pool using the implementation which is defined in the settings.
+   *
+   * @param settings The settings of the pool.
+   * @return The new pool.
+   */
+  public static ConnectionPool create(ConnectionPoolSettings settings) {
+    if (HIKARI.equalsIgnoreCase(settings.getImplementation()))
+      return new HikariConnectionPool(settings);
+    return new C3p0ConnectionPool(settings);
+  }
+
+  /**
+   * The data source of the underlying pool implementation.
+   */
+  protected abstract DataSource pooledDataSource();
+
+  /**
+   * Whether the given exception was thrown because no connection could be acquired within the checkout timeout.
+   */
+  protected abstract boolean isTimeout(SQLException e);
+
+  protected abstract String getImplementation();
+
+  protected abstract int getMaxPoolSize();
+
+  protected abstract int getActiveConnections();
+
+  protected abstract int getIdleConnections();
+
+  protected abstract int getWaitingThreads();
+
+  /**
+   * Closes all idle connections of the pool. The connections being in use are closed once they get returned to the pool.
+   */
+  public abstract void resetConnections();
+
+  @Override
+  public abstract void close();
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return acquire(null, null, false);
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return acquire(username, password, true);
+  }
+
+  private Connection acquire(String username, String password, boolean withCredentials) throws SQLException {
+    final long start = System.nanoTime();
+    try {
+      return withCredentials ? pooledDataSource().getConnection(username, password) : pooledDataSource().getConnection();
+    }
+    catch (SQLException e) {
+      if (isTimeout(e))
+        timeouts.increment();
+      throw e;
+    }
+    finally {
+      final long nanos = System.nanoTime() - start;
+      acquisitions.increment();
+      acquireNanos.add(nanos);
+      maxAcquireNanos.accumulateAndGet(nanos, Math::max);
+    }
+  }
+
+  /**
+   * Returns the current status of the pool. The maximum acquire time gets reset with each call.
+   *
+   * @return The pool status.
+   */
+  public PoolStatus getStatus() {
+    final long count = acquisitions.sum();
+    return new PoolStatus()
+        .withImplementation(getImplementation())
+        .withMaxSize(getMaxPoolSize())
+        .withActive(getActiveConnections())
+        .withIdle(getIdleConnections())
+        .withWaiting(getWaitingThreads())
+        .withAcquisitions(count)
+        .withTimeouts(timeouts.sum())
+        .withAvgAcquireTimeMs(count == 0 ? 0 : toMillis(acquireNanos.sum() / count))
+        .withMaxAcquireTimeMs(toMillis(maxAcquireNanos.getAndSet(0)));
+  }
+
+  private static double toMillis(long nanos) {
+    return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  @Override
+  public PrintWriter getLogWriter() throws SQLException {
+    return pooledDataSource().getLogWriter();
+  }
+
+  @Override
+  public void setLogWriter(PrintWriter out) throws SQLException {
+    pooledDataSource().setLogWriter(out);
+  }
+
+  @Override
+  public void setLoginTimeout(int seconds) throws SQLException {
+    pooledDataSource().setLoginTimeout(seconds);
+  }
+
+  @Override
+  public int getLoginTimeout() throws SQLException {
+    return pooledDataSource().getLoginTimeout();
+  }
+
+  @Override
+  public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+    return pooledDataSource().getParentLogger();
+  }
+
+  @Override
+  public <T> T unwrap(Class<T> iface) throws SQLException {
+    if (iface.isInstance(this))
+      return iface.cast(this);
+    return pooledDataSource().unwrap(iface);
+  }
+
+  @Override
+  public boolean isWrapperFor(Class<?> iface) throws SQLException {
+    return iface.isInstance(this) || pooledDataSource().isWrapperFor(iface);
+  }
+}
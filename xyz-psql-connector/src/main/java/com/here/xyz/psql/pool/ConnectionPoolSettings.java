@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2017-2022 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.psql.pool;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The settings of a {@link ConnectionPool}. The settings which are not supported by the chosen pool implementation are ignored.
+ */
+public class ConnectionPoolSettings {
+
+  private String implementation = ConnectionPool.C3P0;
+  private String jdbcUrl;
+  private String user;
+  private String password;
+  private int initialPoolSize = 1;
+  private int minPoolSize = 1;
+  private int maxPoolSize = 1;
+  private int acquireIncrement = 1;
+  private int acquireRetryAttempts = 5;
+  private int checkoutTimeoutMs = 7000;
+  private Integer maxIdleTime;
+  private boolean testConnectionOnCheckout;
+  private List<String> initStatements = new ArrayList<>();
+
+  public String getImplementation() {
+    return implementation;
+  }
+
+  /**
+   * @param implementation The pool implementation to be used. Either {@link ConnectionPool#C3P0} or {@link ConnectionPool#HIKARI}.
+   */
+  public ConnectionPoolSettings withImplementation(String implementation) {
+    if (implementation != null)
+      this.implementation = implementation;
+    return this;
+  }
+
+  public String getJdbcUrl() {
+    return jdbcUrl;
+  }
+
+  public ConnectionPoolSettings withJdbcUrl(String jdbcUrl) {
+    this.jdbcUrl = jdbcUrl;
+    return this;
+  }
+
+  public String getUser() {
+    return user;
+  }
+
+  public ConnectionPoolSettings withUser(String user) {
+    this.user = user;
+    return this;
+  }
+
+  public String getPassword() {
+    return password;
+  }
+
+  public ConnectionPoolSettings withPassword(String password) {
+    this.password = password;
+    return this;
+  }
+
+  public int getInitialPoolSize() {
+    return initialPoolSize;
+  }
+
+  public ConnectionPoolSettings withInitialPoolSize(int initialPoolSize) {
+    this.initialPoolSize = initialPoolSize;
+    return this;
+  }
+
+  public int getMinPoolSize() {
+    return minPoolSize;
+  }
+
+  public ConnectionPoolSettings withMinPoolSize(int minPoolSize) {
+    this.minPoolSize = minPoolSize;
+    return this;
+  }
+
+  public int getMaxPoolSize() {
+    return maxPoolSize;
+  }
+
+  public ConnectionPoolSettings withMaxPoolSize(int maxPoolSize) {
+    this.maxPoolSize = maxPoolSize;
+    return this;
+  }
+
+  public int getAcquireIncrement() {
+    return acquireIncrement;
+  }
+
+  public ConnectionPoolSettings withAcquireIncrement(int acquireIncrement) {
+    this.acquireIncrement = acquireIncrement;
+    return this;
+  }
+
+  public int getAcquireRetryAttempts() {
+    return acquireRetryAttempts;
+  }
+
+  public ConnectionPoolSettings withAcquireRetryAttempts(int acquireRetryAttempts) {
+    this.acquireRetryAttempts = acquireRetryAttempts;
+    return this;
+  }
+
+  public int getCheckoutTimeoutMs() {
+    return checkoutTimeoutMs;
+  }
+
+  public ConnectionPoolSettings withCheckoutTimeoutMs(int checkoutTimeoutMs) {
+    this.checkoutTimeoutMs = checkoutTimeoutMs;
+    return this;
+  }
+
+  /**
+   * The time in seconds after which an idle connection gets closed or null, if idle connections should never be closed.
+   */
+  public Integer getMaxIdleTime() {
+    return maxIdleTime;
+  }
+
+  public ConnectionPoolSettings withMaxIdleTime(Integer maxIdleTime) {
+    this.maxIdleTime = maxIdleTime;
+    return this;
+  }
+
+  public boolean isTestConnectionOnCheckout() {
+    return testConnectionOnCheckout;
+  }
+
+  public ConnectionPoolSettings withTestConnectionOnCheckout(boolean testConnectionOnCheckout) {
+    this.testConnectionOnCheckout = testConnectionOnCheckout;
+    return this;
+  }
+
+  /**
+   * The statements to be executed on each new connection of the pool.
+   */
+  public List<String> getInitStatements() {
+    return initStatements;
+  }
+
+  public ConnectionPoolSettings withInitStatement(String initStatement) {
+    initStatements.add(initStatement);
+    return this;
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2017-2022 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.psql.pool;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+
+/**
+ * A {@link ConnectionPool} which is backed by HikariCP.
+ */
+class HikariConnectionPool extends ConnectionPool {
+
+  private final HikariDataSource ds;
+
+  HikariConnectionPool(ConnectionPoolSettings settings) {
+    final HikariConfig config = new HikariConfig();
+    config.setJdbcUrl(settings.getJdbcUrl());
+    config.setUsername(settings.getUser());
+    config.setPassword(settings.getPassword());
+
+    config.setMinimumIdle(settings.getMinPoolSize());
+    config.setMaximumPoolSize(settings.getMaxPoolSize());
+    config.setConnectionTimeout(settings.getCheckoutTimeoutMs());
+    if (settings.getMaxIdleTime() != null)
+      config.setIdleTimeout(TimeUnit.SECONDS.toMillis(settings.getMaxIdleTime()));
+
+    if (!settings.getInitStatements().isEmpty())
+      config.setConnectionInitSql(String.join(" ", settings.getInitStatements()));
+    //Like c3p0, do not fail if the database is not reachable at the time the pool gets created
+    config.setInitializationFailTimeout(-1);
+    ds = new HikariDataSource(config);
+  }
+
+  @Override
+  protected DataSource pooledDataSource() {
+    return ds;
+  }
+
+  @Override
+  protected boolean isTimeout(SQLException e) {
+    return e instanceof SQLTransientConnectionException;
+  }
+
+  @Override
+  protected String getImplementation() {
+    return HIKARI;
+  }
+
+  @Override
+  protected int getMaxPoolSize() {
+    return ds.getMaximumPoolSize();
+  }
+
+  @Override
+  protected int getActiveConnections() {
+    final HikariPoolMXBean pool = ds.getHikariPoolMXBean();
+    return pool == null ? -1 : pool.getActiveConnections();
+  }
+
+  @Override
+  protected int getIdleConnections() {
+    final HikariPoolMXBean pool = ds.getHikariPoolMXBean();
+    return pool == null ? -1 : pool.getIdleConnections();
+  }
+
+  @Override
+  protected int getWaitingThreads() {
+    final HikariPoolMXBean pool = ds.getHikariPoolMXBean();
+    return pool == null ? -1 : pool.getThreadsAwaitingConnection();
+  }
+
+  @Override
+  public void resetConnections() {
+    final HikariPoolMXBean pool = ds.getHikariPoolMXBean();
+    if (pool != null)
+      pool.softEvictConnections();
+  }
+
+  @Override
+  public void close() {
+    ds.close();
+  }
+}
@@ -27,8 +27,6 @@ import com.here.xyz.events.ContextAwareEvent.SpaceContext;
 import com.here.xyz.events.IterateFeaturesEvent;
 import com.here.xyz.events.PropertiesQuery;
 import com.here.xyz.events.PropertyQuery;
-import com.here.xyz.events.PropertyQuery.QueryOperation;
-import com.here.xyz.events.PropertyQueryList;
 import com.here.xyz.events.TagsQuery;
 import com.here.xyz.models.geojson.implementation.FeatureCollection;
 import com.here.xyz.psql.Capabilities;
@@ -46,7 +44,9 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -54,11 +54,18 @@ import org.json.JSONObject;
 public class IterateFeatures extends SearchForFeatures<IterateFeaturesEvent> {
 
   public static final String HPREFIX = "h07~";
+  private static final String I_HANDLE_KEY = "i";
+  private static final String PARTITION_START_KEY = "h";
+  private static final String PARTITION_LAST_ID_KEY = "h0";
+  private static final String PARTITION_END_KEY = "e";
   private static final String HANDLE_ENCRYPTION_PHRASE = "findFeaturesSort";
   private static String pg_hint_plan = "/*+ Set(seq_page_cost 100.0) IndexOnlyScan( ht1 ) */";
   private static String PropertyDoesNotExistIndikator = "#zJfCzPCz#";
   private long limit;
   private long start;
+  private boolean seek;
+  private boolean partition;
+  private String partitionEnd;
 
   private boolean isOrderByEvent;
 
@@ -129,11 +136,25 @@ public class IterateFeatures extends SearchForFeatures<IterateFeaturesEvent> {
     start = 0L;
     if (hasHandle) {
       if (event.getHandle().startsWith("{")) {
+        JsonNode jn;
         try {
-          // Note offset of the last returned feature record (so we know, where to continue next iterate from)
-          JsonNode jn = om.readTree(event.getHandle());
-          String off = jn.get("o").toString();
-          start = Long.parseLong(off);
+          jn = om.readTree(event.getHandle());
+        }
+        catch (JsonProcessingException e) {
+          throw new SQLException(e);
+        }
+        if (jn.has(PARTITION_START_KEY) || jn.has(PARTITION_LAST_ID_KEY))
+          return buildPartitionQuery(query, jn);
+
+        try {
+          if (jn.has(I_HANDLE_KEY)) {
+            // Position (i value) of the last returned feature record (so we can seek to where the next iterate continues)
+            seek = true;
+            start = jn.get(I_HANDLE_KEY).asLong();
+          }
+          else
+            // Note offset of the last returned feature record (so we know, where to continue next iterate from)
+            start = Long.parseLong(jn.get("o").toString());
         } catch(Exception e) {
           throw new SQLException(e);
         }
@@ -142,19 +163,25 @@ public class IterateFeatures extends SearchForFeatures<IterateFeaturesEvent> {
         start = Long.parseLong(event.getHandle());
       }
     }
+    else
+      //Sorted iterations (see findFeaturesSort) continue by offset, the sort order is kept in their handle
+      seek = !hasSearch && !PSQLXyzConnector.isOrderByEvent(event);
 
-    if (hasSearch) {
+    if (seek) {
+      if (hasSearch)
+        throw new SQLException("Handle " + event.getHandle() + " can not be used for a search.");
+      // Keyset based iteration on the "i" column, so that each page can be read from the index at constant cost
       if (hasHandle)
-        query.setQueryFragment("offset", "OFFSET #{startOffset}");
+        query.setQueryFragment("filterWhereClause", "i > #{startOffset}");
+      query.setQueryFragment("orderBy", "ORDER BY i");
     }
-    else {
+    else if (hasSearch) {
       if (hasHandle)
-        // Iterate operation by supporting sorting (by using offset based iteration instead of using "i" column)
-        //query.setQueryFragment("filterWhereClause", "i > #{startOffset}");
         query.setQueryFragment("offset", "OFFSET #{startOffset}");
-
-      // Fixed missing ORDER BY clause (by using query params provided in REST API call)
-      //query.setQueryFragment("orderBy", "ORDER BY i");
+    }
+    else {
+      // Offset based iteration, kept for handles which have been created by older versions
+      query.setQueryFragment("offset", "OFFSET #{startOffset}");
       query.setQueryFragment("orderBy", buildOrderByClause(event));
     }
 
@@ -164,6 +191,50 @@ public class IterateFeatures extends SearchForFeatures<IterateFeaturesEvent> {
     return query;
   }
 
+  /**
+   * Builds the query for one page of a partition, as it has been created by {@link #requestIterationHandles}.
+   * A partition is a range of feature ids, which is iterated in the order of the ids, so that all pages can be read from the id index.
+   */
+  private SQLQuery buildPartitionQuery(SQLQuery query, JsonNode partitionHandle) throws SQLException {
+    if (hasSearch)
+      throw new SQLException("Partition handles can not be used for a search.");
+
+    partition = true;
+    partitionEnd = partitionHandle.has(PARTITION_END_KEY) ? partitionHandle.get(PARTITION_END_KEY).asText() : null;
+
+    String filter = "TRUE";
+    Map<String, Object> bounds = new HashMap<>();
+    if (partitionHandle.has(PARTITION_LAST_ID_KEY)) {
+      filter += " AND (jsondata->>'id') > #{partitionStart}";
+      bounds.put("partitionStart", partitionHandle.get(PARTITION_LAST_ID_KEY).asText());
+    }
+    else if (!partitionHandle.get(PARTITION_START_KEY).isNull()) {
+      filter += " AND (jsondata->>'id') >= #{partitionStart}";
+      bounds.put("partitionStart", partitionHandle.get(PARTITION_START_KEY).asText());
+    }
+    if (partitionEnd != null) {
+      filter += " AND (jsondata->>'id') < #{partitionEnd}";
+      bounds.put("partitionEnd", partitionEnd);
+    }
+
+    query.setQueryFragment("filterWhereClause", new SQLQuery(filter).withNamedParameters(bounds));
+    //The id of the last returned feature is the position to continue from
+    query.setQueryFragment("iColumn", ", jsondata->>'id'");
+    query.setQueryFragment("orderBy", "ORDER BY (jsondata->>'id')");
+    return query;
+  }
+
+  private static String createPartitionHandle(Object startId, Object lastId, Object endId) {
+    JSONObject handle = new JSONObject();
+    if (lastId != null)
+      handle.put(PARTITION_LAST_ID_KEY, lastId);
+    else
+      handle.put(PARTITION_START_KEY, startId == null ? JSONObject.NULL : startId);
+    if (endId != null)
+      handle.put(PARTITION_END_KEY, endId);
+    return handle.toString();
+  }
+
   private static String buildIColumnFragment(int dataset) {
     return ", i, " + dataset + " as dataset";
   }
@@ -205,8 +276,22 @@ public class IterateFeatures extends SearchForFeatures<IterateFeaturesEvent> {
         fc.setNextPageToken(handle);
       }
     }
+    else if (partition) {
+      if (fc.getHandle() != null) {
+        final String handle = createPartitionHandle(null, fc.getHandle(), partitionEnd);
+        fc.setHandle(handle);
+        fc.setNextPageToken(handle);
+      }
+    }
+    else if (seek) {
+      if (fc.getHandle() != null) {
+        final String handle = "{\"" + I_HANDLE_KEY + "\":" + fc.getHandle() + "}";
+        fc.setHandle(handle);
+        fc.setNextPageToken(handle);
+      }
+    }
     else {
-      if (hasSearch && fc.getHandle() != null) {
+      if (fc.getHandle() != null) {
         fc.setHandle("" + (start + limit)); //Kept for backwards compatibility for now
         fc.setNextPageToken("" + (start + limit));
       }
@@ -596,30 +681,16 @@ public class IterateFeatures extends SearchForFeatures<IterateFeaturesEvent> {
     return HPREFIX + chrE(encrypt(addEventValuesToHandle(event, jsonData), HANDLE_ENCRYPTION_PHRASE));
   }
 
-  private static FeatureCollection requestIterationHandles(IterateFeaturesEvent event, int nrHandles, DatabaseHandler dbHandler) throws Exception
+  /**
+   * Splits the table into the given number of id ranges.
+   * The returned handles can be used to iterate the partitions independently of each other (e.g. in parallel).
+   */
+  private static FeatureCollection requestIterationHandles(int nrHandles, DatabaseHandler dbHandler) throws Exception
   {
-    event.setPart(null);
-    event.setTags(null);
-
     FeatureCollection cl = dbHandler.executeQueryWithRetry( buildGetIterateHandlesQuery(nrHandles));
     List<List<Object>> hdata = cl.getFeatures().get(0).getProperties().get("handles");
     for( List<Object> entry : hdata )
-    {
-      event.setPropertiesQuery(null);
-      if( entry.get(2) != null )
-      { PropertyQuery pqry = new PropertyQuery();
-        pqry.setKey("id");
-        pqry.setOperation(QueryOperation.LESS_THAN);
-        pqry.setValues(Arrays.asList( entry.get(2)) );
-        PropertiesQuery pqs = new PropertiesQuery();
-        PropertyQueryList pql = new PropertyQueryList();
-        pql.add( pqry );
-        pqs.add( pql );
-
-        event.setPropertiesQuery( pqs );
-      }
-      entry.set(0, createHandle(event,DhString.format("{\"h\":\"%s\",\"s\":[]}",entry.get(1).toString())));
-    }
+     entry.set(0, createPartitionHandle(entry.get(1), null, entry.get(2)));
     return cl;
   }
 
@@ -631,7 +702,7 @@ public class IterateFeatures extends SearchForFeatures<IterateFeaturesEvent> {
     if( !hasHandle )  // decrypt handle and configure event
     {
       if( event.getPart() != null && event.getPart()[0] == -1 )
-       return requestIterationHandles(event, event.getPart()[1], dbHandler);
+       return requestIterationHandles(event.getPart()[1], dbHandler);
 
       if( event.getPropertiesQuery() != null && (event.getSort() == null || event.getSort().isEmpty()) )
       {
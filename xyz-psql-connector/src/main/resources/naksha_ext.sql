@@ -1005,6 +1005,7 @@ DECLARE
     txn      uuid;
     raw_uuid bytea;
     txi      int8;
+    inserted int8;
 BEGIN
     txn := xyz_config.naksha_tx_current();
     raw_uuid := xyz_config.naksha_uuid_to_bytes(txn);
@@ -1014,6 +1015,12 @@ BEGIN
                || 'ON CONFLICT DO NOTHING',
                  txid_current(), txi, current_timestamp, txn, _schema, _table);
     EXECUTE sql;
+    -- Wake up the transaction sequencer listening on this database, once per new transaction and table
+    -- The notification is delivered on commit only, so it's never sent for rolled back transactions
+    GET DIAGNOSTICS inserted = ROW_COUNT;
+    IF inserted > 0 THEN
+        PERFORM pg_notify('naksha_txn', '');
+    END IF;
 EXCEPTION WHEN OTHERS THEN
     RAISE NOTICE '%s, sql = %', SQLERRM, sql;
 END
@@ -1313,6 +1320,136 @@ BEGIN
 END
 $BODY$;
 
+-- Applies the JSON merge patch (RFC 7386) onto the target: Members with a null value get removed, objects get merged recursively
+-- and all other values get replaced.
+CREATE OR REPLACE FUNCTION xyz_config.naksha_jsonb_merge_patch(target jsonb, patch jsonb)
+    RETURNS jsonb
+    LANGUAGE 'plpgsql' IMMUTABLE
+AS
+$BODY$
+DECLARE
+    result jsonb;
+BEGIN
+    IF patch IS NULL OR jsonb_typeof(patch) <> 'object' THEN
+        RETURN patch;
+    END IF;
+    IF target IS NULL OR jsonb_typeof(target) <> 'object' THEN
+        target := '{}'::jsonb;
+    END IF;
+
+    SELECT coalesce(jsonb_object_agg(k, CASE WHEN p.v IS NULL THEN t.v ELSE xyz_config.naksha_jsonb_merge_patch(t.v, p.v) END), '{}'::jsonb)
+        INTO result
+        FROM jsonb_each(target) t(k, v)
+        FULL JOIN jsonb_each(patch) p(k, v) USING (k)
+        WHERE p.v IS NULL OR jsonb_typeof(p.v) <> 'null';
+    RETURN result;
+END
+$BODY$;
+
+DROP FUNCTION IF EXISTS xyz_config.naksha_bulk_patch(TEXT, TEXT, TEXT[], TEXT[], jsonb[]);
+
+-- Applies the given JSON merge patches onto the features with the given Ids, so that only the patches have to be transferred.
+-- A "geometry" member of a patch replaces (or removes) the geometry of the feature.
+-- If an uuid is provided for a feature, the patch is only applied if the feature still has that uuid (conflict detection).
+-- Features which don't exist are reported with the error code P0002 (no_data_found).
+-- Returns the resulting features (including their geometry) and whether they actually got modified.
+CREATE OR REPLACE FUNCTION xyz_config.naksha_bulk_patch( in_schema TEXT, in_table TEXT,
+        in_id_arr TEXT[], in_uuid_arr TEXT[], in_patch_arr jsonb[])
+    RETURNS TABLE
+            (
+                success   bool[],
+                modified  bool[],
+                feature   jsonb[],
+                err_code  TEXT[],
+                err_msg   TEXT[]
+            )
+    LANGUAGE 'plpgsql' VOLATILE
+AS
+$BODY$
+DECLARE
+    -- local variables
+    lock_stmt       TEXT;
+    upd_stmt        TEXT;
+    idx             int;
+    patch           jsonb;
+    head_uuid       TEXT;
+    old_jsondata    jsonb;
+    old_geo         geometry;
+    new_jsondata    jsonb;
+    new_geo         geometry;
+    -- return variables
+    out_success_arr     bool[];
+    out_modified_arr    bool[];
+    out_feature_arr     jsonb[];
+    out_err_code_arr    TEXT[];
+    out_err_msg_arr     TEXT[];
+BEGIN
+    lock_stmt := format('SELECT jsondata, geo FROM "%s"."%s" WHERE jsondata->>''id'' = $1 FOR UPDATE', in_schema, in_table);
+    upd_stmt := format('UPDATE "%s"."%s" SET jsondata = $1, geo = $2 WHERE jsondata->>''id'' = $3 RETURNING jsondata', in_schema, in_table);
+
+    -- We process the features sorted by Id (to always lock in the same order), but the output keeps the input positions
+    FOR idx IN SELECT x.pos FROM unnest(in_id_arr) WITH ORDINALITY AS x(id, pos) ORDER BY x.id ASC
+    LOOP
+        -- initialize array elements
+        out_success_arr[idx]    := FALSE;
+        out_modified_arr[idx]   := FALSE;
+        out_feature_arr[idx]    := null;
+        out_err_code_arr[idx]   := null;
+        out_err_msg_arr[idx]    := null;
+        BEGIN
+            -- Lock the head state, so that the patch gets applied exactly onto that state
+            old_jsondata := null;
+            EXECUTE lock_stmt INTO old_jsondata, old_geo USING in_id_arr[idx];
+            IF (old_jsondata IS NULL) THEN
+                -- 'P0002'
+                RAISE NO_DATA_FOUND USING MESSAGE = 'No data found for Id '||in_id_arr[idx];
+            END IF;
+
+            head_uuid := old_jsondata->'properties'->'@ns:com:here:xyz'->>'uuid';
+            IF (in_uuid_arr IS NOT NULL AND in_uuid_arr[idx] IS NOT NULL AND in_uuid_arr[idx] IS DISTINCT FROM head_uuid) THEN
+                -- 'P0001'
+                RAISE EXCEPTION 'The feature with id % cannot be patched. The provided UUID doesn''t match the UUID of the head state: %',
+                    in_id_arr[idx], head_uuid;
+            END IF;
+
+            patch := in_patch_arr[idx] - 'id' - 'bbox';
+            new_geo := old_geo;
+            IF (patch ? 'geometry') THEN
+                new_geo := NULL;
+                IF (jsonb_typeof(patch->'geometry') = 'object') THEN
+                    new_geo := ST_Force3D(ST_SetSRID(ST_GeomFromGeoJSON(patch->>'geometry'), 4326));
+                END IF;
+                patch := patch - 'geometry';
+            END IF;
+            new_jsondata := xyz_config.naksha_jsonb_merge_patch(old_jsondata, patch);
+
+            -- Only write a new version, if the patch actually changes something
+            IF (new_jsondata IS DISTINCT FROM old_jsondata OR (new_geo IS NULL) <> (old_geo IS NULL)
+                OR (new_geo IS NOT NULL AND NOT ST_OrderingEquals(new_geo, old_geo))) THEN
+                EXECUTE upd_stmt INTO new_jsondata USING new_jsondata, new_geo, in_id_arr[idx];
+                out_modified_arr[idx] := TRUE;
+            END IF;
+
+            out_success_arr[idx] := TRUE;
+            out_feature_arr[idx] := jsonb_set(new_jsondata, '{"geometry"}', CASE WHEN new_geo IS NULL THEN 'null'::jsonb
+                ELSE replace(ST_AsGeoJSON(ST_Force3D(new_geo), 8), 'nan', '0')::jsonb END, true);
+        EXCEPTION
+            WHEN OTHERS THEN
+                --RAISE NOTICE '% - %', SQLSTATE, SQLERRM;
+                out_err_code_arr[idx] := SQLSTATE;
+                out_err_msg_arr[idx] := SQLERRM;
+        END;
+    END LOOP;
+
+    RETURN QUERY SELECT out_success_arr     AS "success",
+                        out_modified_arr    AS "modified",
+                        out_feature_arr     AS "feature",
+                        out_err_code_arr    AS "err_code",
+                        out_err_msg_arr     AS "err_msg"
+                        ;
+END
+$BODY$;
+
 DROP FUNCTION IF EXISTS xyz_config.naksha_bulk_delete(TEXT, TEXT, TEXT[], TEXT[]);
 
 CREATE OR REPLACE FUNCTION xyz_config.naksha_bulk_delete( in_schema TEXT, in_table TEXT, in_id_arr TEXT[], in_uuid_arr TEXT[] )
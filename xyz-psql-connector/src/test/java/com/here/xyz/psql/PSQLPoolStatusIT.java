@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2017-2022 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.psql;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import com.here.xyz.XyzSerializable;
+import com.here.xyz.events.GetFeaturesByIdEvent;
+import com.here.xyz.events.IterateFeaturesEvent;
+import com.here.xyz.models.geojson.implementation.FeatureCollection;
+import com.here.xyz.responses.maintenance.ConnectorStatus.PoolStatus;
+import java.util.Collections;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class PSQLPoolStatusIT extends PSQLAbstractIT {
+
+  @BeforeClass
+  public static void init() throws Exception { initEnv(null); }
+
+  @Before
+  public void prepare() throws Exception {
+    invokeDeleteTestSpace(null);
+    invokeLambdaFromFile("/events/InsertFeaturesEventTransactional.json");
+  }
+
+  @After
+  public void shutdown() throws Exception { invokeDeleteTestSpace(null); }
+
+  @Test
+  public void testPoolStatus() throws Exception {
+    final Map<String, PoolStatus> pools = DatabaseHandler.getPoolStatus("test-connector");
+    assertNotNull(pools);
+    assertTrue(pools.containsKey("write"));
+    assertTrue(pools.containsKey("maintenance"));
+    assertTrue(pools.containsKey("scan"));
+    //Without a replica the short reads are served by the write pool
+    assertFalse(pools.containsKey("read"));
+    assertEquals(1, pools.get("write").getMaxSize());
+    assertEquals(1, pools.get("scan").getMaxSize());
+  }
+
+  @Test
+  public void testScanPoolIsSeparate() throws Exception {
+    final Map<String, PoolStatus> before = DatabaseHandler.getPoolStatus("test-connector");
+
+    final IterateFeaturesEvent iterateEvent = new IterateFeaturesEvent()
+        .withSpace(TEST_SPACE_ID)
+        .withConnectorParams(defaultTestConnectorParams);
+    assertTrue(XyzSerializable.deserialize(invokeLambda(iterateEvent.serialize())) instanceof FeatureCollection);
+
+    final Map<String, PoolStatus> afterIterate = DatabaseHandler.getPoolStatus("test-connector");
+    assertTrue(afterIterate.get("scan").getAcquisitions() > before.get("scan").getAcquisitions());
+
+    final GetFeaturesByIdEvent getByIdEvent = new GetFeaturesByIdEvent()
+        .withSpace(TEST_SPACE_ID)
+        .withIds(Collections.singletonList("F1"))
+        .withConnectorParams(defaultTestConnectorParams);
+    assertTrue(XyzSerializable.deserialize(invokeLambda(getByIdEvent.serialize())) instanceof FeatureCollection);
+
+    final Map<String, PoolStatus> afterGetById = DatabaseHandler.getPoolStatus("test-connector");
+    assertEquals(afterIterate.get("scan").getAcquisitions(), afterGetById.get("scan").getAcquisitions());
+    assertTrue(afterGetById.get("write").getAcquisitions() > afterIterate.get("write").getAcquisitions());
+  }
+}
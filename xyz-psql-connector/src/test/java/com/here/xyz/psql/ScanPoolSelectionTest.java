@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2017-2022 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.psql;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.here.xyz.events.GetFeaturesByBBoxEvent;
+import com.here.xyz.events.GetFeaturesByGeometryEvent;
+import com.here.xyz.events.GetFeaturesByIdEvent;
+import com.here.xyz.events.GetFeaturesByTileEvent;
+import com.here.xyz.events.GetStatisticsEvent;
+import com.here.xyz.events.IterateFeaturesEvent;
+import com.here.xyz.events.IterateHistoryEvent;
+import com.here.xyz.events.LoadFeaturesEvent;
+import com.here.xyz.events.ModifyFeaturesEvent;
+import com.here.xyz.events.SearchForFeaturesEvent;
+import org.junit.Test;
+
+public class ScanPoolSelectionTest {
+
+  @Test
+  public void longRunningReadsUseScanPool() {
+    assertTrue(DatabaseHandler.usesScanPool(new IterateFeaturesEvent()));
+    assertTrue(DatabaseHandler.usesScanPool(new IterateHistoryEvent()));
+    assertTrue(DatabaseHandler.usesScanPool(new SearchForFeaturesEvent()));
+  }
+
+  @Test
+  public void shortReadsDontUseScanPool() {
+    assertFalse(DatabaseHandler.usesScanPool(new GetFeaturesByBBoxEvent()));
+    assertFalse(DatabaseHandler.usesScanPool(new GetFeaturesByTileEvent()));
+    assertFalse(DatabaseHandler.usesScanPool(new GetFeaturesByGeometryEvent()));
+    assertFalse(DatabaseHandler.usesScanPool(new GetFeaturesByIdEvent()));
+    assertFalse(DatabaseHandler.usesScanPool(new LoadFeaturesEvent()));
+    assertFalse(DatabaseHandler.usesScanPool(new GetStatisticsEvent()));
+    assertFalse(DatabaseHandler.usesScanPool(new ModifyFeaturesEvent()));
+  }
+}
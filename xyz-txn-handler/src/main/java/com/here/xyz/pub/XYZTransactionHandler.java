@@ -18,6 +18,8 @@ import java.util.concurrent.TimeUnit;
 * 2) Publisher Job:
 *       It publishes transactions onto respective destinations subscribed as per xyz_subscriptions table.
 *       It spawns multiple threads, subject to thread pool capacity, with one thread per subscription.
+* If the listener is enabled (ENABLE_TXN_LISTENER), both jobs are woken up by LISTEN/NOTIFY on the SpaceDBs instead
+* and the periodic runs act as a fallback sweep only (e.g. for notifications missed during a reconnect).
 */
 public class XYZTransactionHandler {
     private static final Logger logger = LogManager.getLogger();
@@ -68,13 +70,15 @@ public class XYZTransactionHandler {
         // Start sequencer job (if enabled)
         if (pubCfg.ENABLE_TXN_SEQUENCER) {
             // Schedule Sequencer job (as per configured frequency e.g. 2 secs)
+            // With listener enabled, the job is woken up on notification and the schedule is just a fallback sweep
+            final long subsequentDelay = pubCfg.ENABLE_TXN_LISTENER ? pubCfg.TXN_LISTENER_SWEEP_DELAY_MS : pubCfg.TXN_SEQ_JOB_SUBSEQUENT_DELAY_MS;
             new ScheduledThreadPoolExecutor(1)
                     .scheduleWithFixedDelay(
                             new SeqJobHandler(pubCfg, adminDBConnParams),
-                            pubCfg.TXN_SEQ_JOB_INITIAL_DELAY_MS, pubCfg.TXN_SEQ_JOB_SUBSEQUENT_DELAY_MS, TimeUnit.MILLISECONDS
+                            pubCfg.TXN_SEQ_JOB_INITIAL_DELAY_MS, subsequentDelay, TimeUnit.MILLISECONDS
                     );
-            logger.info("Transaction Sequencer job is set to start after {}ms with subsequent delay of {}ms.",
-                    pubCfg.TXN_SEQ_JOB_INITIAL_DELAY_MS, pubCfg.TXN_SEQ_JOB_SUBSEQUENT_DELAY_MS);
+            logger.info("Transaction Sequencer job is set to start after {}ms with subsequent delay of {}ms (listener enabled: {}).",
+                    pubCfg.TXN_SEQ_JOB_INITIAL_DELAY_MS, subsequentDelay, pubCfg.ENABLE_TXN_LISTENER);
         }
         else {
             logger.warn("As per config, Transaction Sequencer is not enabled.");
@@ -83,13 +87,15 @@ public class XYZTransactionHandler {
         // Start publisher job (if enabled)
         if (pubCfg.ENABLE_TXN_PUBLISHER) {
             // Schedule Publisher job (as per configured frequency e.g. 2 secs)
+            // With listener enabled, the subscriptions are woken up on notification and the schedule is just a fallback sweep
+            final long subsequentDelay = pubCfg.ENABLE_TXN_LISTENER ? pubCfg.TXN_LISTENER_SWEEP_DELAY_MS : pubCfg.TXN_PUB_JOB_SUBSEQUENT_DELAY_MS;
             new ScheduledThreadPoolExecutor(1)
                     .scheduleWithFixedDelay(
                             new PubJobHandler(pubCfg, adminDBConnParams),
-                            pubCfg.TXN_PUB_JOB_INITIAL_DELAY_MS, pubCfg.TXN_PUB_JOB_SUBSEQUENT_DELAY_MS, TimeUnit.MILLISECONDS
+                            pubCfg.TXN_PUB_JOB_INITIAL_DELAY_MS, subsequentDelay, TimeUnit.MILLISECONDS
                     );
-            logger.info("Transaction Publisher job is set to start after {}ms with subsequent delay of {}ms.",
-                    pubCfg.TXN_PUB_JOB_INITIAL_DELAY_MS, pubCfg.TXN_PUB_JOB_SUBSEQUENT_DELAY_MS);
+            logger.info("Transaction Publisher job is set to start after {}ms with subsequent delay of {}ms (listener enabled: {}).",
+                    pubCfg.TXN_PUB_JOB_INITIAL_DELAY_MS, subsequentDelay, pubCfg.ENABLE_TXN_LISTENER);
         }
         else {
             logger.warn("As per config, Transaction Publisher is not enabled.");
@@ -83,7 +83,10 @@ public class PubDatabaseHandler {
             "    ts = now() " +
             "FROM sel, ranked_seq " +
             "WHERE t.\"schema\" = sel.skima AND t.\"table\" = sel.tname " +
-            "AND t.i = ranked_seq.i AND t.id IS null ";
+            "AND t.i = ranked_seq.i AND t.id IS null " +
+            "RETURNING t.space";
+
+    final private static String NOTIFY_SQL = "SELECT pg_notify(?, ?)";
 
 
 
@@ -346,10 +349,25 @@ public class PubDatabaseHandler {
             logger.debug("Transaction Sequencer statement for DB [{}] is [{}]", spaceDBConnParams.getDbUrl(), UPD_STMT_STR);
 
             final long startTS = System.currentTimeMillis();
-            try (final PreparedStatement stmt = conn.prepareStatement(UPD_STMT_STR)) {
-                rowCnt = stmt.executeUpdate();
+            final Set<String> sequencedSpaces = new HashSet<>();
+            try (final PreparedStatement stmt = conn.prepareStatement(UPD_STMT_STR);
+                 final ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    sequencedSpaces.add(rs.getString("space"));
+                    rowCnt++;
+                }
             }
             if (rowCnt > 0) {
+                // Let the publishers listening on this DB know about the newly publishable transactions.
+                // The notifications are delivered on commit, so they never overtake the sequence update.
+                try (final PreparedStatement stmt = conn.prepareStatement(NOTIFY_SQL)) {
+                    for (final String spaceId : sequencedSpaces) {
+                        stmt.setString(1, PubNotificationListener.CHANNEL_SEQUENCED_TXN);
+                        stmt.setString(2, spaceId);
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
                 conn.commit();
             }
             final long duration = System.currentTimeMillis() - startTS;
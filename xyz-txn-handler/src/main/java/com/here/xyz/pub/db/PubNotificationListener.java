@@ -0,0 +1,129 @@
+package com.here.xyz.pub.db;
+
+import com.here.xyz.pub.models.JdbcConnectionParams;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/*
+* Long-lived LISTEN connection against one SpaceDB instance (identified by dbUrl).
+* Notifications are sent by the SpaceDB on commit of the respective transaction:
+*   1) CHANNEL_NEW_TXN       - sent by the space triggers, when a new transaction got recorded (empty payload)
+*   2) CHANNEL_SEQUENCED_TXN - sent by the sequencer, when transactions of a space became publishable (payload = spaceId)
+* Handlers are registered per channel and are called on the listener thread, hence they should return quickly.
+* Notifications missed while the connection is down, are picked up by the fallback sweep of the respective job.
+*/
+public class PubNotificationListener implements Runnable {
+    private static final Logger logger = LogManager.getLogger();
+
+    public static final String CHANNEL_NEW_TXN = "naksha_txn";
+    public static final String CHANNEL_SEQUENCED_TXN = "naksha_txn_seq";
+
+    final private static int NOTIFICATION_WAIT_MS = 5000;
+    final private static long MIN_RECONNECT_DELAY_MS = TimeUnit.SECONDS.toMillis(1);
+    final private static long MAX_RECONNECT_DELAY_MS = TimeUnit.MINUTES.toMillis(1);
+
+    // One listener per SpaceDB instance
+    private static final ConcurrentHashMap<String, PubNotificationListener> listeners = new ConcurrentHashMap<>();
+
+    private volatile JdbcConnectionParams dbConnParams;
+    private final Map<String, Consumer<String>> handlers = new ConcurrentHashMap<>();
+
+    private PubNotificationListener(final JdbcConnectionParams dbConnParams) {
+        this.dbConnParams = dbConnParams;
+    }
+
+
+    /*
+    * Registers the handler for the given channel on the SpaceDB and starts listening (if not already done).
+    * Only one handler per channel and SpaceDB is kept, subsequent registrations just refresh the connection params
+    * (e.g. to pick up rotated credentials for the next reconnect).
+    */
+    public static void listen(final JdbcConnectionParams dbConnParams, final String channel, final Consumer<String> handler) {
+        final PubNotificationListener listener = listeners.computeIfAbsent(dbConnParams.getDbUrl(), dbUrl -> {
+            final PubNotificationListener l = new PubNotificationListener(dbConnParams);
+            final Thread t = new Thread(l, "pub-listener-" + dbUrl);
+            t.setDaemon(true);
+            t.start();
+            return l;
+        });
+        listener.dbConnParams = dbConnParams;
+        listener.handlers.putIfAbsent(channel, handler);
+    }
+
+
+    @Override
+    public void run() {
+        long reconnectDelay = MIN_RECONNECT_DELAY_MS;
+        while (!Thread.currentThread().isInterrupted()) {
+            final JdbcConnectionParams connParams = dbConnParams;
+            try (final Connection conn = DriverManager.getConnection(connParams.getDbUrl(), connParams.getUser(), connParams.getPswd())) {
+                conn.setAutoCommit(true);
+                final PGConnection pgConn = conn.unwrap(PGConnection.class);
+                final Set<String> listenedChannels = new HashSet<>();
+                logger.info("Listening for transaction notifications on DB [{}]", connParams.getDbUrl());
+                reconnectDelay = MIN_RECONNECT_DELAY_MS;
+
+                while (!Thread.currentThread().isInterrupted()) {
+                    // Start listening on channels registered in the meantime
+                    for (final String channel : handlers.keySet()) {
+                        if (listenedChannels.add(channel)) {
+                            try (final Statement stmt = conn.createStatement()) {
+                                stmt.execute("LISTEN " + channel);
+                            }
+                        }
+                    }
+                    // Blocks until notifications arrive or the wait time is over (throws if the connection broke)
+                    final PGNotification[] notifications = pgConn.getNotifications(NOTIFICATION_WAIT_MS);
+                    if (notifications != null && notifications.length > 0) {
+                        dispatch(notifications);
+                    }
+                }
+            }
+            catch (SQLException ex) {
+                logger.warn("Lost transaction notification connection to DB [{}]. Reconnecting in {}ms. ",
+                        connParams.getDbUrl(), reconnectDelay, ex);
+            }
+            try {
+                Thread.sleep(reconnectDelay);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            reconnectDelay = Math.min(reconnectDelay * 2, MAX_RECONNECT_DELAY_MS);
+        }
+    }
+
+
+    // Collapse duplicate notifications (e.g. many spaces sequenced within one run), then call respective handlers
+    private void dispatch(final PGNotification[] notifications) {
+        final Map<String, Set<String>> payloadsPerChannel = new HashMap<>();
+        for (final PGNotification n : notifications) {
+            payloadsPerChannel.computeIfAbsent(n.getName(), c -> new LinkedHashSet<>()).add(n.getParameter());
+        }
+        for (final Map.Entry<String, Set<String>> entry : payloadsPerChannel.entrySet()) {
+            final Consumer<String> handler = handlers.get(entry.getKey());
+            if (handler == null) continue;
+            for (final String payload : entry.getValue()) {
+                try {
+                    handler.accept(payload);
+                }
+                catch (Exception ex) {
+                    logger.error("Exception handling notification on channel [{}] with payload [{}] for DB [{}]. ",
+                            entry.getKey(), payload, dbConnParams.getDbUrl(), ex);
+                }
+            }
+        }
+    }
+
+}
@@ -4,11 +4,14 @@ import com.here.xyz.models.hub.Subscription;
 import com.here.xyz.pub.db.PubDatabaseHandler;
 import com.here.xyz.pub.models.JdbcConnectionParams;
 import com.here.xyz.pub.models.PubConfig;
+import com.here.xyz.pub.util.CoalescingTrigger;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.*;
+import java.util.stream.Collectors;
 
 public class PubJobHandler implements Runnable {
     private static final Logger logger = LogManager.getLogger();
@@ -17,6 +20,10 @@ public class PubJobHandler implements Runnable {
     private JdbcConnectionParams adminDBConnParams;
     // Subscription handling Thread Pool
     private static ThreadPoolExecutor subHandlingPool;
+    // Ensures one run per subscription at a time, while coalescing triggers (sweep + notifications) arriving in the meantime
+    private static final CoalescingTrigger subTrigger = new CoalescingTrigger();
+    // Active subscriptions (as per latest sweep) grouped by source spaceId, used to wake up subscriptions on notification
+    private static volatile Map<String, List<Subscription>> subsBySpaceId = Collections.emptyMap();
 
 
 
@@ -35,11 +42,13 @@ public class PubJobHandler implements Runnable {
             // Fetch all active subscriptions from AdminDB::xyz_config::xyz_subscription table
             List<Subscription> subList = PubDatabaseHandler.fetchAllSubscriptions(adminDBConnParams);
             if (subList == null || subList.isEmpty()) {
+                subsBySpaceId = Collections.emptyMap();
                 logger.debug("No active subscriptions to be processed.");
                 return;
             }
 
             logger.debug("{} active subscriptions to be processed.", subList.size());
+            subsBySpaceId = subList.stream().collect(Collectors.groupingBy(Subscription::getSource));
 
             // Distribute subscriptions amongst thread pool to perform parallel publish (configurable poolSize e.g. 10 threads)
             distributeSubscriptionProcessing(pubCfg, subList);
@@ -54,29 +63,50 @@ public class PubJobHandler implements Runnable {
 
 
 
-    // Blocking function which distributes subscriptions to a thread pool and waits for all threads to complete
-    private void distributeSubscriptionProcessing(final PubConfig pubCfg, final List<Subscription> subList) throws InterruptedException, ExecutionException {
-        // create thread pool (if doesn't exist already)
-        if (subHandlingPool == null) {
-            subHandlingPool = new ThreadPoolExecutor(pubCfg.TXN_PUB_TPOOL_CORE_SIZE,
-                    pubCfg.TXN_PUB_TPOOL_MAX_SIZE,
-                    pubCfg.TXN_PUB_TPOOL_KEEP_ALIVE_SEC,
-                    TimeUnit.SECONDS,
-                    new SynchronousQueue<>(), // queue with zero capacity
-                    new ThreadPoolExecutor.CallerRunsPolicy()); // on reaching queue limit, caller thread itself is used for execution
+    /*
+    * Called (on a listener thread) when transactions of the given space became publishable.
+    * Wakes up all active subscriptions of that space.
+    */
+    public static void onTransactionsSequenced(final PubConfig pubCfg, final JdbcConnectionParams adminDBConnParams, final String spaceId) {
+        final List<Subscription> subList = subsBySpaceId.get(spaceId);
+        if (subList == null) {
+            return;
         }
-        // distribute subscriptions to thread pool
-        final List<Future> fList = new ArrayList<Future>(subList.size());
+        logger.debug("Transactions sequenced for spaceId [{}], waking up {} subscriptions.", spaceId, subList.size());
         for (final Subscription sub : subList) {
-            final Future f = subHandlingPool.submit(new PubSubscriptionHandler(pubCfg, adminDBConnParams, sub));
-            fList.add(f);
+            subTrigger.trigger(getSubHandlingPool(pubCfg), sub.getId(), new PubSubscriptionHandler(pubCfg, adminDBConnParams, sub, false),
+                    PubSubscriptionHandler::merge);
         }
+    }
+
+
+
+    // Non-blocking function which distributes subscriptions to a thread pool
+    private void distributeSubscriptionProcessing(final PubConfig pubCfg, final List<Subscription> subList) {
+        // distribute subscriptions to thread pool
         // NOTE : We should not wait for completion of all threads, otherwise one buzy/long thread
         // can hold up restart of the entire job (thereby delaying other subscriptions as well)
-        /*
-        for (Future f : fList) {
-            f.get();
-        }*/
+        for (final Subscription sub : subList) {
+            subTrigger.trigger(getSubHandlingPool(pubCfg), sub.getId(), new PubSubscriptionHandler(pubCfg, adminDBConnParams, sub, true),
+                    PubSubscriptionHandler::merge);
+        }
+    }
+
+
+
+    // create thread pool (if doesn't exist already)
+    private static synchronized ThreadPoolExecutor getSubHandlingPool(final PubConfig pubCfg) {
+        if (subHandlingPool == null) {
+            subHandlingPool = new ThreadPoolExecutor(pubCfg.TXN_PUB_TPOOL_MAX_SIZE,
+                    pubCfg.TXN_PUB_TPOOL_MAX_SIZE,
+                    pubCfg.TXN_PUB_TPOOL_KEEP_ALIVE_SEC,
+                    TimeUnit.SECONDS,
+                    // runs are queued and never executed on the caller thread (which can be a notification listener),
+                    // the queue size is bounded by the number of keys, as the CoalescingTrigger queues at most one run per key
+                    new LinkedBlockingQueue<>());
+            subHandlingPool.allowCoreThreadTimeOut(true);
+        }
+        return subHandlingPool;
     }
 
 }
@@ -3,6 +3,7 @@ package com.here.xyz.pub.handlers;
 import com.here.xyz.models.hub.Subscription;
 import com.here.xyz.pub.db.PubDatabaseHandler;
 import com.here.xyz.pub.db.PubJdbcConnectionPool;
+import com.here.xyz.pub.db.PubNotificationListener;
 import com.here.xyz.pub.models.*;
 import com.here.xyz.pub.util.CustomLinkedBlockingQueue;
 import com.here.xyz.pub.util.PubUtil;
@@ -11,6 +12,7 @@ import org.apache.logging.log4j.Logger;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -23,11 +25,32 @@ public class PubSubscriptionHandler implements Runnable{
     private PubConfig pubCfg;
     private JdbcConnectionParams adminDBConnParams;
     private Subscription sub;
+    // if false, previously resolved SpaceDB connection details are reused (to avoid AdminDB lookup on every notification)
+    private boolean refreshConnParams;
+    // SpaceDB connection details per spaceId, as resolved by the latest run
+    private static final ConcurrentHashMap<String, JdbcConnectionParams> spaceDBConnParamsCache = new ConcurrentHashMap<>();
 
     public PubSubscriptionHandler(final PubConfig pubCfg, final JdbcConnectionParams adminDBConnParams, final Subscription sub) {
+        this(pubCfg, adminDBConnParams, sub, true);
+    }
+
+    public PubSubscriptionHandler(final PubConfig pubCfg, final JdbcConnectionParams adminDBConnParams, final Subscription sub,
+                                  final boolean refreshConnParams) {
         this.pubCfg = pubCfg;
         this.adminDBConnParams = adminDBConnParams;
         this.sub = sub;
+        this.refreshConnParams = refreshConnParams;
+    }
+
+    // Combines a pending run with a newer one (see CoalescingTrigger): the newer subscription details are processed,
+    // while a refresh of the connection params requested by the pending run (e.g. by the sweep) is retained
+    public static Runnable merge(final Runnable pending, final Runnable latest) {
+        final PubSubscriptionHandler pendingHandler = (PubSubscriptionHandler) pending;
+        final PubSubscriptionHandler latestHandler = (PubSubscriptionHandler) latest;
+        if (!pendingHandler.refreshConnParams || latestHandler.refreshConnParams) {
+            return latest;
+        }
+        return new PubSubscriptionHandler(latestHandler.pubCfg, latestHandler.adminDBConnParams, latestHandler.sub, true);
     }
 
     // Called once per "active" subscription to be processed
@@ -57,10 +80,20 @@ public class PubSubscriptionHandler implements Runnable{
 
             // Fetch SpaceDB Connection details from AdminDB::xyz_config::xyz_space and xyz_storage tables
             // if no entry found, then log error and return
-            JdbcConnectionParams spaceDBConnParams = PubDatabaseHandler.fetchDBConnParamsForSpaceId(spaceId, adminDBConnParams);
+            JdbcConnectionParams spaceDBConnParams = refreshConnParams ? null : spaceDBConnParamsCache.get(spaceId);
             if (spaceDBConnParams==null) {
-                logger.error("Can't process subscription [{}] for spaceId [{}], as SpaceDB details couldn't be found", subId, spaceId);
-                return;
+                spaceDBConnParams = PubDatabaseHandler.fetchDBConnParamsForSpaceId(spaceId, adminDBConnParams);
+                if (spaceDBConnParams==null) {
+                    spaceDBConnParamsCache.remove(spaceId);
+                    logger.error("Can't process subscription [{}] for spaceId [{}], as SpaceDB details couldn't be found", subId, spaceId);
+                    return;
+                }
+                spaceDBConnParamsCache.put(spaceId, spaceDBConnParams);
+                // Get woken up as soon as new transactions of this space become publishable
+                if (pubCfg.ENABLE_TXN_LISTENER) {
+                    PubNotificationListener.listen(spaceDBConnParams, PubNotificationListener.CHANNEL_SEQUENCED_TXN,
+                            sequencedSpaceId -> PubJobHandler.onTransactionsSequenced(pubCfg, adminDBConnParams, sequencedSpaceId));
+                }
             }
             logger.debug("Subscription Id [{}], spaceId [{}], to be processed against database {} with user {}",
                     subId, spaceId, spaceDBConnParams.getDbUrl(), spaceDBConnParams.getUser());
@@ -72,9 +105,12 @@ public class PubSubscriptionHandler implements Runnable{
             // flag used to broadcast failure of one task across other waiting tasks in a thread pool
             final AtomicReference<Boolean> failureFlagRef = new AtomicReference<>(Boolean.FALSE);
             ExecutorService pubThreadPool = null;
+            // Fetch size starts small (low latency for few new transactions) and grows while there is a backlog
+            int fetchSize = pubCfg.TXN_PUB_FETCH_SIZE;
+            final int maxFetchSize = Math.max(pubCfg.TXN_PUB_MAX_FETCH_SIZE, pubCfg.TXN_PUB_FETCH_SIZE);
             while (
                 (txnList =
-                    PubDatabaseHandler.fetchPublishableTransactions(spaceDBConnParams, spaceId, lastTxn, pubCfg.TXN_PUB_FETCH_SIZE)
+                    PubDatabaseHandler.fetchPublishableTransactions(spaceDBConnParams, spaceId, lastTxn, fetchSize)
                 ) != null
             ) {
                 txnFound = true;
@@ -98,6 +134,10 @@ public class PubSubscriptionHandler implements Runnable{
                 int lotSize = txnList.size();
                 lastTxn.setLastTxnId( txnList.get(lotSize-1).getTxnId() );
                 lastTxn.setLastTxnRecId( txnList.get(lotSize-1).getTxnRecId() );
+                // A full lot indicates a backlog, so fetch bigger lots to reduce the number of DB round trips
+                if (lotSize >= fetchSize) {
+                    fetchSize = Math.min(fetchSize * 2, maxFetchSize);
+                }
             }
             if (!txnFound) {
                 logger.debug("No publishable transactions found for subId [{}], space [{}]", subId, spaceId);
@@ -2,6 +2,7 @@ package com.here.xyz.pub.handlers;
 
 import com.here.xyz.models.hub.Subscription;
 import com.here.xyz.pub.db.PubDatabaseHandler;
+import com.here.xyz.pub.impl.PartialPublishException;
 import com.here.xyz.pub.models.*;
 import com.here.xyz.pub.util.PubUtil;
 import org.apache.logging.log4j.LogManager;
@@ -50,6 +51,12 @@ public class PubTxnListHandler implements Runnable{
 
             // Update last txn_id in AdminDB::xyz_config::xyz_txn_pub table
             PubDatabaseHandler.saveLastTxnId(adminDBConnParams, subId, lastTxn);
+        } catch (PartialPublishException pe) {
+            logger.error("{} - Exception in publisher job for subId={}, spaceId={}, published up to {}. ",
+                    PubLogConstants.LOG_CODE_PUBLISH_ERROR, subId, spaceId, pe.getLastPublished(), pe);
+            failureFlagRef.set(Boolean.TRUE); // set the flag to broadcast to other tasks in the same thread pool
+            // Save the progress made so far, so that only the remaining transactions are published again
+            saveLastPublished(pe.getLastPublished());
         } catch (Exception ex) {
             logger.error("{} - Exception in publisher job for subId={}, spaceId={}. ",
                     PubLogConstants.LOG_CODE_PUBLISH_ERROR, subId, spaceId, ex);
@@ -57,4 +64,15 @@ public class PubTxnListHandler implements Runnable{
         }
     }
 
+    private void saveLastPublished(final PublishEntryDTO lastPublished) {
+        if (lastPublished.getLastTxnId() == lastTxnId && lastPublished.getLastTxnRecId() == lastTxnRecId) {
+            return;
+        }
+        try {
+            PubDatabaseHandler.saveLastTxnId(adminDBConnParams, sub.getId(), lastPublished);
+        } catch (Exception ex) {
+            logger.warn("Couldn't save partially published position {} for subId={}. ", lastPublished, sub.getId(), ex);
+        }
+    }
+
 }
@@ -1,10 +1,12 @@
 package com.here.xyz.pub.handlers;
 
 import com.here.xyz.pub.db.PubDatabaseHandler;
+import com.here.xyz.pub.db.PubNotificationListener;
 import com.here.xyz.pub.models.ConnectorDTO;
 import com.here.xyz.pub.models.JdbcConnectionParams;
 import com.here.xyz.pub.models.PubConfig;
 import com.here.xyz.pub.models.SeqJobRequest;
+import com.here.xyz.pub.util.CoalescingTrigger;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -18,6 +20,10 @@ public class SeqJobHandler implements Runnable {
     private JdbcConnectionParams adminDBConnParams;
     // Connector handling Thread Pool
     private static ThreadPoolExecutor connHandlingPool;
+    // Ensures one run per SpaceDB at a time, while coalescing triggers (sweep + notifications) arriving in the meantime
+    private static final CoalescingTrigger seqTrigger = new CoalescingTrigger();
+    // Sequencer requests (as per latest sweep) per SpaceDB, used to run the sequencer on notification
+    private static final Map<String, SeqJobRequest> jobRequests = new ConcurrentHashMap<>();
 
 
 
@@ -61,6 +67,11 @@ public class SeqJobHandler implements Runnable {
                 jobRequestMap.put(connector.getDbUrl(), jobReq);
             }
             logger.debug("{} sequencer requests to be processed.", jobRequestMap.size());
+            jobRequests.putAll(jobRequestMap);
+            jobRequests.keySet().retainAll(jobRequestMap.keySet());
+            if (pubCfg.ENABLE_TXN_LISTENER) {
+                listenForNewTransactions(jobRequestMap);
+            }
             // Distribute SeqJobRequest's amongst thread pool to perform parallel sequencing (configurable poolSize e.g. 10 threads)
             distributeSeqJobRequestProcessing(jobRequestMap);
             logger.debug("All sequencer requests processed");
@@ -73,32 +84,59 @@ public class SeqJobHandler implements Runnable {
 
 
 
-    // Blocking function which distributes requests to a thread pool and waits for all threads to complete
-    private void distributeSeqJobRequestProcessing(Map<String, SeqJobRequest> jobRequestMap) throws InterruptedException, ExecutionException {
-        // create thread pool (if doesn't exist already)
-        if (connHandlingPool == null) {
-            connHandlingPool = new ThreadPoolExecutor(pubCfg.TXN_SEQ_TPOOL_CORE_SIZE,
-                    pubCfg.TXN_SEQ_TPOOL_MAX_SIZE,
-                    pubCfg.TXN_SEQ_TPOOL_KEEP_ALIVE_SEC,
-                    TimeUnit.SECONDS,
-                    new SynchronousQueue<>(), // queue with zero capacity
-                    new ThreadPoolExecutor.CallerRunsPolicy()); // on reaching queue limit, caller thread itself is used for execution
+    // Get woken up as soon as new transactions get recorded in any of the SpaceDBs
+    private void listenForNewTransactions(final Map<String, SeqJobRequest> jobRequestMap) {
+        for (final SeqJobRequest jobReq : jobRequestMap.values()) {
+            final JdbcConnectionParams spaceDBConnParams = new JdbcConnectionParams();
+            spaceDBConnParams.setDbUrl(jobReq.getDbUrl());
+            spaceDBConnParams.setUser(jobReq.getUser());
+            spaceDBConnParams.setPswd(jobReq.getPswd());
+            final String dbUrl = jobReq.getDbUrl();
+            PubNotificationListener.listen(spaceDBConnParams, PubNotificationListener.CHANNEL_NEW_TXN,
+                    payload -> onNewTransactions(dbUrl));
         }
+    }
 
-        // distribute SeqJobRequest's to thread pool
-        final Set<String> dbUrlSet = jobRequestMap.keySet();
-        final List<Future> fList = new ArrayList<Future>(dbUrlSet.size());
-        for (final String dbUrl : dbUrlSet) {
-            logger.debug("SeqJob entry to be submitted to thread for DB : {}", dbUrl);
-            final Future f = connHandlingPool.submit(new SeqJobRequestHandler(adminDBConnParams, jobRequestMap.get(dbUrl)));
-            fList.add(f);
+
+
+    // Called (on a listener thread) when new transactions got recorded in the given SpaceDB
+    private void onNewTransactions(final String dbUrl) {
+        final SeqJobRequest jobReq = jobRequests.get(dbUrl);
+        if (jobReq == null) {
+            return;
         }
+        logger.debug("New transactions recorded in DB [{}], waking up sequencer.", dbUrl);
+        seqTrigger.trigger(getConnHandlingPool(pubCfg), dbUrl, new SeqJobRequestHandler(adminDBConnParams, jobReq));
+    }
+
+
+
+    // Non-blocking function which distributes requests to a thread pool
+    private void distributeSeqJobRequestProcessing(Map<String, SeqJobRequest> jobRequestMap) {
+        // distribute SeqJobRequest's to thread pool
         // NOTE : We should not wait for completion of all threads, otherwise one buzy/long thread
         // can hold up restart of the entire job (thereby delaying other sequencer jobs as well)
-        /*
-        for (Future f : fList) {
-            f.get();
-        }*/
+        for (final String dbUrl : jobRequestMap.keySet()) {
+            logger.debug("SeqJob entry to be submitted to thread for DB : {}", dbUrl);
+            seqTrigger.trigger(getConnHandlingPool(pubCfg), dbUrl, new SeqJobRequestHandler(adminDBConnParams, jobRequestMap.get(dbUrl)));
+        }
+    }
+
+
+
+    // create thread pool (if doesn't exist already)
+    private static synchronized ThreadPoolExecutor getConnHandlingPool(final PubConfig pubCfg) {
+        if (connHandlingPool == null) {
+            connHandlingPool = new ThreadPoolExecutor(pubCfg.TXN_SEQ_TPOOL_MAX_SIZE,
+                    pubCfg.TXN_SEQ_TPOOL_MAX_SIZE,
+                    pubCfg.TXN_SEQ_TPOOL_KEEP_ALIVE_SEC,
+                    TimeUnit.SECONDS,
+                    // runs are queued and never executed on the caller thread (which can be a notification listener),
+                    // the queue size is bounded by the number of keys, as the CoalescingTrigger queues at most one run per key
+                    new LinkedBlockingQueue<>());
+            connHandlingPool.allowCoreThreadTimeOut(true);
+        }
+        return connHandlingPool;
     }
 
 }
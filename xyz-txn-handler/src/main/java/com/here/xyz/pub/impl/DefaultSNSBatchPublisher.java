@@ -14,16 +14,42 @@ import org.apache.logging.log4j.Logger;
 import software.amazon.awssdk.services.sns.SnsAsyncClient;
 import software.amazon.awssdk.services.sns.model.*;
 
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
+/*
+* Publishes transactions as SNS batches, with multiple batch requests in-flight at a time.
+* To preserve the order of messages per feature, messages are partitioned into "lanes" by feature id:
+*   - each lane publishes its batches one after another (so all messages of one feature stay in order)
+*   - lanes publish concurrently (so at most TXN_PUB_MAX_IN_FLIGHT_BATCHES requests are in-flight)
+* For FIFO topics the feature id is used as message group id as well.
+* The returned checkpoint is the highest contiguous acknowledged message in the order the transactions were fetched.
+*/
 public class DefaultSNSBatchPublisher implements IPublisher {
     private static final Logger logger = LogManager.getLogger();
 
+    final private static int MAX_ALLOWED_BATCH_SIZE = 10;
+    final private static long MAX_ALLOWED_PAYLOAD_SIZE = 240*1024; // keeping some buffer below 256K
+    final private static String MSG_ID_PREFIX = "msg_idx_";
+
+    // provides the SNS client for a given AWS region
+    private final Function<String, SnsAsyncClient> snsClientProvider;
+
+    public DefaultSNSBatchPublisher() {
+        this(AwsUtil::getSnsAsyncClient);
+    }
+
+    // allows publishing with a different SNS client (e.g. the in-memory one or a fake one in tests)
+    public DefaultSNSBatchPublisher(final Function<String, SnsAsyncClient> snsClientProvider) {
+        this.snsClientProvider = snsClientProvider;
+    }
+
     // Convert and publish transactions to desired SNS Topic
     @Override
     public PublishEntryDTO publishTransactions(final PubConfig pubCfg, final Subscription sub,
@@ -32,73 +58,57 @@ public class DefaultSNSBatchPublisher implements IPublisher {
         final String subId = sub.getId();
         final String spaceId = sub.getSource();
         final String snsTopic = PubUtil.getSnsTopicARN(sub);
+        final boolean fifoTopic = snsTopic.endsWith(".fifo");
         final long lotStartTS = System.currentTimeMillis();
-        // local counters
-        final PublishEntryDTO pubDTO = new PublishEntryDTO(lastStoredTxnId, lastStoredTxnRecId);
+        // acknowledgement per message (in the order of txnList)
+        final boolean[] acked = new boolean[txnList.size()];
+        final AtomicReference<Exception> failure = new AtomicReference<>();
+        PublishEntryDTO pubDTO = new PublishEntryDTO(lastStoredTxnId, lastStoredTxnRecId);
         int publishedRecCnt = 0;
-        // Variables for batch publish
-        final int TXN_LIST_SIZE = txnList.size();
-        final int MAX_ALLOWED_BATCH_SIZE = 10;
-        final long MAX_ALLOWED_PAYLOAD_SIZE = 240*1024; // keeping some buffer below 256K
-        final String MSG_ID_PREFIX = "msg_idx_";
-        final List<PublishBatchRequestEntry> batchEntries = new ArrayList<>();
-        long aggrBatchPayloadSize = 0; // aggregated batch payload size
-        int txnRecCnt = 0;
-        int batchEntryCounter = 0;
 
         try {
             final IPubMsgMapper msgMapper = MessageUtil.getMsgMapperInstance(sub);
             // TODO : Support multi-region based on subscription configuration.
             // We may require region specific publisher job for the respective subscriptions.
-            final SnsAsyncClient snsClient = AwsUtil.getSnsAsyncClient(pubCfg.AWS_DEFAULT_REGION);
-
-            // Publish all transactions on SNS Topic (in the same order they were fetched)
-            for (final PubTransactionData txnData : txnList) {
-                txnRecCnt++;
-
-                // Convert transaction payload into expected publishable format
-                final String pubFormat = msgMapper.mapToPublishableFormat(sub, txnData);
-
-                // Prepare SNS Notification message
-                final String msg = MessageUtil.compressAndEncodeToString(pubFormat);
-                final int msgLength = msg.length();
-                final Map<String, MessageAttributeValue> msgAttrMap = populateMessageAttributeMap(txnData, sub, spaceId);
-
-                // Prepare PublishBatchEntry for current message
-                final PublishBatchRequestEntry batchEntry = PublishBatchRequestEntry.builder()
-                        .message(msg)
-                        .messageAttributes(msgAttrMap)
-                        .id(MSG_ID_PREFIX + batchEntryCounter)
-                        .build();
-
-                // publish batch if payload limit reached
-                if (msgLength+aggrBatchPayloadSize > MAX_ALLOWED_PAYLOAD_SIZE && batchEntries.size()>0) {
-                    // publish current batch
-                    publishBatchEntriesAndCheckResult(batchEntries, snsTopic, snsClient, txnList, subId, publishedRecCnt, MSG_ID_PREFIX, pubCfg, pubDTO);
-                    // update batch variables
-                    publishedRecCnt += batchEntries.size();
-                    batchEntries.clear();
-                    aggrBatchPayloadSize = 0;
-                    batchEntryCounter = 0;
-                }
+            final SnsAsyncClient snsClient = snsClientProvider.apply(pubCfg.AWS_DEFAULT_REGION);
 
-                // add current message to the batch
-                batchEntries.add(batchEntry);
-                aggrBatchPayloadSize += msgLength;
-                batchEntryCounter++;
-
-                // publish batch if count limit reached
-                if ( (batchEntries.size() >= MAX_ALLOWED_BATCH_SIZE)    // batch size exceeded
-                    || (txnRecCnt >= TXN_LIST_SIZE)     // this is last record in the list
-                ) {
-                    // publish current batch
-                    publishBatchEntriesAndCheckResult(batchEntries, snsTopic, snsClient, txnList, subId, publishedRecCnt, MSG_ID_PREFIX, pubCfg, pubDTO);
-                    // update batch variables
-                    publishedRecCnt += batchEntries.size();
-                    batchEntries.clear();
-                    aggrBatchPayloadSize = 0;
-                    batchEntryCounter = 0;
+            // Prepare batches per lane (in the same order transactions were fetched)
+            final List<List<Batch>> lanes = prepareLanes(pubCfg, sub, spaceId, txnList, msgMapper, fifoTopic);
+
+            // Publish lanes concurrently, batches within a lane sequentially
+            final List<CompletableFuture<Void>> laneFutures = new ArrayList<>(lanes.size());
+            for (final List<Batch> lane : lanes) {
+                CompletableFuture<Void> laneFuture = CompletableFuture.completedFuture(null);
+                for (final Batch batch : lane) {
+                    laneFuture = laneFuture.thenCompose(v -> {
+                        // Stop publishing further batches, once any batch has failed
+                        if (failure.get() != null) {
+                            return CompletableFuture.completedFuture(null);
+                        }
+                        return publishBatch(batch, snsTopic, snsClient)
+                                .thenAccept(result -> checkBatchResult(batch, result, txnList, acked, snsTopic, subId, pubCfg))
+                                .exceptionally(t -> {
+                                    final Throwable cause = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+                                    failure.compareAndSet(null, cause instanceof Exception ? (Exception) cause : new Exception(cause));
+                                    return null;
+                                });
+                    });
                 }
+                laneFutures.add(laneFuture);
+            }
+            CompletableFuture.allOf(laneFutures.toArray(new CompletableFuture[0])).join();
+
+            // Checkpoint only up to the highest contiguous acknowledged message
+            while (publishedRecCnt < acked.length && acked[publishedRecCnt]) {
+                publishedRecCnt++;
+            }
+            if (publishedRecCnt > 0) {
+                final PubTransactionData lastPublished = txnList.get(publishedRecCnt - 1);
+                pubDTO = new PublishEntryDTO(lastPublished.getTxnId(), lastPublished.getTxnRecId());
+            }
+            if (failure.get() != null) {
+                throw new PartialPublishException("Publishing to SNS ["+snsTopic+"] failed for subId ["+subId+"] after "
+                        + publishedRecCnt + " contiguous messages", pubDTO, failure.get());
             }
         }
         finally {
@@ -111,22 +121,81 @@ public class DefaultSNSBatchPublisher implements IPublisher {
     }
 
 
-    private void publishBatchEntriesAndCheckResult(final List<PublishBatchRequestEntry> batchEntries,
-                                   final String snsTopic, final SnsAsyncClient snsClient,
-                                   final List<PubTransactionData> txnList, final String subId,
-                                   final int publishedRecCnt, final String MSG_ID_PREFIX,
-                                   final PubConfig pubCfg, final PublishEntryDTO pubDTO) throws Exception {
+    private List<List<Batch>> prepareLanes(final PubConfig pubCfg, final Subscription sub, final String spaceId,
+                                           final List<PubTransactionData> txnList, final IPubMsgMapper msgMapper,
+                                           final boolean fifoTopic) throws Exception {
+        final int laneCnt = Math.max(1, Math.min(pubCfg.TXN_PUB_MAX_IN_FLIGHT_BATCHES, txnList.size()));
+        final List<List<Batch>> lanes = new ArrayList<>(laneCnt);
+        final Batch[] openBatches = new Batch[laneCnt];
+        for (int i = 0; i < laneCnt; i++) {
+            lanes.add(new ArrayList<>());
+        }
+
+        for (int txnRecIdx = 0; txnRecIdx < txnList.size(); txnRecIdx++) {
+            final PubTransactionData txnData = txnList.get(txnRecIdx);
+            final String featureId = txnData.getFeatureId();
+            // same feature always goes to the same lane
+            final int laneIdx = featureId == null ? 0 : Math.floorMod(featureId.hashCode(), laneCnt);
+
+            // Convert transaction payload into expected publishable format
+            final String pubFormat = msgMapper.mapToPublishableFormat(sub, txnData);
+
+            // Prepare SNS Notification message
+            final String msg = MessageUtil.compressAndEncodeToString(pubFormat);
+            final int msgLength = msg.length();
+
+            // close the current batch of the lane, if payload or count limit is reached
+            Batch batch = openBatches[laneIdx];
+            if (batch != null && (msgLength + batch.payloadSize > MAX_ALLOWED_PAYLOAD_SIZE || batch.entries.size() >= MAX_ALLOWED_BATCH_SIZE)) {
+                batch = null;
+            }
+            if (batch == null) {
+                batch = new Batch();
+                openBatches[laneIdx] = batch;
+                lanes.get(laneIdx).add(batch);
+            }
+
+            // Prepare PublishBatchEntry for current message
+            final PublishBatchRequestEntry.Builder entryBuilder = PublishBatchRequestEntry.builder()
+                    .message(msg)
+                    .messageAttributes(populateMessageAttributeMap(txnData, sub, spaceId))
+                    .id(MSG_ID_PREFIX + batch.entries.size());
+            if (fifoTopic) {
+                entryBuilder.messageGroupId(featureId == null ? spaceId : featureId)
+                        .messageDeduplicationId(txnData.getTxnId() + "_" + txnData.getTxnRecId());
+            }
+            batch.entries.add(entryBuilder.build());
+            batch.txnRecIndexes.add(txnRecIdx);
+            batch.payloadSize += msgLength;
+        }
+        return lanes;
+    }
+
+
+    private CompletableFuture<PublishBatchResponse> publishBatch(final Batch batch, final String snsTopic, final SnsAsyncClient snsClient) {
         // Prepare batch request
         final PublishBatchRequest batchRequest = PublishBatchRequest.builder()
                 .topicArn(snsTopic)
-                .publishBatchRequestEntries(batchEntries)
+                .publishBatchRequestEntries(batch.entries)
                 .build();
-        // Publish the batch request
-        final CompletableFuture<PublishBatchResponse> futureResponse = snsClient.publishBatch(batchRequest);
-        final PublishBatchResponse result = futureResponse.join();
-        for (int i = 0; i < batchEntries.size(); i++) {
+        // Publish the batch request (without waiting for the result)
+        try {
+            return snsClient.publishBatch(batchRequest);
+        }
+        catch (Exception ex) {
+            final CompletableFuture<PublishBatchResponse> failedResponse = new CompletableFuture<>();
+            failedResponse.completeExceptionally(ex);
+            return failedResponse;
+        }
+    }
+
+
+    private void checkBatchResult(final Batch batch, final PublishBatchResponse result,
+                                  final List<PubTransactionData> txnList, final boolean[] acked,
+                                  final String snsTopic, final String subId, final PubConfig pubCfg) {
+        for (int i = 0; i < batch.entries.size(); i++) {
             final String matchStr = MSG_ID_PREFIX + i;
-            final int txnRecIdx = publishedRecCnt + i;
+            final int txnRecIdx = batch.txnRecIndexes.get(i);
             final long msgTxnId = txnList.get(txnRecIdx).getTxnId();
             final long msgTxnRecId = txnList.get(txnRecIdx).getTxnRecId();
             final String featureId = txnList.get(txnRecIdx).getFeatureId();
@@ -137,9 +206,8 @@ public class DefaultSNSBatchPublisher implements IPublisher {
                 for (final PublishBatchResultEntry success : result.successful()) {
                     if (matchStr.equals(success.id())) {
                         resultFound = true;
-                        // Record last successfully published transaction Id's
-                        pubDTO.setLastTxnId(msgTxnId);
-                        pubDTO.setLastTxnRecId(msgTxnRecId);
+                        // Record successfully published message
+                        acked[txnRecIdx] = true;
                         if (pubCfg.ENABLE_TXN_PUB_DETAILED_LOGGING) {
                             logger.info("Message no. [{}], txnId={}, txnRecId={}, featureId={}, action={}, published to SNS [{}] for subId [{}].",
                                     txnRecIdx+1, msgTxnId, msgTxnRecId, featureId, action, snsTopic, subId);
@@ -158,7 +226,7 @@ public class DefaultSNSBatchPublisher implements IPublisher {
                                     txnRecIdx + 1, msgTxnId, msgTxnRecId, featureId, action, snsTopic, subId);
                         }
                         // Raise error here to stop publishing
-                        throw new Exception("Message no. ["+txnRecIdx+1+"], txnId="+msgTxnId+", " +
+                        throw new IllegalStateException("Message no. ["+(txnRecIdx+1)+"], txnId="+msgTxnId+", " +
                                 "txnRecId="+msgTxnRecId+", failed while publishing to SNS ["+snsTopic+"] for subId ["+subId+"]");
                     }
                 }
@@ -170,7 +238,7 @@ public class DefaultSNSBatchPublisher implements IPublisher {
                             txnRecIdx + 1, msgTxnId, msgTxnRecId, featureId, action, snsTopic, subId);
                 }
                 // Raise error here to stop publishing
-                throw new Exception("No result found for Message no. ["+txnRecIdx+1+"], txnId="+msgTxnId+", " +
+                throw new IllegalStateException("No result found for Message no. ["+(txnRecIdx+1)+"], txnId="+msgTxnId+", " +
                         "txnRecId="+msgTxnRecId+", while publishing to SNS ["+snsTopic+"] for subId ["+subId+"]");
             }
         }
@@ -190,4 +258,11 @@ public class DefaultSNSBatchPublisher implements IPublisher {
     }
 
 
+    // One PublishBatch request, with the positions of its messages within the published txnList
+    private static class Batch {
+        private final List<PublishBatchRequestEntry> entries = new ArrayList<>(MAX_ALLOWED_BATCH_SIZE);
+        private final List<Integer> txnRecIndexes = new ArrayList<>(MAX_ALLOWED_BATCH_SIZE);
+        private long payloadSize;
+    }
+
 }
@@ -0,0 +1,84 @@
+package com.here.xyz.pub.impl;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequest;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequestEntry;
+import software.amazon.awssdk.services.sns.model.PublishBatchResponse;
+import software.amazon.awssdk.services.sns.model.PublishBatchResultEntry;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+* SNS client which keeps all published messages in memory (per topic ARN) instead of sending them anywhere.
+* Every PublishBatch request gets acknowledged asynchronously, with all its entries being successful.
+* Meant as stand-in for SNS in tests and benchmarks of the publishing pipeline (pubType "IN-MEMORY-PUBLISHER").
+* As it is used by DefaultSNSBatchPublisher, the lanes and the checkpointing of the publisher still get exercised.
+*/
+public class InMemorySnsClient {
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final Map<String, List<PublishBatchRequestEntry>> publishedEntries = new ConcurrentHashMap<>();
+
+    private static final SnsAsyncClient snsClient = (SnsAsyncClient) Proxy.newProxyInstance(SnsAsyncClient.class.getClassLoader(),
+            new Class<?>[]{SnsAsyncClient.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "publishBatch":
+                        if (args != null && args.length == 1 && args[0] instanceof PublishBatchRequest) {
+                            return publishBatch((PublishBatchRequest) args[0]);
+                        }
+                        break;
+                    case "serviceName":
+                        return "sns";
+                    case "close":
+                        return null;
+                }
+                throw new UnsupportedOperationException(method.getName()+" is not supported by the in-memory SNS client");
+            });
+
+    private InMemorySnsClient() {
+    }
+
+    // Returns the in-memory SNS client (the same one for all regions)
+    public static SnsAsyncClient getSnsAsyncClient(final String region) {
+        return snsClient;
+    }
+
+    private static CompletableFuture<PublishBatchResponse> publishBatch(final PublishBatchRequest request) {
+        return CompletableFuture.supplyAsync(() -> {
+            final List<PublishBatchRequestEntry> published = publishedEntries.computeIfAbsent(request.topicArn(),
+                    topicArn -> Collections.synchronizedList(new ArrayList<>()));
+            final List<PublishBatchResultEntry> successful = new ArrayList<>(request.publishBatchRequestEntries().size());
+            for (final PublishBatchRequestEntry entry : request.publishBatchRequestEntries()) {
+                published.add(entry);
+                successful.add(PublishBatchResultEntry.builder().id(entry.id()).messageId(entry.id()).build());
+            }
+            logger.debug("Published {} messages in memory for topic [{}].", successful.size(), request.topicArn());
+            return PublishBatchResponse.builder().successful(successful).build();
+        });
+    }
+
+    // Returns a copy of all messages published so far to the given topic ARN
+    public static List<PublishBatchRequestEntry> getPublishedEntries(final String topicArn) {
+        final List<PublishBatchRequestEntry> published = publishedEntries.get(topicArn);
+        if (published == null) {
+            return Collections.emptyList();
+        }
+        synchronized (published) {
+            return new ArrayList<>(published);
+        }
+    }
+
+    public static void clear() {
+        publishedEntries.clear();
+    }
+
+}
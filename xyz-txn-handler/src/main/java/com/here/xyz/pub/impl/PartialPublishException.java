@@ -0,0 +1,22 @@
+package com.here.xyz.pub.impl;
+
+import com.here.xyz.pub.models.PublishEntryDTO;
+
+/*
+* Raised by a publisher, if publishing of a transaction list failed after some of the transactions were published successfully.
+* Carries the highest contiguous published transaction, up to which the publish position can be saved nevertheless.
+*/
+public class PartialPublishException extends Exception {
+
+    private final PublishEntryDTO lastPublished;
+
+    public PartialPublishException(final String message, final PublishEntryDTO lastPublished, final Throwable cause) {
+        super(message, cause);
+        this.lastPublished = lastPublished;
+    }
+
+    public PublishEntryDTO getLastPublished() {
+        return lastPublished;
+    }
+
+}
@@ -17,10 +17,14 @@ public class PubConfig {
     public long TXN_PUB_JOB_INITIAL_DELAY_MS;
     public long TXN_PUB_JOB_SUBSEQUENT_DELAY_MS;
     public int TXN_PUB_FETCH_SIZE = 50;
+    // Upper bound for the fetch size, which grows while there is a backlog of transactions to be published
+    public int TXN_PUB_MAX_FETCH_SIZE = 1000;
     // One thread per subscription
     public int TXN_PUB_TPOOL_CORE_SIZE;
     public int TXN_PUB_TPOOL_MAX_SIZE;
     public long TXN_PUB_TPOOL_KEEP_ALIVE_SEC;
+    // Max. number of PublishBatch requests in-flight per subscription (messages of the same feature are never published concurrently)
+    public int TXN_PUB_MAX_IN_FLIGHT_BATCHES = 4;
     // AWS connection
     public String AWS_ACCESS_KEY_ID;
     public String AWS_SECRET_ACCESS_KEY;
@@ -35,5 +39,10 @@ public class PubConfig {
     public int TXN_SEQ_TPOOL_MAX_SIZE;
     public long TXN_SEQ_TPOOL_KEEP_ALIVE_SEC;
 
+    // Change driven processing using LISTEN/NOTIFY on the SpaceDBs.
+    // If enabled, the sequencer and publisher jobs run as a fallback sweep only (with the sweep delay below)
+    public boolean ENABLE_TXN_LISTENER;
+    public long TXN_LISTENER_SWEEP_DELAY_MS = 60000;
+
     public static String XYZ_ADMIN_DB_CFG_SCHEMA = "xyz_config"; // default config schema
 }
@@ -0,0 +1,80 @@
+package com.here.xyz.pub.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BinaryOperator;
+
+/*
+* Runs tasks per key (e.g. per subscription Id), such that triggers for the same key get coalesced:
+*   - only one run per key is in progress at any point in time (within this JVM)
+*   - any number of triggers arriving during a run, result in exactly one subsequent run
+*   - the subsequent run executes the task of the latest trigger (or the merge of the pending tasks, if a merge function is provided)
+* This way no trigger gets lost, while bursts of triggers (e.g. notifications) don't cause redundant runs.
+* The runs are always handed off to the executor, so the executor must never execute a task on the calling thread
+* (e.g. by using CallerRunsPolicy), otherwise the triggering thread (e.g. a notification listener) gets blocked.
+*/
+public class CoalescingTrigger {
+    private static final Logger logger = LogManager.getLogger();
+
+    private final ConcurrentHashMap<String, Slot> slots = new ConcurrentHashMap<>();
+
+
+    public void trigger(final Executor executor, final String key, final Runnable task) {
+        trigger(executor, key, task, (pendingTask, newTask) -> newTask);
+    }
+
+    /*
+    * Triggers a run for the given key.
+    * If a task of an earlier trigger is still waiting for its run, the given merge function decides, which task will run
+    * (it gets called with the pending task and the new task).
+    */
+    public void trigger(final Executor executor, final String key, final Runnable task, final BinaryOperator<Runnable> merge) {
+        final Slot slot = slots.computeIfAbsent(key, k -> new Slot());
+        // the task must be in place before the trigger gets counted, so that the run which sees the count also sees the task
+        slot.nextTask.accumulateAndGet(task, (pendingTask, newTask) -> pendingTask == null ? newTask : merge.apply(pendingTask, newTask));
+        if (slot.pending.getAndIncrement() > 0) {
+            // a run is already in progress, it will run once more after completion
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                int seen;
+                do {
+                    seen = slot.pending.get();
+                    final Runnable nextTask = slot.nextTask.getAndSet(null);
+                    if (nextTask == null) {
+                        // the task was already taken by the previous iteration
+                        continue;
+                    }
+                    try {
+                        nextTask.run();
+                    }
+                    catch (Exception ex) {
+                        logger.error("Exception in triggered run for key [{}]. ", key, ex);
+                    }
+                } while (!slot.pending.compareAndSet(seen, 0));
+            });
+        }
+        catch (RejectedExecutionException re) {
+            slot.nextTask.set(null);
+            slot.pending.set(0);
+            throw re;
+        }
+    }
+
+
+
+    private static class Slot {
+        // number of triggers since the start of the current run
+        private final AtomicInteger pending = new AtomicInteger();
+        // task to be executed by the next run
+        private final AtomicReference<Runnable> nextTask = new AtomicReference<>();
+    }
+
+}
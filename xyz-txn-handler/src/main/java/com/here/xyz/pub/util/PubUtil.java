@@ -4,6 +4,7 @@ import com.here.xyz.models.hub.Subscription;
 import com.here.xyz.pub.impl.DefaultSNSBatchPublisher;
 import com.here.xyz.pub.impl.DefaultSNSSinglePublisher;
 import com.here.xyz.pub.impl.IPublisher;
+import com.here.xyz.pub.impl.InMemorySnsClient;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -39,6 +40,9 @@ public class PubUtil {
                 case "DEFAULT-SNS-SINGLE-PUBLISHER":
                     publisher = new DefaultSNSSinglePublisher();
                     break;
+                case "IN-MEMORY-PUBLISHER":
+                    publisher = new DefaultSNSBatchPublisher(InMemorySnsClient::getSnsAsyncClient);
+                    break;
                 default:
                     throw new RuntimeException("Unsupported pubType ["+pubType+"] for subscription id "+sub.getId());
             }
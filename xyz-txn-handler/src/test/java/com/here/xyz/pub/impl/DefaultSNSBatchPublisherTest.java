@@ -0,0 +1,281 @@
+package com.here.xyz.pub.impl;
+
+import com.here.xyz.models.hub.Subscription;
+import com.here.xyz.models.hub.Subscription.SubscriptionConfig;
+import com.here.xyz.pub.models.PubConfig;
+import com.here.xyz.pub.models.PubTransactionData;
+import com.here.xyz.pub.models.PublishEntryDTO;
+import com.here.xyz.pub.util.PubUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
+import software.amazon.awssdk.services.sns.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequest;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequestEntry;
+import software.amazon.awssdk.services.sns.model.PublishBatchResponse;
+import software.amazon.awssdk.services.sns.model.PublishBatchResultEntry;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DefaultSNSBatchPublisherTest {
+
+    private static final String TOPIC = "arn:aws:sns:us-east-1:123456789012:test-topic";
+    private static final long LAST_STORED_TXN_ID = 99;
+    private static final long LAST_STORED_TXN_REC_ID = 0;
+
+    private FakeSnsClient snsClient;
+    private DefaultSNSBatchPublisher publisher;
+
+    @Before
+    public void setup() {
+        snsClient = new FakeSnsClient();
+        publisher = new DefaultSNSBatchPublisher(region -> snsClient.asSnsAsyncClient());
+    }
+
+    @After
+    public void tearDown() {
+        snsClient.executor.shutdownNow();
+    }
+
+    @Test
+    public void publishesAllMessagesInOrderPerFeature() throws Exception {
+        final List<PubTransactionData> txnList = transactions(60, 6);
+        final PublishEntryDTO pubDTO = publisher.publishTransactions(pubConfig(3), subscription(TOPIC), txnList,
+                LAST_STORED_TXN_ID, LAST_STORED_TXN_REC_ID);
+
+        assertPosition(txnList.get(59), pubDTO);
+        // 3 lanes with 20 messages each
+        assertEquals(6, snsClient.requests.size());
+        final List<PublishBatchRequestEntry> entries = sentEntries();
+        assertEquals(60, entries.size());
+        snsClient.requests.forEach(request -> assertEquals(TOPIC, request.topicArn()));
+        entries.forEach(entry -> assertNull(entry.messageGroupId()));
+
+        // Messages of the same feature were sent in the order of the transactions
+        final Map<String, Integer> lastSeqByFeature = new HashMap<>();
+        for (final PublishBatchRequestEntry entry : entries) {
+            final String featureId = entry.messageAttributes().get("featureId").stringValue();
+            final int seq = Integer.parseInt(entry.messageAttributes().get("seq").stringValue());
+            final Integer lastSeq = lastSeqByFeature.put(featureId, seq);
+            assertTrue("Message " + seq + " of feature " + featureId + " sent after " + lastSeq, lastSeq == null || lastSeq < seq);
+        }
+        assertEquals(6, lastSeqByFeature.size());
+
+        // Lanes were published concurrently, but never more than the configured number of requests
+        assertTrue(snsClient.maxInFlight.get() > 1);
+        assertTrue(snsClient.maxInFlight.get() <= 3);
+    }
+
+    @Test
+    public void usesFeatureIdAsMessageGroupForFifoTopics() throws Exception {
+        final List<PubTransactionData> txnList = transactions(12, 4);
+        publisher.publishTransactions(pubConfig(2), subscription(TOPIC + ".fifo"), txnList,
+                LAST_STORED_TXN_ID, LAST_STORED_TXN_REC_ID);
+
+        final List<PublishBatchRequestEntry> entries = sentEntries();
+        assertEquals(12, entries.size());
+        for (final PublishBatchRequestEntry entry : entries) {
+            assertEquals(entry.messageAttributes().get("featureId").stringValue(), entry.messageGroupId());
+        }
+        final Set<String> deduplicationIds = ConcurrentHashMap.newKeySet();
+        entries.forEach(entry -> deduplicationIds.add(entry.messageDeduplicationId()));
+        for (final PubTransactionData txnData : txnList) {
+            assertTrue(deduplicationIds.contains(txnData.getTxnId() + "_" + txnData.getTxnRecId()));
+        }
+    }
+
+    @Test
+    public void checkpointsUpToFirstFailedEntry() throws Exception {
+        // 3 lanes with one batch each, the 5th message (feature F4) fails
+        final List<PubTransactionData> txnList = transactions(12, 6);
+        snsClient.failingFeatureIds.add("F4");
+
+        final PartialPublishException pe = publishExpectingFailure(pubConfig(3), txnList);
+        assertPosition(txnList.get(3), pe.getLastPublished());
+        assertEquals(3, snsClient.requests.size());
+    }
+
+    @Test
+    public void checkpointsUpToFailedRequestAndSkipsRemainingBatches() throws Exception {
+        // 1 lane with 3 batches, the 2nd request fails
+        final List<PubTransactionData> txnList = transactions(25, 5);
+        snsClient.failingRequests.add(2);
+
+        final PartialPublishException pe = publishExpectingFailure(pubConfig(1), txnList);
+        assertPosition(txnList.get(9), pe.getLastPublished());
+        assertEquals(2, snsClient.requests.size());
+    }
+
+    @Test
+    public void keepsStoredPositionIfNothingWasPublished() throws Exception {
+        final List<PubTransactionData> txnList = transactions(5, 5);
+        snsClient.failingRequests.add(1);
+
+        final PartialPublishException pe = publishExpectingFailure(pubConfig(1), txnList);
+        assertEquals(LAST_STORED_TXN_ID, pe.getLastPublished().getLastTxnId());
+        assertEquals(LAST_STORED_TXN_REC_ID, pe.getLastPublished().getLastTxnRecId());
+    }
+
+    @Test
+    public void publishesIntoMemoryForInMemoryPubType() throws Exception {
+        final Subscription sub = subscription(TOPIC);
+        sub.getConfig().getParams().put("pubType", "IN-MEMORY-PUBLISHER");
+        final IPublisher inMemoryPublisher = PubUtil.getPubInstance(sub);
+        assertTrue(inMemoryPublisher instanceof DefaultSNSBatchPublisher);
+
+        InMemorySnsClient.clear();
+        final List<PubTransactionData> txnList = transactions(25, 5);
+        final PublishEntryDTO pubDTO = inMemoryPublisher.publishTransactions(pubConfig(2), sub, txnList,
+                LAST_STORED_TXN_ID, LAST_STORED_TXN_REC_ID);
+
+        assertPosition(txnList.get(24), pubDTO);
+        assertEquals(25, InMemorySnsClient.getPublishedEntries(TOPIC).size());
+        InMemorySnsClient.clear();
+    }
+
+
+    private PartialPublishException publishExpectingFailure(final PubConfig pubCfg, final List<PubTransactionData> txnList) throws Exception {
+        try {
+            publisher.publishTransactions(pubCfg, subscription(TOPIC), txnList, LAST_STORED_TXN_ID, LAST_STORED_TXN_REC_ID);
+        }
+        catch (PartialPublishException pe) {
+            return pe;
+        }
+        fail("PartialPublishException expected");
+        return null;
+    }
+
+    private List<PublishBatchRequestEntry> sentEntries() {
+        final List<PublishBatchRequestEntry> entries = new ArrayList<>();
+        synchronized (snsClient.requests) {
+            snsClient.requests.forEach(request -> entries.addAll(request.publishBatchRequestEntries()));
+        }
+        return entries;
+    }
+
+    private static void assertPosition(final PubTransactionData expected, final PublishEntryDTO actual) {
+        assertEquals(expected.getTxnId(), actual.getLastTxnId());
+        assertEquals(expected.getTxnRecId(), actual.getLastTxnRecId());
+    }
+
+    private static PubConfig pubConfig(final int maxInFlightBatches) {
+        final PubConfig pubCfg = new PubConfig();
+        pubCfg.TXN_PUB_MAX_IN_FLIGHT_BATCHES = maxInFlightBatches;
+        return pubCfg;
+    }
+
+    private static Subscription subscription(final String topic) {
+        final Map<String, Object> customMsgAttributes = new HashMap<>();
+        customMsgAttributes.put("seq", "$.properties.seq");
+        final Map<String, Object> params = new HashMap<>();
+        params.put("pubType", "DEFAULT-SNS-PUBLISHER");
+        params.put("msgFormat", "DEFAULT");
+        params.put("destination", topic);
+        params.put("customMsgAttributes", customMsgAttributes);
+        return new Subscription()
+                .withId("test-sub")
+                .withSource("test-space")
+                .withConfig(new SubscriptionConfig().withParams(params));
+    }
+
+    /*
+    * Creates the given number of transaction records (3 records per transaction),
+    * which update the given number of features in a round-robin manner.
+    */
+    private static List<PubTransactionData> transactions(final int count, final int featureCount) {
+        final List<PubTransactionData> txnList = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final String featureId = "F" + (i % featureCount);
+            final PubTransactionData txnData = new PubTransactionData();
+            txnData.setTxnId(LAST_STORED_TXN_ID + 1 + i / 3);
+            txnData.setTxnRecId(i % 3 + 1);
+            txnData.setAction("UPDATE");
+            txnData.setFeatureId(featureId);
+            txnData.setJsonData("{\"type\":\"Feature\",\"id\":\"" + featureId + "\",\"properties\":{\"seq\":\"" + i + "\"}}");
+            txnList.add(txnData);
+        }
+        return txnList;
+    }
+
+
+    /*
+    * Fake SNS client, which acknowledges every PublishBatch request asynchronously after a short delay.
+    * Entries of failing feature ids are reported as failed, failing requests (by their number, starting with 1)
+    * complete exceptionally.
+    */
+    private static class FakeSnsClient {
+        private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(4);
+        private final List<PublishBatchRequest> requests = Collections.synchronizedList(new ArrayList<>());
+        private final Set<String> failingFeatureIds = ConcurrentHashMap.newKeySet();
+        private final Set<Integer> failingRequests = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+
+        private SnsAsyncClient asSnsAsyncClient() {
+            return (SnsAsyncClient) Proxy.newProxyInstance(SnsAsyncClient.class.getClassLoader(), new Class<?>[]{SnsAsyncClient.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "publishBatch":
+                                if (args != null && args.length == 1 && args[0] instanceof PublishBatchRequest) {
+                                    return publishBatch((PublishBatchRequest) args[0]);
+                                }
+                                break;
+                            case "serviceName":
+                                return "sns";
+                            case "close":
+                                return null;
+                        }
+                        throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+
+        private CompletableFuture<PublishBatchResponse> publishBatch(final PublishBatchRequest request) {
+            final int requestNo;
+            synchronized (requests) {
+                requests.add(request);
+                requestNo = requests.size();
+            }
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+
+            final CompletableFuture<PublishBatchResponse> response = new CompletableFuture<>();
+            executor.schedule(() -> {
+                inFlight.decrementAndGet();
+                if (failingRequests.contains(requestNo)) {
+                    response.completeExceptionally(new IllegalStateException("Simulated failure of request " + requestNo));
+                    return;
+                }
+                final List<PublishBatchResultEntry> successful = new ArrayList<>();
+                final List<BatchResultErrorEntry> failed = new ArrayList<>();
+                for (final PublishBatchRequestEntry entry : request.publishBatchRequestEntries()) {
+                    if (failingFeatureIds.contains(entry.messageAttributes().get("featureId").stringValue())) {
+                        failed.add(BatchResultErrorEntry.builder().id(entry.id()).code("InternalError").senderFault(false).build());
+                    }
+                    else {
+                        successful.add(PublishBatchResultEntry.builder().id(entry.id()).messageId("m" + requestNo + "_" + entry.id()).build());
+                    }
+                }
+                response.complete(PublishBatchResponse.builder().successful(successful).failed(failed).build());
+            }, 20, TimeUnit.MILLISECONDS);
+            return response;
+        }
+    }
+
+}